@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.asset;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Validates addresses of many {@link Asset}s in bulk, eg the addresses of all altcoin
+ * payment accounts being imported or of all offers in the offer book.
+ * <p>
+ * Assets are looked up once by ticker symbol and each list of addresses is then passed
+ * to the validator of its asset. Validators are created once per asset and compile their
+ * regular expressions at creation, so validating many addresses does not repeat any
+ * setup work. If several assets share a ticker symbol (eg the mainnet, testnet and
+ * regtest variants of an asset) the first one wins, so callers which care about the
+ * network should pass in only the assets of their network.
+ *
+ * @see AssetRegistry
+ */
+public class AddressValidationEngine {
+
+    private final Map<String, Asset> assetsByTickerSymbol;
+
+    public AddressValidationEngine() {
+        this(new AssetRegistry().stream());
+    }
+
+    public AddressValidationEngine(Stream<Asset> assets) {
+        this.assetsByTickerSymbol = assets.collect(Collectors.toMap(Asset::getTickerSymbol,
+                asset -> asset,
+                (first, second) -> first,
+                LinkedHashMap::new));
+    }
+
+    public Optional<Asset> getAsset(String tickerSymbol) {
+        return Optional.ofNullable(assetsByTickerSymbol.get(tickerSymbol));
+    }
+
+    public AddressValidationResult validate(String tickerSymbol, String address) {
+        return getAsset(tickerSymbol)
+                .map(asset -> asset.validateAddress(address))
+                .orElseGet(() -> unknownAsset(tickerSymbol));
+    }
+
+    /**
+     * @return The validation results in the same order as the given addresses.
+     */
+    public List<AddressValidationResult> validateAll(String tickerSymbol, List<String> addresses) {
+        Optional<Asset> asset = getAsset(tickerSymbol);
+        if (!asset.isPresent()) {
+            AddressValidationResult result = unknownAsset(tickerSymbol);
+            return addresses.stream().map(address -> result).collect(Collectors.toList());
+        }
+
+        return validateAll(asset.get(), addresses);
+    }
+
+    /**
+     * @return The validation results per ticker symbol, each in the same order as the
+     * given addresses.
+     */
+    public Map<String, List<AddressValidationResult>> validateAll(Map<String, List<String>> addressesByTickerSymbol) {
+        Map<String, List<AddressValidationResult>> resultsByTickerSymbol = new LinkedHashMap<>();
+        addressesByTickerSymbol.forEach((tickerSymbol, addresses) ->
+                resultsByTickerSymbol.put(tickerSymbol, validateAll(tickerSymbol, addresses)));
+        return resultsByTickerSymbol;
+    }
+
+    public static List<AddressValidationResult> validateAll(Asset asset, List<String> addresses) {
+        return addresses.stream().map(asset::validateAddress).collect(Collectors.toList());
+    }
+
+    private static AddressValidationResult unknownAsset(String tickerSymbol) {
+        return AddressValidationResult.invalidAddress("Unknown asset " + tickerSymbol);
+    }
+}
@@ -17,6 +17,8 @@
 
 package bisq.asset;
 
+import java.util.regex.Pattern;
+
 /**
  * We only support the grinbox format as it is currently the only tool which offers a validation options of sender.
  * Beside that is the IP:port format very insecure with MITM attacks.
@@ -58,6 +60,10 @@ public class GrinAddressValidator implements AddressValidator {
     private static final String DOMAIN = "[a-zA-Z0-9][a-zA-Z0-9-]{1,61}[a-zA-Z0-9]\\.[a-zA-Z]{2,}$";
     private static final String KEY = "[a-km-zA-HJ-NP-Z1-9]{52}$";
 
+    private static final Pattern KEY_PATTERN = Pattern.compile("^" + KEY);
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile("^" + DOMAIN);
+    private static final Pattern PORT_PATTERN = Pattern.compile("^" + PORT);
+
     public GrinAddressValidator() {
     }
 
@@ -87,13 +93,13 @@ public class GrinAddressValidator implements AddressValidator {
             key = address;
         }
 
-        if (!key.matches("^" + KEY))
+        if (!KEY_PATTERN.matcher(key).matches())
             return AddressValidationResult.invalidAddress("Invalid key (only Grinbox format is supported)");
 
-        if (domain != null && !domain.matches("^" + DOMAIN))
+        if (domain != null && !DOMAIN_PATTERN.matcher(domain).matches())
             return AddressValidationResult.invalidAddress("Invalid domain (only Grinbox format is supported)");
 
-        if (port != null && !port.matches("^" + PORT))
+        if (port != null && !PORT_PATTERN.matcher(port).matches())
             return AddressValidationResult.invalidAddress("Invalid port (only Grinbox format is supported)");
 
         return AddressValidationResult.validAddress();
@@ -17,15 +17,18 @@
 
 package bisq.asset;
 
+import java.util.regex.Pattern;
+
 /**
- * Validates an {@link Asset} address against a given regular expression.
+ * Validates an {@link Asset} address against a given regular expression. The expression
+ * is compiled once when the validator is created.
  *
  * @author Chris Beams
  * @since 0.7.0
  */
 public class RegexAddressValidator implements AddressValidator {
 
-    private final String regex;
+    private final Pattern pattern;
     private final String errorMessageI18nKey;
 
     public RegexAddressValidator(String regex) {
@@ -33,13 +36,13 @@ public class RegexAddressValidator implements AddressValidator {
     }
 
     public RegexAddressValidator(String regex, String errorMessageI18nKey) {
-        this.regex = regex;
+        this.pattern = Pattern.compile(regex);
         this.errorMessageI18nKey = errorMessageI18nKey;
     }
 
     @Override
     public AddressValidationResult validate(String address) {
-        if (!address.matches(regex))
+        if (!pattern.matcher(address).matches())
             if (errorMessageI18nKey == null) return AddressValidationResult.invalidStructure();
             else return AddressValidationResult.invalidAddress("", errorMessageI18nKey);
 
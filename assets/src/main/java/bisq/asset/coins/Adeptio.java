@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class Adeptio extends Coin {
 
     public Adeptio() {
@@ -31,13 +33,15 @@ public class Adeptio extends Coin {
 
     public static class AdeptioAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[A][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public AdeptioAddressValidator() {
             super(new AdeptioParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[A][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
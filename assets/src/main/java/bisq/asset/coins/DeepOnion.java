@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class DeepOnion extends Coin {
     public DeepOnion() {
         super("DeepOnion", "ONION", new DeepOnionAddressValidator());
@@ -29,13 +31,15 @@ public class DeepOnion extends Coin {
 
     public static class DeepOnionAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[D][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public DeepOnionAddressValidator() {
             super(new DeepOnionParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[D][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
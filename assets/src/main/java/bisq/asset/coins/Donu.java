@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class Donu extends Coin {
 
     public Donu() {
@@ -31,13 +33,15 @@ public class Donu extends Coin {
 
     public static class DonuAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[N][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public DonuAddressValidator() {
             super(new DonuParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[N][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
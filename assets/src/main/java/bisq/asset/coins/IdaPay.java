@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class IdaPay extends Coin {
 
     public IdaPay() {
@@ -31,13 +33,15 @@ public class IdaPay extends Coin {
 
     public static class IdaPayAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[CD][a-km-zA-HJ-NP-Z1-9]{33}$");
+
         public IdaPayAddressValidator() {
             super(new IdaPayParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[CD][a-km-zA-HJ-NP-Z1-9]{33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class MobitGlobal extends Coin {
 
     public MobitGlobal() {
@@ -31,13 +33,15 @@ public class MobitGlobal extends Coin {
 
     public static class MobitGlobalAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[M][a-zA-Z1-9]{33}$");
+
         public MobitGlobalAddressValidator() {
             super(new MobitGlobalParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[M][a-zA-Z1-9]{33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class MonetaryUnit extends Coin {
 
     public MonetaryUnit() {
@@ -31,13 +33,15 @@ public class MonetaryUnit extends Coin {
 
     public static class MonetaryUnitAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[7][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public MonetaryUnitAddressValidator() {
             super(new MonetaryUnitParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[7][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
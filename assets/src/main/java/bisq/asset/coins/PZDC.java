@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class PZDC extends Coin {
 
     public PZDC() {
@@ -31,13 +33,15 @@ public class PZDC extends Coin {
 
     public static class PZDCAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[P][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public PZDCAddressValidator() {
             super(new PZDCParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[P][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
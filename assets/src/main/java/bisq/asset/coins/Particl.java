@@ -22,6 +22,8 @@ import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 import bisq.asset.AddressValidationResult;
 
+import java.util.regex.Pattern;
+
 
 public class Particl extends Coin {
     public Particl() {
@@ -36,13 +38,15 @@ public class Particl extends Coin {
     }
    public static class ParticlMainNetAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[RP][a-km-zA-HJ-NP-Z1-9]{25,34}$");
+
         public ParticlMainNetAddressValidator() {
             super(new ParticlMainNetParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[RP][a-km-zA-HJ-NP-Z1-9]{25,34}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
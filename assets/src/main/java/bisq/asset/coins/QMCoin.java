@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class QMCoin extends Coin {
 
     public QMCoin() {
@@ -31,13 +33,15 @@ public class QMCoin extends Coin {
 
     public static class QMCoinAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[Q][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public QMCoinAddressValidator() {
             super(new QMCoinParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[Q][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
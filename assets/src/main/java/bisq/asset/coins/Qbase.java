@@ -5,6 +5,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class Qbase extends Coin {
     public Qbase() {
         super("Qbase", "QBS", new Qbase.QbaseAddressValidator());
@@ -13,13 +15,15 @@ public class Qbase extends Coin {
 
     public static class QbaseAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[B][a-km-zA-HJ-NP-Z1-9]{25,34}$");
+
         public QbaseAddressValidator() {
             super(new Qbase.QbaseParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[B][a-km-zA-HJ-NP-Z1-9]{25,34}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
@@ -22,6 +22,8 @@ import bisq.asset.Base58AddressValidator;
 import bisq.asset.Coin;
 import bisq.asset.NetworkParametersAdapter;
 
+import java.util.regex.Pattern;
+
 public class SUB1X extends Coin {
 
     public SUB1X() {
@@ -31,13 +33,15 @@ public class SUB1X extends Coin {
 
     public static class SUB1XAddressValidator extends Base58AddressValidator {
 
+        private static final Pattern ADDRESS_PATTERN = Pattern.compile("^[Z][a-km-zA-HJ-NP-Z1-9]{24,33}$");
+
         public SUB1XAddressValidator() {
             super(new SUB1XParams());
         }
 
         @Override
         public AddressValidationResult validate(String address) {
-            if (!address.matches("^[Z][a-km-zA-HJ-NP-Z1-9]{24,33}$"))
+            if (!ADDRESS_PATTERN.matcher(address).matches())
                 return AddressValidationResult.invalidStructure();
 
             return super.validate(address);
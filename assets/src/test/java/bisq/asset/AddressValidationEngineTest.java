@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.asset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AddressValidationEngineTest {
+
+    private static final List<String> DONU_ADDRESSES = Arrays.asList(
+            "NS5cGWdERahJ11pn12GoV5Jb7nsLzdr3kP",
+            "NScgetCW5bqDTVWFH3EYNMtTo5Rc#DxD6B",
+            "NU7nCzyQiAtTxzXLnDsJu4NhwQqrnPyJZj",
+            "neeAy35aQirpmTARHEXpP8uTmpPCcSD9Qn",
+            "");
+
+    private final AddressValidationEngine engine = new AddressValidationEngine();
+
+    @Test
+    public void testValidateAllKeepsOrder() {
+        assertEquals(Arrays.asList(true, false, true, false, false), isValid(engine.validateAll("DONU", DONU_ADDRESSES)));
+    }
+
+    @Test
+    public void testValidateAllByTickerSymbol() {
+        Map<String, List<String>> addressesByTickerSymbol = new LinkedHashMap<>();
+        addressesByTickerSymbol.put("DONU", DONU_ADDRESSES);
+        addressesByTickerSymbol.put("XMR", Arrays.asList(
+                "4BJHitCigGy6giuYsJFP26KGkTKiQDJ6HJP1pan2ir2CCV8Twc2WWmo4fu1NVXt8XLGYAkjo5cJ3yH68Lfz9ZXEUJ9MeqPW",
+                "4BJHitCigGy6giuYsJFP26KGkTKiQDJ6HJP1pan2ir2CCV8Twc2WWmo4fu1NVXt8XLGYAkjo5cJ3yH68Lfz9ZXEUJ9MeqP"));
+        addressesByTickerSymbol.put("UNKNOWN", Arrays.asList("NS5cGWdERahJ11pn12GoV5Jb7nsLzdr3kP"));
+
+        Map<String, List<AddressValidationResult>> results = engine.validateAll(addressesByTickerSymbol);
+
+        assertEquals(Arrays.asList("DONU", "XMR", "UNKNOWN"), new ArrayList<>(results.keySet()));
+        assertEquals(Arrays.asList(true, false, true, false, false), isValid(results.get("DONU")));
+        assertEquals(Arrays.asList(true, false), isValid(results.get("XMR")));
+        assertEquals(Arrays.asList(false), isValid(results.get("UNKNOWN")));
+    }
+
+    @Test
+    public void testUnknownAsset() {
+        assertFalse(engine.getAsset("UNKNOWN").isPresent());
+        assertTrue(engine.getAsset("XMR").isPresent());
+        assertFalse(engine.validate("UNKNOWN", "NS5cGWdERahJ11pn12GoV5Jb7nsLzdr3kP").isValid());
+    }
+
+    private static List<Boolean> isValid(List<AddressValidationResult> results) {
+        return results.stream().map(AddressValidationResult::isValid).collect(Collectors.toList());
+    }
+}
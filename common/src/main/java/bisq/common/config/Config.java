@@ -110,6 +110,7 @@ public class Config {
     public static final String RPC_BLOCK_NOTIFICATION_PORT = "rpcBlockNotificationPort";
     public static final String RPC_BLOCK_NOTIFICATION_HOST = "rpcBlockNotificationHost";
     public static final String DUMP_BLOCKCHAIN_DATA = "dumpBlockchainData";
+    public static final String DUMP_BLOCKCHAIN_DATA_AS_NDJSON = "dumpBlockchainDataAsNdjson";
     public static final String FULL_DAO_NODE = "fullDaoNode";
     public static final String GENESIS_TX_ID = "genesisTxId";
     public static final String GENESIS_BLOCK_HEIGHT = "genesisBlockHeight";
@@ -205,6 +206,7 @@ public class Config {
     public final int rpcBlockNotificationPort;
     public final String rpcBlockNotificationHost;
     public final boolean dumpBlockchainData;
+    public final boolean dumpBlockchainDataAsNdjson;
     public final boolean fullDaoNode;
     public final boolean fullDaoNodeOptionSetExplicitly;
     public final String genesisTxId;
@@ -595,6 +597,14 @@ public class Config {
                         .ofType(boolean.class)
                         .defaultsTo(false);
 
+        ArgumentAcceptingOptionSpec<Boolean> dumpBlockchainDataAsNdjsonOpt =
+                parser.accepts(DUMP_BLOCKCHAIN_DATA_AS_NDJSON, "If set to true the dumped blockchain data is " +
+                        "appended to newline delimited json segment files instead of rewriting the file with all blocks. " +
+                        "Only used if dumpBlockchainData is set.")
+                        .withRequiredArg()
+                        .ofType(boolean.class)
+                        .defaultsTo(false);
+
         ArgumentAcceptingOptionSpec<Boolean> fullDaoNodeOpt =
                 parser.accepts(FULL_DAO_NODE, "If set to true the node requests the blockchain data via RPC requests " +
                         "from Bitcoin Core and provide the validated BSQ txs to the network. It requires that the " +
@@ -777,6 +787,7 @@ public class Config {
             this.rpcBlockNotificationPort = options.valueOf(rpcBlockNotificationPortOpt);
             this.rpcBlockNotificationHost = options.valueOf(rpcBlockNotificationHostOpt);
             this.dumpBlockchainData = options.valueOf(dumpBlockchainDataOpt);
+            this.dumpBlockchainDataAsNdjson = options.valueOf(dumpBlockchainDataAsNdjsonOpt);
             this.fullDaoNode = options.valueOf(fullDaoNodeOpt);
             this.fullDaoNodeOptionSetExplicitly = options.has(fullDaoNodeOpt);
             this.genesisTxId = options.valueOf(genesisTxIdOpt);
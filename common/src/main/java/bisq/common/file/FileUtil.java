@@ -56,21 +56,26 @@ public class FileUtil {
                 if (dirName.contains("."))
                     dirName = dirName.replace(".", "_");
                 File backupFileDir = new File(Paths.get(backupDir.getAbsolutePath(), dirName).toString());
-                if (!backupFileDir.exists())
-                    if (!backupFileDir.mkdir())
-                        log.warn("make backupFileDir failed.\nBackupFileDir=" + backupFileDir.getAbsolutePath());
+                rollingBackup(origFile, backupFileDir, numMaxBackupFiles);
+            }
+        }
+    }
 
-                File backupFile = new File(Paths.get(backupFileDir.getAbsolutePath(), new Date().getTime() + "_" + fileName).toString());
+    // Copies the file to backupFileDir and keeps only the latest numMaxBackupFiles backups there
+    public static void rollingBackup(File file, File backupFileDir, int numMaxBackupFiles) {
+        if (!backupFileDir.exists())
+            if (!backupFileDir.mkdirs())
+                log.warn("make backupFileDir failed.\nBackupFileDir=" + backupFileDir.getAbsolutePath());
 
-                try {
-                    Files.copy(origFile, backupFile);
+        File backupFile = new File(Paths.get(backupFileDir.getAbsolutePath(), new Date().getTime() + "_" + file.getName()).toString());
 
-                    pruneBackup(backupFileDir, numMaxBackupFiles);
-                } catch (IOException e) {
-                    log.error("Backup key failed: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
+        try {
+            Files.copy(file, backupFile);
+
+            pruneBackup(backupFileDir, numMaxBackupFiles);
+        } catch (IOException e) {
+            log.error("Backup key failed: " + e.getMessage());
+            e.printStackTrace();
         }
     }
 
@@ -79,6 +79,12 @@ public class JsonFileManager {
         getExecutor().execute(() -> writeToDisc(json, fileName));
     }
 
+    public void deleteFile(String fileName) {
+        File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        if (jsonFile.exists() && !jsonFile.delete())
+            log.warn("Cannot delete file {}", jsonFile);
+    }
+
     public void writeToDisc(String json, String fileName) {
         File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
         File tempFile = null;
@@ -21,18 +21,23 @@ import bisq.common.Timer;
 import bisq.common.UserThread;
 import bisq.common.app.DevEnv;
 import bisq.common.config.Config;
+import bisq.common.crypto.Hash;
 import bisq.common.file.CorruptedStorageFileHandler;
 import bisq.common.file.FileUtil;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistableRecordList;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.GcUtil;
+import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
 
 import com.google.inject.Inject;
 
 import javax.inject.Named;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import java.io.File;
@@ -40,14 +45,19 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -71,6 +81,17 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * the write operations got triggered way too often specially for the very frequent changes at SequenceNumberMap and
  * the very large DaoState (at dao blockchain sync that slowed down sync).
  *
+ * If the persistable is a {@link PersistableRecordList} we store each item as a separate record (see
+ * {@link RecordStore}) and only write the records which have changed. If a change is limited to one item the caller
+ * can use requestPersistence(item), then we serialize only that item and the added items at the next write.
+ *
+ * Data persisted in the single file format of previous versions is read as before and gets migrated at the first write.
+ * We keep the single file and write it as well when we flush all data, e.g. at shut down, so that a downgrade to a
+ * version without record storage finds the current data. The record store keeps the hash of the single file whose
+ * content the records include. If the single file has another hash, it got written by a previous version after a
+ * downgrade and we read it instead of the records. That can be removed once we do not support downgrades to versions
+ * before record storage anymore.
+ *
  *
  * @param <T>   The type of the {@link PersistableEnvelope} to be written or read from disk
  */
@@ -82,6 +103,11 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
+    // Reads happen mostly at startup where all persisted data and the resource stores get requested at once. We use a
+    // pool limited to the number of cores to not let many large files get parsed concurrently.
+    private static final int NUM_READ_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService READ_EXECUTOR = Utilities.getListeningExecutorService("PersistenceManager-read-%d",
+            NUM_READ_THREADS, NUM_READ_THREADS, 60, new LinkedBlockingQueue<>());
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
 
@@ -150,7 +176,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
                     // We get our result handler called from the write thread so we map back to user thread.
                     persistenceManager.persistNow(() ->
-                            UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown)));
+                            UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown)),
+                            true);
                 } else {
                     onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown);
                 }
@@ -216,6 +243,18 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     private String fileName;
     private Source source = Source.PRIVATE_LOW_PRIO;
     private Path usedTempFilePath;
+    @Nullable
+    private RecordStore recordStore;
+    // With a record store we only serialize the records of items we got a requestPersistence call for and of added
+    // items. Only accessed from the user thread.
+    private final Set<String> dirtyRecordIds = new HashSet<>();
+    private final Set<String> persistedRecordIds = new HashSet<>();
+    private boolean allRecordsDirty = true;
+    // Set from the write thread if writing the records failed
+    private volatile boolean recordWriteFailed;
+    // Hash of the single file we have read instead of the records. Set from the read thread.
+    @Nullable
+    private volatile byte[] legacyFileHashToInclude;
     private volatile boolean persistenceRequested;
     @Nullable
     private Timer timer;
@@ -273,6 +312,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         this.fileName = fileName;
         this.source = source;
         storageFile = new File(dir, fileName);
+        if (persistable instanceof PersistableRecordList) {
+            recordStore = new RecordStore(dir, fileName, source.getNumMaxBackupFiles());
+        }
         ALL_PERSISTENCE_MANAGERS.put(fileName, this);
     }
 
@@ -317,7 +359,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             return;
         }
 
-        new Thread(() -> {
+        READ_EXECUTOR.execute(() -> {
             T persisted = getPersisted(fileName);
             if (persisted != null) {
                 UserThread.execute(() -> {
@@ -328,7 +370,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             } else {
                 UserThread.execute(orElse);
             }
-        }, "PersistenceManager-read-" + fileName).start();
+        });
     }
 
     // API for synchronous reading of data. Not recommended to be used in application code.
@@ -347,6 +389,17 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
         readCalled.set(true);
 
+        byte[] legacyFileHash = null;
+        if (recordStore != null && fileName.equals(this.fileName)) {
+            legacyFileHash = getLegacyFileHash();
+            // If the single file is not included in the records we have not migrated yet, or a version before record
+            // storage has written it after a downgrade. In both cases we read it and replace the records at the next
+            // write.
+            if (recordStore.exists() && (legacyFileHash == null || recordStore.includesLegacyFile(legacyFileHash))) {
+                return getPersistedFromRecordStore();
+            }
+        }
+
         File storageFile = new File(dir, fileName);
         if (!storageFile.exists()) {
             return null;
@@ -358,6 +411,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
             log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
+            legacyFileHashToInclude = legacyFileHash;
             return persistableEnvelope;
         } catch (Throwable t) {
             log.error("Reading {} failed with {}.", fileName, t.getMessage());
@@ -374,6 +428,62 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                 corruptedStorageFileHandler.addFile(storageFile.getName());
             }
         }
+
+        // The records are older than the single file, but we do not lose all data
+        if (recordStore != null && legacyFileHash != null && recordStore.exists()) {
+            return getPersistedFromRecordStore();
+        }
+        return null;
+    }
+
+    @Nullable
+    private T getPersistedFromRecordStore() {
+        RecordStore recordStore = checkNotNull(this.recordStore);
+        long ts = System.currentTimeMillis();
+        try {
+            List<protobuf.PersistableEnvelope> protos = recordStore.read(recordFileName -> {
+                if (corruptedStorageFileHandler != null) {
+                    corruptedStorageFileHandler.addFile(recordFileName);
+                }
+            });
+
+            // Each record is an envelope holding a list with a single item, so we merge them into the first one
+            PersistableRecordList<PersistablePayload> result = null;
+            List<PersistablePayload> items = new ArrayList<>();
+            for (protobuf.PersistableEnvelope proto : protos) {
+                //noinspection unchecked
+                PersistableRecordList<PersistablePayload> recordList =
+                        (PersistableRecordList<PersistablePayload>) persistenceProtoResolver.fromProto(proto);
+                items.addAll(recordList.getList());
+                if (result == null) {
+                    result = recordList;
+                }
+            }
+            if (result == null) {
+                return null;
+            }
+
+            result.setAll(items);
+            log.info("Reading {} records of {} completed in {} ms", items.size(), fileName,
+                    System.currentTimeMillis() - ts);
+            //noinspection unchecked
+            return (T) result;
+        } catch (Throwable t) {
+            log.error("Reading records of {} failed with {}.", fileName, t.getMessage());
+            try {
+                // We keep a backup which might be used for recovery
+                File recordDir = recordStore.getRecordDir();
+                FileUtil.removeAndBackupFile(dir, recordDir, recordDir.getName(), "backup_of_corrupted_data");
+                DevEnv.logErrorAndThrowIfDevMode(t.toString());
+            } catch (IOException e1) {
+                e1.printStackTrace();
+                log.error(e1.getMessage());
+                // We swallow Exception if backup fails
+            }
+            if (corruptedStorageFileHandler != null) {
+                corruptedStorageFileHandler.addFile(fileName);
+            }
+        }
         return null;
     }
 
@@ -383,6 +493,27 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void requestPersistence() {
+        allRecordsDirty = true;
+        doRequestPersistence();
+    }
+
+    /**
+     * If the persistable is a {@link PersistableRecordList} only the record of the given item and the records of added
+     * items get serialized and written at the next persist call. Only to be used if the change is limited to that
+     * item, otherwise use requestPersistence().
+     *
+     * @param item  The item of the list which has changed.
+     */
+    public void requestPersistence(PersistablePayload item) {
+        if (recordStore != null) {
+            dirtyRecordIds.add(getRecordList().getRecordId(item));
+        } else {
+            allRecordsDirty = true;
+        }
+        doRequestPersistence();
+    }
+
+    private void doRequestPersistence() {
         if (flushAtShutdownCalled) {
             log.warn("We have started the shut down routine already. We ignore that requestPersistence call.");
             return;
@@ -411,8 +542,31 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     }
 
     public void persistNow(@Nullable Runnable completeHandler) {
+        persistNow(completeHandler, false);
+    }
+
+    private void persistNow(@Nullable Runnable completeHandler, boolean writeLegacyFile) {
         long ts = System.currentTimeMillis();
         try {
+            if (recordStore != null) {
+                // Same as below, but we convert each changed item to its own envelope. Converting to bytes and comparing
+                // with the written records is done at the write thread. At shut down we serialize all items to be on
+                // the safe side if we might have missed a requestPersistence call, as we do it for single files.
+                List<Tuple2<String, protobuf.PersistableEnvelope>> records = toRecordProtos(flushAtShutdownCalled);
+                // When we flush all data we write the single file as well, see class comment
+                protobuf.PersistableEnvelope serialized = writeLegacyFile ?
+                        (protobuf.PersistableEnvelope) persistable.toPersistableMessage() :
+                        null;
+                getWriteToDiskExecutor().execute(() -> writeRecordsToDisk(records, serialized, completeHandler));
+
+                long duration = System.currentTimeMillis() - ts;
+                if (duration > 100) {
+                    log.info("Serializing {} records of {} took {} msec",
+                            records.stream().filter(record -> record.second != null).count(), fileName, duration);
+                }
+                return;
+            }
+
             // The serialisation is done on the user thread to avoid threading issue with potential mutations of the
             // persistable object. Keeping it on the user thread we are in a synchronize model.
             protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
@@ -506,6 +660,110 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+    // Returns the record ids of all items in list order, with the envelope of each item which needs to be written or
+    // null if the item has not changed since the last persist call
+    private List<Tuple2<String, protobuf.PersistableEnvelope>> toRecordProtos(boolean serializeAll) {
+        PersistableRecordList<PersistablePayload> recordList = getRecordList();
+        List<PersistablePayload> items = recordList.getList();
+        List<String> recordIds = items.stream().map(recordList::getRecordId).collect(Collectors.toList());
+        // The RecordStore distinguishes records with the same id by their position, so we cannot skip any of those
+        boolean hasDuplicateIds = new HashSet<>(recordIds).size() < recordIds.size();
+        if (recordWriteFailed || hasDuplicateIds) {
+            recordWriteFailed = false;
+            serializeAll = true;
+        }
+
+        List<Tuple2<String, protobuf.PersistableEnvelope>> records = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            String recordId = recordIds.get(i);
+            boolean changed = serializeAll || allRecordsDirty || dirtyRecordIds.contains(recordId) ||
+                    !persistedRecordIds.contains(recordId);
+            records.add(new Tuple2<>(recordId,
+                    changed ? (protobuf.PersistableEnvelope) recordList.toRecordProtoMessage(items.get(i)) : null));
+        }
+
+        allRecordsDirty = false;
+        dirtyRecordIds.clear();
+        persistedRecordIds.clear();
+        persistedRecordIds.addAll(recordIds);
+        return records;
+    }
+
+    private PersistableRecordList<PersistablePayload> getRecordList() {
+        //noinspection unchecked
+        return (PersistableRecordList<PersistablePayload>) persistable;
+    }
+
+    private void writeRecordsToDisk(List<Tuple2<String, protobuf.PersistableEnvelope>> records,
+                                    @Nullable protobuf.PersistableEnvelope serialized,
+                                    @Nullable Runnable completeHandler) {
+        if (!allServicesInitialized.get()) {
+            log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
+            // The changed records did not get written, so the next write needs all records
+            recordWriteFailed = true;
+            UserThread.execute(completeHandler);
+            return;
+        }
+
+        long ts = System.currentTimeMillis();
+        RecordStore recordStore = checkNotNull(this.recordStore);
+        boolean recordsWritten = false;
+        try {
+            int numWritten = recordStore.write(records);
+            recordsWritten = true;
+
+            // The records include the single file we have read instead of them now
+            byte[] legacyFileHash = legacyFileHashToInclude;
+            if (legacyFileHash != null) {
+                recordStore.setIncludedLegacyFile(legacyFileHash);
+                legacyFileHashToInclude = null;
+                log.info("Migrated {} to record based storage", fileName);
+            }
+
+            long duration = System.currentTimeMillis() - ts;
+            if (duration > 100) {
+                log.info("Writing {} of {} records of {} completed in {} msec",
+                        numWritten, records.size(), fileName, duration);
+            }
+        } catch (Throwable t) {
+            recordStore.onWriteFailed();
+            recordWriteFailed = true;
+            log.error("Error at writing records, storageFile={}", fileName, t);
+        }
+
+        if (serialized != null) {
+            writeToDisk(serialized, null);
+            // If writing the records failed the single file is newer and gets read at the next start
+            byte[] legacyFileHash = getLegacyFileHash();
+            if (recordsWritten && legacyFileHash != null) {
+                try {
+                    recordStore.setIncludedLegacyFile(legacyFileHash);
+                } catch (IOException e) {
+                    log.error("Error at writing the hash of {}", fileName, e);
+                }
+            }
+        }
+
+        persistenceRequested = false;
+        if (completeHandler != null) {
+            UserThread.execute(completeHandler);
+        }
+    }
+
+    @Nullable
+    private byte[] getLegacyFileHash() {
+        if (!storageFile.exists()) {
+            return null;
+        }
+
+        try {
+            return Hash.getSha256Hash(Files.readAllBytes(storageFile.toPath()));
+        } catch (IOException e) {
+            log.error("Reading {} failed with {}.", fileName, e.getMessage());
+            return null;
+        }
+    }
+
     private ExecutorService getWriteToDiskExecutor() {
         if (writeToDiskExecutor == null) {
             String name = "Write-" + fileName + "_to-disk";
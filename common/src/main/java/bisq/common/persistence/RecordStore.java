@@ -0,0 +1,377 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.crypto.Hash;
+import bisq.common.file.FileUtil;
+import bisq.common.util.Tuple2;
+import bisq.common.util.Utilities;
+
+import com.google.common.base.Charsets;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the items of a {@link bisq.common.proto.persistable.PersistableRecordList} as separate record files in a
+ * directory, so that a persist call only writes the records which have changed since the last write.
+ *
+ * Each record file contains a delimited PersistableEnvelope with a list holding only that item. The file name carries
+ * the generation of the store at which the record was written, which serves as the version of the record. The index
+ * file lists the record files of the current state in list order. It is replaced atomically after all new record files
+ * have been written, so it is the commit point of a write. Record files which are not referenced by the index anymore
+ * get deleted after the index was written.
+ *
+ * Before the index gets replaced we copy it to the backup directory, and record files get copied there before they
+ * get deleted. As with the rolling backups of single files we keep source.getNumMaxBackupFiles() backups of the index
+ * and of each record. The record files referenced by a backed up index are either still in the record directory or
+ * in the backups of the records, prefixed with the backup time.
+ *
+ * The legacy_file_hash file holds the hash of the single file of previous versions which the records include, see
+ * {@link PersistenceManager}.
+ *
+ * Reading happens once at startup from the read thread, writing from the single write thread of the
+ * PersistenceManager. We synchronize anyway to be on the safe side.
+ */
+@Slf4j
+class RecordStore {
+    private static final String INDEX_FILE_NAME = "index";
+    private static final String RECORDS_BACKUP_DIR_NAME = "records";
+    private static final String LEGACY_FILE_HASH_FILE_NAME = "legacy_file_hash";
+    private static final String INDEX_HEADER = "records_v1";
+    private static final String TEMP_FILE_PREFIX = "temp_";
+    private static final Pattern SAFE_KEY_PATTERN = Pattern.compile("[A-Za-z0-9_\\-]{1,128}");
+
+    private final File recordDir;
+    private final File indexFile;
+    private final File legacyFileHashFile;
+    private final File backupDir;
+    private final int numMaxBackupFiles;
+    // Records referenced by the index file on disk, in list order
+    private final Map<String, Record> writtenRecords = new LinkedHashMap<>();
+    private long generation;
+    private boolean requiresCleanup = true;
+    private boolean requiresFullWrite;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    RecordStore(File dir, String fileName, int numMaxBackupFiles) {
+        this.numMaxBackupFiles = numMaxBackupFiles;
+        recordDir = new File(dir, fileName + "_records");
+        indexFile = new File(recordDir, INDEX_FILE_NAME);
+        legacyFileHashFile = new File(recordDir, LEGACY_FILE_HASH_FILE_NAME);
+        backupDir = Paths.get(dir.getAbsolutePath(), "backup", "backups_" + recordDir.getName().replace(".", "_"))
+                .toFile();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean exists() {
+        return indexFile.exists();
+    }
+
+    File getRecordDir() {
+        return recordDir;
+    }
+
+    /**
+     * @param corruptedRecordHandler    Called with the file name of a record which could not be read. The record is
+     *                                  skipped and the file is moved to the backup_of_corrupted_data directory.
+     * @return The envelopes of all records in list order.
+     * @throws IOException If the index file cannot be read.
+     */
+    synchronized List<protobuf.PersistableEnvelope> read(Consumer<String> corruptedRecordHandler) throws IOException {
+        List<Record> records = readIndex();
+        writtenRecords.clear();
+        List<protobuf.PersistableEnvelope> result = new ArrayList<>();
+        for (Record record : records) {
+            File file = new File(recordDir, record.getFileName());
+            try {
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(new ByteArrayInputStream(bytes));
+                if (proto == null) {
+                    throw new IOException("Record file is empty");
+                }
+                result.add(proto);
+                writtenRecords.put(record.key, new Record(record.key, record.version, Hash.getSha256Hash(bytes)));
+            } catch (Throwable t) {
+                log.error("Reading record {} failed with {}.", file, t.getMessage());
+                try {
+                    // We keep a backup which might be used for recovery
+                    FileUtil.removeAndBackupFile(recordDir.getParentFile(), file,
+                            recordDir.getName() + "_" + file.getName(), "backup_of_corrupted_data");
+                } catch (IOException e) {
+                    log.error(e.getMessage());
+                    // We swallow Exception if backup fails
+                }
+                corruptedRecordHandler.accept(file.getName());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes all records which have changed since the last write and commits the new state by replacing the index.
+     * Records which are not in the list anymore get removed.
+     *
+     * @param records   Tuples of record id and the envelope holding only that record, in list order. The envelope is
+     *                  null if the record has not changed since the last write, in which case we keep the written
+     *                  record. After a failed write all envelopes are required.
+     * @return The number of record files written.
+     * @throws IOException If writing failed or if the envelope of a record we have not written is missing.
+     */
+    synchronized int write(List<Tuple2<String, protobuf.PersistableEnvelope>> records) throws IOException {
+        if (!recordDir.exists() && !recordDir.mkdirs()) {
+            throw new IOException("Creating directory " + recordDir + " failed");
+        }
+
+        if (generation == 0 && indexFile.exists()) {
+            // We have not read the store (e.g. read failed), so we need to get the generation from the index to not
+            // overwrite any referenced record file. We do not know the hashes of those records, so all get written.
+            writtenRecords.clear();
+            readIndex().forEach(record -> writtenRecords.put(record.key, record));
+        }
+
+        long newGeneration = generation + 1;
+        Map<String, Record> newRecords = new LinkedHashMap<>();
+        int numWritten = 0;
+        for (Tuple2<String, protobuf.PersistableEnvelope> tuple : records) {
+            String key = toKey(tuple.first);
+            // Ids are expected to be unique, but we must not lose an item if that is not the case
+            String uniqueKey = key;
+            for (int i = 1; newRecords.containsKey(uniqueKey); i++) {
+                uniqueKey = key + "-" + i;
+            }
+
+            if (tuple.second == null) {
+                Record previous = writtenRecords.get(uniqueKey);
+                if (previous == null || requiresFullWrite) {
+                    throw new IOException("Record " + uniqueKey + " is not written yet");
+                }
+                newRecords.put(uniqueKey, previous);
+                continue;
+            }
+
+            byte[] bytes = toDelimitedBytes(tuple.second);
+            byte[] hash = Hash.getSha256Hash(bytes);
+            Record previous = writtenRecords.get(uniqueKey);
+            if (previous != null && Arrays.equals(previous.hash, hash)) {
+                newRecords.put(uniqueKey, previous);
+            } else {
+                Record record = new Record(uniqueKey, newGeneration, hash);
+                writeFile(new File(recordDir, record.getFileName()), bytes);
+                newRecords.put(uniqueKey, record);
+                numWritten++;
+            }
+        }
+
+        boolean unchanged = numWritten == 0 &&
+                new ArrayList<>(newRecords.keySet()).equals(new ArrayList<>(writtenRecords.keySet()));
+        if (unchanged && indexFile.exists() && !requiresCleanup) {
+            return 0;
+        }
+
+        if (indexFile.exists()) {
+            FileUtil.rollingBackup(indexFile, new File(backupDir, INDEX_FILE_NAME), numMaxBackupFiles);
+        }
+        writeIndex(newRecords, newGeneration);
+        generation = newGeneration;
+
+        Set<String> referencedFileNames = new HashSet<>();
+        newRecords.values().forEach(record -> referencedFileNames.add(record.getFileName()));
+        writtenRecords.values().stream()
+                .filter(record -> !referencedFileNames.contains(record.getFileName()))
+                .forEach(this::backupAndDeleteFile);
+        if (requiresCleanup) {
+            // At the first write we delete all other files not referenced by the index, e.g. left over from a crash
+            File[] files = recordDir.listFiles();
+            if (files != null) {
+                Arrays.stream(files)
+                        .filter(File::isFile)
+                        .filter(file -> !file.getName().equals(INDEX_FILE_NAME))
+                        .filter(file -> !file.getName().equals(LEGACY_FILE_HASH_FILE_NAME))
+                        .filter(file -> !referencedFileNames.contains(file.getName()))
+                        .forEach(this::deleteFile);
+            }
+            requiresCleanup = false;
+        }
+
+        writtenRecords.clear();
+        writtenRecords.putAll(newRecords);
+        requiresFullWrite = false;
+        return numWritten;
+    }
+
+    // Whether the records include the content of the single file of the PersistenceManager with the given hash
+    synchronized boolean includesLegacyFile(byte[] legacyFileHash) {
+        if (!legacyFileHashFile.exists()) {
+            return false;
+        }
+
+        try {
+            return Arrays.equals(Files.readAllBytes(legacyFileHashFile.toPath()), legacyFileHash);
+        } catch (IOException e) {
+            log.warn("Could not read {}. {}", legacyFileHashFile, e.getMessage());
+            return false;
+        }
+    }
+
+    synchronized void setIncludedLegacyFile(byte[] legacyFileHash) throws IOException {
+        writeFile(legacyFileHashFile, legacyFileHash);
+    }
+
+    // In case a write failed we might have left files which are not referenced by the index. Records we did not get
+    // written might be missing as well, so the next write has to contain all records.
+    synchronized void onWriteFailed() {
+        requiresCleanup = true;
+        requiresFullWrite = true;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<Record> readIndex() throws IOException {
+        List<String> lines = Files.readAllLines(indexFile.toPath(), Charsets.UTF_8);
+        if (lines.isEmpty()) {
+            throw new IOException("Index file is empty");
+        }
+
+        String[] header = lines.get(0).split(" ");
+        if (header.length != 2 || !header[0].equals(INDEX_HEADER)) {
+            throw new IOException("Unexpected index header: " + lines.get(0));
+        }
+
+        try {
+            generation = Long.parseLong(header[1]);
+            List<Record> records = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] tokens = line.split(" ");
+                if (tokens.length != 2) {
+                    throw new IOException("Unexpected index entry: " + line);
+                }
+                records.add(new Record(tokens[0], Long.parseLong(tokens[1]), null));
+            }
+            return records;
+        } catch (NumberFormatException e) {
+            throw new IOException("Index file is malformed", e);
+        }
+    }
+
+    private void writeIndex(Map<String, Record> records, long generation) throws IOException {
+        StringBuilder sb = new StringBuilder(INDEX_HEADER).append(" ").append(generation).append("\n");
+        records.values().forEach(record -> sb.append(record.key).append(" ").append(record.version).append("\n"));
+        writeFile(indexFile, sb.toString().getBytes(Charsets.UTF_8));
+    }
+
+    private void writeFile(File file, byte[] bytes) throws IOException {
+        File tempFile = File.createTempFile(TEMP_FILE_PREFIX + file.getName(), null, recordDir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                fileOutputStream.write(bytes);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.error("Cannot delete temp file {}", tempFile);
+            }
+        }
+    }
+
+    private void backupAndDeleteFile(Record record) {
+        File file = new File(recordDir, record.getFileName());
+        if (file.exists()) {
+            FileUtil.rollingBackup(file, Paths.get(backupDir.getAbsolutePath(), RECORDS_BACKUP_DIR_NAME, record.key)
+                    .toFile(), numMaxBackupFiles);
+        }
+        deleteFile(file);
+    }
+
+    private void deleteFile(File file) {
+        try {
+            FileUtil.deleteFileIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete obsolete record file {}. {}", file, e.getMessage());
+        }
+    }
+
+    private static byte[] toDelimitedBytes(protobuf.PersistableEnvelope proto) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(proto.getSerializedSize() + 5);
+        proto.writeDelimitedTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    // Ids are used as file names if they are safe for that, otherwise we use the hash of the id
+    private static String toKey(String recordId) {
+        if (SAFE_KEY_PATTERN.matcher(recordId).matches()) {
+            return recordId;
+        }
+        return Utilities.bytesAsHexString(Hash.getSha256Hash(recordId));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Record
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Record {
+        private final String key;
+        private final long version;
+        private final byte[] hash;
+
+        Record(String key, long version, byte[] hash) {
+            this.key = key;
+            this.version = version;
+            this.hash = hash;
+        }
+
+        String getFileName() {
+            return key + "." + version;
+        }
+    }
+}
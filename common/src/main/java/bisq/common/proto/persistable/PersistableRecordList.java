@@ -0,0 +1,40 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import com.google.protobuf.Message;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Envelope of a list where each item gets persisted as a separate record, so that at a persist call only the items
+ * which have changed need to be written to disk. See {@link bisq.common.persistence.PersistenceManager}.
+ */
+public interface PersistableRecordList<T extends PersistablePayload> extends PersistableEnvelope {
+
+    List<T> getList();
+
+    void setAll(Collection<T> collection);
+
+    // Stable and unique id of the item used as key for its record
+    String getRecordId(T item);
+
+    // A PersistableEnvelope message holding a list with only the given item, so reading can use the existing resolver
+    Message toRecordProtoMessage(T item);
+}
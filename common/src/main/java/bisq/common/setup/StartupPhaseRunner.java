@@ -0,0 +1,165 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.setup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Runs the asynchronous startup phases (e.g. reading persisted data) as soon as the phases they depend on are
+ * complete, so independent phases run in parallel. The phases are responsible for their own threading, they only
+ * must call their completeHandler once done. We record the start and duration of each phase and log them as
+ * startup profile once all phases are complete.
+ */
+@Slf4j
+public class StartupPhaseRunner {
+    public interface Phase {
+        void run(Runnable completeHandler);
+    }
+
+    @Getter
+    public static class PhaseTiming {
+        private final String name;
+        private final List<String> dependencies;
+        private boolean started;
+        private boolean complete;
+        private long startTime;
+        private long endTime;
+
+        private PhaseTiming(String name, List<String> dependencies) {
+            this.name = name;
+            this.dependencies = dependencies;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
+        }
+    }
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final Map<String, PhaseTiming> timings = new LinkedHashMap<>();
+    private Runnable completeHandler;
+    private boolean startCalled;
+    private long startTime;
+    private int numCompletedPhases;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public synchronized StartupPhaseRunner addPhase(String name, Phase phase, String... dependencies) {
+        checkState(!startCalled, "Phases must be added before start is called");
+        checkArgument(!phases.containsKey(name), "Phase " + name + " was already added");
+        Arrays.stream(dependencies).forEach(dependency ->
+                checkArgument(phases.containsKey(dependency), "Dependency " + dependency + " of phase " + name +
+                        " must be added before the phase"));
+
+        phases.put(name, phase);
+        timings.put(name, new PhaseTiming(name, List.of(dependencies)));
+        return this;
+    }
+
+    public void start() {
+        start(() -> {
+        });
+    }
+
+    public void start(Runnable completeHandler) {
+        synchronized (this) {
+            checkState(!startCalled, "start must be called only once");
+            startCalled = true;
+            this.completeHandler = completeHandler;
+            startTime = System.nanoTime();
+        }
+
+        if (phases.isEmpty()) {
+            completeHandler.run();
+        } else {
+            startReadyPhases();
+        }
+    }
+
+    public synchronized Map<String, PhaseTiming> getTimings() {
+        return new LinkedHashMap<>(timings);
+    }
+
+    public synchronized String getProfile() {
+        return "Startup profile (total " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms):\n" +
+                timings.values().stream()
+                        .map(timing -> timing.getName() +
+                                (timing.isStarted() ?
+                                        ": started at " + TimeUnit.NANOSECONDS.toMillis(timing.getStartTime() - startTime) + " ms" :
+                                        ": not started") +
+                                (timing.isComplete() ? ", took " + timing.getDurationMillis() + " ms" : ""))
+                        .collect(Collectors.joining("\n"));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Phases are started outside of the lock as they might complete synchronously
+    private void startReadyPhases() {
+        List<String> readyPhases = new ArrayList<>();
+        synchronized (this) {
+            timings.values().stream()
+                    .filter(timing -> !timing.isStarted())
+                    .filter(timing -> timing.getDependencies().stream().allMatch(dependency -> timings.get(dependency).isComplete()))
+                    .forEach(timing -> {
+                        timing.started = true;
+                        timing.startTime = System.nanoTime();
+                        readyPhases.add(timing.getName());
+                    });
+        }
+        readyPhases.forEach(name -> phases.get(name).run(() -> onPhaseComplete(name)));
+    }
+
+    private void onPhaseComplete(String name) {
+        boolean allComplete;
+        synchronized (this) {
+            PhaseTiming timing = timings.get(name);
+            if (timing.isComplete()) {
+                log.warn("Startup phase {} called its completeHandler repeatedly", name);
+                return;
+            }
+            timing.complete = true;
+            timing.endTime = System.nanoTime();
+            allComplete = ++numCompletedPhases == phases.size();
+        }
+
+        if (allComplete) {
+            log.info(getProfile());
+            completeHandler.run();
+        } else {
+            startReadyPhases();
+        }
+    }
+}
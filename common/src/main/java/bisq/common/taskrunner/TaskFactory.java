@@ -0,0 +1,62 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates task instances with a constructor handle which is resolved only once per task class and model class,
+ * instead of looking up the constructor by reflection for each task of each task runner.
+ */
+final class TaskFactory {
+    private static final ClassValue<Map<Class<?>, MethodHandle>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, MethodHandle> computeValue(Class<?> taskClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private TaskFactory() {
+    }
+
+    static <T extends Model> Task<T> create(Class<? extends Task<T>> taskClass,
+                                            Class<T> modelClass,
+                                            TaskRunner<T> taskRunner,
+                                            T model) throws Throwable {
+        MethodHandle constructor = CONSTRUCTORS.get(taskClass).computeIfAbsent(modelClass,
+                key -> resolveConstructor(taskClass, modelClass));
+        //noinspection unchecked
+        return (Task<T>) constructor.invoke(taskRunner, model);
+    }
+
+    private static MethodHandle resolveConstructor(Class<?> taskClass, Class<?> modelClass) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findConstructor(taskClass, MethodType.methodType(void.class, TaskRunner.class, modelClass))
+                    .asType(MethodType.methodType(Task.class, TaskRunner.class, Model.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Task " + taskClass.getSimpleName() +
+                    " requires a public constructor with parameters (TaskRunner, " + modelClass.getSimpleName() + ")", e);
+        }
+    }
+}
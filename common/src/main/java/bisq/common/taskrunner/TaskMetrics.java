@@ -0,0 +1,144 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of the latency histograms of all tasks executed by a {@link TaskRunner}. The latency of a task is the time
+ * from its start until it calls complete or failed, so for tasks waiting for a network response or a tx broadcast it
+ * includes that waiting time. The summary gets logged at shutdown.
+ */
+@Slf4j
+public final class TaskMetrics {
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private TaskMetrics() {
+    }
+
+    static void record(Class<?> taskClass, long durationNanos, boolean failed) {
+        HISTOGRAMS.computeIfAbsent(taskClass.getSimpleName(), LatencyHistogram::new).record(durationNanos, failed);
+    }
+
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return Map.copyOf(HISTOGRAMS);
+    }
+
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    // Tasks sorted by total time spent
+    public static String getSummary() {
+        return HISTOGRAMS.values().stream()
+                .sorted(Comparator.comparingLong(LatencyHistogram::getTotalNanos).reversed())
+                .map(LatencyHistogram::toString)
+                .collect(Collectors.joining("\n"));
+    }
+
+    public static void logSummary() {
+        if (!HISTOGRAMS.isEmpty()) {
+            log.info("Task latencies:\n{}", getSummary());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // LatencyHistogram
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Buckets with exponentially growing upper bounds, starting at 1 us. The last bucket holds all above ~2 hours.
+    public static final class LatencyHistogram {
+        private static final int NUM_BUCKETS = 34;
+
+        @Getter
+        private final String name;
+        private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder numFailed = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        LatencyHistogram(String name) {
+            this.name = name;
+        }
+
+        void record(long durationNanos, boolean failed) {
+            long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+            int bucket = Math.min(NUM_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            totalNanos.add(durationNanos);
+            if (failed) {
+                numFailed.increment();
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getNumFailed() {
+            return numFailed.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMeanMicros() {
+            long count = getCount();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(getTotalNanos()) / count;
+        }
+
+        // Upper bound of the bucket containing the given percentile
+        public long getPercentileMicros(double percentile) {
+            long count = getCount();
+            if (count == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(count * percentile / 100);
+            long sum = 0;
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                sum += buckets.get(i);
+                if (sum >= threshold) {
+                    return 1L << (i + 1);
+                }
+            }
+            return 1L << NUM_BUCKETS;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": count=" + getCount() +
+                    ", failed=" + getNumFailed() +
+                    ", mean=" + getMeanMicros() + " us" +
+                    ", p50<=" + getPercentileMicros(50) + " us" +
+                    ", p99<=" + getPercentileMicros(99) + " us" +
+                    ", total=" + TimeUnit.NANOSECONDS.toMillis(getTotalNanos()) + " ms";
+        }
+    }
+}
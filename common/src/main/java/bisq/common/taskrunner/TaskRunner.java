@@ -37,6 +37,7 @@ public class TaskRunner<T extends Model> {
     private boolean isCanceled;
 
     private Class<? extends Task<T>> currentTask;
+    private long currentTaskStartTime;
 
 
     public TaskRunner(T sharedModel, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
@@ -65,8 +66,9 @@ public class TaskRunner<T extends Model> {
             if (tasks.size() > 0) {
                 try {
                     currentTask = tasks.poll();
-                    log.info("Run task: " + currentTask.getSimpleName());
-                    currentTask.getDeclaredConstructor(TaskRunner.class, sharedModelClass).newInstance(this, sharedModel).run();
+                    log.info("Run task: {}", currentTask.getSimpleName());
+                    currentTaskStartTime = System.nanoTime();
+                    TaskFactory.create(currentTask, sharedModelClass, this, sharedModel).run();
                 } catch (Throwable throwable) {
                     throwable.printStackTrace();
                     handleErrorMessage("Error at taskRunner: " + throwable.getMessage());
@@ -82,10 +84,12 @@ public class TaskRunner<T extends Model> {
     }
 
     void handleComplete() {
+        TaskMetrics.record(currentTask, System.nanoTime() - currentTaskStartTime, false);
         next();
     }
 
     void handleErrorMessage(String errorMessage) {
+        TaskMetrics.record(currentTask, System.nanoTime() - currentTaskStartTime, true);
         log.error("Task failed: " + currentTask.getSimpleName() + " / errorMessage: " + errorMessage);
         failed = true;
         errorMessageHandler.handleErrorMessage(errorMessage);
@@ -0,0 +1,191 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import bisq.common.file.FileUtil;
+import bisq.common.util.Tuple2;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecordStoreTest {
+    private static final int NUM_MAX_BACKUP_FILES = 2;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("RecordStoreTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        assertFalse(recordStore.exists());
+
+        assertEquals(3, recordStore.write(toRecords("a", "b", "c")));
+        assertTrue(recordStore.exists());
+
+        List<protobuf.PersistableEnvelope> read = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES).read(fileName -> {
+            throw new AssertionError("Unexpected corrupted record " + fileName);
+        });
+        assertEquals(Arrays.asList("a", "b", "c"), toIds(read));
+    }
+
+    @Test
+    public void testWritesOnlyChangedRecords() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        List<Tuple2<String, protobuf.PersistableEnvelope>> records = toRecords("a", "b", "c");
+        recordStore.write(records);
+
+        assertEquals(0, recordStore.write(records));
+
+        records.set(1, toRecord("b", "b", "changed"));
+        assertEquals(1, recordStore.write(records));
+
+        // A store reading the records written before must not write them again
+        RecordStore readStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        List<protobuf.PersistableEnvelope> read = readStore.read(fileName -> {
+        });
+        assertEquals(Arrays.asList("b", "changed"), read.get(1).getNavigationPath().getPathList());
+        assertEquals(0, readStore.write(records));
+    }
+
+    @Test
+    public void testUnchangedRecordsAreKeptWithoutEnvelope() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        recordStore.write(toRecords("a", "b", "c"));
+
+        List<Tuple2<String, protobuf.PersistableEnvelope>> records = new ArrayList<>();
+        records.add(new Tuple2<>("a", null));
+        records.add(toRecord("b", "b", "changed"));
+        records.add(new Tuple2<>("c", null));
+        records.add(toRecord("d", "d"));
+        assertEquals(2, recordStore.write(records));
+
+        List<protobuf.PersistableEnvelope> read = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES)
+                .read(fileName -> {
+                });
+        assertEquals(Arrays.asList("a", "b", "c", "d"), toIds(read));
+        assertEquals(Arrays.asList("b", "changed"), read.get(1).getNavigationPath().getPathList());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingEnvelopeOfUnwrittenRecordFails() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        recordStore.write(toRecords("a"));
+
+        List<Tuple2<String, protobuf.PersistableEnvelope>> records = toRecords("a");
+        records.add(new Tuple2<>("b", null));
+        recordStore.write(records);
+    }
+
+    @Test
+    public void testRemovedRecordsGetDeleted() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        recordStore.write(toRecords("a", "b", "c"));
+        recordStore.write(toRecords("c", "a"));
+
+        // Index and two record files
+        assertEquals(3, recordStore.getRecordDir().listFiles().length);
+        List<protobuf.PersistableEnvelope> read = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES).read(fileName -> {
+        });
+        assertEquals(Arrays.asList("c", "a"), toIds(read));
+    }
+
+    @Test
+    public void testDuplicateAndUnsafeIds() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        assertEquals(3, recordStore.write(toRecords("a", "a", "../x y")));
+
+        List<protobuf.PersistableEnvelope> read = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES).read(fileName -> {
+        });
+        assertEquals(Arrays.asList("a", "a", "../x y"), toIds(read));
+    }
+
+    @Test
+    public void testCorruptedRecordIsSkipped() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        recordStore.write(toRecords("a", "b"));
+        Files.write(new File(recordStore.getRecordDir(), "a.1").toPath(), new byte[]{0x7f, 0x01});
+
+        List<String> corrupted = new ArrayList<>();
+        List<protobuf.PersistableEnvelope> read = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES).read(corrupted::add);
+        assertEquals(Arrays.asList("b"), toIds(read));
+        assertEquals(Arrays.asList("a.1"), corrupted);
+    }
+
+    @Test
+    public void testReplacedAndRemovedRecordsGetBackedUp() throws IOException {
+        RecordStore recordStore = new RecordStore(dir, "PendingTrades", NUM_MAX_BACKUP_FILES);
+        List<Tuple2<String, protobuf.PersistableEnvelope>> records = toRecords("a", "b", "c");
+        recordStore.write(records);
+        for (int i = 0; i < 3; i++) {
+            records.set(1, toRecord("b", "b", String.valueOf(i)));
+            recordStore.write(records);
+        }
+        records.remove(2);
+        recordStore.write(records);
+
+        File backupDir = new File(dir, "backup/backups_PendingTrades_records");
+        // Backups of the index written in the same millisecond replace each other
+        int numIndexBackups = new File(backupDir, "index").listFiles().length;
+        assertTrue(numIndexBackups > 0 && numIndexBackups <= NUM_MAX_BACKUP_FILES);
+        assertEquals(NUM_MAX_BACKUP_FILES, new File(backupDir, "records/b").listFiles().length);
+        assertEquals(1, new File(backupDir, "records/c").listFiles().length);
+        assertFalse(new File(backupDir, "records/a").exists());
+    }
+
+    private static List<Tuple2<String, protobuf.PersistableEnvelope>> toRecords(String... ids) {
+        return Arrays.stream(ids)
+                .map(id -> toRecord(id, id))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static Tuple2<String, protobuf.PersistableEnvelope> toRecord(String id, String... path) {
+        return new Tuple2<>(id, protobuf.PersistableEnvelope.newBuilder()
+                .setNavigationPath(protobuf.NavigationPath.newBuilder().addAllPath(Arrays.asList(path)))
+                .build());
+    }
+
+    private static List<String> toIds(List<protobuf.PersistableEnvelope> envelopes) {
+        return envelopes.stream()
+                .map(envelope -> envelope.getNavigationPath().getPath(0))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.setup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StartupPhaseRunnerTest {
+    private static final long READ_MILLIS = 200;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final List<String> completedPhases = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDependenciesAreRespected() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        StartupPhaseRunner runner = new StartupPhaseRunner()
+                .addPhase("a", simulatedRead("a"))
+                .addPhase("b", simulatedRead("b"))
+                .addPhase("c", simulatedRead("c"), "a")
+                .addPhase("d", simulatedRead("d"), "b", "c");
+        runner.start(latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(4, completedPhases.size());
+        assertTrue(completedPhases.indexOf("c") > completedPhases.indexOf("a"));
+        assertTrue(completedPhases.indexOf("d") > completedPhases.indexOf("b"));
+        assertTrue(completedPhases.indexOf("d") > completedPhases.indexOf("c"));
+        runner.getTimings().values().forEach(timing -> assertTrue(timing.isComplete()));
+    }
+
+    @Test
+    public void testIndependentPhasesRunInParallel() throws InterruptedException {
+        // Sequential baseline: 4 reads one after another
+        long sequentialStart = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(READ_MILLIS);
+        }
+        long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sequentialStart);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        StartupPhaseRunner runner = new StartupPhaseRunner();
+        for (int i = 0; i < 4; i++) {
+            runner.addPhase("host" + i, simulatedRead("host" + i));
+        }
+        long parallelStart = System.nanoTime();
+        runner.start(latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        long parallelMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - parallelStart);
+
+        assertTrue("parallel=" + parallelMillis + " ms, sequential=" + sequentialMillis + " ms",
+                parallelMillis < sequentialMillis / 2);
+    }
+
+    @Test
+    public void testSynchronousPhasesAndEmptyRunner() {
+        List<String> order = new ArrayList<>();
+        new StartupPhaseRunner()
+                .addPhase("a", handler -> {
+                    order.add("a");
+                    handler.run();
+                })
+                .addPhase("b", handler -> {
+                    order.add("b");
+                    handler.run();
+                }, "a")
+                .start(() -> order.add("complete"));
+        assertEquals(List.of("a", "b", "complete"), order);
+
+        List<String> emptyRunnerResult = new ArrayList<>();
+        new StartupPhaseRunner().start(() -> emptyRunnerResult.add("complete"));
+        assertEquals(List.of("complete"), emptyRunnerResult);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new StartupPhaseRunner().addPhase("a", Runnable::run, "b");
+    }
+
+    private StartupPhaseRunner.Phase simulatedRead(String name) {
+        return completeHandler -> executor.execute(() -> {
+            try {
+                Thread.sleep(READ_MILLIS);
+            } catch (InterruptedException ignore) {
+            }
+            completedPhases.add(name);
+            completeHandler.run();
+        });
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.taskrunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class TaskRunnerTest {
+
+    @Before
+    public void setUp() {
+        TaskMetrics.reset();
+    }
+
+    @Test
+    public void testTasksRunInOrder() {
+        TestModel model = new TestModel();
+        AtomicBoolean completed = new AtomicBoolean();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model,
+                () -> completed.set(true),
+                errorMessage -> {
+                    throw new AssertionError(errorMessage);
+                });
+        taskRunner.addTasks(FirstTask.class, SecondTask.class, FirstTask.class);
+        taskRunner.run();
+
+        assertTrue(completed.get());
+        assertEquals(Arrays.asList("FirstTask", "SecondTask", "FirstTask"), model.executed);
+
+        TaskMetrics.LatencyHistogram histogram = TaskMetrics.getHistograms().get("FirstTask");
+        assertNotNull(histogram);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getNumFailed());
+        assertEquals(1, TaskMetrics.getHistograms().get("SecondTask").getCount());
+    }
+
+    @Test
+    public void testFailedTaskStopsRunner() {
+        TestModel model = new TestModel();
+        AtomicBoolean completed = new AtomicBoolean();
+        AtomicReference<String> error = new AtomicReference<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(model, () -> completed.set(true), error::set);
+        taskRunner.addTasks(FirstTask.class, FailingTask.class, SecondTask.class);
+        taskRunner.run();
+
+        assertFalse(completed.get());
+        assertTrue(error.get().contains("FailingTask"));
+        assertEquals(Arrays.asList("FirstTask", "FailingTask"), model.executed);
+        assertEquals(1, TaskMetrics.getHistograms().get("FailingTask").getNumFailed());
+    }
+
+    @Test
+    public void testTaskWithoutMatchingConstructorFails() {
+        AtomicReference<String> error = new AtomicReference<>();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(new TestModel(), () -> {
+        }, error::set);
+        taskRunner.addTasks(TaskWithoutMatchingConstructor.class);
+        taskRunner.run();
+
+        assertNotNull(error.get());
+    }
+
+    @Test
+    public void testRunnersOfSameTasksAreIndependent() {
+        TestModel firstModel = new TestModel();
+        TestModel secondModel = new TestModel();
+        AtomicReference<String> error = new AtomicReference<>();
+        TaskRunner<TestModel> failingRunner = new TaskRunner<>(firstModel, () -> {
+        }, error::set);
+        failingRunner.addTasks(FailingTask.class, FirstTask.class);
+        AtomicBoolean completed = new AtomicBoolean();
+        TaskRunner<TestModel> taskRunner = new TaskRunner<>(secondModel,
+                () -> completed.set(true),
+                errorMessage -> {
+                    throw new AssertionError(errorMessage);
+                });
+        taskRunner.addTasks(FirstTask.class, SecondTask.class);
+
+        failingRunner.run();
+        taskRunner.run();
+
+        // The resolved constructors are shared, the tasks and their state are not
+        assertNotNull(error.get());
+        assertEquals(Arrays.asList("FailingTask"), firstModel.executed);
+        assertTrue(completed.get());
+        assertEquals(Arrays.asList("FirstTask", "SecondTask"), secondModel.executed);
+    }
+
+    @Test
+    public void testSummaryIsSortedByTotalTime() {
+        TaskMetrics.record(FirstTask.class, 1_000_000, false);
+        TaskMetrics.record(SecondTask.class, 5_000_000, false);
+        TaskMetrics.record(SecondTask.class, 5_000_000, true);
+
+        String summary = TaskMetrics.getSummary();
+        assertTrue(summary.startsWith("SecondTask: count=2, failed=1"));
+        assertTrue(summary.contains("\nFirstTask: count=1, failed=0"));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Test classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static class TestModel implements Model {
+        private final List<String> executed = new ArrayList<>();
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    public static class FirstTask extends Task<TestModel> {
+        public FirstTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.executed.add(getClass().getSimpleName());
+            complete();
+        }
+    }
+
+    public static class SecondTask extends FirstTask {
+        public SecondTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+    }
+
+    public static class FailingTask extends Task<TestModel> {
+        public FailingTask(TaskRunner<TestModel> taskHandler, TestModel model) {
+            super(taskHandler, model);
+        }
+
+        @Override
+        protected void run() {
+            model.executed.add(getClass().getSimpleName());
+            failed("Intended failure");
+        }
+    }
+
+    public static class TaskWithoutMatchingConstructor extends Task<TestModel> {
+        public TaskWithoutMatchingConstructor(TaskRunner<TestModel> taskHandler) {
+            super(taskHandler, new TestModel());
+        }
+
+        @Override
+        protected void run() {
+            complete();
+        }
+    }
+}
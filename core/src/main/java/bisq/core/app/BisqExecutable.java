@@ -31,6 +31,7 @@ import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.trade.txproof.xmr.XmrTxProofService;
 
 import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.UserThread;
 import bisq.common.app.AppModule;
@@ -42,14 +43,16 @@ import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
 import bisq.common.setup.CommonSetup;
 import bisq.common.setup.GracefulShutDownHandler;
+import bisq.common.setup.StartupPhaseRunner;
 import bisq.common.setup.UncaughtExceptionHandler;
+import bisq.common.taskrunner.TaskMetrics;
 import bisq.common.util.Utilities;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -177,14 +180,28 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
             hosts.addAll(additionalHosts);
         }
 
-        AtomicInteger remaining = new AtomicInteger(hosts.size());
+        // The hosts do not depend on each other, so they all get read in parallel. The resource stores do not depend
+        // on the persisted data either, so we start reading them as well. BisqSetup waits for them before it starts the
+        // P2P network.
+        StartupPhaseRunner startupPhaseRunner = new StartupPhaseRunner();
+        List<String> hostPhases = new ArrayList<>();
         hosts.forEach(host -> {
-            host.readPersisted(() -> {
-                if (remaining.decrementAndGet() == 0) {
-                    UserThread.execute(completeHandler);
-                }
-            });
+            String name = host.getClass().getSimpleName();
+            if (hostPhases.contains(name)) {
+                name += "-" + hostPhases.size();
+            }
+            hostPhases.add(name);
+            startupPhaseRunner.addPhase(name, host::readPersisted);
         });
+        startupPhaseRunner.addPhase("readMapsFromResources",
+                handler -> injector.getInstance(P2PDataStorage.class).readFromResources("_" + config.baseCurrencyNetwork.name(), handler));
+        startupPhaseRunner.addPhase("allPersistedDataRead",
+                handler -> UserThread.execute(() -> {
+                    completeHandler.run();
+                    handler.run();
+                }),
+                hostPhases.toArray(new String[0]));
+        startupPhaseRunner.start();
     }
 
     protected void setupAvoidStandbyMode() {
@@ -234,6 +251,7 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
             injector.getInstance(RpcService.class).shutDown();
             injector.getInstance(DaoSetup.class).shutDown();
             injector.getInstance(AvoidStandbyModeService.class).shutDown();
+            TaskMetrics.logSummary();
             log.info("OpenOfferManager shutdown started");
             injector.getInstance(OpenOfferManager.class).shutDown(() -> {
                 log.info("OpenOfferManager shutdown completed");
@@ -208,6 +208,10 @@ public final class AddressEntry implements PersistablePayload {
         return address == null;
     }
 
+    boolean isKeyPairNull() {
+        return keyPair == null;
+    }
+
     public boolean isOpenOffer() {
         return context == Context.OFFER_FUNDING || context == Context.RESERVED_FOR_TRADE;
     }
@@ -37,17 +37,28 @@ import com.google.common.collect.ImmutableList;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * The AddressEntries was previously stored as list, now as hashSet. We still keep the old name to reflect the
  * associated protobuf message.
+ *
+ * Besides the entrySet we keep lookup indexes by offerId and context, by address and by context. They are not
+ * persisted. All mutations go through add and remove so the indexes stay in sync with the entrySet, and they get
+ * rebuilt after reading from disk and once the keys have been applied at onWalletReady (the address of an entry
+ * is only known once it has its key).
  */
 @Slf4j
 public final class AddressEntryList implements PersistableEnvelope, PersistedDataHost {
@@ -55,6 +66,10 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     transient private Wallet wallet;
     private final Set<AddressEntry> entrySet = new CopyOnWriteArraySet<>();
 
+    transient private final Map<String, Map<AddressEntry.Context, Set<AddressEntry>>> entriesByOfferId = new ConcurrentHashMap<>();
+    transient private final Map<String, Set<AddressEntry>> entriesByAddress = new ConcurrentHashMap<>();
+    transient private final Map<AddressEntry.Context, Set<AddressEntry>> entriesByContext = new ConcurrentHashMap<>();
+
     @Inject
     public AddressEntryList(PersistenceManager<AddressEntryList> persistenceManager) {
         this.persistenceManager = persistenceManager;
@@ -67,6 +82,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
         persistenceManager.readPersisted(persisted -> {
                     entrySet.clear();
                     entrySet.addAll(persisted.entrySet);
+                    rebuildIndexes();
                     completeHandler.run();
                 },
                 completeHandler);
@@ -79,6 +95,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
 
     private AddressEntryList(Set<AddressEntry> entrySet) {
         this.entrySet.addAll(entrySet);
+        rebuildIndexes();
     }
 
     public static AddressEntryList fromProto(protobuf.AddressEntryList proto) {
@@ -142,6 +159,9 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
             entrySet.add(new AddressEntry(key, AddressEntry.Context.ARBITRATOR, false));
         }
 
+        // Keys are applied now, so we can index the entries by address.
+        rebuildIndexes();
+
         // In case we restore from seed words and have balance we need to add the relevant addresses to our list.
         // IssuedReceiveAddresses does not contain all addresses where we expect balance so we need to listen to
         // incoming txs at blockchain sync to add the rest.
@@ -153,7 +173,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                         if (key != null) {
                             // Address will be derived from key in getAddress method
                             log.info("Create AddressEntry for IssuedReceiveAddress. address={}", address.toString());
-                            entrySet.add(new AddressEntry(key, AddressEntry.Context.AVAILABLE, address instanceof SegwitAddress));
+                            add(new AddressEntry(key, AddressEntry.Context.AVAILABLE, address instanceof SegwitAddress));
                         } else {
                             log.warn("DeterministicKey for address {} is null", address);
                         }
@@ -179,13 +199,22 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
         return ImmutableList.copyOf(entrySet);
     }
 
+    public List<AddressEntry> getAddressEntries(String offerId, AddressEntry.Context context) {
+        Map<AddressEntry.Context, Set<AddressEntry>> entriesByContextForOfferId = entriesByOfferId.get(offerId);
+        return entriesByContextForOfferId != null ? copyOf(entriesByContextForOfferId.get(context)) : List.of();
+    }
+
+    public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
+        return copyOf(entriesByContext.get(context));
+    }
+
+    public List<AddressEntry> getAddressEntriesByAddress(String address) {
+        return copyOf(entriesByAddress.get(address));
+    }
+
     public void addAddressEntry(AddressEntry addressEntry) {
-        boolean entryWithSameOfferIdAndContextAlreadyExist = entrySet.stream().anyMatch(e -> {
-            if (addressEntry.getOfferId() != null) {
-                return addressEntry.getOfferId().equals(e.getOfferId()) && addressEntry.getContext() == e.getContext();
-            }
-            return false;
-        });
+        boolean entryWithSameOfferIdAndContextAlreadyExist = addressEntry.getOfferId() != null &&
+                !getAddressEntries(addressEntry.getOfferId(), addressEntry.getContext()).isEmpty();
         if (entryWithSameOfferIdAndContextAlreadyExist) {
             log.error("We have an address entry with the same offer ID and context. We do not add the new one. " +
                     "addressEntry={}, entrySet={}", addressEntry, entrySet);
@@ -193,7 +222,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
         }
 
         log.info("addAddressEntry: add new AddressEntry {}", addressEntry);
-        boolean setChangedByAdd = entrySet.add(addressEntry);
+        boolean setChangedByAdd = add(addressEntry);
         if (setChangedByAdd)
             requestPersistence();
     }
@@ -209,8 +238,8 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
         }
 
         log.info("swapToAvailable addressEntry to swap={}", addressEntry);
-        boolean setChangedByRemove = entrySet.remove(addressEntry);
-        boolean setChangedByAdd = entrySet.add(new AddressEntry(addressEntry.getKeyPair(),
+        boolean setChangedByRemove = remove(addressEntry);
+        boolean setChangedByAdd = add(new AddressEntry(addressEntry.getKeyPair(),
                 AddressEntry.Context.AVAILABLE,
                 addressEntry.isSegwit()));
         if (setChangedByRemove || setChangedByAdd) {
@@ -221,10 +250,10 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     public AddressEntry swapAvailableToAddressEntryWithOfferId(AddressEntry addressEntry,
                                                                AddressEntry.Context context,
                                                                String offerId) {
-        boolean setChangedByRemove = entrySet.remove(addressEntry);
+        boolean setChangedByRemove = remove(addressEntry);
         AddressEntry newAddressEntry = new AddressEntry(addressEntry.getKeyPair(), context, offerId, addressEntry.isSegwit());
         log.info("swapAvailableToAddressEntryWithOfferId newAddressEntry={}", newAddressEntry);
-        boolean setChangedByAdd = entrySet.add(newAddressEntry);
+        boolean setChangedByAdd = add(newAddressEntry);
         if (setChangedByRemove || setChangedByAdd)
             requestPersistence();
 
@@ -238,13 +267,13 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
         }
 
         log.info("setCoinLockedInMultiSigAddressEntry addressEntry={}, value={}", addressEntry, value);
-        boolean setChangedByRemove = entrySet.remove(addressEntry);
+        boolean setChangedByRemove = remove(addressEntry);
         AddressEntry entry = new AddressEntry(addressEntry.getKeyPair(),
                 addressEntry.getContext(),
                 addressEntry.getOfferId(),
                 value,
                 addressEntry.isSegwit());
-        boolean setChangedByAdd = entrySet.add(entry);
+        boolean setChangedByAdd = add(entry);
         if (setChangedByRemove || setChangedByAdd) {
             requestPersistence();
         }
@@ -273,7 +302,76 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     private boolean isAddressNotInEntries(Address address) {
-        return entrySet.stream().noneMatch(e -> address.equals(e.getAddress()));
+        return !entriesByAddress.containsKey(address.toString());
+    }
+
+    private boolean add(AddressEntry addressEntry) {
+        boolean setChangedByAdd = entrySet.add(addressEntry);
+        if (setChangedByAdd)
+            addToIndexes(addressEntry);
+        return setChangedByAdd;
+    }
+
+    private boolean remove(AddressEntry addressEntry) {
+        boolean setChangedByRemove = entrySet.remove(addressEntry);
+        if (setChangedByRemove)
+            removeFromIndexes(addressEntry);
+        return setChangedByRemove;
+    }
+
+    private void rebuildIndexes() {
+        entriesByOfferId.clear();
+        entriesByAddress.clear();
+        entriesByContext.clear();
+        entrySet.forEach(this::addToIndexes);
+    }
+
+    private void addToIndexes(AddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null) {
+            entriesByOfferId.computeIfAbsent(addressEntry.getOfferId(), offerId -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(addressEntry.getContext(), context -> new CopyOnWriteArraySet<>())
+                    .add(addressEntry);
+        }
+        entriesByContext.computeIfAbsent(addressEntry.getContext(), context -> new CopyOnWriteArraySet<>())
+                .add(addressEntry);
+        String addressString = getIndexedAddressString(addressEntry);
+        if (addressString != null) {
+            entriesByAddress.computeIfAbsent(addressString, address -> new CopyOnWriteArraySet<>())
+                    .add(addressEntry);
+        }
+    }
+
+    private void removeFromIndexes(AddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null) {
+            entriesByOfferId.computeIfPresent(addressEntry.getOfferId(), (offerId, entriesByContextForOfferId) -> {
+                entriesByContextForOfferId.computeIfPresent(addressEntry.getContext(),
+                        (context, entries) -> removeFromBucket(entries, addressEntry));
+                return entriesByContextForOfferId.isEmpty() ? null : entriesByContextForOfferId;
+            });
+        }
+        entriesByContext.computeIfPresent(addressEntry.getContext(),
+                (context, entries) -> removeFromBucket(entries, addressEntry));
+        String addressString = getIndexedAddressString(addressEntry);
+        if (addressString != null) {
+            entriesByAddress.computeIfPresent(addressString,
+                    (address, entries) -> removeFromBucket(entries, addressEntry));
+        }
+    }
+
+    // Entries read from disk have no key before onWalletReady and therefore no address yet.
+    @Nullable
+    private static String getIndexedAddressString(AddressEntry addressEntry) {
+        return addressEntry.isKeyPairNull() ? null : addressEntry.getAddressString();
+    }
+
+    // Returns null for an empty bucket so that the map drops it.
+    private static Set<AddressEntry> removeFromBucket(Set<AddressEntry> entries, AddressEntry addressEntry) {
+        entries.remove(addressEntry);
+        return entries.isEmpty() ? null : entries;
+    }
+
+    private static List<AddressEntry> copyOf(@Nullable Collection<AddressEntry> entries) {
+        return entries != null ? ImmutableList.copyOf(entries) : List.of();
     }
 
     @Override
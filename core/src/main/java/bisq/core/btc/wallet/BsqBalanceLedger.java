@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the DAO related balances of the BSQ wallet: stake locked for voting, lockup bonds and unlocking bonds.
+ *
+ * A full computation walks over all outputs of those types in the DAO state and filters them by the confirmed
+ * wallet transactions, so its costs grow with the whole DAO history. Here we only apply the delta of the confirmed
+ * wallet transactions since the last update and look each new one up once in the DAO state. Per transaction we
+ * remember only its stake, lockup and unlock outputs, which are few for any wallet. The spent, lock time and
+ * confiscation state of those outputs changes with new DAO blocks, so it is evaluated at each update.
+ */
+@Slf4j
+final class BsqBalanceLedger {
+    private final DaoStateService daoStateService;
+
+    // Confirmed wallet transactions which we have found in the DAO state. Transactions which are confirmed in the
+    // wallet but not yet parsed by the DAO are looked up again at the next update.
+    private final Set<String> knownTxIds = new HashSet<>();
+    // Only contains the known transactions with outputs relevant for the balances.
+    private final Map<String, List<TxOutput>> trackedTxOutputsByTxId = new HashMap<>();
+
+    @Getter
+    private long lockedForVotingBalance;
+    @Getter
+    private long lockupBondsBalance;
+    @Getter
+    private long unlockingBondsBalance;
+
+    BsqBalanceLedger(DaoStateService daoStateService) {
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void update(Set<String> confirmedTxIds) {
+        // Transactions can get unconfirmed again at a reorg
+        if (knownTxIds.retainAll(confirmedTxIds))
+            trackedTxOutputsByTxId.keySet().retainAll(knownTxIds);
+
+        confirmedTxIds.stream()
+                .filter(txId -> !knownTxIds.contains(txId))
+                .forEach(txId -> daoStateService.getTx(txId).ifPresent(tx -> {
+                    knownTxIds.add(txId);
+                    List<TxOutput> trackedTxOutputs = tx.getTxOutputs().stream()
+                            .filter(BsqBalanceLedger::isTracked)
+                            .collect(Collectors.toList());
+                    if (!trackedTxOutputs.isEmpty())
+                        trackedTxOutputsByTxId.put(txId, trackedTxOutputs);
+                }));
+
+        List<TxOutput> trackedTxOutputs = new ArrayList<>();
+        trackedTxOutputsByTxId.values().forEach(trackedTxOutputs::addAll);
+
+        lockedForVotingBalance = sum(trackedTxOutputs.stream()
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT)
+                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey())));
+
+        lockupBondsBalance = sum(trackedTxOutputs.stream()
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.LOCKUP_OUTPUT)
+                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
+                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId())));
+
+        unlockingBondsBalance = sum(trackedTxOutputs.stream()
+                .filter(txOutput -> txOutput.getTxOutputType() == TxOutputType.UNLOCK_OUTPUT)
+                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
+                .filter(txOutput -> !daoStateService.isLockTimeOverForUnlockTxOutput(txOutput))
+                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId())));
+    }
+
+    // Recomputes the balances from all DAO outputs and compares with our state. Only intended for dev mode as
+    // it has the costs we want to avoid with the ledger.
+    boolean isConsistentWithFullComputation(Set<String> confirmedTxIds) {
+        Predicate<TxOutput> isConfirmed = txOutput -> confirmedTxIds.contains(txOutput.getTxId());
+
+        long lockedForVoting = sum(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
+                .filter(isConfirmed));
+
+        long lockupBonds = sum(daoStateService.getLockupTxOutputs().stream()
+                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
+                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
+                .filter(isConfirmed));
+
+        long unlockingBonds = sum(daoStateService.getUnspentUnlockingTxOutputsStream()
+                .filter(isConfirmed)
+                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId())));
+
+        boolean isConsistent = lockedForVoting == lockedForVotingBalance &&
+                lockupBonds == lockupBondsBalance &&
+                unlockingBonds == unlockingBondsBalance;
+        if (!isConsistent) {
+            log.error("BSQ balance ledger is not consistent with full computation. " +
+                            "lockedForVoting: {} vs. {}, lockupBonds: {} vs. {}, unlockingBonds: {} vs. {}",
+                    lockedForVotingBalance, lockedForVoting,
+                    lockupBondsBalance, lockupBonds,
+                    unlockingBondsBalance, unlockingBonds);
+        }
+        return isConsistent;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static boolean isTracked(TxOutput txOutput) {
+        TxOutputType txOutputType = txOutput.getTxOutputType();
+        return txOutputType == TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT ||
+                txOutputType == TxOutputType.LOCKUP_OUTPUT ||
+                txOutputType == TxOutputType.UNLOCK_OUTPUT;
+    }
+
+    private static long sum(Stream<TxOutput> txOutputs) {
+        return txOutputs.mapToLong(TxOutput::getValue).sum();
+    }
+}
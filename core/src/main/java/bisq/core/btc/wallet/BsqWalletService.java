@@ -36,6 +36,7 @@ import bisq.core.provider.fee.FeeService;
 import bisq.core.user.Preferences;
 
 import bisq.common.UserThread;
+import bisq.common.app.DevEnv;
 
 import org.bitcoinj.core.Address;
 import org.bitcoinj.core.AddressFormatException;
@@ -91,6 +92,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     private final NonBsqCoinSelector nonBsqCoinSelector;
     private final DaoStateService daoStateService;
     private final UnconfirmedBsqChangeOutputListService unconfirmedBsqChangeOutputListService;
+    private final BsqBalanceLedger bsqBalanceLedger;
     private final List<Transaction> walletTransactions = new ArrayList<>();
     private final CopyOnWriteArraySet<BsqBalanceListener> bsqBalanceListeners = new CopyOnWriteArraySet<>();
     private final List<WalletTransactionsChangeListener> walletTransactionsChangeListeners = new ArrayList<>();
@@ -135,6 +137,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
         this.daoStateService = daoStateService;
         this.unconfirmedBsqChangeOutputListService = unconfirmedBsqChangeOutputListService;
         this.daoKillSwitch = daoKillSwitch;
+        bsqBalanceLedger = new BsqBalanceLedger(daoStateService);
 
         nonBsqCoinSelector.setPreferences(preferences);
 
@@ -198,7 +201,7 @@ public class BsqWalletService extends WalletService implements DaoStateListener
     @Override
     public void onParseBlockCompleteAfterBatchProcessing(Block block) {
         if (isWalletReady()) {
-            wallet.getTransactions(false).forEach(unconfirmedBsqChangeOutputListService::onTransactionConfidenceChanged);
+            unconfirmedBsqChangeOutputListService.onParseBlockComplete(wallet);
             updateBsqWalletTransactions();
         }
     }
@@ -266,23 +269,13 @@ public class BsqWalletService extends WalletService implements DaoStateListener
                 .map(Sha256Hash::toString)
                 .collect(Collectors.toSet());
 
-        lockedForVotingBalance = Coin.valueOf(daoStateService.getUnspentBlindVoteStakeTxOutputs().stream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        lockupBondsBalance = Coin.valueOf(daoStateService.getLockupTxOutputs().stream()
-                .filter(txOutput -> daoStateService.isUnspent(txOutput.getKey()))
-                .filter(txOutput -> !daoStateService.isConfiscatedLockupTxOutput(txOutput.getTxId()))
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
-
-        unlockingBondsBalance = Coin.valueOf(daoStateService.getUnspentUnlockingTxOutputsStream()
-                .filter(txOutput -> confirmedTxIdSet.contains(txOutput.getTxId()))
-                .filter(txOutput -> !daoStateService.isConfiscatedUnlockTxOutput(txOutput.getTxId()))
-                .mapToLong(TxOutput::getValue)
-                .sum());
+        bsqBalanceLedger.update(confirmedTxIdSet);
+        if (DevEnv.isDevMode())
+            bsqBalanceLedger.isConsistentWithFullComputation(confirmedTxIdSet);
+
+        lockedForVotingBalance = Coin.valueOf(bsqBalanceLedger.getLockedForVotingBalance());
+        lockupBondsBalance = Coin.valueOf(bsqBalanceLedger.getLockupBondsBalance());
+        unlockingBondsBalance = Coin.valueOf(bsqBalanceLedger.getUnlockingBondsBalance());
 
         availableConfirmedBalance = bsqCoinSelector.select(NetworkParameters.MAX_MONEY,
                 wallet.calculateAllSpendCandidates()).valueGathered;
@@ -72,8 +72,10 @@ import org.bitcoinj.wallet.listeners.WalletReorganizeEventListener;
 
 import javax.inject.Inject;
 
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.FutureCallback;
@@ -121,6 +123,7 @@ public abstract class WalletService {
     private final WalletChangeEventListener cacheInvalidationListener;
     private final AtomicReference<Multiset<Address>> txOutputAddressCache = new AtomicReference<>();
     private final AtomicReference<SetMultimap<Address, Transaction>> addressToMatchingTxSetCache = new AtomicReference<>();
+    private final AtomicReference<ListMultimap<Address, TransactionOutput>> spendCandidatesByAddressCache = new AtomicReference<>();
     @Getter
     protected Wallet wallet;
     @Getter
@@ -146,6 +149,7 @@ public abstract class WalletService {
         cacheInvalidationListener = wallet -> {
             txOutputAddressCache.set(null);
             addressToMatchingTxSetCache.set(null);
+            spendCandidatesByAddressCache.set(null);
         };
     }
 
@@ -491,22 +495,32 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
-    }
+        if (wallet == null || address == null)
+            return Coin.ZERO;
 
-    protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
         Coin balance = Coin.ZERO;
-        for (TransactionOutput output : transactionOutputs) {
-            if (!isDustAttackUtxo(output)) {
-                if (isOutputScriptConvertibleToAddress(output) &&
-                        address != null &&
-                        address.equals(getAddressFromOutput(output)))
-                    balance = balance.add(output.getValue());
-            }
+        for (TransactionOutput output : getSpendCandidatesByAddress().get(address)) {
+            // The dust filter depends on the preferences, so we do not apply it when building the cache
+            if (!isDustAttackUtxo(output))
+                balance = balance.add(output.getValue());
         }
         return balance;
     }
 
+    // Groups the spend candidates of the wallet by address, so a balance lookup does not need to
+    // iterate over all UTXOs of the wallet. The cache gets invalidated at any wallet change.
+    private ListMultimap<Address, TransactionOutput> getSpendCandidatesByAddress() {
+        return spendCandidatesByAddressCache.updateAndGet(map -> map != null ? map : computeSpendCandidatesByAddress());
+    }
+
+    private ListMultimap<Address, TransactionOutput> computeSpendCandidatesByAddress() {
+        return wallet.calculateAllSpendCandidates().stream()
+                .filter(WalletService::isOutputScriptConvertibleToAddress)
+                .collect(ImmutableListMultimap.toImmutableListMultimap(
+                        WalletService::getAddressFromOutput,
+                        Function.identity()));
+    }
+
     protected abstract boolean isDustAttackUtxo(TransactionOutput output);
 
     public Coin getBalance(TransactionOutput output) {
@@ -20,6 +20,7 @@ package bisq.core.dao.governance.merit;
 import bisq.core.dao.governance.voteresult.VoteResultException;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
 import bisq.core.dao.state.model.governance.Issuance;
 import bisq.core.dao.state.model.governance.IssuanceType;
 import bisq.core.dao.state.model.governance.MeritList;
@@ -34,6 +35,11 @@ import com.google.common.annotations.VisibleForTesting;
 
 import javax.crypto.SecretKey;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import lombok.extern.slf4j.Slf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -62,6 +68,40 @@ public class MeritConsensus {
             return 0;
         }
 
+        return getMeritStake(blindVoteTxId, meritList, blindVoteTxHeight);
+    }
+
+    /**
+     * Returns the same merit stake as getMeritStake for each of the decryptedBallotsWithMerits, mapped by their
+     * voteRevealTxId. Most of the time is spent on the signature verification of the merits, so we do that in
+     * parallel. The daoStateService is only accessed from the calling thread.
+     */
+    public static Map<String, Long> getMeritStakeByVoteRevealTxId(
+            Collection<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsCollection,
+            DaoStateService daoStateService) {
+        Map<String, Integer> blindVoteTxHeightByVoteRevealTxId = new HashMap<>();
+        decryptedBallotsWithMeritsCollection.forEach(decryptedBallotsWithMerits -> {
+            String blindVoteTxId = decryptedBallotsWithMerits.getBlindVoteTxId();
+            int blindVoteTxHeight = daoStateService.getTx(blindVoteTxId).map(Tx::getBlockHeight).orElse(0);
+            if (blindVoteTxHeight == 0) {
+                log.error("Error at getMeritStake: blindVoteTx not found in daoStateService. blindVoteTxId=" + blindVoteTxId);
+            }
+            blindVoteTxHeightByVoteRevealTxId.put(decryptedBallotsWithMerits.getVoteRevealTxId(), blindVoteTxHeight);
+        });
+
+        return decryptedBallotsWithMeritsCollection.parallelStream()
+                .collect(Collectors.toMap(DecryptedBallotsWithMerits::getVoteRevealTxId,
+                        decryptedBallotsWithMerits -> {
+                            int blindVoteTxHeight = blindVoteTxHeightByVoteRevealTxId.get(decryptedBallotsWithMerits.getVoteRevealTxId());
+                            return blindVoteTxHeight == 0 ?
+                                    0L :
+                                    getMeritStake(decryptedBallotsWithMerits.getBlindVoteTxId(),
+                                            decryptedBallotsWithMerits.getMeritList(),
+                                            blindVoteTxHeight);
+                        }));
+    }
+
+    private static long getMeritStake(String blindVoteTxId, MeritList meritList, int blindVoteTxHeight) {
         // We only use past issuance. In case we would calculate the merit after the vote result phase we have the
         // issuance from the same cycle but we must not add that to the merit.
         return meritList.getList().stream()
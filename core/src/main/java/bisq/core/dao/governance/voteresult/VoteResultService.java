@@ -239,11 +239,17 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     }
 
     private Set<DecryptedBallotsWithMerits> getDecryptedBallotsWithMeritsSet(int chainHeight) {
+        // The blind votes and ballots of the cycle are the same for all vote reveal txs, so we look them up only once.
+        Map<String, BlindVote> blindVoteByTxId = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService).stream()
+                .collect(Collectors.toMap(BlindVote::getTxId, blindVote -> blindVote, (a, b) -> a));
+        Map<String, Ballot> ballotByTxIdMap = ballotListService.getValidBallotsOfCycle().stream()
+                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot));
+
         // We want all voteRevealTxOutputs which are in current cycle we are processing.
         return daoStateService.getVoteRevealOpReturnTxOutputs().stream()
                 .filter(txOutput -> periodService.isTxInCorrectCycle(txOutput.getTxId(), chainHeight))
                 .filter(this::isInVoteRevealPhase)
-                .map(txOutputToDecryptedBallotsWithMerits(chainHeight))
+                .map(txOutputToDecryptedBallotsWithMerits(chainHeight, blindVoteByTxId, ballotByTxIdMap))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
     }
@@ -258,7 +264,10 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     }
 
     @NotNull
-    private Function<TxOutput, DecryptedBallotsWithMerits> txOutputToDecryptedBallotsWithMerits(int chainHeight) {
+    private Function<TxOutput, DecryptedBallotsWithMerits> txOutputToDecryptedBallotsWithMerits(
+            int chainHeight,
+            Map<String, BlindVote> blindVoteByTxId,
+            Map<String, Ballot> ballotByTxIdMap) {
         return voteRevealTxOutput -> {
             String voteRevealTxId = voteRevealTxOutput.getTxId();
             Cycle currentCycle = periodService.getCurrentCycle();
@@ -289,13 +298,10 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
                 byte[] hashOfBlindVoteList = VoteResultConsensus.getHashOfBlindVoteList(voteRevealOpReturnData);
                 long blindVoteStake = blindVoteStakeOutput.getValue();
 
-                List<BlindVote> blindVoteList = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
-                Optional<BlindVote> optionalBlindVote = blindVoteList.stream()
-                        .filter(blindVote -> blindVote.getTxId().equals(blindVoteTxId))
-                        .findAny();
-                if (optionalBlindVote.isPresent()) {
+                BlindVote blindVote = blindVoteByTxId.get(blindVoteTxId);
+                if (blindVote != null) {
                     return getDecryptedBallotsWithMerits(voteRevealTxId, currentCycle, voteRevealOpReturnData,
-                            blindVoteTxId, hashOfBlindVoteList, blindVoteStake, optionalBlindVote.get());
+                            blindVoteTxId, hashOfBlindVoteList, blindVoteStake, blindVote, ballotByTxIdMap);
                 }
 
                 // We are missing P2P network data
@@ -334,7 +340,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     @Nullable
     private DecryptedBallotsWithMerits getDecryptedBallotsWithMerits(
             String voteRevealTxId, Cycle currentCycle, byte[] voteRevealOpReturnData, String blindVoteTxId,
-            byte[] hashOfBlindVoteList, long blindVoteStake, BlindVote blindVote)
+            byte[] hashOfBlindVoteList, long blindVoteStake, BlindVote blindVote, Map<String, Ballot> ballotByTxIdMap)
             throws VoteResultException.MissingBallotException {
         SecretKey secretKey = VoteResultConsensus.getSecretKey(voteRevealOpReturnData);
         try {
@@ -343,7 +349,7 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
             // We lookup for the proposals we have in our local list which match the txId from the
             // voteWithProposalTxIdList and create a ballot list with the proposal and the vote from
             // the voteWithProposalTxIdList
-            BallotList ballotList = createBallotList(voteWithProposalTxIdList);
+            BallotList ballotList = createBallotList(voteWithProposalTxIdList, ballotByTxIdMap);
             log.debug("Add entry to decryptedBallotsWithMeritsSet: blindVoteTxId={}, voteRevealTxId={}, blindVoteStake={}, ballotList={}",
                     blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList);
             return new DecryptedBallotsWithMerits(hashOfBlindVoteList, blindVoteTxId, voteRevealTxId, blindVoteStake, ballotList, meritList);
@@ -357,7 +363,8 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         }
     }
 
-    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList)
+    private BallotList createBallotList(VoteWithProposalTxIdList voteWithProposalTxIdList,
+                                       Map<String, Ballot> ballotByTxIdMap)
             throws VoteResultException.MissingBallotException {
         // voteWithProposalTxIdList is the list of ProposalTxId + vote from the blind vote (decrypted vote data)
 
@@ -366,10 +373,8 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         Map<String, Optional<Vote>> voteByTxIdMap = voteWithProposalTxIdList.getList().stream()
                 .collect(Collectors.toMap(VoteWithProposalTxId::getProposalTxId, e -> Optional.ofNullable(e.getVote())));
 
-        // We make a map with proposalTxId as key and the ballot as value out of our stored ballot list.
+        // ballotByTxIdMap has the proposalTxId as key and the ballot as value out of our stored ballot list.
         // This can contain ballots which have been added later and have a null value for the vote.
-        Map<String, Ballot> ballotByTxIdMap = ballotListService.getValidBallotsOfCycle().stream()
-                .collect(Collectors.toMap(Ballot::getTxId, ballot -> ballot));
 
         // It could be that we missed some proposalPayloads.
         // If we have votes with proposals which are not found in our ballots we add it to missingBallots.
@@ -606,14 +611,16 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
     }
 
     private Map<Proposal, List<VoteWithStake>> getVoteWithStakeListByProposalMap(Set<DecryptedBallotsWithMerits> decryptedBallotsWithMeritsSet) {
+        // The merit stake of a voter is the same for all ballots, so we compute it once per voter and not per ballot.
+        Map<String, Long> meritStakeByVoteRevealTxId = MeritConsensus.getMeritStakeByVoteRevealTxId(
+                decryptedBallotsWithMeritsSet, daoStateService);
         Map<Proposal, List<VoteWithStake>> voteWithStakeByProposalMap = new HashMap<>();
         decryptedBallotsWithMeritsSet.forEach(decryptedBallotsWithMerits -> decryptedBallotsWithMerits.getBallotList()
                 .forEach(ballot -> {
                     Proposal proposal = ballot.getProposal();
                     voteWithStakeByProposalMap.putIfAbsent(proposal, new ArrayList<>());
                     List<VoteWithStake> voteWithStakeList = voteWithStakeByProposalMap.get(proposal);
-                    long sumOfAllMerits = MeritConsensus.getMeritStake(decryptedBallotsWithMerits.getBlindVoteTxId(),
-                            decryptedBallotsWithMerits.getMeritList(), daoStateService);
+                    long sumOfAllMerits = meritStakeByVoteRevealTxId.get(decryptedBallotsWithMerits.getVoteRevealTxId());
                     VoteWithStake voteWithStake = new VoteWithStake(ballot.getVote(), decryptedBallotsWithMerits.getStake(), sumOfAllMerits);
                     voteWithStakeList.add(voteWithStake);
                     log.debug("Add entry to voteWithStakeListByProposalMap: proposalTxId={}, voteWithStake={} ", proposal.getTxId(), voteWithStake);
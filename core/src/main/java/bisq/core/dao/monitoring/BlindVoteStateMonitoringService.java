@@ -70,7 +70,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * We request the state from the connected seed nodes after batch processing of BSQ is complete as well as we start
  * to listen for broadcast messages from our peers about dao state of new blocks.
  *
- * We do NOT persist that chain of hashes as there is only one per cycle and the performance costs are very low.
+ * The chain of hashes is persisted with the DAO state snapshot. At startup we continue from the persisted chain
+ * if its tip matches our data, otherwise we build it from the genesis block.
  */
 @Slf4j
 public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStateListener, BlindVoteStateNetworkService.Listener<NewBlindVoteStateHashMessage, GetBlindVoteStateHashesRequest, BlindVoteStateHash> {
@@ -89,6 +90,7 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
     private final LinkedList<BlindVoteStateBlock> blindVoteStateBlockChain = new LinkedList<>();
     @Getter
     private final LinkedList<BlindVoteStateHash> blindVoteStateHashChain = new LinkedList<>();
+    private final PersistedStateHashChain<BlindVoteStateHash> persistedBlindVoteStateHashChain = new PersistedStateHashChain<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     @Getter
     private boolean isInConflictWithNonSeedNode;
@@ -148,12 +150,13 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
         if (blindVoteStateBlockChain.isEmpty() && blockHeight > genesisBlockHeight) {
             // Takes about 150 ms for dao testnet data
             long ts = System.currentTimeMillis();
-            for (int i = genesisBlockHeight; i < blockHeight; i++) {
+            int fromHeight = applyPersistedHashChain(blockHeight);
+            for (int i = fromHeight; i < blockHeight; i++) {
                 maybeUpdateHashChain(i);
             }
             if (!blindVoteStateBlockChain.isEmpty()) {
                 log.info("updateHashChain for {} blocks took {} ms",
-                        blockHeight - genesisBlockHeight,
+                        blockHeight - fromHeight,
                         System.currentTimeMillis() - ts);
             }
         }
@@ -230,6 +233,13 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
         blindVoteStateNetworkService.requestHashes(genesisTxInfo.getGenesisBlockHeight(), peersAddress);
     }
 
+    public void applySnapshot(LinkedList<BlindVoteStateHash> persistedBlindVoteStateHashChain) {
+        // We could get a reset from a reorg, so we clear all and continue from the persisted chain at the next block.
+        blindVoteStateBlockChain.clear();
+        blindVoteStateHashChain.clear();
+        this.persistedBlindVoteStateHashChain.set(persistedBlindVoteStateHashChain);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listeners
@@ -248,6 +258,23 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Returns the height from which on we need to build the hash chain
+    private int applyPersistedHashChain(int blockHeight) {
+        LinkedList<BlindVoteStateHash> persisted = persistedBlindVoteStateHashChain.take(blockHeight,
+                this::createBlindVoteStateHash);
+        if (persisted.isEmpty()) {
+            return genesisTxInfo.getGenesisBlockHeight();
+        }
+
+        persisted.forEach(blindVoteStateHash -> {
+            blindVoteStateBlockChain.add(new BlindVoteStateBlock(blindVoteStateHash));
+            blindVoteStateHashChain.add(blindVoteStateHash);
+        });
+        log.info("Applied persisted blind vote hash chain with {} hashes up to height {}",
+                persisted.size(), persisted.getLast().getHeight());
+        return persisted.getLast().getHeight() + 1;
+    }
+
     private boolean maybeUpdateHashChain(int blockHeight) {
         // We use first block in blind vote phase to create the hash of our blindVotes. We prefer to wait as long as
         // possible to increase the chance that we have received all blindVotes.
@@ -255,26 +282,13 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
             return false;
         }
 
-        periodService.getCycle(blockHeight).ifPresent(cycle -> {
-            List<BlindVote> blindVotes = blindVoteListService.getConfirmedBlindVotes().stream()
-                    .filter(e -> e.getTxId() != null)
-                    .filter(e -> periodService.isTxInPhaseAndCycle(e.getTxId(), DaoPhase.Phase.BLIND_VOTE, blockHeight))
-                    .sorted(Comparator.comparing(BlindVote::getTxId))
-                    .collect(Collectors.toList());
-
-            // We use MyBlindVoteList to get the serialized bytes from the blindVotes list
-            byte[] serializedBlindVotes = new MyBlindVoteList(blindVotes).toProtoMessage().toByteArray();
-
-            byte[] prevHash;
-            if (blindVoteStateBlockChain.isEmpty()) {
-                prevHash = new byte[0];
-            } else {
-                prevHash = blindVoteStateBlockChain.getLast().getHash();
-            }
-            byte[] combined = ArrayUtils.addAll(prevHash, serializedBlindVotes);
-            byte[] hash = Hash.getSha256Ripemd160hash(combined);
-
-            BlindVoteStateHash myBlindVoteStateHash = new BlindVoteStateHash(blockHeight, hash, prevHash, blindVotes.size());
+        byte[] prevHash;
+        if (blindVoteStateBlockChain.isEmpty()) {
+            prevHash = new byte[0];
+        } else {
+            prevHash = blindVoteStateBlockChain.getLast().getHash();
+        }
+        createBlindVoteStateHash(blockHeight, prevHash).ifPresent(myBlindVoteStateHash -> {
             BlindVoteStateBlock blindVoteStateBlock = new BlindVoteStateBlock(myBlindVoteStateHash);
             blindVoteStateBlockChain.add(blindVoteStateBlock);
             blindVoteStateHashChain.add(myBlindVoteStateHash);
@@ -293,6 +307,23 @@ public class BlindVoteStateMonitoringService implements DaoSetupService, DaoStat
         return true;
     }
 
+    private Optional<BlindVoteStateHash> createBlindVoteStateHash(int blockHeight, byte[] prevHash) {
+        return periodService.getCycle(blockHeight).map(cycle -> {
+            List<BlindVote> blindVotes = blindVoteListService.getConfirmedBlindVotes().stream()
+                    .filter(e -> e.getTxId() != null)
+                    .filter(e -> periodService.isTxInPhaseAndCycle(e.getTxId(), DaoPhase.Phase.BLIND_VOTE, blockHeight))
+                    .sorted(Comparator.comparing(BlindVote::getTxId))
+                    .collect(Collectors.toList());
+
+            // We use MyBlindVoteList to get the serialized bytes from the blindVotes list
+            byte[] serializedBlindVotes = new MyBlindVoteList(blindVotes).toProtoMessage().toByteArray();
+
+            byte[] combined = ArrayUtils.addAll(prevHash, serializedBlindVotes);
+            byte[] hash = Hash.getSha256Ripemd160hash(combined);
+            return new BlindVoteStateHash(blockHeight, hash, prevHash, blindVotes.size());
+        });
+    }
+
     private boolean processPeersBlindVoteStateHash(BlindVoteStateHash blindVoteStateHash,
                                                    Optional<NodeAddress> peersNodeAddress,
                                                    boolean notifyListeners) {
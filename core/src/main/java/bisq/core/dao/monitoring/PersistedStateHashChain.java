@@ -0,0 +1,98 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring;
+
+import bisq.core.dao.monitoring.model.StateHash;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds a hash chain of proposals or blind votes as it was persisted with the last DAO state snapshot until the
+ * monitoring service is ready to use it at the first block it processes.
+ *
+ * The chain is only accepted if all hashes are linked by their prevHash and if the hash at its tip matches the
+ * hash we calculate from our current data and the persisted prevHash of the tip. That only confirms the data of the
+ * last cycle. The earlier hashes are taken as they were persisted and are not checked against our current data
+ * again, so a change of the data of earlier cycles is not detected, unlike with a rebuild from the genesis block.
+ * The persisted hashes have been checked when they were created, and we compare them with the hashes of our peers,
+ * which is where a diverging chain shows up.
+ */
+@Slf4j
+class PersistedStateHashChain<T extends StateHash> {
+    private LinkedList<T> chain = new LinkedList<>();
+
+    void set(LinkedList<T> chain) {
+        this.chain = new LinkedList<>(chain);
+    }
+
+    /**
+     * Returns the validated chain with all hashes below the given block height. The persisted chain is only used
+     * once, later calls return an empty chain.
+     *
+     * @param blockHeight   The height of the first block the monitoring service processes
+     * @param hashFunction  Creates the hash for a given height and prevHash from our current data
+     * @return The chain to continue from or an empty chain if the chain needs to be built from the genesis block
+     */
+    LinkedList<T> take(int blockHeight, BiFunction<Integer, byte[], Optional<T>> hashFunction) {
+        LinkedList<T> result = chain;
+        chain = new LinkedList<>();
+
+        // In case of a reorg the snapshot might contain hashes of blocks we will parse again
+        result.removeIf(stateHash -> stateHash.getHeight() >= blockHeight);
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        if (!isLinked(result)) {
+            log.warn("Persisted hash chain is not linked correctly. We build the hash chain from the genesis block.");
+            return new LinkedList<>();
+        }
+
+        T tip = result.getLast();
+        boolean tipMatches = hashFunction.apply(tip.getHeight(), tip.getPrevHash())
+                .map(tip::hasEqualHash)
+                .orElse(false);
+        if (!tipMatches) {
+            log.warn("Persisted hash chain does not match our data at height {}. " +
+                    "We build the hash chain from the genesis block.", tip.getHeight());
+            return new LinkedList<>();
+        }
+
+        return result;
+    }
+
+    private static boolean isLinked(LinkedList<? extends StateHash> chain) {
+        StateHash previous = null;
+        for (StateHash stateHash : chain) {
+            byte[] expectedPrevHash = previous == null ? new byte[0] : previous.getHash();
+            if (!Arrays.equals(expectedPrevHash, stateHash.getPrevHash())) {
+                return false;
+            }
+            if (previous != null && stateHash.getHeight() <= previous.getHeight()) {
+                return false;
+            }
+            previous = stateHash;
+        }
+        return true;
+    }
+}
@@ -70,7 +70,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * We request the state from the connected seed nodes after batch processing of BSQ is complete as well as we start
  * to listen for broadcast messages from our peers about dao state of new blocks.
  *
- * We do NOT persist that chain of hashes as there is only one per cycle and the performance costs are very low.
+ * The chain of hashes is persisted with the DAO state snapshot. At startup we continue from the persisted chain
+ * if its tip matches our data, otherwise we build it from the genesis block.
  */
 @Slf4j
 public class ProposalStateMonitoringService implements DaoSetupService, DaoStateListener, ProposalStateNetworkService.Listener<NewProposalStateHashMessage, GetProposalStateHashesRequest, ProposalStateHash> {
@@ -90,6 +91,7 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
     private final LinkedList<ProposalStateBlock> proposalStateBlockChain = new LinkedList<>();
     @Getter
     private final LinkedList<ProposalStateHash> proposalStateHashChain = new LinkedList<>();
+    private final PersistedStateHashChain<ProposalStateHash> persistedProposalStateHashChain = new PersistedStateHashChain<>();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     @Getter
     private boolean isInConflictWithNonSeedNode;
@@ -148,7 +150,8 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
         if (proposalStateBlockChain.isEmpty() && blockHeight > genesisBlockHeight) {
             // Takes about 150 ms for dao testnet data
             long ts = System.currentTimeMillis();
-            for (int i = genesisBlockHeight; i < blockHeight; i++) {
+            int fromHeight = applyPersistedHashChain(blockHeight);
+            for (int i = fromHeight; i < blockHeight; i++) {
                 boolean isHashChainUpdated = maybeUpdateHashChain(i);
                 if (isHashChainUpdated) {
                     hashChainUpdated = true;
@@ -156,7 +159,7 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
             }
             if (hashChainUpdated) {
                 log.info("updateHashChain for {} blocks took {} ms",
-                        blockHeight - genesisBlockHeight,
+                        blockHeight - fromHeight,
                         System.currentTimeMillis() - ts);
             }
         }
@@ -232,6 +235,13 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
         proposalStateNetworkService.requestHashes(genesisTxInfo.getGenesisBlockHeight(), peersAddress);
     }
 
+    public void applySnapshot(LinkedList<ProposalStateHash> persistedProposalStateHashChain) {
+        // We could get a reset from a reorg, so we clear all and continue from the persisted chain at the next block.
+        proposalStateBlockChain.clear();
+        proposalStateHashChain.clear();
+        this.persistedProposalStateHashChain.set(persistedProposalStateHashChain);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listeners
@@ -250,6 +260,23 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Returns the height from which on we need to build the hash chain
+    private int applyPersistedHashChain(int blockHeight) {
+        LinkedList<ProposalStateHash> persisted = persistedProposalStateHashChain.take(blockHeight,
+                this::createProposalStateHash);
+        if (persisted.isEmpty()) {
+            return genesisTxInfo.getGenesisBlockHeight();
+        }
+
+        persisted.forEach(proposalStateHash -> {
+            proposalStateBlockChain.add(new ProposalStateBlock(proposalStateHash));
+            proposalStateHashChain.add(proposalStateHash);
+        });
+        log.info("Applied persisted proposal hash chain with {} hashes up to height {}",
+                persisted.size(), persisted.getLast().getHeight());
+        return persisted.getLast().getHeight() + 1;
+    }
+
     private boolean maybeUpdateHashChain(int blockHeight) {
         // We use first block in blind vote phase to create the hash of our proposals. We prefer to wait as long as
         // possible to increase the chance that we have received all proposals.
@@ -257,25 +284,13 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
             return false;
         }
 
-        periodService.getCycle(blockHeight).ifPresent(cycle -> {
-            List<Proposal> proposals = proposalService.getValidatedProposals().stream()
-                    .filter(e -> e.getTxId() != null)
-                    .filter(e -> periodService.isTxInPhaseAndCycle(e.getTxId(), DaoPhase.Phase.PROPOSAL, blockHeight))
-                    .sorted(Comparator.comparing(Proposal::getTxId))
-                    .collect(Collectors.toList());
-
-            // We use MyProposalList to get the serialized bytes from the proposals list
-            byte[] serializedProposals = new MyProposalList(proposals).toProtoMessage().toByteArray();
-
-            byte[] prevHash;
-            if (proposalStateBlockChain.isEmpty()) {
-                prevHash = new byte[0];
-            } else {
-                prevHash = proposalStateBlockChain.getLast().getHash();
-            }
-            byte[] combined = ArrayUtils.addAll(prevHash, serializedProposals);
-            byte[] hash = Hash.getSha256Ripemd160hash(combined);
-            ProposalStateHash myProposalStateHash = new ProposalStateHash(blockHeight, hash, prevHash, proposals.size());
+        byte[] prevHash;
+        if (proposalStateBlockChain.isEmpty()) {
+            prevHash = new byte[0];
+        } else {
+            prevHash = proposalStateBlockChain.getLast().getHash();
+        }
+        createProposalStateHash(blockHeight, prevHash).ifPresent(myProposalStateHash -> {
             ProposalStateBlock proposalStateBlock = new ProposalStateBlock(myProposalStateHash);
             proposalStateBlockChain.add(proposalStateBlock);
             proposalStateHashChain.add(myProposalStateHash);
@@ -294,6 +309,23 @@ public class ProposalStateMonitoringService implements DaoSetupService, DaoState
         return true;
     }
 
+    private Optional<ProposalStateHash> createProposalStateHash(int blockHeight, byte[] prevHash) {
+        return periodService.getCycle(blockHeight).map(cycle -> {
+            List<Proposal> proposals = proposalService.getValidatedProposals().stream()
+                    .filter(e -> e.getTxId() != null)
+                    .filter(e -> periodService.isTxInPhaseAndCycle(e.getTxId(), DaoPhase.Phase.PROPOSAL, blockHeight))
+                    .sorted(Comparator.comparing(Proposal::getTxId))
+                    .collect(Collectors.toList());
+
+            // We use MyProposalList to get the serialized bytes from the proposals list
+            byte[] serializedProposals = new MyProposalList(proposals).toProtoMessage().toByteArray();
+
+            byte[] combined = ArrayUtils.addAll(prevHash, serializedProposals);
+            byte[] hash = Hash.getSha256Ripemd160hash(combined);
+            return new ProposalStateHash(blockHeight, hash, prevHash, proposals.size());
+        });
+    }
+
     private boolean processPeersProposalStateHash(ProposalStateHash proposalStateHash, Optional<NodeAddress> peersNodeAddress, boolean notifyListeners) {
         AtomicBoolean changed = new AtomicBoolean(false);
         AtomicBoolean inConflictWithNonSeedNode = new AtomicBoolean(this.isInConflictWithNonSeedNode);
@@ -19,17 +19,16 @@ package bisq.core.dao.node.explorer;
 
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.state.DaoStateService;
-import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.model.blockchain.PubKeyScript;
 import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxInput;
 import bisq.core.dao.state.model.blockchain.TxOutput;
 import bisq.core.dao.state.model.blockchain.TxType;
 
 import bisq.common.config.Config;
 import bisq.common.file.FileUtil;
 import bisq.common.file.JsonFileManager;
-import bisq.common.util.GcUtil;
 import bisq.common.util.Utilities;
 
 import org.bitcoinj.core.Utils;
@@ -38,41 +37,109 @@ import com.google.inject.Inject;
 
 import javax.inject.Named;
 
+import com.google.gson.Gson;
+
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import java.io.File;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
+/**
+ * Exports the BSQ blockchain data as json files for the BSQ explorer if dumpBlockchainData is set.
+ *
+ * The export is incremental: at each call we only write the txs of the blocks added since the last export and the
+ * txs whose outputs got spent by them. After each export we write a checkpoint with the last exported block, so
+ * after a restart we continue from there if that block is still in our chain. At a reorg the tx and txo files of
+ * orphaned blocks get deleted. If the reorg goes deeper than the blocks we have kept track of, or the checkpoint
+ * does not match our chain, we fall back to a full export.
+ *
+ * The all/blocks.json file contains all blocks, so it still gets rewritten at each export. If
+ * dumpBlockchainDataAsNdjson is set we do not write that file and append the new data to NDJSON segment files
+ * instead, so the I/O depends only on the new data.
+ */
 @Slf4j
 public class ExportJsonFilesService implements DaoSetupService {
+    // Number of blocks below the checkpoint we track after a restart to be able to handle reorgs.
+    private static final int MAX_REORG_DEPTH = 100;
+    private static final String CHECKPOINT_FILE_NAME = "checkpoint";
+
     private final DaoStateService daoStateService;
     private final File storageDir;
     private final boolean dumpBlockchainData;
+    private final boolean dumpBlockchainDataAsNdjson;
 
     private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter",
             1, 1, 1200);
-    private JsonFileManager txFileManager, txOutputFileManager, bsqStateFileManager;
+    private File jsonDir, txDir, txOutputDir, bsqStateDir, ndjsonDir;
+    private JsonFileManager jsonFileManager, txFileManager, txOutputFileManager, bsqStateFileManager;
+    @Nullable
+    private NdjsonSegmentWriter ndjsonSegmentWriter;
+
+    // Checkpoint from a previous session. Gets applied at the first export.
+    @Nullable
+    private JsonExportCheckpoint persistedCheckpoint;
+    private boolean isFirstExport = true;
+    // Blocks we have exported, by height. Only accessed from the user thread.
+    private final TreeMap<Integer, ExportedBlock> exportedBlocks = new TreeMap<>();
+    // Content of all/blocks.json, by height. Not used with dumpBlockchainDataAsNdjson.
+    private final TreeMap<Integer, JsonBlock> jsonBlocksByHeight = new TreeMap<>();
+    // DAO state which changes the exported data of txs without them being spent, as seen at the last export. Both
+    // are empty at the first export, so after a restart we export the issuance and confiscated lockup txs once again,
+    // as we do not know whether they have changed since the checkpoint.
+    private final Set<String> exportedIssuanceTxIds = new HashSet<>();
+    private final Set<String> exportedConfiscatedLockupTxIds = new HashSet<>();
+    // Unlock txs by the height at which their lock time is over
+    private final TreeMap<Integer, Set<String>> unlockTxIdsByUnlockHeight = new TreeMap<>();
+    private boolean unlockTxIdsInitialized;
+    // Set if writing an export failed. The exported data has a gap then, so we do not write a checkpoint anymore
+    // and do a full export next. Only accessed from the executor.
+    private boolean exportFailed;
+    // Set from the executor if an export failed, read at the next export
+    private volatile boolean fullExportRequired;
+
+    @Value
+    private static class ExportedBlock {
+        String hash;
+        List<String> txIds;
+        // Txs with outputs spent by the txs of that block
+        Set<String> spentTxIds;
+    }
 
     @Inject
     public ExportJsonFilesService(DaoStateService daoStateService,
                                   @Named(Config.STORAGE_DIR) File storageDir,
-                                  @Named(Config.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData) {
+                                  @Named(Config.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData,
+                                  @Named(Config.DUMP_BLOCKCHAIN_DATA_AS_NDJSON) boolean dumpBlockchainDataAsNdjson) {
         this.daoStateService = daoStateService;
         this.storageDir = storageDir;
         this.dumpBlockchainData = dumpBlockchainData;
+        this.dumpBlockchainDataAsNdjson = dumpBlockchainDataAsNdjson;
     }
 
 
@@ -87,44 +154,34 @@ public class ExportJsonFilesService implements DaoSetupService {
     @Override
     public void start() {
         if (dumpBlockchainData) {
-            File jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
-            File txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
-            File txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
-            File bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
-            try {
-                if (txDir.exists())
-                    FileUtil.deleteDirectory(txDir);
-                if (txOutputDir.exists())
-                    FileUtil.deleteDirectory(txOutputDir);
-                if (bsqStateDir.exists())
-                    FileUtil.deleteDirectory(bsqStateDir);
-                if (jsonDir.exists())
-                    FileUtil.deleteDirectory(jsonDir);
-            } catch (IOException e) {
-                log.error(e.toString());
-                e.printStackTrace();
+            jsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json").toString());
+            txDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "tx").toString());
+            txOutputDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "txo").toString());
+            bsqStateDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "all").toString());
+            ndjsonDir = new File(Paths.get(storageDir.getAbsolutePath(), "json", "ndjson").toString());
+
+            persistedCheckpoint = readCheckpoint();
+            if (persistedCheckpoint == null) {
+                deleteExportedFiles();
+            } else {
+                log.info("We found an export checkpoint at height {}", persistedCheckpoint.getHeight());
             }
 
-            if (!jsonDir.mkdir())
+            if (!jsonDir.exists() && !jsonDir.mkdir())
                 log.warn("make jsonDir failed.\njsonDir=" + jsonDir.getAbsolutePath());
 
-            if (!txDir.mkdir())
-                log.warn("make txDir failed.\ntxDir=" + txDir.getAbsolutePath());
-
-            if (!txOutputDir.mkdir())
-                log.warn("make txOutputDir failed.\ntxOutputDir=" + txOutputDir.getAbsolutePath());
-
-            if (!bsqStateDir.mkdir())
-                log.warn("make bsqStateDir failed.\nbsqStateDir=" + bsqStateDir.getAbsolutePath());
-
+            jsonFileManager = new JsonFileManager(jsonDir);
             txFileManager = new JsonFileManager(txDir);
             txOutputFileManager = new JsonFileManager(txOutputDir);
             bsqStateFileManager = new JsonFileManager(bsqStateDir);
+            if (dumpBlockchainDataAsNdjson)
+                ndjsonSegmentWriter = new NdjsonSegmentWriter(ndjsonDir);
         }
     }
 
     public void shutDown() {
         if (dumpBlockchainData && txFileManager != null) {
+            jsonFileManager.shutDown();
             txFileManager.shutDown();
             txOutputFileManager.shutDown();
             bsqStateFileManager.shutDown();
@@ -133,43 +190,305 @@ public class ExportJsonFilesService implements DaoSetupService {
 
     public void maybeExportToJson() {
         if (dumpBlockchainData &&
-                daoStateService.isParseBlockChainComplete()) {
+                daoStateService.isParseBlockChainComplete() &&
+                !daoStateService.getBlocks().isEmpty()) {
             // We store the data we need once we write the data to disk (in the thread) locally.
             // Access to daoStateService is single threaded, we must not access daoStateService from the thread.
-            List<JsonTxOutput> allJsonTxOutputs = new ArrayList<>();
+            boolean fullExport = false;
+            if (isFirstExport) {
+                isFirstExport = false;
+                fullExport = !applyPersistedCheckpoint();
+            }
+            if (fullExportRequired) {
+                fullExportRequired = false;
+                log.warn("The last export failed. We do a full export.");
+                fullExport = true;
+            }
 
-            List<JsonTx> jsonTxs = daoStateService.getUnorderedTxStream()
-                    .map(tx -> {
-                        JsonTx jsonTx = getJsonTx(tx);
-                        allJsonTxOutputs.addAll(jsonTx.getOutputs());
-                        return jsonTx;
-                    }).collect(Collectors.toList());
+            // Remove blocks which are not in our chain anymore (reorg)
+            List<Map.Entry<Integer, ExportedBlock>> orphanedBlocks = new ArrayList<>();
+            while (!exportedBlocks.isEmpty() && !isInChain(exportedBlocks.lastEntry())) {
+                orphanedBlocks.add(exportedBlocks.pollLastEntry());
+            }
+            if (!orphanedBlocks.isEmpty() && exportedBlocks.isEmpty()) {
+                log.warn("Reorg goes deeper than the exported blocks we track. We do a full export.");
+                fullExport = true;
+            }
 
-            GcUtil.maybeReleaseMemory();
+            if (fullExport) {
+                orphanedBlocks.clear();
+                exportedBlocks.clear();
+                jsonBlocksByHeight.clear();
+                unlockTxIdsByUnlockHeight.clear();
+                unlockTxIdsInitialized = false;
+            }
 
-            DaoState daoState = daoStateService.getClone();
-            List<JsonBlock> jsonBlockList = daoState.getBlocks().stream()
-                    .map(this::getJsonBlock)
+            int fromHeight = exportedBlocks.isEmpty() ?
+                    daoStateService.getGenesisBlockHeight() :
+                    exportedBlocks.lastKey() + 1;
+            List<Block> newBlocks = IntStream.rangeClosed(fromHeight, daoStateService.getBlockHeightOfLastBlock())
+                    .mapToObj(daoStateService::getBlockAtHeight)
+                    .flatMap(Optional::stream)
                     .collect(Collectors.toList());
-            JsonBlocks jsonBlocks = new JsonBlocks(daoState.getChainHeight(), jsonBlockList);
+            if (!unlockTxIdsInitialized) {
+                unlockTxIdsInitialized = true;
+                // Unlock txs exported before the restart. The ones whose lock time got over after the checkpoint
+                // are exported again.
+                daoStateService.getUnlockTxOutputs().stream()
+                        .flatMap(txOutput -> daoStateService.getTx(txOutput.getTxId()).stream())
+                        .filter(tx -> tx.getUnlockBlockHeight() >= fromHeight)
+                        .forEach(this::addUnlockTx);
+            }
+            Map<String, Tx> txsWithChangedState = getTxsWithChangedState();
+            if (orphanedBlocks.isEmpty() && newBlocks.isEmpty() && txsWithChangedState.isEmpty())
+                return;
+
+            // Txs of orphaned blocks which are not in our chain anymore get deleted. The outputs they have spent are
+            // unspent again and the outputs spent by new txs are spent now, so we export those txs again.
+            List<String> orphanedTxIds = new ArrayList<>();
+            Map<String, Tx> txsToExport = new LinkedHashMap<>();
+            orphanedBlocks.forEach(entry -> {
+                entry.getValue().getTxIds().stream()
+                        .filter(txId -> !daoStateService.containsTx(txId))
+                        .forEach(orphanedTxIds::add);
+                entry.getValue().getSpentTxIds().forEach(txId ->
+                        daoStateService.getTx(txId).ifPresent(tx -> txsToExport.put(txId, tx)));
+            });
+            newBlocks.forEach(block -> {
+                ExportedBlock exportedBlock = toExportedBlock(block);
+                exportedBlocks.put(block.getHeight(), exportedBlock);
+                block.getTxs().forEach(tx -> txsToExport.put(tx.getId(), tx));
+                exportedBlock.getSpentTxIds().forEach(txId ->
+                        daoStateService.getTx(txId).ifPresent(tx -> txsToExport.put(txId, tx)));
+            });
+            while (exportedBlocks.firstKey() < exportedBlocks.lastKey() - MAX_REORG_DEPTH) {
+                exportedBlocks.pollFirstEntry();
+            }
+            txsToExport.putAll(txsWithChangedState);
+            int lastBlockHeight = daoStateService.getBlockHeightOfLastBlock();
+            txsToExport.values().stream()
+                    .filter(tx -> tx.getTxType() == TxType.UNLOCK)
+                    .filter(tx -> tx.getUnlockBlockHeight() > lastBlockHeight)
+                    .forEach(this::addUnlockTx);
+
+            List<JsonTx> jsonTxs = txsToExport.values().stream()
+                    .map(this::getJsonTx)
+                    .collect(Collectors.toList());
+            List<JsonTxOutput> allJsonTxOutputs = jsonTxs.stream()
+                    .flatMap(jsonTx -> jsonTx.getOutputs().stream())
+                    .collect(Collectors.toList());
+
+            int chainHeight = daoStateService.getChainHeight();
+            JsonExportCheckpoint checkpoint = new JsonExportCheckpoint(exportedBlocks.lastKey(),
+                    exportedBlocks.lastEntry().getValue().getHash());
+
+            JsonBlocks jsonBlocks = null;
+            List<NdjsonRecord> ndjsonRecords = new ArrayList<>();
+            if (dumpBlockchainDataAsNdjson) {
+                orphanedBlocks.forEach(entry -> ndjsonRecords.add(new NdjsonRecord(NdjsonRecord.Type.ORPHANED_BLOCK,
+                        entry.getKey(), entry.getValue().getHash(), null)));
+                Set<String> newTxIds = newBlocks.stream()
+                        .flatMap(block -> block.getTxs().stream())
+                        .map(Tx::getId)
+                        .collect(Collectors.toSet());
+                jsonTxs.stream()
+                        .filter(jsonTx -> !newTxIds.contains(jsonTx.getId()))
+                        .forEach(jsonTx -> ndjsonRecords.add(new NdjsonRecord(NdjsonRecord.Type.TX,
+                                jsonTx.getBlockHeight(), jsonTx.getBlockHash(), jsonTx)));
+                newBlocks.forEach(block -> ndjsonRecords.add(new NdjsonRecord(NdjsonRecord.Type.BLOCK,
+                        block.getHeight(), block.getHash(), getJsonBlock(block))));
+            } else {
+                if (jsonBlocksByHeight.isEmpty()) {
+                    daoStateService.getBlocks().forEach(block -> jsonBlocksByHeight.put(block.getHeight(), getJsonBlock(block)));
+                } else {
+                    orphanedBlocks.forEach(entry -> jsonBlocksByHeight.remove(entry.getKey()));
+                    // Blocks with changed txs (spent outputs, issuance, confiscation and unlock) and new blocks
+                    new TreeSet<>(txsToExport.values().stream().map(Tx::getBlockHeight).collect(Collectors.toSet()))
+                            .forEach(height -> daoStateService.getBlockAtHeight(height)
+                                    .ifPresent(block -> jsonBlocksByHeight.put(height, getJsonBlock(block))));
+                }
+                jsonBlocks = new JsonBlocks(chainHeight, new ArrayList<>(jsonBlocksByHeight.values()));
+            }
 
+            boolean finalFullExport = fullExport;
+            JsonBlocks finalJsonBlocks = jsonBlocks;
             ListenableFuture<Void> future = executor.submit(() -> {
-                bsqStateFileManager.writeToDisc(Utilities.objectToJson(jsonBlocks), "blocks");
+                if (finalFullExport) {
+                    clearExportedFiles();
+                    exportFailed = false;
+                }
+
+                orphanedTxIds.forEach(txId -> {
+                    txFileManager.deleteFile(txId);
+                    // We do not know the number of outputs anymore, so we delete until we find no file
+                    for (int index = 0; new File(txOutputDir, txId + ":" + index + ".json").exists(); index++) {
+                        txOutputFileManager.deleteFile(txId + ":" + index);
+                    }
+                });
+
+                if (finalJsonBlocks != null)
+                    bsqStateFileManager.writeToDisc(Utilities.objectToJson(finalJsonBlocks), "blocks");
+                if (ndjsonSegmentWriter != null)
+                    ndjsonSegmentWriter.append(chainHeight, ndjsonRecords);
                 allJsonTxOutputs.forEach(jsonTxOutput -> txOutputFileManager.writeToDisc(Utilities.objectToJson(jsonTxOutput), jsonTxOutput.getId()));
                 jsonTxs.forEach(jsonTx -> txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), jsonTx.getId()));
 
-                GcUtil.maybeReleaseMemory();
-
+                // Written last so that it only covers data which is on disk
+                if (!exportFailed)
+                    jsonFileManager.writeToDisc(Utilities.objectToJson(checkpoint), CHECKPOINT_FILE_NAME);
                 return null;
             });
 
+            // The callback runs on the executor before it starts the next export
             Futures.addCallback(future, Utilities.failureCallback(throwable -> {
                 log.error(throwable.toString());
                 throwable.printStackTrace();
+                exportFailed = true;
+                fullExportRequired = true;
             }), MoreExecutors.directExecutor());
         }
     }
 
+
+    boolean isFullExportRequired() {
+        return fullExportRequired;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns true if the checkpoint of the previous session is in our chain. In that case we continue after it.
+    private boolean applyPersistedCheckpoint() {
+        if (persistedCheckpoint == null)
+            return false;
+
+        JsonExportCheckpoint checkpoint = persistedCheckpoint;
+        persistedCheckpoint = null;
+        int checkpointHeight = checkpoint.getHeight();
+        Optional<Block> checkpointBlock = daoStateService.getBlockAtHeight(checkpointHeight);
+        if (!checkpointBlock.isPresent() || !checkpointBlock.get().getHash().equals(checkpoint.getHash())) {
+            log.info("Export checkpoint at height {} is not in our chain. We do a full export.", checkpointHeight);
+            return false;
+        }
+
+        IntStream.rangeClosed(Math.max(daoStateService.getGenesisBlockHeight(), checkpointHeight - MAX_REORG_DEPTH),
+                checkpointHeight)
+                .mapToObj(daoStateService::getBlockAtHeight)
+                .flatMap(Optional::stream)
+                .forEach(block -> exportedBlocks.put(block.getHeight(), toExportedBlock(block)));
+        return true;
+    }
+
+    /**
+     * The exported output types and values depend on whether a compensation or reimbursement request got issued, and
+     * the state of bonds depends on confiscation and on the lock time of the unlock tx. That state changes without the
+     * tx getting spent, so we export the affected txs again.
+     */
+    private Map<String, Tx> getTxsWithChangedState() {
+        Map<String, Tx> result = new LinkedHashMap<>();
+
+        Set<String> issuanceTxIds = daoStateService.getIssuanceTxIds();
+        Sets.symmetricDifference(issuanceTxIds, exportedIssuanceTxIds).immutableCopy().forEach(txId ->
+                daoStateService.getTx(txId).ifPresent(tx -> {
+                    result.put(txId, tx);
+                    // The inputs of txs spending the issued output show whether it is BSQ
+                    tx.getTxOutputs().forEach(txOutput -> daoStateService.getSpentInfo(txOutput)
+                            .flatMap(spentInfo -> daoStateService.getTx(spentInfo.getTxId()))
+                            .ifPresent(spendingTx -> result.put(spendingTx.getId(), spendingTx)));
+                }));
+        exportedIssuanceTxIds.clear();
+        exportedIssuanceTxIds.addAll(issuanceTxIds);
+
+        Set<String> confiscatedLockupTxIds = new HashSet<>(daoStateService.getConfiscatedLockupTxIds());
+        Sets.symmetricDifference(confiscatedLockupTxIds, exportedConfiscatedLockupTxIds).immutableCopy()
+                .forEach(txId -> {
+                    daoStateService.getTx(txId).ifPresent(tx -> result.put(txId, tx));
+                    daoStateService.getUnlockTxFromLockupTxId(txId).ifPresent(tx -> result.put(tx.getId(), tx));
+                });
+        exportedConfiscatedLockupTxIds.clear();
+        exportedConfiscatedLockupTxIds.addAll(confiscatedLockupTxIds);
+
+        int lastBlockHeight = daoStateService.getBlockHeightOfLastBlock();
+        while (!unlockTxIdsByUnlockHeight.isEmpty() && unlockTxIdsByUnlockHeight.firstKey() <= lastBlockHeight) {
+            unlockTxIdsByUnlockHeight.pollFirstEntry().getValue().forEach(txId ->
+                    daoStateService.getTx(txId).ifPresent(tx -> result.put(txId, tx)));
+        }
+        return result;
+    }
+
+    private void addUnlockTx(Tx unlockTx) {
+        unlockTxIdsByUnlockHeight.computeIfAbsent(unlockTx.getUnlockBlockHeight(), height -> new HashSet<>())
+                .add(unlockTx.getId());
+    }
+
+    private boolean isInChain(Map.Entry<Integer, ExportedBlock> exportedBlock) {
+        return daoStateService.getBlockAtHeight(exportedBlock.getKey())
+                .map(block -> block.getHash().equals(exportedBlock.getValue().getHash()))
+                .orElse(false);
+    }
+
+    private ExportedBlock toExportedBlock(Block block) {
+        List<String> txIds = block.getTxs().stream()
+                .map(Tx::getId)
+                .collect(Collectors.toList());
+        Set<String> spentTxIds = block.getTxs().stream()
+                .flatMap(tx -> tx.getTxInputs().stream())
+                .map(TxInput::getConnectedTxOutputTxId)
+                .collect(Collectors.toSet());
+        return new ExportedBlock(block.getHash(), txIds, spentTxIds);
+    }
+
+    @Nullable
+    private JsonExportCheckpoint readCheckpoint() {
+        File checkpointFile = new File(jsonDir, CHECKPOINT_FILE_NAME + ".json");
+        if (!checkpointFile.exists())
+            return null;
+
+        try {
+            String json = new String(Files.readAllBytes(checkpointFile.toPath()), StandardCharsets.UTF_8);
+            return new Gson().fromJson(json, JsonExportCheckpoint.class);
+        } catch (Throwable t) {
+            log.warn("Could not read export checkpoint. We do a full export. {}", t.toString());
+            return null;
+        }
+    }
+
+    private void deleteExportedFiles() {
+        try {
+            if (txDir.exists())
+                FileUtil.deleteDirectory(txDir);
+            if (txOutputDir.exists())
+                FileUtil.deleteDirectory(txOutputDir);
+            if (bsqStateDir.exists())
+                FileUtil.deleteDirectory(bsqStateDir);
+            if (ndjsonDir.exists())
+                FileUtil.deleteDirectory(ndjsonDir);
+            if (jsonDir.exists())
+                FileUtil.deleteDirectory(jsonDir);
+        } catch (IOException e) {
+            log.error(e.toString());
+            e.printStackTrace();
+        }
+    }
+
+    // Called from the executor at a full export while the file managers are in use
+    private void clearExportedFiles() {
+        for (File dir : new File[]{txDir, txOutputDir, bsqStateDir, ndjsonDir}) {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.delete())
+                        log.warn("Cannot delete file {}", file);
+                }
+            }
+        }
+        File checkpointFile = new File(jsonDir, CHECKPOINT_FILE_NAME + ".json");
+        if (checkpointFile.exists() && !checkpointFile.delete())
+            log.warn("Cannot delete file {}", checkpointFile);
+    }
+
     private JsonBlock getJsonBlock(Block block) {
         List<JsonTx> jsonTxs = block.getTxs().stream()
                 .map(this::getJsonTx)
@@ -0,0 +1,43 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+/**
+ * One line in a NDJSON segment file. Segments are append only, so changes to data exported earlier are expressed
+ * as new records: a TX record replaces the tx with the same id (e.g. after one of its outputs got spent) and an
+ * ORPHANED_BLOCK record invalidates the block at that height with that hash and all its txs.
+ */
+@Value
+class NdjsonRecord {
+    enum Type {
+        BLOCK,
+        TX,
+        ORPHANED_BLOCK
+    }
+
+    private final Type type;
+    private final int height;
+    private final String hash;
+    // JsonBlock for BLOCK records, JsonTx for TX records and null for ORPHANED_BLOCK records
+    @Nullable
+    private final Object data;
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends NdjsonRecords to segment files. Each segment covers SEGMENT_SIZE block heights of the chain tip at the
+ * time the records got written, so a consumer can read the segments in order and only needs to follow the latest
+ * one.
+ */
+@Slf4j
+class NdjsonSegmentWriter {
+    static final int SEGMENT_SIZE = 1000;
+
+    private final File dir;
+    private final Gson gson = new Gson();
+
+    NdjsonSegmentWriter(File dir) {
+        this.dir = dir;
+
+        if (!dir.exists() && !dir.mkdir())
+            log.warn("make ndjson dir failed.\ndir=" + dir.getAbsolutePath());
+    }
+
+    void append(int chainHeight, List<NdjsonRecord> records) throws IOException {
+        if (records.isEmpty())
+            return;
+
+        File segmentFile = getSegmentFile(chainHeight);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(segmentFile, true), StandardCharsets.UTF_8))) {
+            for (NdjsonRecord record : records) {
+                writer.write(gson.toJson(record));
+                writer.write('\n');
+            }
+        }
+    }
+
+    File getSegmentFile(int chainHeight) {
+        int segmentStart = chainHeight / SEGMENT_SIZE * SEGMENT_SIZE;
+        return new File(dir, "blocks-" + segmentStart + ".ndjson");
+    }
+}
@@ -43,6 +43,7 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -148,6 +149,10 @@ public class DaoStateService implements DaoSetupService {
         return DaoState.getClone(daoState);
     }
 
+    public DaoState getSnapshot() {
+        return DaoState.getSnapshot(daoState);
+    }
+
     public byte[] getSerializedStateForHashChain() {
         return daoState.getSerializedStateForHashChain();
     }
@@ -618,6 +623,10 @@ public class DaoStateService implements DaoSetupService {
         return Optional.ofNullable(daoState.getIssuanceMap().get(txId));
     }
 
+    public Set<String> getIssuanceTxIds() {
+        return Collections.unmodifiableSet(daoState.getIssuanceMap().keySet());
+    }
+
     public boolean isIssuanceTx(String txId) {
         return getIssuance(txId).isPresent();
     }
@@ -888,6 +897,10 @@ public class DaoStateService implements DaoSetupService {
         return false;
     }
 
+    public List<String> getConfiscatedLockupTxIds() {
+        return Collections.unmodifiableList(daoState.getConfiscatedLockupTxList());
+    }
+
     public boolean isConfiscatedLockupTxOutput(String lockupTxId) {
         return daoState.getConfiscatedLockupTxList().contains(lockupTxId);
     }
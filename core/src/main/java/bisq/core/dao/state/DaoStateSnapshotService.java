@@ -17,8 +17,12 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.monitoring.BlindVoteStateMonitoringService;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
+import bisq.core.dao.monitoring.ProposalStateMonitoringService;
+import bisq.core.dao.monitoring.model.BlindVoteStateHash;
 import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.ProposalStateHash;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.storage.DaoStateStorageService;
@@ -56,10 +60,14 @@ public class DaoStateSnapshotService {
     private final GenesisTxInfo genesisTxInfo;
     private final DaoStateStorageService daoStateStorageService;
     private final DaoStateMonitoringService daoStateMonitoringService;
+    private final ProposalStateMonitoringService proposalStateMonitoringService;
+    private final BlindVoteStateMonitoringService blindVoteStateMonitoringService;
     private final File storageDir;
 
     private DaoState daoStateSnapshotCandidate;
     private LinkedList<DaoStateHash> daoStateHashChainSnapshotCandidate = new LinkedList<>();
+    private LinkedList<ProposalStateHash> proposalStateHashChainSnapshotCandidate = new LinkedList<>();
+    private LinkedList<BlindVoteStateHash> blindVoteStateHashChainSnapshotCandidate = new LinkedList<>();
     private int chainHeightOfLastApplySnapshot;
     @Setter
     @Nullable
@@ -76,11 +84,15 @@ public class DaoStateSnapshotService {
                                    GenesisTxInfo genesisTxInfo,
                                    DaoStateStorageService daoStateStorageService,
                                    DaoStateMonitoringService daoStateMonitoringService,
+                                   ProposalStateMonitoringService proposalStateMonitoringService,
+                                   BlindVoteStateMonitoringService blindVoteStateMonitoringService,
                                    @Named(Config.STORAGE_DIR) File storageDir) {
         this.daoStateService = daoStateService;
         this.genesisTxInfo = genesisTxInfo;
         this.daoStateStorageService = daoStateStorageService;
         this.daoStateMonitoringService = daoStateMonitoringService;
+        this.proposalStateMonitoringService = proposalStateMonitoringService;
+        this.blindVoteStateMonitoringService = blindVoteStateMonitoringService;
         this.storageDir = storageDir;
     }
 
@@ -122,6 +134,8 @@ public class DaoStateSnapshotService {
             requestPersistenceCalled = true;
             daoStateStorageService.requestPersistence(daoStateSnapshotCandidate,
                     daoStateHashChainSnapshotCandidate,
+                    proposalStateHashChainSnapshotCandidate,
+                    blindVoteStateHashChainSnapshotCandidate,
                     () -> {
                         log.info("Serializing snapshotCandidate for writing to Disc with height {} at height {} took {} ms",
                                 daoStateSnapshotCandidate != null ? daoStateSnapshotCandidate.getChainHeight() : "N/A",
@@ -130,13 +144,14 @@ public class DaoStateSnapshotService {
 
                         long ts2 = System.currentTimeMillis();
 
-                        GcUtil.maybeReleaseMemory();
-
-                        // Now we clone and keep it in memory for the next trigger event
-                        daoStateSnapshotCandidate = daoStateService.getClone();
+                        // Now we take a snapshot and keep it in memory for the next trigger event. The snapshot shares
+                        // the immutable model objects with the live daoState, so it does not need a full clone.
+                        daoStateSnapshotCandidate = daoStateService.getSnapshot();
                         daoStateHashChainSnapshotCandidate = new LinkedList<>(daoStateMonitoringService.getDaoStateHashChain());
+                        proposalStateHashChainSnapshotCandidate = new LinkedList<>(proposalStateMonitoringService.getProposalStateHashChain());
+                        blindVoteStateHashChainSnapshotCandidate = new LinkedList<>(blindVoteStateMonitoringService.getBlindVoteStateHashChain());
 
-                        log.info("Cloned new snapshotCandidate at height {} took {} ms", chainHeight, System.currentTimeMillis() - ts2);
+                        log.info("Took new snapshotCandidate at height {} in {} ms", chainHeight, System.currentTimeMillis() - ts2);
                         requestPersistenceCalled = false;
                         GcUtil.maybeReleaseMemory();
                     });
@@ -156,6 +171,8 @@ public class DaoStateSnapshotService {
                         chainHeightOfLastApplySnapshot = chainHeightOfPersisted;
                         daoStateService.applySnapshot(persistedBsqState);
                         daoStateMonitoringService.applySnapshot(persistedDaoStateHashChain);
+                        proposalStateMonitoringService.applySnapshot(daoStateStorageService.getPersistedProposalStateHashChain());
+                        blindVoteStateMonitoringService.applySnapshot(daoStateStorageService.getPersistedBlindVoteStateHashChain());
                     } else {
                         // The reorg might have been caused by the previous parsing which might contains a range of
                         // blocks.
@@ -71,6 +71,16 @@ public class DaoState implements PersistablePayload {
         return DaoState.fromProto(daoState.getBsqStateBuilder().build());
     }
 
+    /**
+     * Returns a copy which shares all model objects with the given daoState and only copies the collections holding
+     * them. All model objects are immutable, except the txs list of the block which is currently parsed, so the
+     * result is equivalent to getClone as long as it is not called while a block is being parsed. It avoids the
+     * protobuf round trip and does not allocate a second instance of each block, tx and output.
+     */
+    public static DaoState getSnapshot(DaoState daoState) {
+        return new DaoState(daoState);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Fields
@@ -180,6 +190,27 @@ public class DaoState implements PersistablePayload {
                 .collect(Collectors.toMap(Block::getHeight, Function.identity(), (x, y) -> x, HashMap::new));
     }
 
+    private DaoState(DaoState daoState) {
+        chainHeight = daoState.chainHeight;
+        blocks = new LinkedList<>(daoState.blocks);
+        cycles = new LinkedList<>(daoState.cycles);
+
+        unspentTxOutputMap = new TreeMap<>(daoState.unspentTxOutputMap);
+        spentInfoMap = new TreeMap<>(daoState.spentInfoMap);
+
+        confiscatedLockupTxList = new ArrayList<>(daoState.confiscatedLockupTxList);
+        issuanceMap = new TreeMap<>(daoState.issuanceMap);
+        paramChangeList = new ArrayList<>(daoState.paramChangeList);
+        evaluatedProposalList = new ArrayList<>(daoState.evaluatedProposalList);
+        decryptedBallotsWithMeritsList = new ArrayList<>(daoState.decryptedBallotsWithMeritsList);
+
+        txCache = new HashMap<>(daoState.txCache);
+        blockHashes = new HashSet<>(daoState.blockHashes);
+        blocksByHeight = new HashMap<>(daoState.blocksByHeight);
+        daoState.txOutputsByTxOutputType.forEach((txOutputType, txOutputs) ->
+                txOutputsByTxOutputType.put(txOutputType, new HashSet<>(txOutputs)));
+    }
+
     @Override
     public Message toProtoMessage() {
         return getBsqStateBuilder().build();
@@ -18,7 +18,9 @@
 package bisq.core.dao.state.storage;
 
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
+import bisq.core.dao.monitoring.model.BlindVoteStateHash;
 import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.ProposalStateHash;
 import bisq.core.dao.state.model.DaoState;
 
 import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
@@ -78,6 +80,8 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
 
     public void requestPersistence(DaoState daoState,
                                    LinkedList<DaoStateHash> daoStateHashChain,
+                                   LinkedList<ProposalStateHash> proposalStateHashChain,
+                                   LinkedList<BlindVoteStateHash> blindVoteStateHashChain,
                                    Runnable completeHandler) {
         if (daoState == null) {
             completeHandler.run();
@@ -86,6 +90,8 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
 
         store.setDaoState(daoState);
         store.setDaoStateHashChain(daoStateHashChain);
+        store.setProposalStateHashChain(proposalStateHashChain);
+        store.setBlindVoteStateHashChain(blindVoteStateHashChain);
 
         // We let the persistence run in a thread to avoid the slow protobuf serialisation to happen on the user
         // thread. We also call it immediately to get notified about the completion event.
@@ -109,9 +115,19 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         return store.getDaoStateHashChain();
     }
 
+    public LinkedList<ProposalStateHash> getPersistedProposalStateHashChain() {
+        return store.getProposalStateHashChain();
+    }
+
+    public LinkedList<BlindVoteStateHash> getPersistedBlindVoteStateHashChain() {
+        return store.getBlindVoteStateHashChain();
+    }
+
     public void resyncDaoStateFromGenesis(Runnable resultHandler) {
         store.setDaoState(new DaoState());
         store.setDaoStateHashChain(new LinkedList<>());
+        store.setProposalStateHashChain(new LinkedList<>());
+        store.setBlindVoteStateHashChain(new LinkedList<>());
         persistenceManager.persistNow(resultHandler);
     }
 
@@ -132,6 +148,9 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
 
         newFileName = "UnconfirmedBsqChangeOutputList_" + currentTime;
         FileUtil.removeAndBackupFile(storageDir, new File(storageDir, "UnconfirmedBsqChangeOutputList"), newFileName, backupDirName);
+        // The outputs are persisted as separate records in a directory
+        FileUtil.removeAndBackupFile(storageDir, new File(storageDir, "UnconfirmedBsqChangeOutputList_records"),
+                newFileName + "_records", backupDirName);
 
         newFileName = "DaoStateStore_" + currentTime;
         FileUtil.removeAndBackupFile(storageDir, new File(storageDir, "DaoStateStore"), newFileName, backupDirName);
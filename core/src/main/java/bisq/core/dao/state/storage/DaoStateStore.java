@@ -17,7 +17,9 @@
 
 package bisq.core.dao.state.storage;
 
+import bisq.core.dao.monitoring.model.BlindVoteStateHash;
 import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.ProposalStateHash;
 import bisq.core.dao.state.model.DaoState;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
@@ -47,10 +49,27 @@ public class DaoStateStore implements PersistableEnvelope {
     @Getter
     @Setter
     private LinkedList<DaoStateHash> daoStateHashChain;
+    // The proposal and blind vote hash chains are stored with the snapshot so they do not need to be rebuilt from
+    // the genesis block at startup.
+    @Getter
+    @Setter
+    private LinkedList<ProposalStateHash> proposalStateHashChain;
+    @Getter
+    @Setter
+    private LinkedList<BlindVoteStateHash> blindVoteStateHashChain;
 
     DaoStateStore(@Nullable DaoState daoState, LinkedList<DaoStateHash> daoStateHashChain) {
+        this(daoState, daoStateHashChain, new LinkedList<>(), new LinkedList<>());
+    }
+
+    DaoStateStore(@Nullable DaoState daoState,
+                  LinkedList<DaoStateHash> daoStateHashChain,
+                  LinkedList<ProposalStateHash> proposalStateHashChain,
+                  LinkedList<BlindVoteStateHash> blindVoteStateHashChain) {
         this.daoState = daoState;
         this.daoStateHashChain = daoStateHashChain;
+        this.proposalStateHashChain = proposalStateHashChain;
+        this.blindVoteStateHashChain = blindVoteStateHashChain;
     }
 
 
@@ -64,6 +83,12 @@ public class DaoStateStore implements PersistableEnvelope {
                 .setDaoState(daoState.getBsqStateBuilder())
                 .addAllDaoStateHash(daoStateHashChain.stream()
                         .map(DaoStateHash::toProtoMessage)
+                        .collect(Collectors.toList()))
+                .addAllProposalStateHash(proposalStateHashChain.stream()
+                        .map(ProposalStateHash::toProtoMessage)
+                        .collect(Collectors.toList()))
+                .addAllBlindVoteStateHash(blindVoteStateHashChain.stream()
+                        .map(BlindVoteStateHash::toProtoMessage)
                         .collect(Collectors.toList()));
         return protobuf.PersistableEnvelope.newBuilder()
                 .setDaoStateStore(builder)
@@ -76,6 +101,15 @@ public class DaoStateStore implements PersistableEnvelope {
                 new LinkedList<>(proto.getDaoStateHashList().stream()
                         .map(DaoStateHash::fromProto)
                         .collect(Collectors.toList()));
-        return new DaoStateStore(DaoState.fromProto(proto.getDaoState()), daoStateHashList);
+        LinkedList<ProposalStateHash> proposalStateHashList = proto.getProposalStateHashList().stream()
+                .map(ProposalStateHash::fromProto)
+                .collect(Collectors.toCollection(LinkedList::new));
+        LinkedList<BlindVoteStateHash> blindVoteStateHashList = proto.getBlindVoteStateHashList().stream()
+                .map(BlindVoteStateHash::fromProto)
+                .collect(Collectors.toCollection(LinkedList::new));
+        return new DaoStateStore(DaoState.fromProto(proto.getDaoState()),
+                daoStateHashList,
+                proposalStateHashList,
+                blindVoteStateHashList);
     }
 }
@@ -14,21 +14,46 @@
  * You should have received a copy of the GNU Affero General Public License
  * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
  */
-
 package bisq.core.dao.state.unconfirmed;
 
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
 import bisq.common.proto.persistable.PersistableList;
+import bisq.common.proto.persistable.PersistableRecordList;
 
 import com.google.protobuf.Message;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.EqualsAndHashCode;
 
+/**
+ * Holds the unconfirmed BSQ change outputs.
+ *
+ * We maintain an index by outpoint and by txId as well as the sum of the output values, so lookups, removals and the
+ * balance do not need to iterate over the list. Removal swaps the last item into the gap, so the order of the list is
+ * not preserved. Items must only be added and removed via the API of this class to keep the index in sync.
+ *
+ * Each output is persisted as a separate record, so a new or removed output does not require to write all outputs.
+ */
 @EqualsAndHashCode(callSuper = true)
-public class UnconfirmedBsqChangeOutputList extends PersistableList<UnconfirmedTxOutput> {
+public class UnconfirmedBsqChangeOutputList extends PersistableList<UnconfirmedTxOutput>
+        implements PersistableRecordList<UnconfirmedTxOutput> {
+    @EqualsAndHashCode.Exclude
+    private final Map<TxOutputKey, Integer> positionByKey = new HashMap<>();
+    // A tx has at most one BSQ change output, so the sets are tiny
+    @EqualsAndHashCode.Exclude
+    private final Map<String, Set<TxOutputKey>> keysByTxId = new HashMap<>();
+    @EqualsAndHashCode.Exclude
+    private long totalValue;
 
     UnconfirmedBsqChangeOutputList() {
         super();
@@ -40,14 +65,30 @@ public class UnconfirmedBsqChangeOutputList extends PersistableList<UnconfirmedT
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private UnconfirmedBsqChangeOutputList(List<UnconfirmedTxOutput> list) {
-        super(list);
+        // We must not use the super constructor with the list as it calls setAll before our index is initialized
+        super();
+        setAll(list);
     }
 
     @Override
     public Message toProtoMessage() {
+        return toProtoMessage(getList());
+    }
+
+    @Override
+    public Message toRecordProtoMessage(UnconfirmedTxOutput txOutput) {
+        return toProtoMessage(Collections.singletonList(txOutput));
+    }
+
+    @Override
+    public String getRecordId(UnconfirmedTxOutput txOutput) {
+        return txOutput.getTxId() + "-" + txOutput.getIndex();
+    }
+
+    private static Message toProtoMessage(Collection<UnconfirmedTxOutput> txOutputs) {
         return protobuf.PersistableEnvelope.newBuilder()
                 .setUnconfirmedBsqChangeOutputList(protobuf.UnconfirmedBsqChangeOutputList.newBuilder()
-                        .addAllUnconfirmedTxOutput(getList().stream().map(UnconfirmedTxOutput::toProtoMessage).collect(Collectors.toList())))
+                        .addAllUnconfirmedTxOutput(txOutputs.stream().map(UnconfirmedTxOutput::toProtoMessage).collect(Collectors.toList())))
                 .build();
     }
 
@@ -57,7 +98,109 @@ public class UnconfirmedBsqChangeOutputList extends PersistableList<UnconfirmedT
                 .collect(Collectors.toList())));
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PersistableList
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void setAll(Collection<UnconfirmedTxOutput> collection) {
+        clear();
+        collection.forEach(this::add);
+    }
+
+    // Outputs are identified by their outpoint
+    @Override
+    public boolean add(UnconfirmedTxOutput txOutput) {
+        TxOutputKey key = txOutput.getKey();
+        if (positionByKey.containsKey(key)) {
+            return false;
+        }
+
+        positionByKey.put(key, list.size());
+        list.add(txOutput);
+        keysByTxId.computeIfAbsent(txOutput.getTxId(), txId -> new HashSet<>(2)).add(key);
+        totalValue += txOutput.getValue();
+        return true;
+    }
+
+    @Override
+    public boolean remove(UnconfirmedTxOutput txOutput) {
+        return remove(txOutput.getKey());
+    }
+
+    @Override
+    public boolean contains(UnconfirmedTxOutput txOutput) {
+        return containsTxOutput(txOutput);
+    }
+
+    @Override
+    public void clear() {
+        list.clear();
+        positionByKey.clear();
+        keysByTxId.clear();
+        totalValue = 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
     public boolean containsTxOutput(UnconfirmedTxOutput txOutput) {
-        return getList().stream().anyMatch(output -> output.getKey().equals(txOutput.getKey()));
+        return containsKey(txOutput.getKey());
+    }
+
+    public boolean containsKey(TxOutputKey key) {
+        return positionByKey.containsKey(key);
+    }
+
+    public boolean containsTxId(String txId) {
+        return keysByTxId.containsKey(txId);
+    }
+
+    public Set<String> getTxIds() {
+        return new HashSet<>(keysByTxId.keySet());
+    }
+
+    public long getTotalValue() {
+        return totalValue;
+    }
+
+    public boolean remove(TxOutputKey key) {
+        Integer position = positionByKey.remove(key);
+        if (position == null) {
+            return false;
+        }
+
+        UnconfirmedTxOutput removed = list.get(position);
+        UnconfirmedTxOutput last = list.remove(list.size() - 1);
+        if (position < list.size()) {
+            list.set(position, last);
+            positionByKey.put(last.getKey(), position);
+        }
+
+        Set<TxOutputKey> keys = keysByTxId.get(removed.getTxId());
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByTxId.remove(removed.getTxId());
+            }
+        }
+        totalValue -= removed.getValue();
+        return true;
+    }
+
+    /**
+     * @return True if at least one output of the given tx was removed.
+     */
+    public boolean removeTxOutputsOfTx(String txId) {
+        Set<TxOutputKey> keys = keysByTxId.get(txId);
+        if (keys == null) {
+            return false;
+        }
+
+        new ArrayList<>(keys).forEach(this::remove);
+        return true;
     }
 }
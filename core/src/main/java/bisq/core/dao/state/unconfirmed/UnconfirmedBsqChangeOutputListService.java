@@ -17,6 +17,7 @@
 
 package bisq.core.dao.state.unconfirmed;
 
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
 import bisq.core.dao.state.model.blockchain.TxType;
 
 import bisq.common.app.DevEnv;
@@ -24,16 +25,17 @@ import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.persistable.PersistedDataHost;
 
 import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.TransactionConfidence;
 import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
 import org.bitcoinj.core.TransactionOutput;
 import org.bitcoinj.wallet.Wallet;
 
 import javax.inject.Inject;
 
 import java.util.List;
-import java.util.Objects;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -144,11 +146,8 @@ public class UnconfirmedBsqChangeOutputListService implements PersistedDataHost
             return;
 
         UnconfirmedTxOutput txOutput = UnconfirmedTxOutput.fromTransactionOutput(change);
-        if (unconfirmedBsqChangeOutputList.containsTxOutput(txOutput))
-            return;
-
-        unconfirmedBsqChangeOutputList.add(txOutput);
-        requestPersistence();
+        if (unconfirmedBsqChangeOutputList.add(txOutput))
+            requestPersistence();
     }
 
     public void onReorganize() {
@@ -160,25 +159,44 @@ public class UnconfirmedBsqChangeOutputListService implements PersistedDataHost
     }
 
     public void onTransactionConfidenceChanged(Transaction tx) {
-        if (tx != null &&
-                tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.BUILDING) {
+        if (tx == null || unconfirmedBsqChangeOutputList.isEmpty())
+            return;
+
+        if (tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.BUILDING) {
             removeConnectedOutputsOfInputsOfTx(tx);
 
-            tx.getOutputs().forEach(transactionOutput -> {
-                UnconfirmedTxOutput txOutput = UnconfirmedTxOutput.fromTransactionOutput(transactionOutput);
-                if (unconfirmedBsqChangeOutputList.containsTxOutput(txOutput)) {
-                    unconfirmedBsqChangeOutputList.remove(txOutput);
-                }
-            });
+            if (unconfirmedBsqChangeOutputList.removeTxOutputsOfTx(tx.getTxId().toString()))
+                requestPersistence();
         }
     }
 
+    /**
+     * After a block got parsed we remove the outputs of our tracked txs which got confirmed. We only need to look up
+     * the txs we track, as an output can only be spent in a confirmed tx once its own tx is confirmed.
+     */
+    public void onParseBlockComplete(Wallet wallet) {
+        unconfirmedBsqChangeOutputList.getTxIds().forEach(txId -> {
+            Transaction tx;
+            try {
+                tx = wallet.getTransaction(Sha256Hash.wrap(txId));
+            } catch (IllegalArgumentException e) {
+                // UnconfirmedTxOutput uses "null" as txId if the parent tx was missing
+                log.warn("Invalid txId {} of unconfirmed BSQ change output", txId);
+                return;
+            }
+            onTransactionConfidenceChanged(tx);
+        });
+    }
+
     public boolean hasTransactionOutput(TransactionOutput output) {
-        return unconfirmedBsqChangeOutputList.containsTxOutput(UnconfirmedTxOutput.fromTransactionOutput(output));
+        Transaction parentTransaction = output.getParentTransaction();
+        return parentTransaction != null &&
+                unconfirmedBsqChangeOutputList.containsKey(new TxOutputKey(parentTransaction.getTxId().toString(),
+                        output.getIndex()));
     }
 
     public Coin getBalance() {
-        return Coin.valueOf(unconfirmedBsqChangeOutputList.stream().mapToLong(UnconfirmedTxOutput::getValue).sum());
+        return Coin.valueOf(unconfirmedBsqChangeOutputList.getTotalValue());
     }
 
 
@@ -187,15 +205,19 @@ public class UnconfirmedBsqChangeOutputListService implements PersistedDataHost
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void removeConnectedOutputsOfInputsOfTx(Transaction tx) {
-        tx.getInputs().stream()
-                .map(TransactionInput::getConnectedOutput)
-                .filter(Objects::nonNull)
-                .map(UnconfirmedTxOutput::fromTransactionOutput)
-                .filter(unconfirmedBsqChangeOutputList::containsTxOutput)
-                .forEach(txOutput -> {
-                    unconfirmedBsqChangeOutputList.remove(txOutput);
-                    requestPersistence();
-                });
+        if (unconfirmedBsqChangeOutputList.isEmpty())
+            return;
+
+        boolean removed = false;
+        for (TransactionInput input : tx.getInputs()) {
+            TransactionOutPoint outpoint = input.getOutpoint();
+            if (outpoint != null) {
+                TxOutputKey key = new TxOutputKey(outpoint.getHash().toString(), (int) outpoint.getIndex());
+                removed |= unconfirmedBsqChangeOutputList.remove(key);
+            }
+        }
+        if (removed)
+            requestPersistence();
     }
 
     private void reset() {
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Refreshes the TTL of our open offers. Each offer gets assigned to one of NUM_SLOTS slots which are spread evenly
+ * over the refresh interval. A single timer ticks once per slot and refreshes all offers of the current slot at once,
+ * so their refresh messages go out in the same broadcast round and get bundled by the Broadcaster. New offers get
+ * the slot with the fewest offers.
+ *
+ * If the refresh of an offer fails we retry it at the next tick instead of waiting for its slot again, up to
+ * MAX_RETRIES times.
+ */
+@Slf4j
+class OfferRefreshScheduler {
+    static final int NUM_SLOTS = 36;
+    static final int MAX_RETRIES = 3;
+
+    private final long tickIntervalMs;
+    // Returns true if the refresh was successful
+    private final Predicate<OpenOffer> refreshHandler;
+    private final List<Map<String, OpenOffer>> slots = new ArrayList<>();
+    private final Map<String, Integer> slotByOfferId = new HashMap<>();
+    private final Map<String, Integer> numRetriesByOfferId = new LinkedHashMap<>();
+    private int currentSlot;
+    @Nullable
+    private Timer timer;
+
+    OfferRefreshScheduler(long refreshIntervalMs, Predicate<OpenOffer> refreshHandler) {
+        this.tickIntervalMs = refreshIntervalMs / NUM_SLOTS;
+        this.refreshHandler = refreshHandler;
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+    }
+
+    void start() {
+        if (timer == null) {
+            timer = UserThread.runPeriodically(this::onTick, tickIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void stop() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+    boolean isRunning() {
+        return timer != null;
+    }
+
+    void add(OpenOffer openOffer) {
+        String offerId = openOffer.getId();
+        Integer slot = slotByOfferId.get(offerId);
+        if (slot == null) {
+            slot = getSlotWithFewestOffers();
+            slotByOfferId.put(offerId, slot);
+        }
+        // An edited offer replaces the previous instance with the same ID
+        slots.get(slot).put(offerId, openOffer);
+    }
+
+    void remove(OpenOffer openOffer) {
+        String offerId = openOffer.getId();
+        Integer slot = slotByOfferId.remove(offerId);
+        if (slot != null) {
+            slots.get(slot).remove(offerId);
+        }
+        numRetriesByOfferId.remove(offerId);
+    }
+
+    int getNumOffers() {
+        return slotByOfferId.size();
+    }
+
+    // Package-private for tests. Gets called by the timer.
+    void onTick() {
+        List<OpenOffer> bundle = new ArrayList<>();
+        List<String> retriedOfferIds = new ArrayList<>(numRetriesByOfferId.keySet());
+        retriedOfferIds.forEach(offerId -> bundle.add(getOpenOffer(offerId)));
+        slots.get(currentSlot).values().stream()
+                .filter(openOffer -> !numRetriesByOfferId.containsKey(openOffer.getId()))
+                .forEach(bundle::add);
+        currentSlot = (currentSlot + 1) % NUM_SLOTS;
+
+        if (bundle.isEmpty()) {
+            return;
+        }
+
+        int numFailed = 0;
+        for (OpenOffer openOffer : bundle) {
+            String offerId = openOffer.getId();
+            if (refreshHandler.test(openOffer)) {
+                numRetriesByOfferId.remove(offerId);
+            } else {
+                numFailed++;
+                int numRetries = numRetriesByOfferId.getOrDefault(offerId, -1) + 1;
+                if (numRetries < MAX_RETRIES) {
+                    numRetriesByOfferId.put(offerId, numRetries);
+                } else {
+                    log.warn("Refresh of offer {} failed {} times. We wait for its next regular refresh.",
+                            offerId, numRetries + 1);
+                    numRetriesByOfferId.remove(offerId);
+                }
+            }
+        }
+        log.debug("Refreshed {} offers, {} failed", bundle.size(), numFailed);
+    }
+
+    private OpenOffer getOpenOffer(String offerId) {
+        return slots.get(slotByOfferId.get(offerId)).get(offerId);
+    }
+
+    private int getSlotWithFewestOffers() {
+        int result = 0;
+        for (int i = 1; i < NUM_SLOTS; i++) {
+            if (slots.get(i).size() < slots.get(result).size()) {
+                result = i;
+            }
+        }
+        return result;
+    }
+}
@@ -47,6 +47,7 @@ import bisq.network.p2p.AckMessageSourceType;
 import bisq.network.p2p.BootstrapListener;
 import bisq.network.p2p.DecryptedDirectMessageListener;
 import bisq.network.p2p.DecryptedMessageWithPubKey;
+import bisq.network.p2p.NetworkNotReadyException;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.SendDirectMessageListener;
@@ -73,6 +74,7 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.util.ArrayList;
@@ -82,6 +84,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -126,7 +129,9 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final Map<String, OpenOffer> offersToBeEdited = new HashMap<>();
     private final TradableList<OpenOffer> openOffers = new TradableList<>();
     private boolean stopped;
-    private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
+    private Timer periodicRepublishOffersTimer, retryRepublishOffersTimer;
+    private final OfferRefreshScheduler offerRefreshScheduler = new OfferRefreshScheduler(REFRESH_INTERVAL_MS,
+            this::refreshOffer);
     @Getter
     private final ObservableList<Tuple2<OpenOffer, String>> invalidOffers = FXCollections.observableArrayList();
 
@@ -178,6 +183,13 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         this.persistenceManager = persistenceManager;
 
         this.persistenceManager.initialize(openOffers, "OpenOffers", PersistenceManager.Source.PRIVATE);
+
+        openOffers.getObservableList().addListener((ListChangeListener<OpenOffer>) c -> {
+            while (c.next()) {
+                c.getRemoved().forEach(offerRefreshScheduler::remove);
+                c.getAddedSubList().forEach(offerRefreshScheduler::add);
+            }
+        });
     }
 
     @Override
@@ -942,7 +954,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
                 () -> {
                     if (!stopped) {
                         // Refresh means we send only the data needed to refresh the TTL (hash, signature and sequence no.)
-                        if (periodicRefreshOffersTimer == null) {
+                        if (!offerRefreshScheduler.isRunning()) {
                             startPeriodicRefreshOffersTimer();
                         }
                         if (completeHandler != null) {
@@ -980,40 +992,25 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private void startPeriodicRefreshOffersTimer() {
         stopped = false;
         // refresh sufficiently before offer would expire
-        if (periodicRefreshOffersTimer == null)
-            periodicRefreshOffersTimer = UserThread.runPeriodically(() -> {
-                        if (!stopped) {
-                            int size = openOffers.size();
-                            //we clone our list as openOffers might change during our delayed call
-                            final ArrayList<OpenOffer> openOffersList = new ArrayList<>(openOffers.getList());
-                            for (int i = 0; i < size; i++) {
-                                // we delay to avoid reaching throttle limits
-                                // roughly 4 offers per second
-
-                                long delay = 300;
-                                final long minDelay = (i + 1) * delay;
-                                final long maxDelay = (i + 2) * delay;
-                                final OpenOffer openOffer = openOffersList.get(i);
-                                UserThread.runAfterRandomDelay(() -> {
-                                    // we need to check if in the meantime the offer has been removed
-                                    if (openOffers.contains(openOffer) && !openOffer.isDeactivated())
-                                        refreshOffer(openOffer);
-                                }, minDelay, maxDelay, TimeUnit.MILLISECONDS);
-                            }
-                        } else {
-                            log.debug("We have stopped already. We ignore that periodicRefreshOffersTimer.run call.");
-                        }
-                    },
-                    REFRESH_INTERVAL_MS,
-                    TimeUnit.MILLISECONDS);
-        else
-            log.trace("periodicRefreshOffersTimer already stated");
+        offerRefreshScheduler.start();
     }
 
-    private void refreshOffer(OpenOffer openOffer) {
-        offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
-                () -> log.debug("Successful refreshed TTL for offer"),
-                log::warn);
+    // Called by the offerRefreshScheduler. Returns false if the refresh failed, so that it gets retried.
+    private boolean refreshOffer(OpenOffer openOffer) {
+        if (stopped || openOffer.isDeactivated()) {
+            return true;
+        }
+
+        AtomicBoolean success = new AtomicBoolean();
+        try {
+            offerBookService.refreshTTL(openOffer.getOffer().getOfferPayload(),
+                    () -> success.set(true),
+                    log::warn);
+            return success.get();
+        } catch (NetworkNotReadyException e) {
+            log.warn("Refresh TTL of offer {} failed as the network is not ready", openOffer.getShortId());
+            return false;
+        }
     }
 
     private void restart() {
@@ -1038,10 +1035,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void stopPeriodicRefreshOffersTimer() {
-        if (periodicRefreshOffersTimer != null) {
-            periodicRefreshOffersTimer.stop();
-            periodicRefreshOffersTimer = null;
-        }
+        offerRefreshScheduler.stop();
     }
 
     private void stopPeriodicRepublishOffersTimer() {
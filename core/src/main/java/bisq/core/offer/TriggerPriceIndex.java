@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.locale.CurrencyUtil;
+import bisq.core.monetary.Altcoin;
+import bisq.core.provider.price.MarketPrice;
+
+import org.bitcoinj.utils.Fiat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static bisq.common.util.MathUtils.roundDoubleToLong;
+import static bisq.common.util.MathUtils.scaleUpByPowerOf10;
+
+/**
+ * Open offers by currency and, for offers with a trigger price, sorted by trigger price per direction. For a new
+ * market price we get the offers which have been triggered by it from the part of the sorted map beyond the market
+ * price, so we do not need to check each open offer.
+ *
+ * We key the offers by their ID as the hashCode of OpenOffer changes with its state.
+ *
+ * For fiat, sell offers get triggered if the market price is below the trigger price and buy offers if it is above.
+ * For altcoins the price is inverted, so it is the other way round (see {@link TriggerPriceService#wasTriggered}).
+ */
+class TriggerPriceIndex {
+    private static class CurrencyIndex {
+        private final Map<String, OpenOffer> openOffersById = new HashMap<>();
+        private final TreeMap<Long, Map<String, OpenOffer>> buyOffersByTriggerPrice = new TreeMap<>();
+        private final TreeMap<Long, Map<String, OpenOffer>> sellOffersByTriggerPrice = new TreeMap<>();
+
+        private TreeMap<Long, Map<String, OpenOffer>> getOffersByTriggerPrice(OpenOffer openOffer) {
+            return openOffer.getOffer().getDirection() == OfferPayload.Direction.SELL ?
+                    sellOffersByTriggerPrice :
+                    buyOffersByTriggerPrice;
+        }
+    }
+
+    private final Map<String, CurrencyIndex> indexByCurrency = new HashMap<>();
+
+    void add(OpenOffer openOffer) {
+        CurrencyIndex currencyIndex = indexByCurrency.computeIfAbsent(openOffer.getOffer().getCurrencyCode(),
+                currencyCode -> new CurrencyIndex());
+        String offerId = openOffer.getId();
+        if (currencyIndex.openOffersById.putIfAbsent(offerId, openOffer) != null) {
+            return;
+        }
+
+        long triggerPrice = openOffer.getTriggerPrice();
+        if (triggerPrice > 0) {
+            currencyIndex.getOffersByTriggerPrice(openOffer)
+                    .computeIfAbsent(triggerPrice, key -> new HashMap<>())
+                    .put(offerId, openOffer);
+        }
+    }
+
+    void remove(OpenOffer openOffer) {
+        String currencyCode = openOffer.getOffer().getCurrencyCode();
+        CurrencyIndex currencyIndex = indexByCurrency.get(currencyCode);
+        if (currencyIndex == null || currencyIndex.openOffersById.remove(openOffer.getId()) == null) {
+            return;
+        }
+
+        long triggerPrice = openOffer.getTriggerPrice();
+        if (triggerPrice > 0) {
+            TreeMap<Long, Map<String, OpenOffer>> offersByTriggerPrice = currencyIndex.getOffersByTriggerPrice(openOffer);
+            Map<String, OpenOffer> offers = offersByTriggerPrice.get(triggerPrice);
+            if (offers != null) {
+                offers.remove(openOffer.getId());
+                if (offers.isEmpty()) {
+                    offersByTriggerPrice.remove(triggerPrice);
+                }
+            }
+        }
+        if (currencyIndex.openOffersById.isEmpty()) {
+            indexByCurrency.remove(currencyCode);
+        }
+    }
+
+    Set<String> getCurrencyCodes() {
+        return indexByCurrency.keySet();
+    }
+
+    // Open offers with a trigger price the market price has crossed. Includes deactivated offers.
+    List<OpenOffer> getTriggeredOpenOffers(MarketPrice marketPrice) {
+        String currencyCode = marketPrice.getCurrencyCode();
+        CurrencyIndex currencyIndex = indexByCurrency.get(currencyCode);
+        if (currencyIndex == null) {
+            return List.of();
+        }
+
+        boolean cryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
+        int smallestUnitExponent = cryptoCurrency ?
+                Altcoin.SMALLEST_UNIT_EXPONENT :
+                Fiat.SMALLEST_UNIT_EXPONENT;
+        long marketPriceAsLong = roundDoubleToLong(scaleUpByPowerOf10(marketPrice.getPrice(), smallestUnitExponent));
+
+        // Offers with a trigger price above the market price get triggered if the market price falls below it
+        NavigableMap<Long, Map<String, OpenOffer>> triggeredIfBelow = cryptoCurrency ?
+                currencyIndex.buyOffersByTriggerPrice.tailMap(marketPriceAsLong, false) :
+                currencyIndex.sellOffersByTriggerPrice.tailMap(marketPriceAsLong, false);
+        NavigableMap<Long, Map<String, OpenOffer>> triggeredIfAbove = cryptoCurrency ?
+                currencyIndex.sellOffersByTriggerPrice.headMap(marketPriceAsLong, false) :
+                currencyIndex.buyOffersByTriggerPrice.headMap(marketPriceAsLong, false);
+        return Stream.concat(triggeredIfBelow.values().stream(), triggeredIfAbove.values().stream())
+                .flatMap(offers -> offers.values().stream())
+                .collect(Collectors.toList());
+    }
+}
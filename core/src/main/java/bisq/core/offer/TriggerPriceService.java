@@ -36,6 +36,7 @@ import javax.inject.Singleton;
 
 import javafx.collections.ListChangeListener;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -55,7 +56,9 @@ public class TriggerPriceService {
     private final OpenOfferManager openOfferManager;
     private final MempoolService mempoolService;
     private final PriceFeedService priceFeedService;
-    private final Map<String, Set<OpenOffer>> openOffersByCurrency = new HashMap<>();
+    private final TriggerPriceIndex triggerPriceIndex = new TriggerPriceIndex();
+    // Open offers which have not got a successful mempool validation yet
+    private final Map<String, Map<String, OpenOffer>> openOffersWithPendingMempoolCheckByCurrency = new HashMap<>();
 
     @Inject
     public TriggerPriceService(P2PService p2PService,
@@ -98,14 +101,31 @@ public class TriggerPriceService {
     }
 
     private void onPriceFeedChanged() {
-        openOffersByCurrency.keySet().stream()
+        new ArrayList<>(triggerPriceIndex.getCurrencyCodes()).stream()
                 .map(priceFeedService::getMarketPrice)
                 .filter(Objects::nonNull)
-                .filter(marketPrice -> openOffersByCurrency.containsKey(marketPrice.getCurrencyCode()))
                 .forEach(marketPrice -> {
-                    openOffersByCurrency.get(marketPrice.getCurrencyCode()).stream()
+                    // Only offers with a trigger price crossed by the market price can get triggered. For the other
+                    // offers we only need to check the mempool if that has not succeeded yet.
+                    Set<String> checkedOfferIds = new HashSet<>();
+                    triggerPriceIndex.getTriggeredOpenOffers(marketPrice).stream()
                             .filter(openOffer -> !openOffer.isDeactivated())
-                            .forEach(openOffer -> checkPriceThreshold(marketPrice, openOffer));
+                            .forEach(openOffer -> {
+                                checkedOfferIds.add(openOffer.getId());
+                                checkPriceThreshold(marketPrice, openOffer);
+                            });
+
+                    Map<String, OpenOffer> pendingMempoolCheck = openOffersWithPendingMempoolCheckByCurrency.get(marketPrice.getCurrencyCode());
+                    if (pendingMempoolCheck != null) {
+                        new ArrayList<>(pendingMempoolCheck.values()).stream()
+                                .filter(openOffer -> !openOffer.isDeactivated())
+                                .filter(openOffer -> !checkedOfferIds.contains(openOffer.getId()))
+                                .forEach(openOffer -> checkPriceThreshold(marketPrice, openOffer));
+                        pendingMempoolCheck.values().removeIf(openOffer -> openOffer.getMempoolStatus() == 1);
+                        if (pendingMempoolCheck.isEmpty()) {
+                            openOffersWithPendingMempoolCheckByCurrency.remove(marketPrice.getCurrencyCode());
+                        }
+                    }
                 });
     }
 
@@ -176,8 +196,11 @@ public class TriggerPriceService {
     private void onAddedOpenOffers(List<? extends OpenOffer> openOffers) {
         openOffers.forEach(openOffer -> {
             String currencyCode = openOffer.getOffer().getCurrencyCode();
-            openOffersByCurrency.putIfAbsent(currencyCode, new HashSet<>());
-            openOffersByCurrency.get(currencyCode).add(openOffer);
+            triggerPriceIndex.add(openOffer);
+            if (openOffer.getMempoolStatus() != 1) {
+                openOffersWithPendingMempoolCheckByCurrency.computeIfAbsent(currencyCode, key -> new HashMap<>())
+                        .put(openOffer.getId(), openOffer);
+            }
 
             MarketPrice marketPrice = priceFeedService.getMarketPrice(openOffer.getOffer().getCurrencyCode());
             if (marketPrice != null) {
@@ -188,12 +211,14 @@ public class TriggerPriceService {
 
     private void onRemovedOpenOffers(List<? extends OpenOffer> openOffers) {
         openOffers.forEach(openOffer -> {
+            triggerPriceIndex.remove(openOffer);
+
             String currencyCode = openOffer.getOffer().getCurrencyCode();
-            if (openOffersByCurrency.containsKey(currencyCode)) {
-                Set<OpenOffer> set = openOffersByCurrency.get(currencyCode);
-                set.remove(openOffer);
-                if (set.isEmpty()) {
-                    openOffersByCurrency.remove(currencyCode);
+            Map<String, OpenOffer> pendingMempoolCheck = openOffersWithPendingMempoolCheckByCurrency.get(currencyCode);
+            if (pendingMempoolCheck != null) {
+                pendingMempoolCheck.remove(openOffer.getId());
+                if (pendingMempoolCheck.isEmpty()) {
+                    openOffersWithPendingMempoolCheckByCurrency.remove(currencyCode);
                 }
             }
         });
@@ -17,28 +17,164 @@
 
 package bisq.core.support.dispute;
 
+import bisq.core.support.messages.ChatMessage;
+
 import bisq.common.proto.persistable.PersistableListAsObservable;
-import bisq.common.proto.persistable.PersistablePayload;
+import bisq.common.proto.persistable.PersistableRecordList;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@ToString
+@ToString(onlyExplicitlyIncluded = true)
 /*
  * Holds a List of Dispute objects.
  *
  * Calls to the List are delegated because this class intercepts the add/remove calls so changes
- * can be saved to disc.
+ * can be saved to disc. Each dispute is persisted as a separate record, so a new chat message does not require to
+ * write all disputes.
+ *
+ * We maintain an index by tradeId and a set of chat message UIDs per dispute, so lookups from incoming messages
+ * do not need to iterate over all disputes and all their chat messages. The indexes are kept in sync by listeners
+ * on the observable dispute list and on the chatMessages list of each dispute.
  */
-public abstract class DisputeList<T extends PersistablePayload> extends PersistableListAsObservable<T> {
+public abstract class DisputeList<T extends Dispute> extends PersistableListAsObservable<T>
+        implements PersistableRecordList<T> {
+    // A trade has max. 2 disputes at the agent (one per trader), so the lists are tiny
+    private final Map<String, List<T>> disputesByTradeId = new HashMap<>();
+    // Dispute uses value based equals/hashCode over mutable fields, so we need to use identity as key
+    private final Map<T, ChatMessageIndex> chatMessageIndexByDispute = new IdentityHashMap<>();
 
     public DisputeList() {
+        super();
+        initIndex();
     }
 
     protected DisputeList(Collection<T> collection) {
         super(collection);
+        initIndex();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Optional<T> findDispute(String tradeId, int traderId) {
+        List<T> disputes = disputesByTradeId.get(tradeId);
+        if (disputes == null) {
+            return Optional.empty();
+        }
+        return disputes.stream()
+                .filter(e -> e.getTraderId() == traderId)
+                .findAny();
+    }
+
+    public Optional<T> findDispute(String tradeId) {
+        List<T> disputes = disputesByTradeId.get(tradeId);
+        if (disputes == null || disputes.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(disputes.get(0));
+    }
+
+    @Override
+    public String getRecordId(T dispute) {
+        return dispute.getId();
+    }
+
+    public boolean containsChatMessage(T dispute, String uid) {
+        ChatMessageIndex chatMessageIndex = chatMessageIndexByDispute.get(dispute);
+        if (chatMessageIndex != null) {
+            return chatMessageIndex.uids.contains(uid);
+        }
+        // Not part of our list, so we fall back to iterating the chat messages
+        return dispute.getChatMessages().stream().anyMatch(m -> m.getUid().equals(uid));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void initIndex() {
+        getList().forEach(this::onDisputeAdded);
+        addListener(change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::onDisputeRemoved);
+                change.getAddedSubList().forEach(this::onDisputeAdded);
+            }
+        });
+    }
+
+    private void onDisputeAdded(T dispute) {
+        disputesByTradeId.computeIfAbsent(dispute.getTradeId(), key -> new ArrayList<>(2)).add(dispute);
+        if (!chatMessageIndexByDispute.containsKey(dispute)) {
+            chatMessageIndexByDispute.put(dispute, new ChatMessageIndex(dispute));
+        }
+    }
+
+    private void onDisputeRemoved(T dispute) {
+        List<T> disputes = disputesByTradeId.get(dispute.getTradeId());
+        if (disputes != null) {
+            disputes.removeIf(e -> e == dispute);
+            if (disputes.isEmpty()) {
+                disputesByTradeId.remove(dispute.getTradeId());
+            }
+        }
+
+        // The same instance might still be in the list if it was added twice via the observable list directly
+        boolean stillContained = getList().stream().anyMatch(e -> e == dispute);
+        if (!stillContained) {
+            ChatMessageIndex chatMessageIndex = chatMessageIndexByDispute.remove(dispute);
+            if (chatMessageIndex != null) {
+                chatMessageIndex.dispose();
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ChatMessageIndex
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class ChatMessageIndex {
+        private final Set<String> uids = new HashSet<>();
+        private final ListChangeListener<ChatMessage> listener;
+
+        ChatMessageIndex(Dispute dispute) {
+            dispute.getChatMessages().forEach(m -> uids.add(m.getUid()));
+            listener = change -> {
+                while (change.next()) {
+                    if (change.wasRemoved()) {
+                        // A removed message could still be present a second time, so we rebuild the set
+                        uids.clear();
+                        change.getList().forEach(m -> uids.add(m.getUid()));
+                    } else {
+                        change.getAddedSubList().forEach(m -> uids.add(m.getUid()));
+                    }
+                }
+            };
+            // Temporary DisputeList instances (e.g. created at fromProto) must not keep their listeners alive, so
+            // we use a weak listener. The strong reference is held by the DisputeList via chatMessageIndexByDispute.
+            dispute.getChatMessages().addListener(new WeakListChangeListener<>(listener));
+        }
+
+        void dispose() {
+            uids.clear();
+        }
     }
 }
@@ -180,7 +180,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
     @Override
     public void addAndPersistChatMessage(ChatMessage message) {
         findDispute(message).ifPresent(dispute -> {
-            if (dispute.getChatMessages().stream().noneMatch(m -> m.getUid().equals(message.getUid()))) {
+            if (!getDisputeList().containsChatMessage(dispute, message.getUid())) {
                 dispute.addAndPersistChatMessage(message);
                 requestPersistence();
             } else {
@@ -294,7 +294,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream().filter(e -> e.getTradeId().equals(tradeId)).findAny();
+        return disputeList.findDispute(tradeId);
     }
 
 
@@ -817,9 +817,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId)
-                .findAny();
+        return disputeList.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findDispute(String tradeId) {
@@ -828,15 +826,13 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId))
-                .findAny();
+        return disputeList.findDispute(tradeId);
     }
 
     public Optional<Trade> findTrade(Dispute dispute) {
         Optional<Trade> retVal = tradeManager.getTradeById(dispute.getTradeId());
         if (!retVal.isPresent()) {
-            retVal = closedTradableManager.getClosedTrades().stream().filter(e -> e.getId().equals(dispute.getTradeId())).findFirst();
+            retVal = closedTradableManager.getClosedTradeById(dispute.getTradeId());
         }
         return retVal;
     }
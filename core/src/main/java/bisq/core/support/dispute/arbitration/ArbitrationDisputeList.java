@@ -27,6 +27,7 @@ import bisq.common.proto.ProtoUtil;
 import com.google.protobuf.Message;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -60,11 +61,19 @@ public final class ArbitrationDisputeList extends DisputeList<Dispute> {
 
     @Override
     public Message toProtoMessage() {
+        return toProtoMessage(getList());
+    }
+
+    @Override
+    public Message toRecordProtoMessage(Dispute dispute) {
+        return toProtoMessage(Collections.singletonList(dispute));
+    }
 
-        forEach(dispute -> checkArgument(dispute.getSupportType().equals(SupportType.ARBITRATION), "Support type has to be ARBITRATION"));
+    private static Message toProtoMessage(Collection<Dispute> disputes) {
+        disputes.forEach(dispute -> checkArgument(dispute.getSupportType().equals(SupportType.ARBITRATION), "Support type has to be ARBITRATION"));
 
         return protobuf.PersistableEnvelope.newBuilder().setArbitrationDisputeList(protobuf.ArbitrationDisputeList.newBuilder()
-                .addAllDispute(ProtoUtil.collectionToProto(getList(), protobuf.Dispute.class))).build();
+                .addAllDispute(ProtoUtil.collectionToProto(disputes, protobuf.Dispute.class))).build();
     }
 
     public static ArbitrationDisputeList fromProto(protobuf.ArbitrationDisputeList proto,
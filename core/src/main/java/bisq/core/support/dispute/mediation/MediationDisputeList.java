@@ -27,6 +27,7 @@ import bisq.common.proto.ProtoUtil;
 import com.google.protobuf.Message;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -58,8 +59,17 @@ public final class MediationDisputeList extends DisputeList<Dispute> {
 
     @Override
     public Message toProtoMessage() {
+        return toProtoMessage(getList());
+    }
+
+    @Override
+    public Message toRecordProtoMessage(Dispute dispute) {
+        return toProtoMessage(Collections.singletonList(dispute));
+    }
+
+    private static Message toProtoMessage(Collection<Dispute> disputes) {
         return protobuf.PersistableEnvelope.newBuilder().setMediationDisputeList(protobuf.MediationDisputeList.newBuilder()
-                .addAllDispute(ProtoUtil.collectionToProto(getList(), protobuf.Dispute.class))).build();
+                .addAllDispute(ProtoUtil.collectionToProto(disputes, protobuf.Dispute.class))).build();
     }
 
     public static MediationDisputeList fromProto(protobuf.MediationDisputeList proto,
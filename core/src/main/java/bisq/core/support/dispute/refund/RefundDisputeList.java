@@ -27,6 +27,7 @@ import bisq.common.proto.ProtoUtil;
 import com.google.protobuf.Message;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -60,10 +61,19 @@ public final class RefundDisputeList extends DisputeList<Dispute> {
 
     @Override
     public Message toProtoMessage() {
-        forEach(dispute -> checkArgument(dispute.getSupportType().equals(SupportType.REFUND), "Support type has to be REFUND"));
+        return toProtoMessage(getList());
+    }
+
+    @Override
+    public Message toRecordProtoMessage(Dispute dispute) {
+        return toProtoMessage(Collections.singletonList(dispute));
+    }
+
+    private static Message toProtoMessage(Collection<Dispute> disputes) {
+        disputes.forEach(dispute -> checkArgument(dispute.getSupportType().equals(SupportType.REFUND), "Support type has to be REFUND"));
 
         return protobuf.PersistableEnvelope.newBuilder().setRefundDisputeList(protobuf.RefundDisputeList.newBuilder()
-                .addAllDispute(ProtoUtil.collectionToProto(getList(), protobuf.Dispute.class))).build();
+                .addAllDispute(ProtoUtil.collectionToProto(disputes, protobuf.Dispute.class))).build();
     }
 
     public static RefundDisputeList fromProto(protobuf.RefundDisputeList proto,
@@ -24,17 +24,20 @@ import bisq.core.proto.CoreProtoResolver;
 import bisq.common.proto.ProtoUtil;
 import bisq.common.proto.ProtobufferRuntimeException;
 import bisq.common.proto.persistable.PersistableListAsObservable;
+import bisq.common.proto.persistable.PersistableRecordList;
 
 import com.google.protobuf.Message;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T> {
+public final class TradableList<T extends Tradable> extends PersistableListAsObservable<T>
+        implements PersistableRecordList<T> {
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -54,9 +57,25 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
 
     @Override
     public Message toProtoMessage() {
+        return toProtoMessage(getList());
+    }
+
+    // Each tradable is persisted as a separate record, so a state change of one trade does not require to write
+    // all trades
+    @Override
+    public Message toRecordProtoMessage(T tradable) {
+        return toProtoMessage(Collections.singletonList(tradable));
+    }
+
+    @Override
+    public String getRecordId(T tradable) {
+        return tradable.getId();
+    }
+
+    private static Message toProtoMessage(Collection<? extends Tradable> tradables) {
         return protobuf.PersistableEnvelope.newBuilder()
                 .setTradableList(protobuf.TradableList.newBuilder()
-                        .addAllTradable(ProtoUtil.collectionToProto(getList(), protobuf.Tradable.class)))
+                        .addAllTradable(ProtoUtil.collectionToProto(tradables, protobuf.Tradable.class)))
                 .build();
     }
 
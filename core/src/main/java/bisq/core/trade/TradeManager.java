@@ -354,19 +354,24 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private void initPersistedTrade(Trade trade) {
         initTradeAndProtocol(trade, getTradeProtocol(trade));
         trade.updateDepositTxFromWallet();
-        requestPersistence();
+        requestPersistence(trade);
     }
 
     private void initTradeAndProtocol(Trade trade, TradeProtocol tradeProtocol) {
         tradeProtocol.initialize(processModelServiceProvider, this, trade.getOffer());
         trade.initialize(processModelServiceProvider);
-        requestPersistence();
+        requestPersistence(trade);
     }
 
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
 
+    // Use if only the given trade has changed, so the other trades do not need to be serialized
+    public void requestPersistence(Trade trade) {
+        persistenceManager.requestPersistence(trade);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Take offer
@@ -500,7 +505,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     onTradeCompleted(trade);
                     trade.setState(Trade.State.WITHDRAW_COMPLETED);
                     getTradeProtocol(trade).onWithdrawCompleted();
-                    requestPersistence();
+                    requestPersistence(trade);
                     resultHandler.handleResult();
                 }
             }
@@ -544,7 +549,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
             trade.setDisputeState(disputeState);
             onTradeCompleted(trade);
             btcWalletService.swapTradeEntryToAvailableEntry(trade.getId(), AddressEntry.Context.TRADE_PAYOUT);
-            requestPersistence();
+            requestPersistence(trade);
         }
     }
 
@@ -576,10 +581,10 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     Date now = new Date();
                     if (now.after(maxTradePeriodDate)) {
                         trade.setTradePeriodState(Trade.TradePeriodState.TRADE_PERIOD_OVER);
-                        requestPersistence();
+                        requestPersistence(trade);
                     } else if (now.after(halfTradePeriodDate)) {
                         trade.setTradePeriodState(Trade.TradePeriodState.SECOND_HALF);
-                        requestPersistence();
+                        requestPersistence(trade);
                     }
                 }
             }
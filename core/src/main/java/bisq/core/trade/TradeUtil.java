@@ -110,8 +110,9 @@ public class TradeUtil {
         var payoutAddress = isMyRoleBuyer
                 ? contract.getBuyerPayoutAddressString()
                 : contract.getSellerPayoutAddressString();
-        var payoutAddressEntry = btcWalletService.getAddressEntryListAsImmutableList().stream()
-                .filter(e -> Objects.equals(e.getAddressString(), payoutAddress))
+        var payoutAddressEntry = payoutAddress == null
+                ? null
+                : btcWalletService.getAddressEntriesByAddress(payoutAddress).stream()
                 .findAny()
                 .orElse(null);
         if (payoutAddressEntry == null)
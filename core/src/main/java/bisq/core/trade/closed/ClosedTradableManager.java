@@ -34,7 +34,9 @@ import com.google.common.collect.ImmutableList;
 
 import javafx.collections.ObservableList;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -45,6 +47,8 @@ import lombok.extern.slf4j.Slf4j;
 public class ClosedTradableManager implements PersistedDataHost {
     private final PersistenceManager<TradableList<Tradable>> persistenceManager;
     private final TradableList<Tradable> closedTradables = new TradableList<>();
+    // Index by id, kept in sync with closedTradables by a list change listener
+    private final Map<String, Tradable> closedTradablesById = new HashMap<>();
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final CleanupMailboxMessages cleanupMailboxMessages;
@@ -63,6 +67,13 @@ public class ClosedTradableManager implements PersistedDataHost {
         this.persistenceManager = persistenceManager;
 
         this.persistenceManager.initialize(closedTradables, "ClosedTrades", PersistenceManager.Source.PRIVATE);
+
+        closedTradables.addListener(change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::onTradableRemoved);
+                change.getAddedSubList().forEach(tradable -> closedTradablesById.putIfAbsent(tradable.getId(), tradable));
+            }
+        });
     }
 
     @Override
@@ -110,7 +121,13 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return Optional.ofNullable(closedTradablesById.get(id));
+    }
+
+    public Optional<Trade> getClosedTradeById(String id) {
+        return getTradableById(id)
+                .filter(tradable -> tradable instanceof Trade)
+                .map(tradable -> (Trade) tradable);
     }
 
     public Stream<Trade> getTradesStreamWithFundsLockedIn() {
@@ -118,6 +135,17 @@ public class ClosedTradableManager implements PersistedDataHost {
                 .filter(Trade::isFundsLockedIn);
     }
 
+    private void onTradableRemoved(Tradable tradable) {
+        String id = tradable.getId();
+        if (closedTradablesById.remove(id, tradable)) {
+            // In case there is another tradable with the same id left we use that
+            closedTradables.stream()
+                    .filter(e -> e.getId().equals(id))
+                    .findFirst()
+                    .ifPresent(e -> closedTradablesById.put(id, e));
+        }
+    }
+
     private void requestPersistence() {
         persistenceManager.requestPersistence();
     }
@@ -165,7 +165,7 @@ public class BuyerSendsShareBuyerPaymentAccountMessage extends SendMailboxMessag
     private void onMessageStateChange(MessageState newValue) {
         // Once we receive an ACK from our msg we know the peer has received the msg and we stop.
         if (newValue == MessageState.ACKNOWLEDGED) {
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
             cleanup();
             complete();
         }
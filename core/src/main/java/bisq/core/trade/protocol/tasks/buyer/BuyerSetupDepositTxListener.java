@@ -164,7 +164,7 @@ public class BuyerSetupDepositTxListener extends TradeTask {
             unSubscribeAndRemoveListener();
             trade.setState(Trade.State.BUYER_SAW_DEPOSIT_TX_IN_NETWORK);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
         } else {
             unSubscribeAndRemoveListener();
         }
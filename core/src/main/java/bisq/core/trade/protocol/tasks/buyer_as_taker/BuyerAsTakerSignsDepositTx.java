@@ -94,7 +94,7 @@ public class BuyerAsTakerSignsDepositTx extends TradeTask {
                     sellerMultiSigPubKey);
             processModel.setDepositTx(depositTx);
 
-            processModel.getTradeManager().requestPersistence();
+            processModel.getTradeManager().requestPersistence(trade);
 
             complete();
         } catch (Throwable t) {
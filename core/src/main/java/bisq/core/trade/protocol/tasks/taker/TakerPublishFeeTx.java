@@ -111,7 +111,7 @@ public class TakerPublishFeeTx extends TradeTask {
                 trade.setTakerFeeTxId(transaction.getTxId().toString());
                 trade.setState(Trade.State.TAKER_PUBLISHED_TAKER_FEE_TX);
 
-                processModel.getTradeManager().requestPersistence();
+                processModel.getTradeManager().requestPersistence(trade);
 
                 complete();
             }
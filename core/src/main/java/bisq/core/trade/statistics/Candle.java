@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.common.util.MathUtils;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * Aggregated trade statistics of one tick (time interval). Trades can be added in any
+ * order, open and close are derived from the trade dates.
+ *
+ * The trade prices are kept in a primitive array which is only sorted when the median
+ * is requested after new trades got added.
+ */
+public final class Candle {
+    @Getter
+    private final long tickStart;
+    @Getter
+    private long open;
+    @Getter
+    private long close;
+    @Getter
+    private long high;
+    @Getter
+    private long low;
+    @Getter
+    private long accumulatedAmount;
+    @Getter
+    private long accumulatedVolume;
+    @Getter
+    private int numTrades;
+
+    private long openDate = Long.MAX_VALUE;
+    private long closeDate = Long.MIN_VALUE;
+    private long[] prices = new long[4];
+    private boolean pricesSorted = true;
+
+    public Candle(long tickStart) {
+        this.tickStart = tickStart;
+    }
+
+    public static Candle of(long tickStart, Iterable<TradeStatistics3> tradeStatistics) {
+        Candle candle = new Candle(tickStart);
+        tradeStatistics.forEach(candle::add);
+        return candle;
+    }
+
+    void add(TradeStatistics3 tradeStatistics) {
+        add(tradeStatistics.getTradePrice().getValue(),
+                tradeStatistics.getDateAsLong(),
+                tradeStatistics.getTradeAmount().getValue(),
+                tradeStatistics.getTradeVolume().getValue());
+    }
+
+    /**
+     * Adds all trades of the given candle to this one. Must not be called on candles
+     * owned by the {@link CandleStore}, use a {@link #copy()} instead.
+     */
+    public void add(Candle candle) {
+        for (int i = 0; i < candle.numTrades; i++) {
+            addPrice(candle.prices[i]);
+        }
+        if (candle.numTrades > 0) {
+            updateOpenClose(candle.open, candle.openDate);
+            updateOpenClose(candle.close, candle.closeDate);
+            high = Math.max(high, candle.high);
+            low = low != 0 ? Math.min(low, candle.low) : candle.low;
+        }
+        accumulatedAmount += candle.accumulatedAmount;
+        accumulatedVolume += candle.accumulatedVolume;
+    }
+
+    public long getMedian() {
+        if (numTrades == 0) {
+            return 0;
+        }
+
+        if (!pricesSorted) {
+            Arrays.sort(prices, 0, numTrades);
+            pricesSorted = true;
+        }
+
+        // Same as MathUtils.getMedian
+        int middle = numTrades / 2;
+        if (numTrades % 2 == 1) {
+            return prices[middle];
+        } else {
+            return MathUtils.roundDoubleToLong((prices[middle - 1] + prices[middle]) / 2.0);
+        }
+    }
+
+    public Candle copy() {
+        Candle copy = new Candle(tickStart);
+        copy.add(this);
+        return copy;
+    }
+
+    private void add(long price, long date, long amount, long volume) {
+        low = low != 0 ? Math.min(low, price) : price;
+        high = high != 0 ? Math.max(high, price) : price;
+        accumulatedAmount += amount;
+        accumulatedVolume += volume;
+        updateOpenClose(price, date);
+        addPrice(price);
+    }
+
+    private void updateOpenClose(long price, long date) {
+        if (date < openDate) {
+            openDate = date;
+            open = price;
+        }
+        if (date >= closeDate) {
+            closeDate = date;
+            close = price;
+        }
+    }
+
+    private void addPrice(long price) {
+        if (numTrades == prices.length) {
+            prices = Arrays.copyOf(prices, numTrades * 2);
+        }
+        if (numTrades > 0 && prices[numTrades - 1] > price) {
+            pricesSorted = false;
+        }
+        prices[numTrades++] = price;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import javafx.collections.SetChangeListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the trade statistics pre-aggregated into {@link Candle}s per currency and tick
+ * unit. The candles of a currency and tick unit are built on first request and are
+ * then updated incrementally as new trade statistics arrive, so switching the currency
+ * or tick unit of a chart does not require to re-bucket all trades.
+ *
+ * A trade is assigned to the tick its date lies in, a trade exactly at the start of a
+ * tick belongs to the previous tick.
+ *
+ * It also indexes the trade statistics by currency, so the trades of a single currency
+ * are available without filtering the whole set.
+ *
+ * Not thread safe, must be used from the UserThread.
+ */
+@Slf4j
+@Singleton
+public class CandleStore {
+
+    /**
+     * Defines the time intervals of the candles. The instance is used as cache key, so
+     * implementations should be constants (e.g. enum values).
+     */
+    public interface TickUnit {
+        /**
+         * @return the start of the tick the given time lies in
+         */
+        long getTickStart(long time);
+
+        /**
+         * @return the start of the tick following the tick starting at the given time
+         */
+        long getNextTickStart(long tickStart);
+    }
+
+    private final TradeStatisticsManager tradeStatisticsManager;
+    // Key is the currency code, null for all currencies
+    private final Map<String, Map<TickUnit, NavigableMap<Long, Candle>>> candlesByCurrency = new HashMap<>();
+    // Built on first request, null if it needs to be rebuilt
+    @Nullable
+    private Map<String, List<TradeStatistics3>> tradeStatisticsByCurrency;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public CandleStore(TradeStatisticsManager tradeStatisticsManager) {
+        this.tradeStatisticsManager = tradeStatisticsManager;
+
+        // Registered at construction so we get notified before any listener of a chart
+        // which reads from the store.
+        tradeStatisticsManager.getObservableTradeStatisticsSet().addListener(
+                (SetChangeListener<TradeStatistics3>) this::onTradeStatisticsChanged);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param currencyCode the currency code or null for the trades of all currencies
+     * @param tickUnit     the tick unit
+     * @return the candles by tick start. Must not be modified by the caller.
+     */
+    public NavigableMap<Long, Candle> getCandles(@Nullable String currencyCode, TickUnit tickUnit) {
+        return candlesByCurrency.computeIfAbsent(currencyCode, key -> new HashMap<>())
+                .computeIfAbsent(tickUnit, key -> buildCandles(currencyCode, tickUnit));
+    }
+
+    /**
+     * @param currencyCode the currency code
+     * @return the trade statistics of that currency in no particular order. Must not be
+     * modified by the caller.
+     */
+    public List<TradeStatistics3> getTradeStatistics(String currencyCode) {
+        if (tradeStatisticsByCurrency == null) {
+            tradeStatisticsByCurrency = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
+                    .collect(Collectors.groupingBy(TradeStatistics3::getCurrency,
+                            HashMap::new,
+                            Collectors.toCollection(ArrayList::new)));
+        }
+        return Collections.unmodifiableList(tradeStatisticsByCurrency.getOrDefault(currencyCode, List.of()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private NavigableMap<Long, Candle> buildCandles(@Nullable String currencyCode, TickUnit tickUnit) {
+        long ts = System.currentTimeMillis();
+        List<TradeStatistics3> tradeStatistics = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
+                .filter(e -> currencyCode == null || e.getCurrency().equals(currencyCode))
+                .sorted(Comparator.comparingLong(TradeStatistics3::getDateAsLong))
+                .collect(Collectors.toList());
+
+        NavigableMap<Long, Candle> candles = new TreeMap<>();
+        // The trades are sorted by date, so we only need to round again once we leave
+        // the current tick.
+        Candle current = null;
+        long currentTickEnd = 0;
+        for (TradeStatistics3 item : tradeStatistics) {
+            // Trades exactly at the tick start are counted to the previous tick
+            long time = item.getDateAsLong() - 1;
+            if (current == null || time < current.getTickStart() || time >= currentTickEnd) {
+                current = candles.computeIfAbsent(tickUnit.getTickStart(time), Candle::new);
+                currentTickEnd = tickUnit.getNextTickStart(current.getTickStart());
+            }
+            current.add(item);
+        }
+        log.info("Building {} candles for {} and {} took {} ms", candles.size(),
+                currencyCode != null ? currencyCode : "all currencies", tickUnit, System.currentTimeMillis() - ts);
+        return candles;
+    }
+
+    private void onTradeStatisticsChanged(SetChangeListener.Change<? extends TradeStatistics3> change) {
+        if (change.wasAdded()) {
+            TradeStatistics3 item = change.getElementAdded();
+            addToCandles(candlesByCurrency.get(item.getCurrency()), item);
+            addToCandles(candlesByCurrency.get(null), item);
+            if (tradeStatisticsByCurrency != null) {
+                tradeStatisticsByCurrency.computeIfAbsent(item.getCurrency(), key -> new ArrayList<>()).add(item);
+            }
+        } else if (change.wasRemoved()) {
+            // Removal does not happen in normal operation, we rebuild on next request
+            TradeStatistics3 item = change.getElementRemoved();
+            candlesByCurrency.remove(item.getCurrency());
+            candlesByCurrency.remove(null);
+            tradeStatisticsByCurrency = null;
+        }
+    }
+
+    private void addToCandles(@Nullable Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit,
+                              TradeStatistics3 item) {
+        if (candlesByTickUnit == null) {
+            return;
+        }
+
+        candlesByTickUnit.forEach((tickUnit, candles) ->
+                candles.computeIfAbsent(getTickKey(tickUnit, item.getDateAsLong()), Candle::new).add(item));
+    }
+
+    private static long getTickKey(TickUnit tickUnit, long time) {
+        // Trades exactly at the tick start are counted to the previous tick
+        return tickUnit.getTickStart(time - 1);
+    }
+}
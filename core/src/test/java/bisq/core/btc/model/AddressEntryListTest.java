@@ -0,0 +1,170 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.model;
+
+import bisq.common.config.Config;
+import bisq.common.persistence.PersistenceManager;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.crypto.DeterministicKey;
+import org.bitcoinj.crypto.HDKeyDerivation;
+import org.bitcoinj.script.Script;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Applies random sequences of mutations to an AddressEntryList and checks that every indexed lookup returns
+ * the same entries as a linear scan over all entries.
+ */
+public class AddressEntryListTest {
+    private static final NetworkParameters PARAMS = Config.baseCurrencyNetworkParameters();
+    private static final List<String> OFFER_IDS = IntStream.range(0, 20)
+            .mapToObj(i -> "offer-" + i)
+            .collect(Collectors.toList());
+    private static final AddressEntry.Context[] TRADE_CONTEXTS = {
+            AddressEntry.Context.OFFER_FUNDING,
+            AddressEntry.Context.RESERVED_FOR_TRADE,
+            AddressEntry.Context.MULTI_SIG,
+            AddressEntry.Context.TRADE_PAYOUT
+    };
+
+    private final Random random = new Random(13);
+    private final List<DeterministicKey> keys = new ArrayList<>();
+    private DeterministicKey masterKey;
+    private AddressEntryList addressEntryList;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setup() {
+        byte[] seed = new byte[32];
+        random.nextBytes(seed);
+        masterKey = HDKeyDerivation.createMasterPrivateKey(seed);
+        addressEntryList = new AddressEntryList(mock(PersistenceManager.class));
+    }
+
+    @Test
+    public void testIndexedLookupsMatchLinearScanAcrossRandomMutations() {
+        for (int i = 0; i < 2000; i++) {
+            mutate();
+            if (i % 50 == 0)
+                assertIndexedLookupsMatchLinearScan(addressEntryList, true);
+        }
+        assertIndexedLookupsMatchLinearScan(addressEntryList, true);
+    }
+
+    @Test
+    public void testIndexesAreRebuiltFromProto() {
+        for (int i = 0; i < 1000; i++) {
+            mutate();
+        }
+
+        protobuf.PersistableEnvelope proto = (protobuf.PersistableEnvelope) addressEntryList.toProtoMessage();
+        AddressEntryList restored = AddressEntryList.fromProto(proto.getAddressEntryList());
+
+        assertEquals(new HashSet<>(addressEntryList.getAddressEntriesAsListImmutable()),
+                new HashSet<>(restored.getAddressEntriesAsListImmutable()));
+        // Restored entries have no keys before onWalletReady, so they are not indexed by address yet.
+        assertIndexedLookupsMatchLinearScan(restored, false);
+    }
+
+    private void mutate() {
+        List<AddressEntry> entries = addressEntryList.getAddressEntriesAsListImmutable();
+        int operation = entries.isEmpty() ? 0 : random.nextInt(5);
+        switch (operation) {
+            case 0:
+            case 1:
+                AddressEntry.Context context = AddressEntry.Context.values()[random.nextInt(AddressEntry.Context.values().length)];
+                boolean hasOfferId = context != AddressEntry.Context.AVAILABLE && context != AddressEntry.Context.ARBITRATOR;
+                addressEntryList.addAddressEntry(new AddressEntry(freshKey(),
+                        context,
+                        hasOfferId ? randomOfferId() : null,
+                        random.nextBoolean()));
+                break;
+            case 2:
+                addressEntryList.swapToAvailable(randomEntry(entries));
+                break;
+            case 3:
+                addressEntryList.swapAvailableToAddressEntryWithOfferId(randomEntry(entries),
+                        TRADE_CONTEXTS[random.nextInt(TRADE_CONTEXTS.length)],
+                        randomOfferId());
+                break;
+            default:
+                addressEntryList.setCoinLockedInMultiSigAddressEntry(randomEntry(entries), random.nextInt(100_000));
+                break;
+        }
+    }
+
+    private void assertIndexedLookupsMatchLinearScan(AddressEntryList list, boolean includeAddresses) {
+        List<AddressEntry> entries = list.getAddressEntriesAsListImmutable();
+        for (AddressEntry.Context context : AddressEntry.Context.values()) {
+            assertSameEntries(scan(entries, e -> context == e.getContext()),
+                    list.getAddressEntries(context));
+            for (String offerId : OFFER_IDS) {
+                assertSameEntries(scan(entries, e -> offerId.equals(e.getOfferId()) && context == e.getContext()),
+                        list.getAddressEntries(offerId, context));
+            }
+        }
+
+        if (includeAddresses) {
+            for (DeterministicKey key : keys) {
+                for (Script.ScriptType scriptType : new Script.ScriptType[]{Script.ScriptType.P2PKH, Script.ScriptType.P2WPKH}) {
+                    String address = Address.fromKey(PARAMS, key, scriptType).toString();
+                    assertSameEntries(scan(entries, e -> address.equals(e.getAddressString())),
+                            list.getAddressEntriesByAddress(address));
+                }
+            }
+        }
+    }
+
+    private static void assertSameEntries(Set<AddressEntry> expected, List<AddressEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, new HashSet<>(actual));
+    }
+
+    private static Set<AddressEntry> scan(List<AddressEntry> entries, Predicate<AddressEntry> predicate) {
+        return entries.stream().filter(predicate).collect(Collectors.toSet());
+    }
+
+    private DeterministicKey freshKey() {
+        DeterministicKey key = HDKeyDerivation.deriveChildKey(masterKey, keys.size());
+        keys.add(key);
+        return key;
+    }
+
+    private String randomOfferId() {
+        return OFFER_IDS.get(random.nextInt(OFFER_IDS.size()));
+    }
+
+    private AddressEntry randomEntry(List<AddressEntry> entries) {
+        return entries.get(random.nextInt(entries.size()));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the ledger against a generated DAO state which changes block by block (new txs, spent outputs, confiscated
+ * bonds, ending lock times and wallet reorgs) and checks it against the full computation after each block.
+ */
+public class BsqBalanceLedgerTest {
+    private static final TxOutputType[] LOCKED_OUTPUT_TYPES = {
+            TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT,
+            TxOutputType.LOCKUP_OUTPUT,
+            TxOutputType.UNLOCK_OUTPUT
+    };
+
+    private final Random random = new Random(21);
+
+    // DAO state fixture
+    private final Map<String, Tx> txs = new HashMap<>();
+    private final Set<TxOutputKey> unspentTxOutputKeys = new HashSet<>();
+    private final Set<String> confiscatedLockupTxIds = new HashSet<>();
+    private final Set<String> lockTimeOverUnlockTxIds = new HashSet<>();
+    private final Map<String, String> lockupTxIdByUnlockTxId = new HashMap<>();
+    private final List<String> lockupTxIds = new ArrayList<>();
+    private int txCounter;
+
+    private final List<Tx> notYetParsedTxs = new ArrayList<>();
+
+    // Wallet fixture
+    private final Set<String> confirmedWalletTxIds = new HashSet<>();
+    private final List<String> unconfirmedWalletTxIds = new ArrayList<>();
+
+    private BsqBalanceLedger ledger;
+
+    @Before
+    public void setup() {
+        DaoStateService daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getTx(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(txs.get(invocation.<String>getArgument(0))));
+        when(daoStateService.isUnspent(any(TxOutputKey.class)))
+                .thenAnswer(invocation -> unspentTxOutputKeys.contains(invocation.<TxOutputKey>getArgument(0)));
+        when(daoStateService.isConfiscatedLockupTxOutput(anyString()))
+                .thenAnswer(invocation -> confiscatedLockupTxIds.contains(invocation.<String>getArgument(0)));
+        when(daoStateService.isConfiscatedUnlockTxOutput(anyString()))
+                .thenAnswer(invocation -> confiscatedLockupTxIds.contains(
+                        lockupTxIdByUnlockTxId.get(invocation.<String>getArgument(0))));
+        when(daoStateService.isLockTimeOverForUnlockTxOutput(any(TxOutput.class)))
+                .thenAnswer(invocation -> isLockTimeOver(invocation.getArgument(0)));
+        when(daoStateService.getUnspentBlindVoteStakeTxOutputs())
+                .thenAnswer(invocation -> getTxOutputs(TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT)
+                        .filter(txOutput -> unspentTxOutputKeys.contains(txOutput.getKey()))
+                        .collect(Collectors.toSet()));
+        when(daoStateService.getLockupTxOutputs())
+                .thenAnswer(invocation -> getTxOutputs(TxOutputType.LOCKUP_OUTPUT)
+                        .collect(Collectors.toSet()));
+        when(daoStateService.getUnspentUnlockingTxOutputsStream())
+                .thenAnswer(invocation -> getTxOutputs(TxOutputType.UNLOCK_OUTPUT)
+                        .filter(txOutput -> unspentTxOutputKeys.contains(txOutput.getKey()))
+                        .filter(txOutput -> !isLockTimeOver(txOutput)));
+
+        ledger = new BsqBalanceLedger(daoStateService);
+    }
+
+    @Test
+    public void testLedgerMatchesFullComputationBlockByBlock() {
+        boolean hadLockedBalances = false;
+        for (int block = 0; block < 300; block++) {
+            applyRandomBlock();
+
+            ledger.update(confirmedWalletTxIds);
+
+            assertTrue("Mismatch at block " + block, ledger.isConsistentWithFullComputation(confirmedWalletTxIds));
+            hadLockedBalances |= ledger.getLockedForVotingBalance() > 0 &&
+                    ledger.getLockupBondsBalance() > 0 &&
+                    ledger.getUnlockingBondsBalance() > 0;
+        }
+        assertTrue("Fixture should produce all kinds of locked balances", hadLockedBalances);
+    }
+
+    private void applyRandomBlock() {
+        // Txs from the previous block which the DAO has parsed only now or which got confirmed again after a reorg
+        notYetParsedTxs.forEach(this::addToDaoState);
+        notYetParsedTxs.clear();
+        confirmedWalletTxIds.addAll(unconfirmedWalletTxIds);
+        unconfirmedWalletTxIds.clear();
+
+        for (int i = 0; i < 20; i++) {
+            Tx tx = createTx();
+            boolean isWalletTx = random.nextInt(3) == 0;
+            if (isWalletTx)
+                confirmedWalletTxIds.add(tx.getId());
+
+            // Wallet txs can be confirmed in the wallet a bit before the DAO has parsed them
+            if (isWalletTx && random.nextInt(10) == 0)
+                notYetParsedTxs.add(tx);
+            else
+                addToDaoState(tx);
+        }
+
+        List<TxOutputKey> unspent = new ArrayList<>(unspentTxOutputKeys);
+        for (int i = 0; i < 5 && !unspent.isEmpty(); i++) {
+            unspentTxOutputKeys.remove(unspent.get(random.nextInt(unspent.size())));
+        }
+
+        if (!lockupTxIds.isEmpty() && random.nextInt(5) == 0)
+            confiscatedLockupTxIds.add(lockupTxIds.get(random.nextInt(lockupTxIds.size())));
+
+        List<String> unlockTxIds = new ArrayList<>(lockupTxIdByUnlockTxId.keySet());
+        if (!unlockTxIds.isEmpty() && random.nextInt(3) == 0)
+            lockTimeOverUnlockTxIds.add(unlockTxIds.get(random.nextInt(unlockTxIds.size())));
+
+        if (!confirmedWalletTxIds.isEmpty() && random.nextInt(10) == 0) {
+            List<String> confirmed = new ArrayList<>(confirmedWalletTxIds);
+            String txId = confirmed.get(random.nextInt(confirmed.size()));
+            confirmedWalletTxIds.remove(txId);
+            unconfirmedWalletTxIds.add(txId);
+        }
+    }
+
+    private Tx createTx() {
+        String txId = "tx" + txCounter++;
+        TxOutputType lockedOutputType = random.nextBoolean() ?
+                LOCKED_OUTPUT_TYPES[random.nextInt(LOCKED_OUTPUT_TYPES.length)] :
+                TxOutputType.BSQ_OUTPUT;
+        if (lockedOutputType == TxOutputType.UNLOCK_OUTPUT && lockupTxIds.isEmpty())
+            lockedOutputType = TxOutputType.LOCKUP_OUTPUT;
+
+        protobuf.Tx.Builder txBuilder = protobuf.Tx.newBuilder()
+                .setTxType(TxType.TRANSFER_BSQ.toProtoMessage())
+                .addTxOutputs(createTxOutput(txId, 0, lockedOutputType));
+        int numBsqOutputs = random.nextInt(3);
+        for (int index = 1; index <= numBsqOutputs; index++) {
+            txBuilder.addTxOutputs(createTxOutput(txId, index, TxOutputType.BSQ_OUTPUT));
+        }
+
+        if (lockedOutputType == TxOutputType.LOCKUP_OUTPUT)
+            lockupTxIds.add(txId);
+        else if (lockedOutputType == TxOutputType.UNLOCK_OUTPUT)
+            lockupTxIdByUnlockTxId.put(txId, lockupTxIds.get(random.nextInt(lockupTxIds.size())));
+
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHash("blockHash")
+                .setTx(txBuilder)
+                .build());
+    }
+
+    private protobuf.BaseTxOutput createTxOutput(String txId, int index, TxOutputType txOutputType) {
+        return protobuf.BaseTxOutput.newBuilder()
+                .setIndex(index)
+                .setValue(1 + random.nextInt(100_000))
+                .setTxId(txId)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(txOutputType.toProtoMessage()))
+                .build();
+    }
+
+    private void addToDaoState(Tx tx) {
+        txs.put(tx.getId(), tx);
+        tx.getTxOutputs().forEach(txOutput -> unspentTxOutputKeys.add(txOutput.getKey()));
+    }
+
+    private Stream<TxOutput> getTxOutputs(TxOutputType txOutputType) {
+        return txs.values().stream()
+                .flatMap(tx -> tx.getTxOutputs().stream())
+                .filter(txOutput -> txOutput.getTxOutputType() == txOutputType);
+    }
+
+    private boolean isLockTimeOver(TxOutput unlockTxOutput) {
+        return lockTimeOverUnlockTxIds.contains(unlockTxOutput.getTxId());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.btc.wallet;
+
+import bisq.core.btc.setup.WalletsSetup;
+import bisq.core.provider.fee.FeeService;
+import bisq.core.user.Preferences;
+
+import bisq.common.config.Config;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Context;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.script.Script;
+import org.bitcoinj.script.ScriptBuilder;
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WalletServiceTest {
+    private static final NetworkParameters PARAMS = Config.baseCurrencyNetworkParameters();
+
+    private final Random random = new Random(42);
+    private final List<Address> addresses = new ArrayList<>();
+    private Wallet wallet;
+    private TestWalletService walletService;
+
+    private static class TestWalletService extends WalletService {
+        private long dustThreshold;
+
+        TestWalletService(WalletsSetup walletsSetup, Wallet wallet) {
+            super(walletsSetup, mock(Preferences.class), mock(FeeService.class));
+            this.wallet = wallet;
+            addListenersToWallet();
+        }
+
+        @Override
+        String getWalletAsString(boolean includePrivKeys) {
+            return wallet.toString();
+        }
+
+        @Override
+        protected boolean isDustAttackUtxo(TransactionOutput output) {
+            return output.getValue().value < dustThreshold;
+        }
+    }
+
+    @Before
+    public void setup() {
+        Context.propagate(new Context(PARAMS));
+        wallet = Wallet.createDeterministic(PARAMS, Script.ScriptType.P2WPKH);
+        wallet.setAcceptRiskyTransactions(true);
+        for (int i = 0; i < 50; i++) {
+            addresses.add(wallet.freshReceiveAddress());
+        }
+
+        WalletsSetup walletsSetup = mock(WalletsSetup.class);
+        when(walletsSetup.getParams()).thenReturn(PARAMS);
+        walletService = new TestWalletService(walletsSetup, wallet);
+    }
+
+    @Test
+    public void testBalanceForAddressWithManyOutputs() {
+        for (int i = 0; i < 20; i++) {
+            receiveTx(1000);
+        }
+
+        addresses.forEach(address -> assertEquals(scanBalance(address), walletService.getBalanceForAddress(address)));
+        Address foreignAddress = Wallet.createDeterministic(PARAMS, Script.ScriptType.P2WPKH).freshReceiveAddress();
+        assertEquals(Coin.ZERO, walletService.getBalanceForAddress(foreignAddress));
+    }
+
+    @Test
+    public void testBalanceForAddressIsUpdatedOnWalletChange() {
+        receiveTx(100);
+        Address address = addresses.get(0);
+        Coin balance = walletService.getBalanceForAddress(address);
+
+        Transaction tx = createTx();
+        tx.addOutput(Coin.valueOf(12345), address);
+        wallet.receivePending(tx, null);
+
+        assertEquals(balance.add(Coin.valueOf(12345)), walletService.getBalanceForAddress(address));
+        assertEquals(scanBalance(address), walletService.getBalanceForAddress(address));
+    }
+
+    @Test
+    public void testBalanceForAddressIgnoresDust() {
+        receiveTx(1000);
+
+        // the dust threshold is a preference and can change without any wallet change
+        walletService.dustThreshold = 50000;
+        addresses.forEach(address -> assertEquals(scanBalance(address), walletService.getBalanceForAddress(address)));
+    }
+
+    @Test
+    public void testNumTxOutputsForAddress() {
+        receiveTx(1000);
+        receiveTx(1000);
+
+        addresses.forEach(address -> {
+            long expected = wallet.getTransactions(false).stream()
+                    .flatMap(tx -> tx.getOutputs().stream())
+                    .filter(output -> address.equals(WalletService.getAddressFromOutput(output)))
+                    .count();
+            assertEquals(expected, walletService.getNumTxOutputsForAddress(address));
+        });
+    }
+
+    // The balance as computed before the spend candidates got indexed by address
+    private Coin scanBalance(Address address) {
+        Coin balance = Coin.ZERO;
+        for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+            if (!walletService.isDustAttackUtxo(output) &&
+                    WalletService.isOutputScriptConvertibleToAddress(output) &&
+                    address.equals(WalletService.getAddressFromOutput(output)))
+                balance = balance.add(output.getValue());
+        }
+        return balance;
+    }
+
+    private void receiveTx(int numOutputs) {
+        Transaction tx = createTx();
+        for (int i = 0; i < numOutputs; i++) {
+            tx.addOutput(Coin.valueOf(1000 + random.nextInt(100000)), addresses.get(random.nextInt(addresses.size())));
+        }
+        wallet.receivePending(tx, null);
+    }
+
+    private Transaction createTx() {
+        byte[] prevTxHash = new byte[32];
+        random.nextBytes(prevTxHash);
+        Transaction tx = new Transaction(PARAMS);
+        tx.addInput(Sha256Hash.wrap(prevTxHash), 0, new ScriptBuilder().build());
+        return tx;
+    }
+}
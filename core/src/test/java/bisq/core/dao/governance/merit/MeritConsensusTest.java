@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.governance.merit;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.governance.BallotList;
+import bisq.core.dao.state.model.governance.DecryptedBallotsWithMerits;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.dao.state.model.governance.Merit;
+import bisq.core.dao.state.model.governance.MeritList;
+
+import bisq.common.crypto.Hash;
+import bisq.common.util.Utilities;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Sha256Hash;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the merit stakes computed in parallel for all votes of a cycle match the ones of getMeritStake per
+ * vote. The votes contain valid and invalid signatures, issuance after the blind vote and non compensation issuance.
+ */
+public class MeritConsensusTest {
+    private final Random random = new Random(3);
+
+    @Test
+    public void testMeritStakeByVoteRevealTxIdMatchesMeritStakePerVote() {
+        List<ECKey> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add(new ECKey());
+        }
+
+        Map<String, Tx> txsById = new HashMap<>();
+        List<DecryptedBallotsWithMerits> votes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String blindVoteTxId = getTxId("blindVote" + i);
+            int blindVoteTxHeight = 100_000 + random.nextInt(1000);
+            // One vote has a blind vote tx we do not know
+            if (i != 0) {
+                txsById.put(blindVoteTxId, createTx(blindVoteTxId, blindVoteTxHeight));
+            }
+
+            List<Merit> merits = new ArrayList<>();
+            int numMerits = random.nextInt(8);
+            for (int j = 0; j < numMerits; j++) {
+                merits.add(createMerit(keys.get(random.nextInt(keys.size())), blindVoteTxId, blindVoteTxHeight, i + "-" + j));
+            }
+            votes.add(new DecryptedBallotsWithMerits(new byte[20], blindVoteTxId, getTxId("voteReveal" + i),
+                    1000, new BallotList(new ArrayList<>()), new MeritList(merits)));
+        }
+
+        DaoStateService daoStateService = mock(DaoStateService.class);
+        when(daoStateService.getTx(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(txsById.get(invocation.<String>getArgument(0))));
+
+        Map<String, Long> meritStakeByVoteRevealTxId = MeritConsensus.getMeritStakeByVoteRevealTxId(votes, daoStateService);
+
+        assertEquals(votes.size(), meritStakeByVoteRevealTxId.size());
+        long sumOfMeritStakes = 0;
+        for (DecryptedBallotsWithMerits vote : votes) {
+            long expected = MeritConsensus.getMeritStake(vote.getBlindVoteTxId(), vote.getMeritList(), daoStateService);
+            assertEquals(expected, (long) meritStakeByVoteRevealTxId.get(vote.getVoteRevealTxId()));
+            sumOfMeritStakes += expected;
+        }
+        assertEquals(0, (long) meritStakeByVoteRevealTxId.get(votes.get(0).getVoteRevealTxId()));
+        assertTrue(sumOfMeritStakes > 0);
+    }
+
+    private Merit createMerit(ECKey key, String blindVoteTxId, int blindVoteTxHeight, String id) {
+        int issuanceHeight = blindVoteTxHeight - 120_000 + random.nextInt(121_000);
+        IssuanceType issuanceType = random.nextInt(10) == 0 ? IssuanceType.REIMBURSEMENT : IssuanceType.COMPENSATION;
+        Issuance issuance = new Issuance(getTxId("issuance" + id), issuanceHeight, 1 + random.nextInt(1_000_000),
+                Utilities.bytesAsHexString(key.getPubKey()), issuanceType);
+
+        // Some signatures are for another tx or are not a valid signature
+        String signedTxId = random.nextInt(10) == 0 ? getTxId("other" + id) : blindVoteTxId;
+        byte[] signature = random.nextInt(20) == 0 ?
+                new byte[]{1, 2, 3} :
+                key.sign(Sha256Hash.wrap(signedTxId)).toCanonicalised().encodeToDER();
+        return new Merit(issuance, signature);
+    }
+
+    private Tx createTx(String txId, int blockHeight) {
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(blockHeight)
+                .setBlockHash("blockHash")
+                .setTx(protobuf.Tx.newBuilder())
+                .build());
+    }
+
+    private String getTxId(String seed) {
+        return Utilities.bytesAsHexString(Hash.getSha256Hash(seed.getBytes(StandardCharsets.UTF_8)));
+    }
+}
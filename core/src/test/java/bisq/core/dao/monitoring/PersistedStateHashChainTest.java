@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring;
+
+import bisq.core.dao.monitoring.model.ProposalStateHash;
+
+import bisq.common.crypto.Hash;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistedStateHashChainTest {
+    private static final int GENESIS_HEIGHT = 100;
+    private static final int CYCLE_DURATION = 10;
+
+    // Serialized proposals per cycle start height, as the monitoring service would hash them
+    private final Map<Integer, byte[]> proposalsByHeight = new HashMap<>();
+    private PersistedStateHashChain<ProposalStateHash> persistedStateHashChain;
+
+    @Before
+    public void setup() {
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + 20 * CYCLE_DURATION; height += CYCLE_DURATION) {
+            proposalsByHeight.put(height, ("proposals at " + height).getBytes());
+        }
+        persistedStateHashChain = new PersistedStateHashChain<>();
+    }
+
+    @Test
+    public void testValidChainIsUsed() {
+        LinkedList<ProposalStateHash> chain = buildChain(GENESIS_HEIGHT + 10 * CYCLE_DURATION);
+        persistedStateHashChain.set(chain);
+
+        LinkedList<ProposalStateHash> result = persistedStateHashChain.take(GENESIS_HEIGHT + 10 * CYCLE_DURATION + 5,
+                this::createHash);
+        assertEquals(chain, result);
+
+        // The persisted chain is only used once
+        assertTrue(persistedStateHashChain.take(GENESIS_HEIGHT + 10 * CYCLE_DURATION + 5, this::createHash).isEmpty());
+    }
+
+    @Test
+    public void testHashesAtOrAboveBlockHeightAreRemoved() {
+        LinkedList<ProposalStateHash> chain = buildChain(GENESIS_HEIGHT + 10 * CYCLE_DURATION);
+        persistedStateHashChain.set(chain);
+
+        int blockHeight = GENESIS_HEIGHT + 5 * CYCLE_DURATION;
+        LinkedList<ProposalStateHash> result = persistedStateHashChain.take(blockHeight, this::createHash);
+        assertEquals(5, result.size());
+        assertEquals(chain.subList(0, 5), result);
+    }
+
+    @Test
+    public void testChangedDataAtTipRejectsChain() {
+        persistedStateHashChain.set(buildChain(GENESIS_HEIGHT + 10 * CYCLE_DURATION));
+
+        // A proposal we did not have when the chain was persisted
+        proposalsByHeight.put(GENESIS_HEIGHT + 9 * CYCLE_DURATION, "other proposals".getBytes());
+        assertTrue(persistedStateHashChain.take(GENESIS_HEIGHT + 10 * CYCLE_DURATION, this::createHash).isEmpty());
+    }
+
+    @Test
+    public void testBrokenLinkRejectsChain() {
+        LinkedList<ProposalStateHash> chain = buildChain(GENESIS_HEIGHT + 10 * CYCLE_DURATION);
+        ProposalStateHash stateHash = chain.get(3);
+        chain.set(3, new ProposalStateHash(stateHash.getHeight(), new byte[]{1, 2, 3}, stateHash.getPrevHash(), 0));
+        persistedStateHashChain.set(chain);
+
+        assertTrue(persistedStateHashChain.take(GENESIS_HEIGHT + 10 * CYCLE_DURATION, this::createHash).isEmpty());
+    }
+
+    @Test
+    public void testMissingGenesisLinkRejectsChain() {
+        LinkedList<ProposalStateHash> chain = buildChain(GENESIS_HEIGHT + 10 * CYCLE_DURATION);
+        chain.removeFirst();
+        persistedStateHashChain.set(chain);
+
+        assertTrue(persistedStateHashChain.take(GENESIS_HEIGHT + 10 * CYCLE_DURATION, this::createHash).isEmpty());
+    }
+
+    @Test
+    public void testUnknownTipHeightRejectsChain() {
+        persistedStateHashChain.set(buildChain(GENESIS_HEIGHT + 10 * CYCLE_DURATION));
+        proposalsByHeight.remove(GENESIS_HEIGHT + 9 * CYCLE_DURATION);
+
+        assertTrue(persistedStateHashChain.take(GENESIS_HEIGHT + 10 * CYCLE_DURATION, this::createHash).isEmpty());
+    }
+
+    private LinkedList<ProposalStateHash> buildChain(int toHeight) {
+        LinkedList<ProposalStateHash> chain = new LinkedList<>();
+        for (int height = GENESIS_HEIGHT; height < toHeight; height += CYCLE_DURATION) {
+            byte[] prevHash = chain.isEmpty() ? new byte[0] : chain.getLast().getHash();
+            chain.add(createHash(height, prevHash).orElseThrow());
+        }
+        return chain;
+    }
+
+    private Optional<ProposalStateHash> createHash(int height, byte[] prevHash) {
+        return Optional.ofNullable(proposalsByHeight.get(height))
+                .map(proposals -> new ProposalStateHash(height,
+                        Hash.getSha256Ripemd160hash(ArrayUtils.addAll(prevHash, proposals)),
+                        prevHash,
+                        1));
+    }
+}
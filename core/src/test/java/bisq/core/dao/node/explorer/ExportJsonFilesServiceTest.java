@@ -0,0 +1,323 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.explorer;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+
+import bisq.common.file.FileUtil;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exports a synthetic chain to NDJSON segments and checks that only new blocks get appended, that a restart
+ * continues at the checkpoint and that a reorg is reported with orphaned block records. Also checks that a failed
+ * export does not write a checkpoint and that a tx gets exported again if its issuance state changes.
+ */
+public class ExportJsonFilesServiceTest {
+    private static final int GENESIS_HEIGHT = 10;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private DaoStateService daoStateService;
+    private File storageDir;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("storage").toFile();
+        daoStateService = mock(DaoStateService.class);
+        when(daoStateService.isParseBlockChainComplete()).thenReturn(true);
+        when(daoStateService.getGenesisBlockHeight()).thenReturn(GENESIS_HEIGHT);
+        when(daoStateService.getBlocks()).thenAnswer(invocation -> blocks);
+        when(daoStateService.getBlockHeightOfLastBlock()).thenAnswer(invocation -> getLastHeight());
+        when(daoStateService.getChainHeight()).thenAnswer(invocation -> getLastHeight());
+        when(daoStateService.getBlockAtHeight(anyInt())).thenAnswer(invocation -> {
+            int height = invocation.<Integer>getArgument(0);
+            return blocks.stream().filter(block -> block.getHeight() == height).findAny();
+        });
+        when(daoStateService.containsTx(anyString())).thenReturn(false);
+        when(daoStateService.getTx(anyString())).thenReturn(Optional.empty());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testIncrementalExport() throws Exception {
+        ExportJsonFilesService service = newService();
+        addBlocks(GENESIS_HEIGHT, 5, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 4);
+
+        addBlocks(GENESIS_HEIGHT + 5, 2, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 6);
+
+        assertEquals(List.of("BLOCK:10", "BLOCK:11", "BLOCK:12", "BLOCK:13", "BLOCK:14", "BLOCK:15", "BLOCK:16"),
+                readRecords());
+        service.shutDown();
+    }
+
+    @Test
+    public void testResumeFromCheckpoint() throws Exception {
+        ExportJsonFilesService service = newService();
+        addBlocks(GENESIS_HEIGHT, 5, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 4);
+        service.shutDown();
+
+        addBlocks(GENESIS_HEIGHT + 5, 2, "a");
+        service = newService();
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 6);
+
+        assertEquals(List.of("BLOCK:10", "BLOCK:11", "BLOCK:12", "BLOCK:13", "BLOCK:14", "BLOCK:15", "BLOCK:16"),
+                readRecords());
+        service.shutDown();
+    }
+
+    @Test
+    public void testReorg() throws Exception {
+        ExportJsonFilesService service = newService();
+        addBlocks(GENESIS_HEIGHT, 5, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 4);
+
+        // Reorg of the last 2 blocks and one more block
+        blocks.subList(3, 5).clear();
+        addBlocks(GENESIS_HEIGHT + 3, 3, "b");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 5);
+
+        assertEquals(List.of("BLOCK:10", "BLOCK:11", "BLOCK:12", "BLOCK:13", "BLOCK:14",
+                "ORPHANED_BLOCK:14", "ORPHANED_BLOCK:13", "BLOCK:13", "BLOCK:14", "BLOCK:15"),
+                readRecords());
+        service.shutDown();
+    }
+
+    @Test
+    public void testFullExportIfCheckpointNotInChain() throws Exception {
+        ExportJsonFilesService service = newService();
+        addBlocks(GENESIS_HEIGHT, 3, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 2);
+        service.shutDown();
+
+        blocks.clear();
+        addBlocks(GENESIS_HEIGHT, 4, "b");
+        service = newService();
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 3);
+
+        assertEquals(List.of("BLOCK:10", "BLOCK:11", "BLOCK:12", "BLOCK:13"), readRecords());
+        service.shutDown();
+    }
+
+    @Test
+    public void testFailedAppendSkipsCheckpoint() throws Exception {
+        ExportJsonFilesService service = newService();
+        addBlocks(GENESIS_HEIGHT, 3, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 2);
+
+        // A directory in place of the segment file lets the append fail
+        File segmentFile = new File(storageDir, "json/ndjson/blocks-0.ndjson");
+        assertTrue(segmentFile.delete());
+        assertTrue(segmentFile.mkdir());
+        addBlocks(GENESIS_HEIGHT + 3, 2, "a");
+        service.maybeExportToJson();
+        awaitFullExportRequired(service);
+        assertEquals(GENESIS_HEIGHT + 2, readCheckpoint().getHeight());
+
+        // The next export is a full one, so the blocks of the failed export are not missing
+        assertTrue(segmentFile.delete());
+        addBlocks(GENESIS_HEIGHT + 5, 1, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 5);
+
+        assertEquals(List.of("BLOCK:10", "BLOCK:11", "BLOCK:12", "BLOCK:13", "BLOCK:14", "BLOCK:15"),
+                readRecords());
+        service.shutDown();
+    }
+
+    @Test
+    public void testIssuanceAfterExportUpdatesTx() throws Exception {
+        Set<String> issuanceTxIds = new HashSet<>();
+        Map<String, Tx> txs = new HashMap<>();
+        when(daoStateService.getIssuanceTxIds()).thenAnswer(invocation -> Set.copyOf(issuanceTxIds));
+        when(daoStateService.getTx(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(txs.get(invocation.<String>getArgument(0))));
+        when(daoStateService.isBsqTxOutputType(any(TxOutput.class)))
+                .thenAnswer(invocation -> issuanceTxIds.contains(invocation.<TxOutput>getArgument(0).getTxId()));
+
+        ExportJsonFilesService service = newService(false);
+        addBlocks(GENESIS_HEIGHT, 3, "a");
+        Tx compensationRequestTx = createCompensationRequestTx("compReqTx", GENESIS_HEIGHT + 1);
+        txs.put(compensationRequestTx.getId(), compensationRequestTx);
+        blocks.get(1).addTx(compensationRequestTx);
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 2);
+
+        JsonObject txOutput = readJson("txo/compReqTx:0.json");
+        assertFalse(txOutput.get("isVerified").getAsBoolean());
+        assertEquals(0, txOutput.get("bsqAmount").getAsLong());
+
+        // The vote result in the next block issues the requested BSQ
+        issuanceTxIds.add(compensationRequestTx.getId());
+        addBlocks(GENESIS_HEIGHT + 3, 1, "a");
+        service.maybeExportToJson();
+        awaitCheckpoint(GENESIS_HEIGHT + 3);
+
+        txOutput = readJson("txo/compReqTx:0.json");
+        assertTrue(txOutput.get("isVerified").getAsBoolean());
+        assertEquals(50_000, txOutput.get("bsqAmount").getAsLong());
+        JsonObject tx = readJson("tx/compReqTx.json");
+        assertTrue(tx.getAsJsonArray("outputs").get(0).getAsJsonObject().get("isVerified").getAsBoolean());
+
+        // The cached block of the tx in all/blocks.json got updated as well
+        JsonObject jsonBlock = readJson("all/blocks.json").getAsJsonArray("blocks").get(1).getAsJsonObject();
+        JsonObject blockTxOutput = jsonBlock.getAsJsonArray("txs").get(0).getAsJsonObject()
+                .getAsJsonArray("outputs").get(0).getAsJsonObject();
+        assertTrue(blockTxOutput.get("isVerified").getAsBoolean());
+        service.shutDown();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private ExportJsonFilesService newService() {
+        return newService(true);
+    }
+
+    private ExportJsonFilesService newService(boolean dumpBlockchainDataAsNdjson) {
+        ExportJsonFilesService service = new ExportJsonFilesService(daoStateService, storageDir, true,
+                dumpBlockchainDataAsNdjson);
+        service.start();
+        return service;
+    }
+
+    private int getLastHeight() {
+        return blocks.isEmpty() ? 0 : blocks.get(blocks.size() - 1).getHeight();
+    }
+
+    private void addBlocks(int fromHeight, int numBlocks, String fork) {
+        for (int height = fromHeight; height < fromHeight + numBlocks; height++) {
+            blocks.add(new Block(height, height, fork + height, fork + (height - 1)));
+        }
+    }
+
+    private Tx createCompensationRequestTx(String txId, int height) {
+        protobuf.BaseTxOutput issuanceCandidateOutput = protobuf.BaseTxOutput.newBuilder()
+                .setIndex(0)
+                .setValue(50_000)
+                .setTxId(txId)
+                .setBlockHeight(height)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(TxOutputType.ISSUANCE_CANDIDATE_OUTPUT.toProtoMessage()))
+                .build();
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("a" + height)
+                .setTx(protobuf.Tx.newBuilder()
+                        .addTxOutputs(issuanceCandidateOutput)
+                        .setTxType(TxType.COMPENSATION_REQUEST.toProtoMessage()))
+                .build());
+    }
+
+    private JsonObject readJson(String path) throws IOException {
+        File file = new File(storageDir, "json/" + path);
+        return new JsonParser().parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+    }
+
+    private void awaitCheckpoint(int height) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            JsonExportCheckpoint checkpoint = readCheckpoint();
+            if (checkpoint != null && checkpoint.getHeight() == height)
+                return;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No checkpoint at height " + height);
+    }
+
+    private void awaitFullExportRequired(ExportJsonFilesService service) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (service.isFullExportRequired())
+                return;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Export did not fail");
+    }
+
+    private JsonExportCheckpoint readCheckpoint() throws IOException {
+        File checkpointFile = new File(storageDir, "json/checkpoint.json");
+        if (!checkpointFile.exists())
+            return null;
+        String json = new String(Files.readAllBytes(checkpointFile.toPath()), StandardCharsets.UTF_8);
+        return new Gson().fromJson(json, JsonExportCheckpoint.class);
+    }
+
+    private List<String> readRecords() throws IOException {
+        File segmentFile = new File(storageDir, "json/ndjson/blocks-0.ndjson");
+        assertTrue(segmentFile.exists());
+        Gson gson = new Gson();
+        return Files.readAllLines(segmentFile.toPath(), StandardCharsets.UTF_8).stream()
+                .map(line -> gson.fromJson(line, NdjsonRecord.class))
+                .map(record -> record.getType() + ":" + record.getHeight())
+                .collect(Collectors.toList());
+    }
+}
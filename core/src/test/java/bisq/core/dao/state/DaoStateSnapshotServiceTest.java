@@ -17,7 +17,9 @@
 
 package bisq.core.dao.state;
 
+import bisq.core.dao.monitoring.BlindVoteStateMonitoringService;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
+import bisq.core.dao.monitoring.ProposalStateMonitoringService;
 import bisq.core.dao.state.storage.DaoStateStorageService;
 
 import org.junit.Before;
@@ -38,6 +40,8 @@ public class DaoStateSnapshotServiceTest {
                 mock(GenesisTxInfo.class),
                 mock(DaoStateStorageService.class),
                 mock(DaoStateMonitoringService.class),
+                mock(ProposalStateMonitoringService.class),
+                mock(BlindVoteStateMonitoringService.class),
                 null);
     }
 
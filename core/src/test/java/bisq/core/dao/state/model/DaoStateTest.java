@@ -0,0 +1,178 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.model;
+
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.SpentInfo;
+import bisq.core.dao.state.model.blockchain.Tx;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+import bisq.core.dao.state.model.blockchain.TxOutputType;
+import bisq.core.dao.state.model.blockchain.TxType;
+import bisq.core.dao.state.model.governance.Issuance;
+import bisq.core.dao.state.model.governance.IssuanceType;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.common.crypto.Hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays a synthetic chain with reorgs on two DaoStateServices. One takes its snapshots with the protobuf based
+ * getClone, the other one with getSnapshot. Both must end up with the same state hash at each block.
+ */
+public class DaoStateTest {
+    private static final int GENESIS_HEIGHT = 100;
+    private static final int SNAPSHOT_GRID = 20;
+
+    private final Random random = new Random(5);
+    private final TreeMap<Integer, DaoState> clonesByHeight = new TreeMap<>();
+    private final TreeMap<Integer, DaoState> snapshotsByHeight = new TreeMap<>();
+    private int txCounter;
+    private int fork;
+
+    @Test
+    public void testSnapshotMatchesCloneAcrossReorgs() {
+        DaoStateService cloningService = newDaoStateService();
+        DaoStateService snapshotService = newDaoStateService();
+
+        int height = GENESIS_HEIGHT;
+        int numReorgs = 0;
+        int blocksSinceReorg = 0;
+        while (height < GENESIS_HEIGHT + 600) {
+            parseBlock(height, cloningService, snapshotService);
+            assertSameState(cloningService, snapshotService);
+
+            if (height % SNAPSHOT_GRID == 0) {
+                clonesByHeight.put(height, cloningService.getClone());
+                snapshotsByHeight.put(height, snapshotService.getSnapshot());
+            }
+
+            if (++blocksSinceReorg >= 45 && clonesByHeight.size() > 1) {
+                // Roll back to the snapshot before the latest one, as DaoStateSnapshotService does, and continue
+                // on a fork
+                int snapshotHeight = clonesByHeight.lowerKey(clonesByHeight.lastKey());
+                DaoState clone = clonesByHeight.get(snapshotHeight);
+                DaoState snapshot = snapshotsByHeight.get(snapshotHeight);
+                // The snapshot must not have been affected by the blocks parsed after it was taken
+                assertArrayEquals(clone.getBsqStateBuilder().build().toByteArray(),
+                        snapshot.getBsqStateBuilder().build().toByteArray());
+
+                cloningService.applySnapshot(clone);
+                snapshotService.applySnapshot(snapshot);
+                assertSameState(cloningService, snapshotService);
+
+                clonesByHeight.tailMap(snapshotHeight, false).clear();
+                snapshotsByHeight.tailMap(snapshotHeight, false).clear();
+                height = snapshotHeight;
+                fork++;
+                numReorgs++;
+                blocksSinceReorg = 0;
+            }
+            height++;
+        }
+        assertTrue(numReorgs > 10);
+    }
+
+    private void parseBlock(int height, DaoStateService... daoStateServices) {
+        String hash = "block-" + height + "-" + fork;
+        String previousHash = "block-" + (height - 1) + "-" + fork;
+        List<Tx> txs = new ArrayList<>();
+        int numTxs = random.nextInt(4);
+        for (int i = 0; i < numTxs; i++) {
+            txs.add(createTx(height));
+        }
+
+        // Spend some outputs. All services have the same state, so we can pick from the first one.
+        List<TxOutputKey> unspent = new ArrayList<>(daoStateServices[0].getUnspentTxOutputMap().keySet());
+        List<TxOutputKey> toSpend = new ArrayList<>();
+        for (int i = 0; i < 3 && !unspent.isEmpty(); i++) {
+            toSpend.add(unspent.remove(random.nextInt(unspent.size())));
+        }
+        boolean withIssuance = !txs.isEmpty() && random.nextInt(10) == 0;
+
+        for (DaoStateService daoStateService : daoStateServices) {
+            Block block = new Block(height, 1600000000L + height, hash, previousHash);
+            daoStateService.onNewBlockHeight(height);
+            daoStateService.onNewBlockWithEmptyTxs(block);
+            txs.forEach(tx -> {
+                daoStateService.onNewTxForLastBlock(block, tx);
+                tx.getTxOutputs().forEach(daoStateService::addUnspentTxOutput);
+            });
+            for (int i = 0; i < toSpend.size(); i++) {
+                TxOutputKey key = toSpend.get(i);
+                daoStateService.getUnspentTxOutput(key).ifPresent(daoStateService::removeUnspentTxOutput);
+                daoStateService.setSpentInfo(key, new SpentInfo(height, "spending-" + hash, i));
+            }
+            if (withIssuance) {
+                daoStateService.addIssuance(new Issuance(txs.get(0).getId(), height, 1000, null,
+                        IssuanceType.COMPENSATION));
+            }
+            daoStateService.onParseBlockComplete(block);
+        }
+    }
+
+    private Tx createTx(int height) {
+        String txId = "tx" + txCounter++;
+        protobuf.Tx.Builder txBuilder = protobuf.Tx.newBuilder()
+                .setTxType(TxType.TRANSFER_BSQ.toProtoMessage());
+        int numOutputs = 1 + random.nextInt(3);
+        for (int index = 0; index < numOutputs; index++) {
+            txBuilder.addTxOutputs(protobuf.BaseTxOutput.newBuilder()
+                    .setIndex(index)
+                    .setValue(1 + random.nextInt(100_000))
+                    .setTxId(txId)
+                    .setBlockHeight(height)
+                    .setTxOutput(protobuf.TxOutput.newBuilder()
+                            .setTxOutputType(TxOutputType.BSQ_OUTPUT.toProtoMessage())));
+        }
+        return Tx.fromProto(protobuf.BaseTx.newBuilder()
+                .setTxVersion("1")
+                .setId(txId)
+                .setBlockHeight(height)
+                .setBlockHash("block-" + height + "-" + fork)
+                .setTx(txBuilder)
+                .build());
+    }
+
+    private static DaoStateService newDaoStateService() {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(),
+                new GenesisTxInfo("genesisTxId", GENESIS_HEIGHT, 2_500_000),
+                new BsqFormatter());
+        daoStateService.start();
+        return daoStateService;
+    }
+
+    private static void assertSameState(DaoStateService expected, DaoStateService actual) {
+        assertArrayEquals(Hash.getSha256Ripemd160hash(expected.getSerializedStateForHashChain()),
+                Hash.getSha256Ripemd160hash(actual.getSerializedStateForHashChain()));
+        assertEquals(expected.getBlocks().size(), actual.getBlocks().size());
+        assertEquals(expected.getUnspentTxOutputMap().keySet(), actual.getUnspentTxOutputMap().keySet());
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state.unconfirmed;
+
+import bisq.core.dao.state.model.blockchain.TxType;
+
+import bisq.common.persistence.PersistenceManager;
+
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UnconfirmedBsqChangeOutputListServiceTest {
+    private final Map<Sha256Hash, Transaction> walletTxs = new HashMap<>();
+    private PersistenceManager<UnconfirmedBsqChangeOutputList> persistenceManager;
+    private Wallet wallet;
+    private UnconfirmedBsqChangeOutputListService service;
+    private int txCounter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        persistenceManager = mock(PersistenceManager.class);
+        wallet = mock(Wallet.class);
+        when(wallet.getTransaction(any(Sha256Hash.class)))
+                .thenAnswer(invocation -> walletTxs.get(invocation.<Sha256Hash>getArgument(0)));
+        service = new UnconfirmedBsqChangeOutputListService(persistenceManager);
+    }
+
+    @Test
+    public void testChangeOutputOfCommittedTxIsTracked() {
+        Transaction tx = newTx(new ArrayList<>(), 1000, 250);
+        service.onCommitTx(tx, TxType.TRANSFER_BSQ, wallet);
+
+        assertTrue(service.hasTransactionOutput(tx.getOutput(1)));
+        assertFalse(service.hasTransactionOutput(tx.getOutput(0)));
+        assertEquals(Coin.valueOf(250), service.getBalance());
+        verify(persistenceManager, atLeastOnce()).requestPersistence();
+
+        // Committing the same tx again must not count the output twice
+        service.onCommitTx(tx, TxType.TRANSFER_BSQ, wallet);
+        assertEquals(Coin.valueOf(250), service.getBalance());
+    }
+
+    @Test
+    public void testSpentChangeOutputIsRemoved() {
+        Transaction tx1 = newTx(new ArrayList<>(), 1000, 250);
+        service.onCommitTx(tx1, TxType.TRANSFER_BSQ, wallet);
+
+        List<TransactionOutput> spent = new ArrayList<>();
+        spent.add(tx1.getOutput(1));
+        Transaction tx2 = newTx(spent, 100, 150);
+        service.onCommitTx(tx2, TxType.TRANSFER_BSQ, wallet);
+
+        assertFalse(service.hasTransactionOutput(tx1.getOutput(1)));
+        assertTrue(service.hasTransactionOutput(tx2.getOutput(1)));
+        assertEquals(Coin.valueOf(150), service.getBalance());
+    }
+
+    @Test
+    public void testConfirmedOutputsAreRemovedAfterBlock() {
+        Transaction tx1 = newTx(new ArrayList<>(), 300);
+        Transaction tx2 = newTx(new ArrayList<>(), 400);
+        service.onCommitTx(tx1, TxType.PAY_TRADE_FEE, wallet);
+        service.onCommitTx(tx2, TxType.PAY_TRADE_FEE, wallet);
+        assertEquals(Coin.valueOf(700), service.getBalance());
+
+        // Confidence changes of unconfirmed txs do not remove anything
+        service.onTransactionConfidenceChanged(tx1);
+        assertEquals(Coin.valueOf(700), service.getBalance());
+
+        setConfirmed(tx1);
+        service.onParseBlockComplete(wallet);
+        assertFalse(service.hasTransactionOutput(tx1.getOutput(0)));
+        assertTrue(service.hasTransactionOutput(tx2.getOutput(0)));
+        assertEquals(Coin.valueOf(400), service.getBalance());
+
+        setConfirmed(tx2);
+        service.onTransactionConfidenceChanged(tx2);
+        assertEquals(Coin.ZERO, service.getBalance());
+    }
+
+    @Test
+    public void testResetClearsOutputs() {
+        service.onCommitTx(newTx(new ArrayList<>(), 300), TxType.PROPOSAL, wallet);
+        service.onReorganize();
+        assertEquals(Coin.ZERO, service.getBalance());
+    }
+
+    @Test
+    public void testIndexIsConsistentWithList() {
+        Random random = new Random(7);
+        UnconfirmedBsqChangeOutputList list = new UnconfirmedBsqChangeOutputList();
+        List<UnconfirmedTxOutput> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                Transaction tx = newTx(new ArrayList<>(), 1 + random.nextInt(10000), 1 + random.nextInt(10000));
+                UnconfirmedTxOutput txOutput = UnconfirmedTxOutput.fromTransactionOutput(tx.getOutput(random.nextInt(2)));
+                assertTrue(list.add(txOutput));
+                assertFalse(list.add(txOutput));
+                expected.add(txOutput);
+            } else {
+                UnconfirmedTxOutput txOutput = expected.remove(random.nextInt(expected.size()));
+                if (random.nextBoolean()) {
+                    assertTrue(list.remove(txOutput));
+                } else {
+                    assertTrue(list.removeTxOutputsOfTx(txOutput.getTxId()));
+                }
+                assertFalse(list.containsTxOutput(txOutput));
+                assertFalse(list.containsTxId(txOutput.getTxId()));
+            }
+
+            assertEquals(expected.size(), list.size());
+            assertEquals(expected.stream().mapToLong(UnconfirmedTxOutput::getValue).sum(), list.getTotalValue());
+            assertEquals(list.stream().mapToLong(UnconfirmedTxOutput::getValue).sum(), list.getTotalValue());
+        }
+        expected.forEach(txOutput -> assertTrue(list.containsTxOutput(txOutput)));
+
+        protobuf.PersistableEnvelope proto = (protobuf.PersistableEnvelope) list.toProtoMessage();
+        UnconfirmedBsqChangeOutputList fromProto = UnconfirmedBsqChangeOutputList.fromProto(proto.getUnconfirmedBsqChangeOutputList());
+        assertEquals(list.getTotalValue(), fromProto.getTotalValue());
+        expected.forEach(txOutput -> assertTrue(fromProto.containsTxOutput(txOutput)));
+
+        UnconfirmedTxOutput first = expected.get(0);
+        protobuf.PersistableEnvelope recordProto = (protobuf.PersistableEnvelope) list.toRecordProtoMessage(first);
+        assertEquals(1, recordProto.getUnconfirmedBsqChangeOutputList().getUnconfirmedTxOutputCount());
+        assertEquals(first.getTxId() + "-" + first.getIndex(), list.getRecordId(first));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Synthetic transactions
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Transaction newTx(List<TransactionOutput> spentOutputs, long... outputValues) {
+        Transaction tx = mock(Transaction.class);
+        Sha256Hash txId = Sha256Hash.of(("tx" + txCounter++).getBytes());
+        when(tx.getTxId()).thenReturn(txId);
+
+        List<TransactionInput> inputs = new ArrayList<>();
+        spentOutputs.forEach(spentOutput -> {
+            Sha256Hash spentTxId = spentOutput.getParentTransaction().getTxId();
+            long spentIndex = spentOutput.getIndex();
+            TransactionOutPoint outpoint = mock(TransactionOutPoint.class);
+            when(outpoint.getHash()).thenReturn(spentTxId);
+            when(outpoint.getIndex()).thenReturn(spentIndex);
+            TransactionInput input = mock(TransactionInput.class);
+            when(input.getOutpoint()).thenReturn(outpoint);
+            when(input.getConnectedOutput()).thenReturn(spentOutput);
+            inputs.add(input);
+        });
+        when(tx.getInputs()).thenReturn(inputs);
+
+        List<TransactionOutput> outputs = new ArrayList<>();
+        for (int i = 0; i < outputValues.length; i++) {
+            TransactionOutput output = mock(TransactionOutput.class);
+            when(output.getIndex()).thenReturn(i);
+            when(output.getValue()).thenReturn(Coin.valueOf(outputValues[i]));
+            when(output.getParentTransaction()).thenReturn(tx);
+            when(output.isMine(wallet)).thenReturn(true);
+            when(tx.getOutput(i)).thenReturn(output);
+            outputs.add(output);
+        }
+        when(tx.getOutputs()).thenReturn(outputs);
+
+        TransactionConfidence confidence = mock(TransactionConfidence.class);
+        when(confidence.getConfidenceType()).thenReturn(TransactionConfidence.ConfidenceType.PENDING);
+        when(tx.getConfidence()).thenReturn(confidence);
+        walletTxs.put(txId, tx);
+        return tx;
+    }
+
+    private void setConfirmed(Transaction tx) {
+        when(tx.getConfidence().getConfidenceType()).thenReturn(TransactionConfidence.ConfidenceType.BUILDING);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.network.p2p;
+
+import bisq.core.account.witness.AccountAgeWitness;
+import bisq.core.alert.Alert;
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.Sig;
+import bisq.common.proto.ProtobufferException;
+
+import java.security.KeyPair;
+
+import java.time.Clock;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GetDataResponseTest {
+    private CoreNetworkProtoResolver resolver;
+    private GetDataResponse getDataResponse;
+    private Alert alert;
+
+    @Before
+    public void setUp() {
+        Clock clock = Clock.systemDefaultZone();
+        resolver = new CoreNetworkProtoResolver(clock);
+
+        KeyPair ownerKeys = Sig.generateKeyPair();
+        alert = new Alert("message",
+                false,
+                false,
+                "1.0.0",
+                Sig.getPublicKeyBytes(ownerKeys.getPublic()),
+                "signature",
+                null);
+        ProtectedStorageEntry protectedStorageEntry = new ProtectedStorageEntry(alert,
+                ownerKeys.getPublic(),
+                1,
+                new byte[]{1, 2, 3},
+                clock);
+        Set<ProtectedStorageEntry> dataSet = new HashSet<>();
+        dataSet.add(protectedStorageEntry);
+
+        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = new HashSet<>(Arrays.asList(
+                new AccountAgeWitness(Hash.getRipemd160hash(new byte[]{1}), 1000L),
+                new TradeStatistics3("EUR",
+                        10000L,
+                        20000L,
+                        "SEPA",
+                        1000L,
+                        "mediator",
+                        "refundAgent",
+                        (Map<String, String>) null)));
+
+        getDataResponse = new GetDataResponse(dataSet, persistableNetworkPayloadSet, 1, false);
+    }
+
+    @Test
+    public void roundTrip_decodedResponseEqualsOriginal() throws ProtobufferException {
+        GetDataResponse received = receive(getDataResponse);
+
+        assertEquals(getDataResponse.getDataSet(), received.getDataSet());
+        assertEquals(getDataResponse.getPersistableNetworkPayloadSet(), received.getPersistableNetworkPayloadSet());
+        assertEquals(getDataResponse, received);
+    }
+
+    @Test
+    public void roundTrip_undecodedResponseSerializesToSameProto() throws ProtobufferException {
+        GetDataResponse received = receive(getDataResponse);
+
+        assertEquals(getDataResponse.toProtoNetworkEnvelope(), received.toProtoNetworkEnvelope());
+    }
+
+    @Test
+    public void getDataSet_filteredEntriesAreNotDecoded() throws ProtobufferException {
+        GetDataResponse received = receive(getDataResponse);
+
+        assertTrue(received.getDataSet(entry -> false).isEmpty());
+        assertTrue(received.getPersistableNetworkPayloadSet(payload -> false).isEmpty());
+        assertEquals(getDataResponse.getPersistableNetworkPayloadSet(),
+                received.getPersistableNetworkPayloadSet(payload -> true));
+        assertEquals(3, received.getNumEntries());
+    }
+
+    // The dedupe of received entries relies on the hash of the raw payload being the same as the one of the
+    // decoded payload
+    @Test
+    public void rawStoragePayloadHashEqualsPayloadHash() throws ProtobufferException {
+        GetDataResponse received = receive(getDataResponse);
+        byte[] rawStoragePayload = received.getRawDataSet().get(0).getProtectedStorageEntry()
+                .getStoragePayload().toByteArray();
+
+        assertArrayEquals(P2PDataStorage.get32ByteHash(alert), Hash.getSha256Hash(rawStoragePayload));
+    }
+
+    private GetDataResponse receive(GetDataResponse getDataResponse) throws ProtobufferException {
+        return (GetDataResponse) resolver.fromProto(getDataResponse.toProtoNetworkEnvelope());
+    }
+}
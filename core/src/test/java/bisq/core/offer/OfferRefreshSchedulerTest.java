@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.id;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OfferRefreshSchedulerTest {
+    private final Map<String, Integer> numRefreshesByOfferId = new HashMap<>();
+    private final List<Integer> bundleSizes = new ArrayList<>();
+    private final Set<String> failingOfferIds = new HashSet<>();
+    private int currentBundleSize;
+    private int offerCounter;
+
+    private final OfferRefreshScheduler scheduler = new OfferRefreshScheduler(TimeUnit.MINUTES.toMillis(6),
+            openOffer -> {
+                currentBundleSize++;
+                numRefreshesByOfferId.merge(openOffer.getId(), 1, Integer::sum);
+                return !failingOfferIds.contains(openOffer.getId());
+            });
+
+    @Test
+    public void testOffersAreSpreadEvenlyOverTheInterval() {
+        List<OpenOffer> openOffers = createOpenOffers(200);
+        openOffers.forEach(scheduler::add);
+
+        runInterval();
+
+        // Each offer got refreshed once and each bundle has 200 / 36 offers, rounded up or down
+        assertEquals(200, numRefreshesByOfferId.size());
+        numRefreshesByOfferId.values().forEach(numRefreshes -> assertEquals(1, (int) numRefreshes));
+        bundleSizes.forEach(size -> assertTrue(size == 5 || size == 6));
+    }
+
+    @Test
+    public void testRemovedOffersAreNotRefreshedAndSlotsGetReused() {
+        List<OpenOffer> openOffers = createOpenOffers(72);
+        openOffers.forEach(scheduler::add);
+        openOffers.subList(0, 36).forEach(scheduler::remove);
+        assertEquals(36, scheduler.getNumOffers());
+
+        List<OpenOffer> newOpenOffers = createOpenOffers(36);
+        newOpenOffers.forEach(scheduler::add);
+        runInterval();
+
+        openOffers.subList(0, 36).forEach(openOffer -> assertFalse(numRefreshesByOfferId.containsKey(openOffer.getId())));
+        bundleSizes.forEach(size -> assertEquals(2, (int) size));
+    }
+
+    @Test
+    public void testFailedRefreshesAreRetriedAtNextTick() {
+        List<OpenOffer> openOffers = createOpenOffers(OfferRefreshScheduler.NUM_SLOTS);
+        openOffers.forEach(scheduler::add);
+        String failingOfferId = openOffers.get(0).getId();
+        failingOfferIds.add(failingOfferId);
+
+        tick();
+        assertEquals(1, (int) numRefreshesByOfferId.get(failingOfferId));
+        tick();
+        assertEquals(2, (int) numRefreshesByOfferId.get(failingOfferId));
+
+        // A successful retry ends the retries
+        failingOfferIds.clear();
+        tick();
+        tick();
+        assertEquals(3, (int) numRefreshesByOfferId.get(failingOfferId));
+    }
+
+    @Test
+    public void testRetriesAreLimited() {
+        List<OpenOffer> openOffers = createOpenOffers(1);
+        openOffers.forEach(scheduler::add);
+        failingOfferIds.add(openOffers.get(0).getId());
+
+        runInterval();
+        assertEquals(1 + OfferRefreshScheduler.MAX_RETRIES, (int) numRefreshesByOfferId.get(openOffers.get(0).getId()));
+
+        // At its next slot the offer gets refreshed again
+        numRefreshesByOfferId.clear();
+        tick();
+        assertEquals(1, (int) numRefreshesByOfferId.get(openOffers.get(0).getId()));
+    }
+
+    private void runInterval() {
+        for (int i = 0; i < OfferRefreshScheduler.NUM_SLOTS; i++) {
+            tick();
+        }
+    }
+
+    private void tick() {
+        currentBundleSize = 0;
+        scheduler.onTick();
+        bundleSizes.add(currentBundleSize);
+    }
+
+    private List<OpenOffer> createOpenOffers(int numOffers) {
+        List<OpenOffer> openOffers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            openOffers.add(new OpenOffer(make(btcUsdOffer.but(with(id, "offer-" + offerCounter++)))));
+        }
+        return openOffers;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.offer;
+
+import bisq.core.provider.price.MarketPrice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static bisq.core.offer.OfferMaker.baseCurrencyCode;
+import static bisq.core.offer.OfferMaker.btcUsdOffer;
+import static bisq.core.offer.OfferMaker.counterCurrencyCode;
+import static bisq.core.offer.OfferMaker.direction;
+import static bisq.core.offer.OfferMaker.id;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs random price walks for a fiat and an altcoin market while offers get added and removed, and checks that the
+ * index returns the same offers as checking each offer with TriggerPriceService.wasTriggered.
+ */
+public class TriggerPriceIndexTest {
+    private final Random random = new Random(17);
+    private final TriggerPriceIndex index = new TriggerPriceIndex();
+    private final List<OpenOffer> openOffers = new ArrayList<>();
+    private int offerCounter;
+
+    @Test
+    public void testTriggeredOffersMatchPerOfferEvaluation() {
+        // USD prices have 4 decimals, XMR prices 8 decimals
+        double usdPrice = 50000;
+        double xmrPrice = 0.005;
+        int numTriggered = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (openOffers.isEmpty() || random.nextInt(3) > 0) {
+                addOffer("USD", usdPrice, 10_000);
+                addOffer("XMR", xmrPrice, 100_000_000);
+            } else {
+                OpenOffer openOffer = openOffers.remove(random.nextInt(openOffers.size()));
+                index.remove(openOffer);
+            }
+
+            usdPrice = usdPrice * (1 + (random.nextDouble() - 0.5) / 50);
+            xmrPrice = xmrPrice * (1 + (random.nextDouble() - 0.5) / 50);
+            numTriggered += assertSameAsPerOfferEvaluation(new MarketPrice("USD", usdPrice, 0, true));
+            numTriggered += assertSameAsPerOfferEvaluation(new MarketPrice("XMR", xmrPrice, 0, true));
+        }
+        assertTrue(numTriggered > 1000);
+
+        openOffers.forEach(index::remove);
+        assertTrue(index.getCurrencyCodes().isEmpty());
+    }
+
+    @Test
+    public void testTriggerPriceEqualToMarketPriceIsNotTriggered() {
+        OpenOffer sellOffer = new OpenOffer(make(btcUsdOffer.but(with(direction, OfferPayload.Direction.SELL),
+                with(id, "sell"))), 500000000L);
+        OpenOffer buyOffer = new OpenOffer(make(btcUsdOffer.but(with(direction, OfferPayload.Direction.BUY),
+                with(id, "buy"))), 500000000L);
+        index.add(sellOffer);
+        index.add(buyOffer);
+
+        assertEquals(List.of(), index.getTriggeredOpenOffers(new MarketPrice("USD", 50000, 0, true)));
+        assertEquals(List.of(sellOffer), index.getTriggeredOpenOffers(new MarketPrice("USD", 49999.9999, 0, true)));
+        assertEquals(List.of(buyOffer), index.getTriggeredOpenOffers(new MarketPrice("USD", 50000.0001, 0, true)));
+    }
+
+    private void addOffer(String currencyCode, double marketPrice, long precision) {
+        boolean isCrypto = !currencyCode.equals("USD");
+        OfferPayload.Direction offerDirection = random.nextBoolean() ?
+                OfferPayload.Direction.BUY :
+                OfferPayload.Direction.SELL;
+        Offer offer = make(btcUsdOffer.but(with(id, "offer-" + offerCounter++),
+                with(direction, offerDirection),
+                with(baseCurrencyCode, isCrypto ? currencyCode : "BTC"),
+                with(counterCurrencyCode, isCrypto ? "BTC" : currencyCode)));
+        // A quarter of the offers have no trigger price
+        long triggerPrice = random.nextInt(4) == 0 ?
+                0 :
+                Math.round(marketPrice * (1 + (random.nextDouble() - 0.5) / 5) * precision);
+        OpenOffer openOffer = new OpenOffer(offer, triggerPrice);
+        openOffers.add(openOffer);
+        index.add(openOffer);
+    }
+
+    private int assertSameAsPerOfferEvaluation(MarketPrice marketPrice) {
+        Set<String> expected = openOffers.stream()
+                .filter(openOffer -> openOffer.getOffer().getCurrencyCode().equals(marketPrice.getCurrencyCode()))
+                .filter(openOffer -> TriggerPriceService.wasTriggered(marketPrice, openOffer))
+                .map(OpenOffer::getId)
+                .collect(Collectors.toSet());
+        List<OpenOffer> triggered = index.getTriggeredOpenOffers(marketPrice);
+        assertEquals(expected.size(), triggered.size());
+        assertEquals(expected, triggered.stream().map(OpenOffer::getId).collect(Collectors.toSet()));
+        return expected.size();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade;
+
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferPayload;
+import bisq.core.offer.OpenOffer;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.file.FileUtil;
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.network.NetworkProtoResolver;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Migrates open offers persisted in the single file format of previous versions to record based storage. Checks that
+ * the single file is kept, that a downgrade finds the current data in it and that data written by a previous version
+ * after a downgrade gets read after the upgrade.
+ */
+public class TradableListPersistenceTest {
+    private static final String FILE_NAME = "OpenOffers";
+
+    private File storageDir;
+    private CorePersistenceProtoResolver persistenceProtoResolver;
+    private PubKeyRing pubKeyRing;
+    private PersistenceManager<TradableList<OpenOffer>> persistenceManager;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("storage").toFile();
+        persistenceProtoResolver = new CorePersistenceProtoResolver(() -> null, mock(NetworkProtoResolver.class));
+        pubKeyRing = new PubKeyRing(Sig.generateKeyPair().getPublic(), Encryption.generateKeyPair().getPublic());
+        PersistenceManager.onAllServicesInitialized();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (persistenceManager != null) {
+            persistenceManager.shutdown();
+        }
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testMigrationKeepsSingleFile() throws Exception {
+        writeSingleFile("offer-1", "offer-2");
+        byte[] singleFile = Files.readAllBytes(getSingleFile().toPath());
+
+        TradableList<OpenOffer> tradableList = read();
+        assertEquals(List.of("offer-1", "offer-2"), getIds(tradableList));
+
+        tradableList.add(createOpenOffer("offer-3"));
+        persist();
+
+        assertTrue(new File(storageDir, FILE_NAME + "_records").isDirectory());
+        assertArrayEquals(singleFile, Files.readAllBytes(getSingleFile().toPath()));
+        // The records are newer than the single file, so we read them
+        assertEquals(List.of("offer-1", "offer-2", "offer-3"), getIds(read()));
+    }
+
+    @Test
+    public void testDowngradeAndUpgrade() throws Exception {
+        writeSingleFile("offer-1");
+        TradableList<OpenOffer> tradableList = read();
+        tradableList.add(createOpenOffer("offer-2"));
+        persist();
+
+        // When we flush all data we write the single file as well, so a downgrade finds the current data
+        flushAllData();
+        assertEquals(List.of("offer-1", "offer-2"), readSingleFile());
+        assertEquals(List.of("offer-1", "offer-2"), getIds(read()));
+
+        // A previous version writes the single file after a downgrade, so we read it after the upgrade
+        writeSingleFile("offer-1", "offer-3");
+        tradableList = read();
+        assertEquals(List.of("offer-1", "offer-3"), getIds(tradableList));
+
+        // Its content replaces the records at the next write
+        tradableList.add(createOpenOffer("offer-4"));
+        persist();
+        assertEquals(List.of("offer-1", "offer-3"), readSingleFile());
+        assertEquals(List.of("offer-1", "offer-3", "offer-4"), getIds(read()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Reads the persisted data as at startup of the app
+    private TradableList<OpenOffer> read() {
+        if (persistenceManager != null) {
+            persistenceManager.shutdown();
+        }
+        persistenceManager = new PersistenceManager<>(storageDir, persistenceProtoResolver,
+                mock(CorruptedStorageFileHandler.class));
+        TradableList<OpenOffer> tradableList = new TradableList<>();
+        persistenceManager.initialize(tradableList, FILE_NAME, PersistenceManager.Source.PRIVATE);
+        TradableList<OpenOffer> persisted = persistenceManager.getPersisted();
+        if (persisted != null) {
+            tradableList.setAll(persisted.getList());
+        }
+        return tradableList;
+    }
+
+    private void persist() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        persistenceManager.persistNow(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private void flushAllData() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        PersistenceManager.flushAllDataToDiskAtBackup(latch::countDown);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    private File getSingleFile() {
+        return new File(storageDir, FILE_NAME);
+    }
+
+    // Writes the file as versions before record storage do
+    private void writeSingleFile(String... ids) throws IOException {
+        TradableList<OpenOffer> tradableList = new TradableList<>();
+        for (String id : ids) {
+            tradableList.add(createOpenOffer(id));
+        }
+        try (FileOutputStream fileOutputStream = new FileOutputStream(getSingleFile())) {
+            ((protobuf.PersistableEnvelope) tradableList.toProtoMessage()).writeDelimitedTo(fileOutputStream);
+        }
+    }
+
+    private List<String> readSingleFile() throws IOException {
+        try (FileInputStream fileInputStream = new FileInputStream(getSingleFile())) {
+            return protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream).getTradableList()
+                    .getTradableList().stream()
+                    .map(tradable -> tradable.getOpenOffer().getOffer().getOfferPayload().getId())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> getIds(TradableList<OpenOffer> tradableList) {
+        return tradableList.getList().stream().map(OpenOffer::getId).sorted().collect(Collectors.toList());
+    }
+
+    private OpenOffer createOpenOffer(String id) {
+        return new OpenOffer(new Offer(new OfferPayload(id,
+                0L,
+                new NodeAddress("localhost", 9999),
+                pubKeyRing,
+                OfferPayload.Direction.BUY,
+                100000L,
+                0.0,
+                false,
+                100000L,
+                100000L,
+                "BTC",
+                "USD",
+                new ArrayList<>(),
+                new ArrayList<>(),
+                "SEPA",
+                "accountId",
+                "offerFeePaymentTxId",
+                null,
+                null,
+                null,
+                null,
+                "1.0.0",
+                0L,
+                0L,
+                0L,
+                false,
+                0L,
+                0L,
+                0L,
+                0L,
+                false,
+                false,
+                0L,
+                0L,
+                false,
+                null,
+                null,
+                0)));
+    }
+}
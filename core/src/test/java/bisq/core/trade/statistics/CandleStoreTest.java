@@ -0,0 +1,243 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.payment.payload.PaymentMethod;
+
+import bisq.common.util.MathUtils;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CandleStoreTest {
+    private static final int MAX_TICKS = 90;
+
+    private enum FixedTickUnit implements CandleStore.TickUnit {
+        MINUTE_10(10 * 60 * 1000L),
+        HOUR(60 * 60 * 1000L),
+        DAY(24 * 60 * 60 * 1000L);
+
+        private final long width;
+
+        FixedTickUnit(long width) {
+            this.width = width;
+        }
+
+        @Override
+        public long getTickStart(long time) {
+            return Math.floorDiv(time, width) * width;
+        }
+
+        @Override
+        public long getNextTickStart(long tickStart) {
+            return tickStart + width;
+        }
+    }
+
+    private final ObservableSet<TradeStatistics3> tradeStatisticsSet = FXCollections.observableSet();
+    private final Random random = new Random(42);
+    private final long now = System.currentTimeMillis();
+    // unique dates, so open and close are well defined
+    private final Set<Long> dates = new HashSet<>();
+    private CandleStore candleStore;
+
+    @Before
+    public void setup() {
+        TradeStatisticsManager tradeStatisticsManager = mock(TradeStatisticsManager.class);
+        when(tradeStatisticsManager.getObservableTradeStatisticsSet()).thenReturn(tradeStatisticsSet);
+        candleStore = new CandleStore(tradeStatisticsManager);
+    }
+
+    @Test
+    public void testCandlesMatchRebucketing() {
+        tradeStatisticsSet.addAll(createTrades("EUR", 20000, FixedTickUnit.DAY));
+        tradeStatisticsSet.addAll(createTrades("USD", 5000, FixedTickUnit.DAY));
+
+        for (FixedTickUnit tickUnit : FixedTickUnit.values()) {
+            assertCandles("EUR", tickUnit);
+            assertCandles("USD", tickUnit);
+            assertCandles(null, tickUnit);
+        }
+    }
+
+    @Test
+    public void testCandlesAreUpdatedIncrementally() {
+        List<TradeStatistics3> trades = createTrades("EUR", 10000, FixedTickUnit.HOUR);
+        tradeStatisticsSet.addAll(trades.subList(0, 5000));
+
+        // build the candles before the remaining trades arrive
+        candleStore.getCandles("EUR", FixedTickUnit.HOUR);
+        candleStore.getCandles("EUR", FixedTickUnit.MINUTE_10);
+        candleStore.getCandles(null, FixedTickUnit.HOUR);
+
+        trades.subList(5000, trades.size()).forEach(tradeStatisticsSet::add);
+
+        assertCandles("EUR", FixedTickUnit.HOUR);
+        assertCandles("EUR", FixedTickUnit.MINUTE_10);
+        assertCandles(null, FixedTickUnit.HOUR);
+    }
+
+    @Test
+    public void testTradeStatisticsByCurrency() {
+        List<TradeStatistics3> eurTrades = createTrades("EUR", 1000, FixedTickUnit.HOUR);
+        List<TradeStatistics3> usdTrades = createTrades("USD", 500, FixedTickUnit.HOUR);
+        tradeStatisticsSet.addAll(eurTrades.subList(0, 500));
+        tradeStatisticsSet.addAll(usdTrades);
+
+        assertEquals(new HashSet<>(eurTrades.subList(0, 500)), new HashSet<>(candleStore.getTradeStatistics("EUR")));
+        assertEquals(new HashSet<>(usdTrades), new HashSet<>(candleStore.getTradeStatistics("USD")));
+        assertTrue(candleStore.getTradeStatistics("GBP").isEmpty());
+
+        eurTrades.subList(500, eurTrades.size()).forEach(tradeStatisticsSet::add);
+        assertEquals(new HashSet<>(eurTrades), new HashSet<>(candleStore.getTradeStatistics("EUR")));
+        assertEquals(eurTrades.size(), candleStore.getTradeStatistics("EUR").size());
+
+        tradeStatisticsSet.remove(usdTrades.get(0));
+        assertEquals(usdTrades.size() - 1, candleStore.getTradeStatistics("USD").size());
+    }
+
+    @Test
+    public void testMedian() {
+        Candle candle = Candle.of(0, List.of(createTrade("EUR", 30, 1, 3),
+                createTrade("EUR", 10, 1, 1),
+                createTrade("EUR", 40, 1, 4),
+                createTrade("EUR", 20, 1, 2)));
+        assertEquals(25, candle.getMedian());
+        assertEquals(10, candle.getOpen());
+        assertEquals(40, candle.getClose());
+        assertEquals(10, candle.getLow());
+        assertEquals(40, candle.getHigh());
+
+        Candle copy = candle.copy();
+        copy.add(Candle.of(0, List.of(createTrade("EUR", 50, 1, 5))));
+        assertEquals(30, copy.getMedian());
+        assertEquals(50, copy.getClose());
+        assertEquals(4, candle.getNumTrades());
+        assertEquals(5, copy.getNumTrades());
+    }
+
+    // Same bucketing as used by the TradesChartsViewModel before the candles got cached
+    private void assertCandles(String currencyCode, FixedTickUnit tickUnit) {
+        long[] tickStarts = new long[MAX_TICKS + 2];
+        long time = now;
+        for (int i = MAX_TICKS + 1; i >= 0; --i) {
+            tickStarts[i] = time;
+            time = tickUnit.getTickStart(time - 1);
+        }
+
+        List<List<TradeStatistics3>> itemsPerTick = new ArrayList<>();
+        for (int i = 0; i <= MAX_TICKS; i++) {
+            itemsPerTick.add(new ArrayList<>());
+        }
+        tradeStatisticsSet.stream()
+                .filter(e -> currencyCode == null || e.getCurrency().equals(currencyCode))
+                .forEach(tradeStatistics -> {
+                    for (int i = MAX_TICKS; i > 0; --i) {
+                        if (tradeStatistics.getDateAsLong() > tickStarts[i]) {
+                            itemsPerTick.get(i).add(tradeStatistics);
+                            break;
+                        }
+                    }
+                });
+
+        NavigableMap<Long, Candle> candles = candleStore.getCandles(currencyCode, tickUnit);
+        for (int i = 1; i <= MAX_TICKS; i++) {
+            List<TradeStatistics3> items = itemsPerTick.get(i);
+            Candle candle = candles.get(tickStarts[i]);
+            if (items.isEmpty()) {
+                assertNull(candle);
+                continue;
+            }
+
+            items.sort(Comparator.comparingLong(TradeStatistics3::getDateAsLong));
+            long high = 0;
+            long low = 0;
+            long amount = 0;
+            long volume = 0;
+            List<Long> prices = new ArrayList<>();
+            for (TradeStatistics3 item : items) {
+                long price = item.getTradePrice().getValue();
+                low = (low != 0) ? Math.min(low, price) : price;
+                high = (high != 0) ? Math.max(high, price) : price;
+                amount += item.getTradeAmount().getValue();
+                volume += item.getTradeVolume().getValue();
+                prices.add(price);
+            }
+            Collections.sort(prices);
+
+            assertEquals(items.size(), candle.getNumTrades());
+            assertEquals(items.get(0).getTradePrice().getValue(), candle.getOpen());
+            assertEquals(items.get(items.size() - 1).getTradePrice().getValue(), candle.getClose());
+            assertEquals(high, candle.getHigh());
+            assertEquals(low, candle.getLow());
+            assertEquals(amount, candle.getAccumulatedAmount());
+            assertEquals(volume, candle.getAccumulatedVolume());
+            assertEquals(MathUtils.getMedian(prices.toArray(new Long[0])), candle.getMedian());
+        }
+    }
+
+    private List<TradeStatistics3> createTrades(String currencyCode, int numTrades, FixedTickUnit span) {
+        List<TradeStatistics3> trades = new ArrayList<>();
+        long range = span.width * MAX_TICKS;
+        for (int i = 0; i < numTrades; i++) {
+            long date = now - 1 - (long) (random.nextDouble() * range);
+            // some trades exactly at the start of a tick
+            if (i % 100 == 0) {
+                date = FixedTickUnit.MINUTE_10.getTickStart(date);
+            }
+            while (!dates.add(date)) {
+                date--;
+            }
+            trades.add(createTrade(currencyCode,
+                    90_000_000L + random.nextInt(20_000_000),
+                    10_000 + random.nextInt(10_000_000),
+                    date));
+        }
+        return trades;
+    }
+
+    private TradeStatistics3 createTrade(String currencyCode, long price, long amount, long date) {
+        return new TradeStatistics3(currencyCode,
+                price,
+                amount,
+                PaymentMethod.SEPA_ID,
+                date,
+                null,
+                null,
+                (Map<String, String>) null);
+    }
+}
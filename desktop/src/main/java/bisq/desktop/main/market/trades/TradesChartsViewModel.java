@@ -34,6 +34,8 @@ import bisq.core.locale.GlobalSettings;
 import bisq.core.locale.TradeCurrency;
 import bisq.core.monetary.Altcoin;
 import bisq.core.provider.price.PriceFeedService;
+import bisq.core.trade.statistics.Candle;
+import bisq.core.trade.statistics.CandleStore;
 import bisq.core.trade.statistics.TradeStatistics3;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 import bisq.core.user.Preferences;
@@ -57,23 +59,19 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.SetChangeListener;
 
-import javafx.util.Pair;
-
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
@@ -88,16 +86,49 @@ class TradesChartsViewModel extends ActivatableViewModel {
     // Enum
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public enum TickUnit {
+    public enum TickUnit implements CandleStore.TickUnit {
         YEAR,
         MONTH,
         WEEK,
         DAY,
         HOUR,
-        MINUTE_10
+        MINUTE_10;
+
+        @Override
+        public long getTickStart(long time) {
+            LocalDateTime localDateTime = Instant.ofEpochMilli(time).atZone(ZONE_ID).toLocalDateTime();
+            return roundDown(localDateTime, this).atZone(ZONE_ID).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public long getNextTickStart(long tickStart) {
+            LocalDateTime localDateTime = roundDown(Instant.ofEpochMilli(tickStart).atZone(ZONE_ID).toLocalDateTime(), this);
+            switch (this) {
+                case YEAR:
+                    localDateTime = localDateTime.plusYears(1);
+                    break;
+                case MONTH:
+                    localDateTime = localDateTime.plusMonths(1);
+                    break;
+                case WEEK:
+                    localDateTime = localDateTime.plusWeeks(1);
+                    break;
+                case DAY:
+                    localDateTime = localDateTime.plusDays(1);
+                    break;
+                case HOUR:
+                    localDateTime = localDateTime.plusHours(1);
+                    break;
+                case MINUTE_10:
+                    localDateTime = localDateTime.plusMinutes(10);
+                    break;
+            }
+            return localDateTime.atZone(ZONE_ID).toInstant().toEpochMilli();
+        }
     }
 
     private final TradeStatisticsManager tradeStatisticsManager;
+    private final CandleStore candleStore;
     final Preferences preferences;
     private final PriceFeedService priceFeedService;
     private final Navigation navigation;
@@ -111,7 +142,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
     final ObservableList<XYChart.Data<Number, Number>> priceItems = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> volumeItems = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> volumeInUsdItems = FXCollections.observableArrayList();
-    private Map<Long, Pair<Date, Set<TradeStatistics3>>> itemsPerInterval;
+    private Map<Long, Long> timeByTick;
 
     TickUnit tickUnit;
     final int maxTicks = 90;
@@ -124,9 +155,10 @@ class TradesChartsViewModel extends ActivatableViewModel {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, Preferences preferences,
-                          PriceFeedService priceFeedService, Navigation navigation) {
+    TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, CandleStore candleStore,
+                          Preferences preferences, PriceFeedService priceFeedService, Navigation navigation) {
         this.tradeStatisticsManager = tradeStatisticsManager;
+        this.candleStore = candleStore;
         this.preferences = preferences;
         this.priceFeedService = priceFeedService;
         this.navigation = navigation;
@@ -291,44 +323,53 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        // Generate date range and create sets for all ticks
-        itemsPerInterval = new HashMap<>();
+        // Generate date range for all ticks
+        Map<Long, Long> timeByTick = new HashMap<>();
+        Map<Long, Long> tickByTime = new HashMap<>();
         Date time = new Date();
         for (long i = maxTicks + 1; i >= 0; --i) {
-            Pair<Date, Set<TradeStatistics3>> pair = new Pair<>((Date) time.clone(), new HashSet<>());
-            itemsPerInterval.put(i, pair);
+            timeByTick.put(i, time.getTime());
+            tickByTime.put(time.getTime(), i);
             // We adjust the time for the next iteration
             time.setTime(time.getTime() - 1);
             time = roundToTick(time, tickUnit);
         }
-
-        // Get all entries for the defined time interval
-        selectedTradeStatistics.forEach(tradeStatistics -> {
-            for (long i = maxTicks; i > 0; --i) {
-                Pair<Date, Set<TradeStatistics3>> pair = itemsPerInterval.get(i);
-                if (tradeStatistics.getDate().after(pair.getKey())) {
-                    pair.getValue().add(tradeStatistics);
-                    break;
-                }
+        this.timeByTick = timeByTick;
+
+        // Get the candles for the defined time interval. Trades newer than the start of the
+        // current tick (e.g. due to clock differences) are added to the current tick.
+        String currencyCode = showAllTradeCurrenciesProperty.get() ? null : getCurrencyCode();
+        NavigableMap<Long, Candle> candles = candleStore.getCandles(currencyCode, tickUnit);
+        long currentTickStart = timeByTick.get((long) maxTicks);
+        List<Candle> visibleCandles = new ArrayList<>(candles.subMap(timeByTick.get(1L), true, currentTickStart, false).values());
+        Candle currentCandle = null;
+        for (Candle candle : candles.tailMap(currentTickStart, true).values()) {
+            if (currentCandle == null) {
+                currentCandle = new Candle(currentTickStart);
             }
-        });
+            currentCandle.add(candle);
+        }
+        if (currentCandle != null) {
+            visibleCandles.add(currentCandle);
+        }
 
         Map<Long, Long> map = usdPriceMapsPerTickUnit.get(tickUnit);
-        AtomicLong averageUsdPrice = new AtomicLong(0);
+        long averageUsdPrice = 0;
 
         // create CandleData for defined time interval
-        List<CandleData> candleDataList = itemsPerInterval.entrySet().stream()
-                .filter(entry -> entry.getKey() >= 0 && !entry.getValue().getValue().isEmpty())
-                .map(entry -> {
-                    long tickStartDate = entry.getValue().getKey().getTime();
-                    // If we don't have a price we take the previous one
-                    if (map.containsKey(tickStartDate)) {
-                        averageUsdPrice.set(map.get(tickStartDate));
-                    }
-                    return getCandleData(entry.getKey(), entry.getValue().getValue(), averageUsdPrice.get());
-                })
-                .sorted(Comparator.comparingLong(o -> o.tick))
-                .collect(Collectors.toList());
+        List<CandleData> candleDataList = new ArrayList<>();
+        for (Candle candle : visibleCandles) {
+            long tickStartDate = candle.getTickStart();
+            Long tick = tickByTime.get(tickStartDate);
+            if (tick == null) {
+                continue;
+            }
+            // If we don't have a price we take the previous one
+            if (map.containsKey(tickStartDate)) {
+                averageUsdPrice = map.get(tickStartDate);
+            }
+            candleDataList.add(getCandleData(tick, candle, averageUsdPrice));
+        }
 
         priceItems.setAll(candleDataList.stream()
                 .map(e -> new XYChart.Data<Number, Number>(e.tick, e.open, e))
@@ -344,44 +385,29 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void updateSelectedTradeStatistics(String currencyCode) {
-        selectedTradeStatistics.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> showAllTradeCurrenciesProperty.get() || e.getCurrency().equals(currencyCode))
-                .collect(Collectors.toList()));
+        if (showAllTradeCurrenciesProperty.get()) {
+            selectedTradeStatistics.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet());
+        } else {
+            selectedTradeStatistics.setAll(candleStore.getTradeStatistics(currencyCode));
+        }
     }
 
     @VisibleForTesting
     CandleData getCandleData(long tick, Set<TradeStatistics3> set, long averageUsdPrice) {
-        long open = 0;
-        long close = 0;
-        long high = 0;
-        long low = 0;
-        long accumulatedVolume = 0;
-        long accumulatedAmount = 0;
-        long numTrades = set.size();
-        List<Long> tradePrices = new ArrayList<>();
-        for (TradeStatistics3 item : set) {
-            long tradePriceAsLong = item.getTradePrice().getValue();
-            // Previously a check was done which inverted the low and high for cryptocurrencies.
-            low = (low != 0) ? Math.min(low, tradePriceAsLong) : tradePriceAsLong;
-            high = (high != 0) ? Math.max(high, tradePriceAsLong) : tradePriceAsLong;
-
-            accumulatedVolume += item.getTradeVolume().getValue();
-            accumulatedAmount += item.getTradeAmount().getValue();
-            tradePrices.add(tradePriceAsLong);
-        }
-        Collections.sort(tradePrices);
+        return getCandleData(tick, Candle.of(0, set), averageUsdPrice);
+    }
 
-        List<TradeStatistics3> list = new ArrayList<>(set);
-        list.sort(Comparator.comparingLong(TradeStatistics3::getDateAsLong));
-        if (list.size() > 0) {
-            open = list.get(0).getTradePrice().getValue();
-            close = list.get(list.size() - 1).getTradePrice().getValue();
-        }
+    private CandleData getCandleData(long tick, Candle candle, long averageUsdPrice) {
+        long open = candle.getOpen();
+        long close = candle.getClose();
+        long high = candle.getHigh();
+        long low = candle.getLow();
+        long accumulatedVolume = candle.getAccumulatedVolume();
+        long accumulatedAmount = candle.getAccumulatedAmount();
+        long numTrades = candle.getNumTrades();
 
         long averagePrice;
-        Long[] prices = new Long[tradePrices.size()];
-        tradePrices.toArray(prices);
-        long medianPrice = MathUtils.getMedian(prices);
+        long medianPrice = candle.getMedian();
         boolean isBullish;
         if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
             isBullish = close < open;
@@ -413,29 +439,33 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     Date roundToTick(LocalDateTime localDate, TickUnit tickUnit) {
+        return Date.from(roundDown(localDate, tickUnit).atZone(ZONE_ID).toInstant());
+    }
+
+    private static LocalDateTime roundDown(LocalDateTime localDate, TickUnit tickUnit) {
         switch (tickUnit) {
             case YEAR:
-                return Date.from(localDate.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+                return localDate.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
             case MONTH:
-                return Date.from(localDate.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+                return localDate.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
             case WEEK:
                 int dayOfWeek = localDate.getDayOfWeek().getValue();
                 LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(localDate, 1 - dayOfWeek);
-                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+                return firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0);
             case DAY:
-                return Date.from(localDate.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+                return localDate.withHour(0).withMinute(0).withSecond(0).withNano(0);
             case HOUR:
-                return Date.from(localDate.withMinute(0).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+                return localDate.withMinute(0).withSecond(0).withNano(0);
             case MINUTE_10:
-                return Date.from(localDate.withMinute(localDate.getMinute() - localDate.getMinute() % 10).withSecond(0).withNano(0).atZone(ZONE_ID).toInstant());
+                return localDate.withMinute(localDate.getMinute() - localDate.getMinute() % 10).withSecond(0).withNano(0);
             default:
-                return Date.from(localDate.atZone(ZONE_ID).toInstant());
+                return localDate;
         }
     }
 
     private long getTimeFromTick(long tick) {
-        if (itemsPerInterval == null || itemsPerInterval.get(tick) == null) return 0;
-        return itemsPerInterval.get(tick).getKey().getTime();
+        if (timeByTick == null || timeByTick.get(tick) == null) return 0;
+        return timeByTick.get(tick);
     }
 
     long getTimeFromTickIndex(long index) {
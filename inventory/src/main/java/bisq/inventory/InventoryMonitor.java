@@ -48,6 +48,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -58,7 +59,8 @@ import org.jetbrains.annotations.Nullable;
 @Slf4j
 public class InventoryMonitor implements SetupListener {
     private final Map<NodeAddress, JsonFileManager> jsonFileManagerByNodeAddress = new HashMap<>();
-    private final Map<NodeAddress, List<RequestInfo>> requestInfoListByNode = new HashMap<>();
+    // Accessed from the web server threads as well
+    private final Map<NodeAddress, NodeHistory> historyByNode = new ConcurrentHashMap<>();
     private final File appDir;
     private final boolean useLocalhostForP2P;
     private final int intervalSec;
@@ -101,7 +103,7 @@ public class InventoryMonitor implements SetupListener {
                     .ifPresent(bufferedReader -> {
                         seedNodes = new ArrayList<>(DefaultSeedNodeRepository.getSeedNodeAddressesFromPropertyFile(fileName));
                         addJsonFileManagers(seedNodes);
-                        inventoryWebServer = new InventoryWebServer(port, seedNodes, bufferedReader);
+                        inventoryWebServer = new InventoryWebServer(port, seedNodes, bufferedReader, historyByNode);
                         networkNode.start(this);
                     });
         }, log::error);
@@ -188,8 +190,9 @@ public class InventoryMonitor implements SetupListener {
             ignoreDeviationAtStartup = false;
         }
 
-        requestInfoListByNode.putIfAbsent(nodeAddress, new ArrayList<>());
-        List<RequestInfo> requestInfoList = requestInfoListByNode.get(nodeAddress);
+        NodeHistory nodeHistory = historyByNode.computeIfAbsent(nodeAddress, e -> new NodeHistory());
+        // Oldest first, bounded to the number of entries required for the deviation checks
+        List<RequestInfo> requestInfoList = nodeHistory.getRecentRequestInfos();
 
 
         // We create average of all nodes latest results. It might be that the nodes last result is
@@ -197,7 +200,9 @@ public class InventoryMonitor implements SetupListener {
         //TODO might be not a good idea to use the last result if its not a recent one. a faulty node would distort
         // the average calculation.
         // As we add at the end our own result the average is excluding our own value
-        Collection<List<RequestInfo>> requestInfoListByNodeValues = requestInfoListByNode.values();
+        Collection<List<RequestInfo>> requestInfoListByNodeValues = historyByNode.values().stream()
+                .map(NodeHistory::getRecentRequestInfos)
+                .collect(Collectors.toList());
         Set<RequestInfo> requestInfoSet = requestInfoListByNodeValues.stream()
                 .filter(list -> !list.isEmpty())
                 .map(list -> list.get(list.size() - 1))
@@ -237,9 +242,9 @@ public class InventoryMonitor implements SetupListener {
             requestInfo.getDataMap().put(inventoryItem, data);
         });
 
-        requestInfoList.add(requestInfo);
+        nodeHistory.add(requestInfo);
 
-        inventoryWebServer.onNewRequestInfo(requestInfoListByNode, requestCounter);
+        inventoryWebServer.onNewRequestInfo(requestCounter);
 
         String json = Utilities.objectToJson(requestInfo);
         jsonFileManagerByNodeAddress.get(nodeAddress).writeToDisc(json, String.valueOf(requestInfo.getRequestStartTime()));
@@ -35,12 +35,15 @@ import com.google.common.base.Joiner;
 import java.io.BufferedReader;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -58,8 +61,9 @@ public class InventoryWebServer {
 
     private final List<NodeAddress> seedNodes;
     private final Map<String, String> operatorByNodeAddress = new HashMap<>();
+    private final Map<NodeAddress, NodeHistory> historyByNode;
 
-    private String html;
+    private volatile String html;
     private int requestCounter;
 
 
@@ -69,8 +73,10 @@ public class InventoryWebServer {
 
     public InventoryWebServer(int port,
                               List<NodeAddress> seedNodes,
-                              BufferedReader seedNodeFile) {
+                              BufferedReader seedNodeFile,
+                              Map<NodeAddress, NodeHistory> historyByNode) {
         this.seedNodes = seedNodes;
+        this.historyByNode = historyByNode;
         setupOperatorMap(seedNodeFile);
 
         Spark.port(port);
@@ -78,6 +84,38 @@ public class InventoryWebServer {
             log.info("Incoming request from: {}", req.userAgent());
             return html == null ? "Starting up..." : html;
         });
+
+        // Returns the time series of a numeric inventory item of a seed node.
+        // E.g. /history?node=<onion address:port>&item=OfferPayload&from=<epoch ms>&to=<epoch ms>
+        Spark.get("/history", (req, res) -> {
+            res.type("application/json");
+            String node = req.queryParams("node");
+            String item = req.queryParams("item");
+            if (node == null || item == null) {
+                res.status(400);
+                return "{\"error\": \"Parameters node and item are required\"}";
+            }
+
+            try {
+                Optional<InventoryItem> inventoryItem = Arrays.stream(InventoryItem.values())
+                        .filter(e -> e.getKey().equals(item))
+                        .findAny();
+                NodeHistory nodeHistory = historyByNode.get(new NodeAddress(node));
+                if (!inventoryItem.isPresent() || nodeHistory == null) {
+                    res.status(404);
+                    return "{\"error\": \"Unknown node or item\"}";
+                }
+
+                long to = req.queryParams("to") != null ? Long.parseLong(req.queryParams("to")) : System.currentTimeMillis();
+                long from = req.queryParams("from") != null ? Long.parseLong(req.queryParams("from")) :
+                        to - TimeUnit.DAYS.toMillis(1);
+                return Utilities.objectToJson(nodeHistory.getPoints(inventoryItem.get(), from, to));
+            } catch (IllegalArgumentException e) {
+                // Also covers the NumberFormatException of an invalid port or time
+                res.status(400);
+                return "{\"error\": \"Parameter node must be host:port, from and to must be epoch time in ms\"}";
+            }
+        });
     }
 
 
@@ -85,9 +123,9 @@ public class InventoryWebServer {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void onNewRequestInfo(Map<NodeAddress, List<RequestInfo>> requestInfoListByNode, int requestCounter) {
+    public void onNewRequestInfo(int requestCounter) {
         this.requestCounter = requestCounter;
-        html = generateHtml(requestInfoListByNode);
+        html = generateHtml(historyByNode);
     }
 
     public void shutDown() {
@@ -99,7 +137,7 @@ public class InventoryWebServer {
     // HTML
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private String generateHtml(Map<NodeAddress, List<RequestInfo>> map) {
+    private String generateHtml(Map<NodeAddress, NodeHistory> map) {
         StringBuilder html = new StringBuilder();
         html.append("<html>" +
                 "<head>" +
@@ -125,10 +163,10 @@ public class InventoryWebServer {
 
         seedNodes.forEach(seedNode -> {
             html.append("<tr valign=\"top\">");
-            if (map.containsKey(seedNode) && !map.get(seedNode).isEmpty()) {
-                List<RequestInfo> list = map.get(seedNode);
-                int numRequests = list.size();
-                RequestInfo requestInfo = list.get(numRequests - 1);
+            NodeHistory nodeHistory = map.get(seedNode);
+            RequestInfo requestInfo = nodeHistory != null ? nodeHistory.getLatest() : null;
+            if (requestInfo != null) {
+                int numRequests = nodeHistory.getNumRequests();
                 html.append("<td>").append(getSeedNodeInfo(seedNode, requestInfo)).append("</td>")
                         .append("<td>").append(getRequestInfo(seedNode, requestInfo, numRequests, map)).append("</td>")
                         .append("<td>").append(getDataInfo(seedNode, requestInfo, map)).append("</td>")
@@ -207,7 +245,7 @@ public class InventoryWebServer {
     private String getRequestInfo(NodeAddress seedNode,
                                   RequestInfo requestInfo,
                                   int numRequests,
-                                  Map<NodeAddress, List<RequestInfo>> map) {
+                                  Map<NodeAddress, NodeHistory> map) {
         StringBuilder sb = new StringBuilder();
 
         DeviationSeverity deviationSeverity = numRequests == requestCounter ?
@@ -247,7 +285,7 @@ public class InventoryWebServer {
 
     private String getDataInfo(NodeAddress seedNode,
                                RequestInfo requestInfo,
-                               Map<NodeAddress, List<RequestInfo>> map) {
+                               Map<NodeAddress, NodeHistory> map) {
         StringBuilder sb = new StringBuilder();
 
         sb.append(getLine(InventoryItem.OfferPayload, seedNode, requestInfo, map));
@@ -266,7 +304,7 @@ public class InventoryWebServer {
 
     private String getDaoInfo(NodeAddress seedNode,
                               RequestInfo requestInfo,
-                              Map<NodeAddress, List<RequestInfo>> map) {
+                              Map<NodeAddress, NodeHistory> map) {
         StringBuilder sb = new StringBuilder();
 
         sb.append(getLine("Number of BSQ blocks: ", InventoryItem.numBsqBlocks, seedNode, requestInfo, map));
@@ -288,7 +326,7 @@ public class InventoryWebServer {
 
     private String getNetworkInfo(NodeAddress seedNode,
                                   RequestInfo requestInfo,
-                                  Map<NodeAddress, List<RequestInfo>> map) {
+                                  Map<NodeAddress, NodeHistory> map) {
         StringBuilder sb = new StringBuilder();
 
         sb.append(getLine("Max. connections: ",
@@ -325,7 +363,7 @@ public class InventoryWebServer {
     private String getLine(InventoryItem inventoryItem,
                            NodeAddress seedNode,
                            RequestInfo requestInfo,
-                           Map<NodeAddress, List<RequestInfo>> map) {
+                           Map<NodeAddress, NodeHistory> map) {
         return getLine(getTitle(inventoryItem),
                 inventoryItem,
                 seedNode,
@@ -337,7 +375,7 @@ public class InventoryWebServer {
                            InventoryItem inventoryItem,
                            NodeAddress seedNode,
                            RequestInfo requestInfo,
-                           Map<NodeAddress, List<RequestInfo>> map) {
+                           Map<NodeAddress, NodeHistory> map) {
         return getLine(title,
                 inventoryItem,
                 seedNode,
@@ -350,7 +388,7 @@ public class InventoryWebServer {
                            InventoryItem inventoryItem,
                            NodeAddress seedNode,
                            RequestInfo requestInfo,
-                           Map<NodeAddress, List<RequestInfo>> map,
+                           Map<NodeAddress, NodeHistory> map,
                            @Nullable Function<String, String> formatter) {
         String displayValue = requestInfo.getDisplayValue(inventoryItem);
         String value = requestInfo.getValue(inventoryItem);
@@ -366,41 +404,26 @@ public class InventoryWebServer {
             deviationSeverity = data.getDeviationSeverity();
         }
 
-        List<RequestInfo> requestInfoList = map.get(seedNode);
-        String historicalWarnings = "";
-        String historicalAlerts = "";
-        List<String> warningsAtRequestNumber = new ArrayList<>();
-        List<String> alertsAtRequestNumber = new ArrayList<>();
-        if (requestInfoList != null) {
-            for (int i = 0; i < requestInfoList.size(); i++) {
-                RequestInfo reqInfo = requestInfoList.get(i);
-                Map<InventoryItem, RequestInfo.Data> deviationInfoMap = reqInfo.getDataMap();
-                if (deviationInfoMap.containsKey(inventoryItem)) {
-                    RequestInfo.Data data = deviationInfoMap.get(inventoryItem);
-                    String deviationAsPercent = getDeviationAsPercentString(inventoryItem, data);
-                    if (data.isPersistentWarning()) {
-                        warningsAtRequestNumber.add((i + 1) + deviationAsPercent);
-                    } else if (data.isPersistentAlert()) {
-                        alertsAtRequestNumber.add((i + 1) + deviationAsPercent);
-                    }
-                }
-            }
-
-            if (!warningsAtRequestNumber.isEmpty()) {
-                historicalWarnings = warningsAtRequestNumber.size() + " repeated warning(s) at request(s) " +
-                        Joiner.on(", ").join(warningsAtRequestNumber);
+        // We only keep the last events, but the total number of them
+        NodeHistory nodeHistory = map.get(seedNode);
+        String historicalWarningsHtml = "";
+        String historicalAlertsHtml = "";
+        if (nodeHistory != null) {
+            NodeHistory.EventLog warnings = nodeHistory.getWarnings(inventoryItem);
+            if (warnings.getCount() > 0) {
+                String historicalWarnings = warnings.getCount() + " repeated warning(s) at request(s) " +
+                        getEventsAsString(inventoryItem, warnings);
+                historicalWarningsHtml = ", <b><a id=\"warn\" href=\"#\" title=\"" + historicalWarnings + "\">" +
+                        WARNING_ICON + warnings.getCount() + "</a></b>";
             }
-            if (!alertsAtRequestNumber.isEmpty()) {
-                historicalAlerts = alertsAtRequestNumber.size() + " repeated alert(s) at request(s): " +
-                        Joiner.on(", ").join(alertsAtRequestNumber);
+            NodeHistory.EventLog alerts = nodeHistory.getAlerts(inventoryItem);
+            if (alerts.getCount() > 0) {
+                String historicalAlerts = alerts.getCount() + " repeated alert(s) at request(s): " +
+                        getEventsAsString(inventoryItem, alerts);
+                historicalAlertsHtml = ", <b><a id=\"alert\" href=\"#\" title=\"" + historicalAlerts + "\">" +
+                        ALERT_ICON + alerts.getCount() + "</a></b>";
             }
         }
-        String historicalWarningsHtml = warningsAtRequestNumber.isEmpty() ? "" :
-                ", <b><a id=\"warn\" href=\"#\" title=\"" + historicalWarnings + "\">" + WARNING_ICON +
-                        warningsAtRequestNumber.size() + "</a></b>";
-        String historicalAlertsHtml = alertsAtRequestNumber.isEmpty() ? "" :
-                ", <b><a id=\"alert\" href=\"#\" title=\"" + historicalAlerts + "\">" + ALERT_ICON +
-                        alertsAtRequestNumber.size() + "</a></b>";
 
         return title +
                 getColorTagByDeviationSeverity(deviationSeverity) +
@@ -411,8 +434,19 @@ public class InventoryWebServer {
                 CLOSE_TAG;
     }
 
+    private String getEventsAsString(InventoryItem inventoryItem, NodeHistory.EventLog eventLog) {
+        List<NodeHistory.Event> lastEvents = eventLog.getLastEvents();
+        String prefix = lastEvents.size() < eventLog.getCount() ? "..., " : "";
+        return prefix + lastEvents.stream()
+                .map(event -> event.getRequestNumber() + getDeviationAsPercentString(inventoryItem, event.getDeviation()))
+                .collect(Collectors.joining(", "));
+    }
+
     private String getDeviationAsPercentString(InventoryItem inventoryItem, RequestInfo.Data data) {
-        Double deviation = data.getDeviation();
+        return getDeviationAsPercentString(inventoryItem, data.getDeviation());
+    }
+
+    private String getDeviationAsPercentString(InventoryItem inventoryItem, @Nullable Double deviation) {
         if (deviation == null || deviation == 1) {
             return "";
         }
@@ -481,25 +515,15 @@ public class InventoryWebServer {
     // missing data for error messages.
     private String getErrorMsgLine(NodeAddress seedNode,
                                    RequestInfo requestInfo,
-                                   Map<NodeAddress, List<RequestInfo>> map) {
+                                   Map<NodeAddress, NodeHistory> map) {
         String errorMessage = requestInfo.hasError() ? requestInfo.getErrorMessage() : "-";
-        List<RequestInfo> requestInfoList = map.get(seedNode);
+        NodeHistory nodeHistory = map.get(seedNode);
         List<String> errorsAtRequestNumber = new ArrayList<>();
         String historicalErrorsHtml = "";
-        if (requestInfoList != null) {
-            for (int i = 0; i < requestInfoList.size(); i++) {
-                RequestInfo requestInfo1 = requestInfoList.get(i);
-
-                // We ignore old errors as at startup timeouts are expected and each node restarts once a day
-                long duration = System.currentTimeMillis() - requestInfo1.getRequestStartTime();
-                if (requestInfo1.getRequestStartTime() > 0 && duration > TimeUnit.HOURS.toMillis(24)) {
-                    continue;
-                }
-
-                if (requestInfo1.hasError()) {
-                    errorsAtRequestNumber.add((i + 1) + " (" + requestInfo1.getErrorMessage() + ")");
-                }
-            }
+        if (nodeHistory != null) {
+            // Only contains the errors of the last 24 hours
+            nodeHistory.getRecentErrors().forEach(event ->
+                    errorsAtRequestNumber.add(event.getRequestNumber() + " (" + event.getErrorMessage() + ")"));
 
             if (!errorsAtRequestNumber.isEmpty()) {
                 String errorIcon;
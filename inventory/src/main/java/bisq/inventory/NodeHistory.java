@@ -0,0 +1,200 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import bisq.core.network.p2p.inventory.model.InventoryItem;
+import bisq.core.network.p2p.inventory.model.RequestInfo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Request history of one seed node. Instead of keeping all RequestInfo objects we keep only the recent ones needed
+ * for the deviation checks, counters and the last events of repeated warnings, alerts and errors for the web page,
+ * and a bounded time series per numeric inventory item.
+ *
+ * Gets updated from the UserThread and read from the web server threads as well, so all access is synchronized and
+ * readers get copies.
+ */
+@Slf4j
+class NodeHistory {
+    // We need one more than the max. deviationTolerance as the deviation check does not look at the last entry
+    static final int NUM_RECENT_REQUEST_INFOS = Arrays.stream(InventoryItem.values())
+            .mapToInt(InventoryItem::getDeviationTolerance)
+            .max()
+            .orElse(1) + 1;
+    static final int MAX_EVENTS = 50;
+    static final long MAX_ERROR_AGE = TimeUnit.HOURS.toMillis(24);
+    static final int MAX_ERRORS = 1000;
+
+    private final Deque<RequestInfo> recentRequestInfos = new ArrayDeque<>();
+    private int numRequests;
+    private final Map<InventoryItem, EventLog> warningsByItem = new EnumMap<>(InventoryItem.class);
+    private final Map<InventoryItem, EventLog> alertsByItem = new EnumMap<>(InventoryItem.class);
+    private final Deque<Event> errors = new ArrayDeque<>();
+    private final Map<InventoryItem, TimeSeries> timeSeriesByItem = new EnumMap<>(InventoryItem.class);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void add(RequestInfo requestInfo) {
+        numRequests++;
+        recentRequestInfos.addLast(requestInfo);
+        if (recentRequestInfos.size() > NUM_RECENT_REQUEST_INFOS) {
+            recentRequestInfos.removeFirst();
+        }
+
+        long time = requestInfo.getRequestStartTime();
+        requestInfo.getDataMap().forEach((inventoryItem, data) -> {
+            if (data.isPersistentWarning()) {
+                warningsByItem.computeIfAbsent(inventoryItem, e -> new EventLog())
+                        .add(new Event(numRequests, time, data.getDeviation(), null));
+            } else if (data.isPersistentAlert()) {
+                alertsByItem.computeIfAbsent(inventoryItem, e -> new EventLog())
+                        .add(new Event(numRequests, time, data.getDeviation(), null));
+            }
+
+            String value = data.getValue();
+            if (inventoryItem.isNumberValue() && value != null) {
+                try {
+                    double doubleValue = Double.parseDouble(value);
+                    timeSeriesByItem.computeIfAbsent(inventoryItem, e -> new TimeSeries(time)).add(time, doubleValue);
+                } catch (NumberFormatException e) {
+                    log.warn("Value {} of {} is not a number", value, inventoryItem);
+                }
+            }
+        });
+
+        if (requestInfo.hasError()) {
+            errors.addLast(new Event(numRequests, time, null, requestInfo.getErrorMessage()));
+            if (errors.size() > MAX_ERRORS) {
+                errors.removeFirst();
+            }
+        }
+        pruneErrors();
+    }
+
+    synchronized int getNumRequests() {
+        return numRequests;
+    }
+
+    @Nullable
+    synchronized RequestInfo getLatest() {
+        return recentRequestInfos.peekLast();
+    }
+
+    // Oldest first, max. NUM_RECENT_REQUEST_INFOS items
+    synchronized List<RequestInfo> getRecentRequestInfos() {
+        return new ArrayList<>(recentRequestInfos);
+    }
+
+    synchronized EventLog getWarnings(InventoryItem inventoryItem) {
+        return warningsByItem.getOrDefault(inventoryItem, EventLog.EMPTY).copy();
+    }
+
+    synchronized EventLog getAlerts(InventoryItem inventoryItem) {
+        return alertsByItem.getOrDefault(inventoryItem, EventLog.EMPTY).copy();
+    }
+
+    // Errors of the last 24 hours and errors without request start time
+    synchronized List<Event> getRecentErrors() {
+        pruneErrors();
+        return new ArrayList<>(errors);
+    }
+
+    synchronized List<TimeSeries.Point> getPoints(InventoryItem inventoryItem, long from, long to) {
+        TimeSeries timeSeries = timeSeriesByItem.get(inventoryItem);
+        return timeSeries != null ? timeSeries.getPoints(from, to) : new ArrayList<>();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We ignore old errors as at startup timeouts are expected and each node restarts once a day. Errors without
+    // request start time cannot be aged and are kept (up to MAX_ERRORS).
+    private void pruneErrors() {
+        long minTime = System.currentTimeMillis() - MAX_ERROR_AGE;
+        errors.removeIf(event -> event.getTime() > 0 && event.getTime() < minTime);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Event
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    static class Event {
+        // Starts with 1
+        private final int requestNumber;
+        private final long time;
+        @Nullable
+        private final Double deviation;
+        @Nullable
+        private final String errorMessage;
+
+        Event(int requestNumber, long time, @Nullable Double deviation, @Nullable String errorMessage) {
+            this.requestNumber = requestNumber;
+            this.time = time;
+            this.deviation = deviation;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+    // Total number of events and the last MAX_EVENTS events
+    static class EventLog {
+        private static final EventLog EMPTY = new EventLog();
+
+        @Getter
+        private int count;
+        private final Deque<Event> lastEvents = new ArrayDeque<>();
+
+        void add(Event event) {
+            count++;
+            lastEvents.addLast(event);
+            if (lastEvents.size() > MAX_EVENTS) {
+                lastEvents.removeFirst();
+            }
+        }
+
+        List<Event> getLastEvents() {
+            return new ArrayList<>(lastEvents);
+        }
+
+        EventLog copy() {
+            EventLog copy = new EventLog();
+            copy.count = count;
+            copy.lastEvents.addAll(lastEvents);
+            return copy;
+        }
+    }
+}
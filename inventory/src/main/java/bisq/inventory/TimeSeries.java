@@ -0,0 +1,185 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * Bounded time series of a numeric inventory value. We keep the raw samples of the last requests and downsampled
+ * tiers with average, min and max per hour and per day, each in a ring buffer of primitive arrays. Timestamps are
+ * stored as seconds relative to the time of the first sample.
+ *
+ * Samples are added from the UserThread, queries come from the web server threads, so we synchronize.
+ */
+class TimeSeries {
+    private static final int NUM_RAW_SAMPLES = 720;
+    private static final int NUM_HOURLY_SAMPLES = 24 * 7;
+    private static final int NUM_DAILY_SAMPLES = 365;
+
+    private final long baseTime;
+    private final Tier raw = new Tier(0, NUM_RAW_SAMPLES);
+    private final Tier hourly = new Tier(TimeUnit.HOURS.toMillis(1), NUM_HOURLY_SAMPLES);
+    private final Tier daily = new Tier(TimeUnit.DAYS.toMillis(1), NUM_DAILY_SAMPLES);
+
+    TimeSeries(long baseTime) {
+        this.baseTime = baseTime;
+    }
+
+    synchronized void add(long time, double value) {
+        raw.add(time, (float) value);
+        hourly.add(time, (float) value);
+        daily.add(time, (float) value);
+    }
+
+    // We use the finest tier which still covers the requested start time
+    synchronized List<Point> getPoints(long from, long to) {
+        Tier tier = raw.covers(from) ? raw : hourly.covers(from) ? hourly : daily;
+        return tier.getPoints(from, to);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Point
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    static class Point {
+        private final long time;
+        private final float average;
+        private final float min;
+        private final float max;
+
+        Point(long time, float average, float min, float max) {
+            this.time = time;
+            this.average = average;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Tier
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private class Tier {
+        // 0 for raw samples
+        private final long resolution;
+        private final int capacity;
+        private final int[] times;
+        private final float[] averages;
+        // Not used for raw samples as min and max are the value
+        private final float[] mins;
+        private final float[] maxs;
+        private int head;
+        private int size;
+
+        // Bucket we are currently aggregating. It gets added to the ring buffer once a sample of a later bucket arrives.
+        private long bucketStart = -1;
+        private double bucketSum;
+        private int bucketCount;
+        private float bucketMin;
+        private float bucketMax;
+
+        Tier(long resolution, int capacity) {
+            this.resolution = resolution;
+            this.capacity = capacity;
+            times = new int[capacity];
+            averages = new float[capacity];
+            mins = resolution > 0 ? new float[capacity] : null;
+            maxs = resolution > 0 ? new float[capacity] : null;
+        }
+
+        void add(long time, float value) {
+            if (resolution == 0) {
+                append(time, value, value, value);
+                return;
+            }
+
+            long start = time - time % resolution;
+            if (start != bucketStart) {
+                flushBucket();
+                bucketStart = start;
+            }
+            bucketSum += value;
+            bucketCount++;
+            bucketMin = bucketCount == 1 ? value : Math.min(bucketMin, value);
+            bucketMax = bucketCount == 1 ? value : Math.max(bucketMax, value);
+        }
+
+        // If the ring buffer is not full yet we still have all data since the first sample
+        boolean covers(long from) {
+            return size < capacity || toTime(times[index(0)]) <= from;
+        }
+
+        List<Point> getPoints(long from, long to) {
+            List<Point> points = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int index = index(i);
+                long time = toTime(times[index]);
+                if (time >= from && time <= to) {
+                    float average = averages[index];
+                    points.add(resolution == 0 ?
+                            new Point(time, average, average, average) :
+                            new Point(time, average, mins[index], maxs[index]));
+                }
+            }
+            // The bucket in progress is included as well
+            if (bucketCount > 0 && bucketStart >= from && bucketStart <= to) {
+                points.add(new Point(bucketStart, (float) (bucketSum / bucketCount), bucketMin, bucketMax));
+            }
+            return points;
+        }
+
+        private void flushBucket() {
+            if (bucketCount > 0) {
+                append(bucketStart, (float) (bucketSum / bucketCount), bucketMin, bucketMax);
+            }
+            bucketSum = 0;
+            bucketCount = 0;
+        }
+
+        private void append(long time, float average, float min, float max) {
+            int index = (head + size) % capacity;
+            if (size == capacity) {
+                // We overwrite the oldest entry
+                head = (head + 1) % capacity;
+            } else {
+                size++;
+            }
+            times[index] = (int) TimeUnit.MILLISECONDS.toSeconds(time - baseTime);
+            averages[index] = average;
+            if (resolution > 0) {
+                mins[index] = min;
+                maxs[index] = max;
+            }
+        }
+
+        private int index(int i) {
+            return (head + i) % capacity;
+        }
+
+        private long toTime(int seconds) {
+            return baseTime + TimeUnit.SECONDS.toMillis(seconds);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.inventory;
+
+import bisq.core.network.p2p.inventory.model.DeviationSeverity;
+import bisq.core.network.p2p.inventory.model.InventoryItem;
+import bisq.core.network.p2p.inventory.model.RequestInfo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class NodeHistoryTest {
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    public void testRecentRequestInfosAreBounded() {
+        NodeHistory nodeHistory = new NodeHistory();
+        RequestInfo latest = null;
+        for (int i = 0; i < 100; i++) {
+            latest = createRequestInfo(now - TimeUnit.MINUTES.toMillis(100 - i), null);
+            nodeHistory.add(latest);
+        }
+
+        assertEquals(100, nodeHistory.getNumRequests());
+        List<RequestInfo> recent = nodeHistory.getRecentRequestInfos();
+        assertEquals(NodeHistory.NUM_RECENT_REQUEST_INFOS, recent.size());
+        assertSame(latest, recent.get(recent.size() - 1));
+        assertSame(latest, nodeHistory.getLatest());
+    }
+
+    @Test
+    public void testWarningsKeepCountAndLastEvents() {
+        NodeHistory nodeHistory = new NodeHistory();
+        int numWarnings = NodeHistory.MAX_EVENTS + 10;
+        for (int i = 0; i < numWarnings; i++) {
+            RequestInfo requestInfo = createRequestInfo(now - TimeUnit.MINUTES.toMillis(numWarnings - i), null);
+            requestInfo.getDataMap().put(InventoryItem.numConnections,
+                    new RequestInfo.Data("10", 12d, 0.8, DeviationSeverity.WARN, true, false));
+            nodeHistory.add(requestInfo);
+        }
+
+        NodeHistory.EventLog warnings = nodeHistory.getWarnings(InventoryItem.numConnections);
+        assertEquals(numWarnings, warnings.getCount());
+        List<NodeHistory.Event> lastEvents = warnings.getLastEvents();
+        assertEquals(NodeHistory.MAX_EVENTS, lastEvents.size());
+        assertEquals(numWarnings, lastEvents.get(lastEvents.size() - 1).getRequestNumber());
+        assertEquals(0, nodeHistory.getAlerts(InventoryItem.numConnections).getCount());
+
+        // The returned log is a snapshot
+        nodeHistory.add(createRequestInfo(now, null));
+        assertEquals(numWarnings, warnings.getCount());
+    }
+
+    @Test
+    public void testOldErrorsArePruned() {
+        NodeHistory nodeHistory = new NodeHistory();
+        nodeHistory.add(createRequestInfo(now - NodeHistory.MAX_ERROR_AGE - TimeUnit.HOURS.toMillis(1), "old"));
+        nodeHistory.add(createRequestInfo(0, "without start time"));
+        nodeHistory.add(createRequestInfo(now - TimeUnit.HOURS.toMillis(1), "recent"));
+        nodeHistory.add(createRequestInfo(now, null));
+
+        List<NodeHistory.Event> errors = nodeHistory.getRecentErrors();
+        assertEquals(2, errors.size());
+        assertEquals("without start time", errors.get(0).getErrorMessage());
+        assertEquals(2, errors.get(0).getRequestNumber());
+        assertEquals("recent", errors.get(1).getErrorMessage());
+    }
+
+    @Test
+    public void testErrorsAreBounded() {
+        NodeHistory nodeHistory = new NodeHistory();
+        for (int i = 0; i < NodeHistory.MAX_ERRORS + 10; i++) {
+            nodeHistory.add(createRequestInfo(0, "error " + i));
+        }
+
+        List<NodeHistory.Event> errors = nodeHistory.getRecentErrors();
+        assertEquals(NodeHistory.MAX_ERRORS, errors.size());
+        assertEquals("error 10", errors.get(0).getErrorMessage());
+    }
+
+    @Test
+    public void testNumericValuesAreKeptAsTimeSeries() {
+        NodeHistory nodeHistory = new NodeHistory();
+        long start = now - TimeUnit.HOURS.toMillis(2);
+        for (int i = 0; i < 10; i++) {
+            RequestInfo requestInfo = createRequestInfo(start + TimeUnit.MINUTES.toMillis(i), null);
+            requestInfo.getDataMap().put(InventoryItem.numConnections,
+                    new RequestInfo.Data(String.valueOf(i), null, null, DeviationSeverity.OK, false, false));
+            requestInfo.getDataMap().put(InventoryItem.version,
+                    new RequestInfo.Data("1.5.0", null, null, DeviationSeverity.OK, false, false));
+            nodeHistory.add(requestInfo);
+        }
+
+        List<TimeSeries.Point> points = nodeHistory.getPoints(InventoryItem.numConnections, start, now);
+        assertEquals(10, points.size());
+        assertEquals(9, points.get(9).getAverage(), 0);
+        assertEquals(3, nodeHistory.getPoints(InventoryItem.numConnections,
+                start + TimeUnit.MINUTES.toMillis(7), now).size());
+        assertEquals(0, nodeHistory.getPoints(InventoryItem.version, start, now).size());
+    }
+
+    private RequestInfo createRequestInfo(long requestStartTime, String errorMessage) {
+        RequestInfo requestInfo = new RequestInfo(requestStartTime);
+        requestInfo.setErrorMessage(errorMessage);
+        return requestInfo;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import bisq.network.p2p.CloseConnectionMessage;
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.NetworkNode;
+
+import bisq.common.proto.network.NetworkEnvelope;
+import bisq.common.util.Utilities;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sends a list of requests to a set of hosts and waits for their answers, using a
+ * bounded number of worker threads. The requests to a single host are sent one after
+ * the other, each one bounded by its own deadline, so a slow or offline host only
+ * costs its own worker and never more than {@code requests * probeTimeout}. All hosts
+ * of a round are probed concurrently and the round is over as soon as every host is
+ * either done or has run into a deadline.
+ *
+ * A single {@link MessageListener} is registered at the {@link NetworkNode}, incoming
+ * messages are dispatched to the active probe of the sending host.
+ */
+@Slf4j
+public class ProbeEngine implements MessageListener {
+
+    /**
+     * Callback for the responses of a probe.
+     */
+    public interface ResponseHandler {
+        /**
+         * @return true if the message is the answer the probe has been waiting for
+         */
+        boolean onResponse(NetworkEnvelope networkEnvelope, Connection connection);
+    }
+
+    /**
+     * Callback invoked right before a request is sent to a host.
+     */
+    public interface RequestListener {
+        void aboutToSend(NodeAddress target, NetworkEnvelope request);
+    }
+
+    /**
+     * Outcome counters of a probing round.
+     */
+    public static class Result {
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+
+        public long getSucceeded() {
+            return succeeded.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        public long getTimedOut() {
+            return timedOut.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "succeeded=" + getSucceeded() + ", failed=" + getFailed() + ", timedOut=" + getTimedOut();
+        }
+    }
+
+    private final NetworkNode networkNode;
+    private final long probeTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final Map<NodeAddress, Probe> activeProbes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param networkNode         the node used for sending the requests
+     * @param maxConcurrentProbes the maximum number of hosts probed at the same time
+     * @param probeTimeoutMillis  the deadline for a single request/response pair
+     */
+    public ProbeEngine(NetworkNode networkNode, int maxConcurrentProbes, long probeTimeoutMillis) {
+        this.networkNode = networkNode;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+        executor = new ThreadPoolExecutor(maxConcurrentProbes, maxConcurrentProbes, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ProbeEngine");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        networkNode.addMessageListener(this);
+    }
+
+    /**
+     * Probes all targets. Blocks until every target is either done or has run into a
+     * deadline.
+     *
+     * @param targets         the hosts to probe
+     * @param requests        the requests sent to each host, in order
+     * @param requestListener gets notified right before a request is sent
+     * @param responseHandler gets all messages received from a host while it is probed
+     * @return the outcome of the round
+     */
+    public Result probe(Collection<NodeAddress> targets,
+                        List<NetworkEnvelope> requests,
+                        RequestListener requestListener,
+                        ResponseHandler responseHandler) {
+        Result result = new Result();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        targets.forEach(target -> tasks.add(() -> {
+            Thread.currentThread().setName("ProbeEngine-" + target.getFullAddress());
+            for (NetworkEnvelope request : requests) {
+                // an unreachable host will not answer the remaining requests either
+                if (!probe(target, request, requestListener, responseHandler, result))
+                    break;
+            }
+            return null;
+        }));
+
+        try {
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Probing got interrupted");
+        }
+
+        return result;
+    }
+
+    public void shutDown() {
+        networkNode.removeMessageListener(this);
+        Utilities.shutdownAndAwaitTermination(executor, probeTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean probe(NodeAddress target,
+                          NetworkEnvelope request,
+                          RequestListener requestListener,
+                          ResponseHandler responseHandler,
+                          Result result) {
+        Probe probe = new Probe(responseHandler);
+        activeProbes.put(target, probe);
+        try {
+            requestListener.aboutToSend(target, request);
+            SettableFuture<Connection> future = networkNode.sendMessage(target, request);
+            Futures.addCallback(future, new FutureCallback<>() {
+                @Override
+                public void onSuccess(Connection connection) {
+                }
+
+                @Override
+                public void onFailure(@NotNull Throwable throwable) {
+                    probe.done.completeExceptionally(throwable);
+                }
+            }, MoreExecutors.directExecutor());
+
+            probe.done.get(probeTimeoutMillis, TimeUnit.MILLISECONDS);
+            result.succeeded.increment();
+            return true;
+        } catch (TimeoutException e) {
+            result.timedOut.increment();
+            log.warn("Sending {} to {} timed out after {} ms",
+                    request.getClass().getSimpleName(), target, probeTimeoutMillis);
+            return false;
+        } catch (ExecutionException e) {
+            result.failed.increment();
+            log.error("Sending {} to {} failed. That is expected if the peer is offline.\n\tException={}",
+                    request.getClass().getSimpleName(), target, e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.failed.increment();
+            return false;
+        } catch (Throwable t) {
+            result.failed.increment();
+            log.error("Sending {} to {} failed", request.getClass().getSimpleName(), target, t);
+            return false;
+        } finally {
+            activeProbes.remove(target, probe);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        connection.getPeersNodeAddressOptional()
+                .map(activeProbes::get)
+                .ifPresent(probe -> probe.onMessage(networkEnvelope, connection));
+    }
+
+    private static class Probe {
+        private final ResponseHandler responseHandler;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Probe(ResponseHandler responseHandler) {
+            this.responseHandler = responseHandler;
+        }
+
+        void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+            if (done.isDone())
+                return;
+
+            if (responseHandler.onResponse(networkEnvelope, connection)) {
+                done.complete(null);
+            } else if (networkEnvelope instanceof CloseConnectionMessage) {
+                done.completeExceptionally(new IllegalStateException("Peer closed the connection"));
+            } else {
+                log.warn("Got an unexpected message of type <{}>", networkEnvelope.getClass().getSimpleName());
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -58,27 +59,27 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
     final Map<NodeAddress, Statistics<Map<NodeAddress, Aggregator>>> volumePerTraderBucketsPerHost = new ConcurrentHashMap<>();
 
     /**
-     * Efficient way to aggregate numbers.
+     * Efficient, lock-free way to aggregate numbers.
      */
     private static class Aggregator {
-        private long value = 0;
+        private final LongAdder value = new LongAdder();
 
-        synchronized long value() {
-            return value;
+        long value() {
+            return value.sum();
         }
 
-        synchronized void increment() {
-            value++;
+        void increment() {
+            value.increment();
         }
 
-        synchronized void add(long amount) {
-            value += amount;
+        void add(long amount) {
+            value.add(amount);
         }
     }
 
     private abstract static class OfferStatistics<T> extends Statistics<T> {
         @Override
-        public synchronized void log(Object message) {
+        public void log(Object message) {
             if (message instanceof OfferPayload) {
                 OfferPayload currentMessage = (OfferPayload) message;
                 // For logging different data types
@@ -95,8 +96,7 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
 
         @Override
         void process(String market, OfferPayload currentMessage) {
-            buckets.putIfAbsent(market, new Aggregator());
-            buckets.get(market).increment();
+            buckets.computeIfAbsent(market, key -> new Aggregator()).increment();
         }
     }
 
@@ -104,8 +104,7 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
 
         @Override
         void process(String market, OfferPayload currentMessage) {
-            buckets.putIfAbsent(market, new Aggregator());
-            buckets.get(market).add(currentMessage.getAmount());
+            buckets.computeIfAbsent(market, key -> new Aggregator()).add(currentMessage.getAmount());
         }
     }
 
@@ -113,8 +112,7 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
 
         @Override
         void process(String market, OfferPayload currentMessage) {
-            buckets.putIfAbsent(market, new ArrayList<>());
-            buckets.get(market).add(currentMessage.getAmount());
+            buckets.computeIfAbsent(market, key -> new ArrayList<>()).add(currentMessage.getAmount());
         }
     }
 
@@ -122,9 +120,9 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
 
         @Override
         void process(String market, OfferPayload currentMessage) {
-            buckets.putIfAbsent(market, new HashMap<>());
-            buckets.get(market).putIfAbsent(currentMessage.getOwnerNodeAddress(), new Aggregator());
-            buckets.get(market).get(currentMessage.getOwnerNodeAddress()).increment();
+            buckets.computeIfAbsent(market, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(currentMessage.getOwnerNodeAddress(), key -> new Aggregator())
+                    .increment();
         }
     }
 
@@ -132,9 +130,9 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
 
         @Override
         void process(String market, OfferPayload currentMessage) {
-            buckets.putIfAbsent(market, new HashMap<>());
-            buckets.get(market).putIfAbsent(currentMessage.getOwnerNodeAddress(), new Aggregator());
-            buckets.get(market).get(currentMessage.getOwnerNodeAddress()).add(currentMessage.getAmount());
+            buckets.computeIfAbsent(market, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(currentMessage.getOwnerNodeAddress(), key -> new Aggregator())
+                    .add(currentMessage.getAmount());
         }
     }
 
@@ -148,8 +146,7 @@ public class P2PMarketStats extends P2PSeedNodeSnapshotBase {
 
                 String version = "v" + currentMessage.getId().substring(currentMessage.getId().lastIndexOf("-") + 1);
 
-                buckets.putIfAbsent(version, new Aggregator());
-                buckets.get(version).increment();
+                buckets.computeIfAbsent(version, key -> new Aggregator()).increment();
             }
         }
     }
@@ -35,6 +35,7 @@ import bisq.network.p2p.network.TorNetworkNode;
 import bisq.network.p2p.peers.PeerManager;
 import bisq.network.p2p.peers.keepalive.KeepAliveManager;
 import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
+import bisq.network.p2p.peers.reputation.PeerReputationService;
 import bisq.network.p2p.storage.messages.BroadcastMessage;
 
 import bisq.common.ClockWatcher;
@@ -56,6 +57,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -131,10 +133,15 @@ public class P2PNetworkLoad extends Metric implements MessageListener, SetupList
                 CorePersistenceProtoResolver persistenceProtoResolver = new CorePersistenceProtoResolver(null,
                         networkProtoResolver);
                 DefaultSeedNodeRepository seedNodeRepository = new DefaultSeedNodeRepository(config);
+                PeerReputationService peerReputationService = new PeerReputationService(
+                        new PersistenceManager<>(torHiddenServiceDir, persistenceProtoResolver, corruptedStorageFileHandler));
                 PeerManager peerManager = new PeerManager(networkNode, seedNodeRepository, new ClockWatcher(),
-                        new PersistenceManager<>(torHiddenServiceDir, persistenceProtoResolver, corruptedStorageFileHandler), maxConnections);
+                        new PersistenceManager<>(torHiddenServiceDir, persistenceProtoResolver, corruptedStorageFileHandler),
+                        peerReputationService, maxConnections);
 
                 // init file storage
+                peerReputationService.readPersisted(() -> {
+                });
                 peerManager.readPersisted(() -> {
                 });
 
@@ -192,40 +199,31 @@ public class P2PNetworkLoad extends Metric implements MessageListener, SetupList
     }
 
     /**
-     * Efficient way to count message occurrences.
+     * Efficient, lock-free way to count message occurrences.
      */
     private static class Counter {
-        private int value = 1;
+        private final LongAdder value = new LongAdder();
 
         /**
-         * atomic get and reset
+         * get and reset. Increments happening concurrently are either part of the
+         * returned value or of the next one.
          *
          * @return the current value
          */
-        synchronized int getAndReset() {
-            try {
-                return value;
-            } finally {
-                value = 0;
-            }
+        int getAndReset() {
+            return (int) value.sumThenReset();
         }
 
-        synchronized void increment() {
-            value++;
+        void increment() {
+            value.increment();
         }
     }
 
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
         if (networkEnvelope instanceof BroadcastMessage) {
-            try {
-                if (history.get(networkEnvelope.hashCode()) == null) {
-                    history.put(networkEnvelope.hashCode(), null);
-                    buckets.get(networkEnvelope.getClass().getSimpleName()).increment();
-                }
-            } catch (NullPointerException e) {
-                // use exception handling because we hardly ever need to add a fresh bucket
-                buckets.put(networkEnvelope.getClass().getSimpleName(), new Counter());
+            if (history.putIfAbsent(networkEnvelope.hashCode(), Boolean.TRUE) == null) {
+                buckets.computeIfAbsent(networkEnvelope.getClass().getSimpleName(), key -> new Counter()).increment();
             }
         }
     }
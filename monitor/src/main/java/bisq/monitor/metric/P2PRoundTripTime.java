@@ -30,18 +30,22 @@ import bisq.network.p2p.peers.keepalive.messages.Pong;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class P2PRoundTripTime extends P2PSeedNodeSnapshotBase {
 
     private static final String SAMPLE_SIZE = "run.sampleSize";
-    private final Map<Integer, Long> sentAt = new HashMap<>();
-    private Map<NodeAddress, Statistics> measurements = new HashMap<>();
+    private final Map<NodeAddress, Map<Integer, Long>> sentAt = new ConcurrentHashMap<>();
+    private final Map<NodeAddress, Statistics> measurements = new ConcurrentHashMap<>();
 
     public P2PRoundTripTime(Reporter reporter) {
         super(reporter);
@@ -52,16 +56,16 @@ public class P2PRoundTripTime extends P2PSeedNodeSnapshotBase {
      */
     private class Statistics {
 
-        private final List<Long> samples = new ArrayList<>();
+        private final Queue<Long> samples = new ConcurrentLinkedQueue<>();
 
-        public synchronized void log(Object message) {
+        public void log(NodeAddress nodeAddress, Object message) {
             Pong pong = (Pong) message;
-            Long start = sentAt.get(pong.getRequestNonce());
+            Long start = sentAt.getOrDefault(nodeAddress, Collections.emptyMap()).get(pong.getRequestNonce());
             if (start != null)
                 samples.add(System.currentTimeMillis() - start);
         }
 
-        public List<Long> values() {
+        public Collection<Long> values() {
             return samples;
         }
     }
@@ -78,8 +82,9 @@ public class P2PRoundTripTime extends P2PSeedNodeSnapshotBase {
     }
 
     @Override
-    protected void aboutToSend(NetworkEnvelope message) {
-        sentAt.put(((Ping) message).getNonce(), System.currentTimeMillis());
+    protected void aboutToSend(NodeAddress target, NetworkEnvelope message) {
+        sentAt.computeIfAbsent(target, key -> new ConcurrentHashMap<>())
+                .put(((Ping) message).getNonce(), System.currentTimeMillis());
     }
 
     @Override
@@ -88,9 +93,8 @@ public class P2PRoundTripTime extends P2PSeedNodeSnapshotBase {
             checkNotNull(connection.getPeersNodeAddressProperty(),
                     "although the property is nullable, we need it to not be null");
 
-            measurements.putIfAbsent(connection.getPeersNodeAddressProperty().getValue(), new Statistics());
-
-            measurements.get(connection.getPeersNodeAddressProperty().getValue()).log(networkEnvelope);
+            NodeAddress nodeAddress = connection.getPeersNodeAddressProperty().getValue();
+            measurements.computeIfAbsent(nodeAddress, key -> new Statistics()).log(nodeAddress, networkEnvelope);
 
             connection.shutDown(CloseConnectionReason.APP_SHUT_DOWN);
             return true;
@@ -106,6 +110,7 @@ public class P2PRoundTripTime extends P2PSeedNodeSnapshotBase {
                         getName() + "." + OnionParser.prettyPrint(nodeAddress))
         ));
         // clean up for next round
-        measurements = new HashMap<>();
+        measurements.clear();
+        sentAt.clear();
     }
 }
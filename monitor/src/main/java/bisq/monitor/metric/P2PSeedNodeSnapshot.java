@@ -85,8 +85,7 @@ public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
             // For logging different data types
             String className = message.getClass().getSimpleName();
 
-            buckets.putIfAbsent(className, new HashSet<>());
-            buckets.get(className).add(message.hashCode());
+            buckets.computeIfAbsent(className, key -> new HashSet<>()).add(message.hashCode());
         }
     }
 
@@ -281,9 +280,8 @@ public class P2PSeedNodeSnapshot extends P2PSeedNodeSnapshotBase {
             bucketsPerHost.put(connection.getPeersNodeAddressProperty().getValue(), result);
             return true;
         } else if (networkEnvelope instanceof GetStateHashesResponse) {
-            daoData.putIfAbsent(connection.getPeersNodeAddressProperty().getValue(), new DaoStatistics());
-
-            daoData.get(connection.getPeersNodeAddressProperty().getValue()).log(networkEnvelope);
+            daoData.computeIfAbsent(connection.getPeersNodeAddressProperty().getValue(), key -> new DaoStatistics())
+                    .log(networkEnvelope);
 
             return true;
         }
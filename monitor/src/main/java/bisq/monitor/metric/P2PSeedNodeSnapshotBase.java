@@ -21,18 +21,16 @@ import bisq.monitor.AvailableTor;
 import bisq.monitor.Metric;
 import bisq.monitor.Monitor;
 import bisq.monitor.OnionParser;
+import bisq.monitor.ProbeEngine;
 import bisq.monitor.Reporter;
-import bisq.monitor.ThreadGate;
 
 import bisq.core.account.witness.AccountAgeWitnessStore;
 import bisq.core.proto.network.CoreNetworkProtoResolver;
 import bisq.core.proto.persistable.CorePersistenceProtoResolver;
 import bisq.core.trade.statistics.TradeStatistics3Store;
 
-import bisq.network.p2p.CloseConnectionMessage;
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.network.Connection;
-import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.network.TorNetworkNode;
 
@@ -41,30 +39,25 @@ import bisq.common.config.BaseCurrencyNetwork;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.network.NetworkEnvelope;
 
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.SettableFuture;
-
 import java.time.Clock;
 
+import java.net.MalformedURLException;
+
 import java.io.File;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.jetbrains.annotations.NotNull;
-
 /**
  * Contacts a list of hosts and asks them for all the data excluding persisted messages. The
  * answers are then compiled into buckets of message types. Based on these
@@ -75,14 +68,15 @@ import org.jetbrains.annotations.NotNull;
  *
  */
 @Slf4j
-public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageListener {
+public abstract class P2PSeedNodeSnapshotBase extends Metric {
 
     private static final String HOSTS = "run.hosts";
     private static final String TOR_PROXY_PORT = "run.torProxyPort";
     private static final String DATABASE_DIR = "run.dbDir";
+    private static final String MAX_CONCURRENT_PROBES = "run.maxConcurrentProbes";
+    private static final String PROBE_TIMEOUT = "run.probeTimeout";
     final Map<NodeAddress, Statistics<?>> bucketsPerHost = new ConcurrentHashMap<>();
-    private final ThreadGate gate = new ThreadGate();
-    protected final Set<byte[]> hashes = new TreeSet<>(Arrays::compare);
+    protected final Set<byte[]> hashes = new ConcurrentSkipListSet<>(Arrays::compare);
 
     /**
      * Statistics Interface for use with derived classes.
@@ -90,7 +84,7 @@ public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageL
      * @param <T> the value type of the statistics implementation
      */
     protected abstract static class Statistics<T> {
-        protected final Map<String, T> buckets = new HashMap<>();
+        protected final Map<String, T> buckets = new ConcurrentHashMap<>();
 
         abstract void log(Object message);
 
@@ -153,70 +147,46 @@ public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageL
     @Override
     protected void execute() {
         // start the network node
-        final NetworkNode networkNode = new TorNetworkNode(Integer.parseInt(configuration.getProperty(TOR_PROXY_PORT, "9054")),
-                new CoreNetworkProtoResolver(Clock.systemDefaultZone()), false,
-                new AvailableTor(Monitor.TOR_WORKING_DIR, "unused"), null);
+        final NetworkNode networkNode = createNetworkNode();
         // we do not need to start the networkNode, as we do not need the HS
         //networkNode.start(this);
 
         // clear our buckets
         bucketsPerHost.clear();
 
-        getRequests().forEach(getDataRequest -> send(networkNode, getDataRequest));
-
-        report();
-    }
-
-    protected abstract List<NetworkEnvelope> getRequests();
-
-    protected void send(NetworkNode networkNode, NetworkEnvelope message) {
-
-        ArrayList<Thread> threadList = new ArrayList<>();
-
-        // for each configured host
+        List<NodeAddress> targets = new ArrayList<>();
         for (String current : configuration.getProperty(HOSTS, "").split(",")) {
-            threadList.add(new Thread(() -> {
-
-                try {
-                    // parse Url
-                    NodeAddress target = OnionParser.getNodeAddress(current);
-
-                    // do the data request
-                    aboutToSend(message);
-                    SettableFuture<Connection> future = networkNode.sendMessage(target, message);
-
-                    Futures.addCallback(future, new FutureCallback<>() {
-                        @Override
-                        public void onSuccess(Connection connection) {
-                            connection.addMessageListener(P2PSeedNodeSnapshotBase.this);
-                        }
-
-                        @Override
-                        public void onFailure(@NotNull Throwable throwable) {
-                            gate.proceed();
-                            log.error(
-                                    "Sending {} failed. That is expected if the peer is offline.\n\tException={}", message.getClass().getSimpleName(), throwable.getMessage());
-                        }
-                    }, MoreExecutors.directExecutor());
-
-                } catch (Exception e) {
-                    gate.proceed(); // release the gate on error
-                    e.printStackTrace();
-                }
-            }, current));
+            try {
+                targets.add(OnionParser.getNodeAddress(current));
+            } catch (MalformedURLException e) {
+                log.error("Cannot parse host {}", current, e);
+            }
         }
 
-        gate.engage(threadList.size());
+        // probe all hosts at once so we minimize the time between querying the hosts
+        // and therefore the chance of inconsistencies.
+        ProbeEngine probeEngine = new ProbeEngine(networkNode,
+                Integer.parseInt(configuration.getProperty(MAX_CONCURRENT_PROBES, "16")),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(configuration.getProperty(PROBE_TIMEOUT, "60"))));
+        try {
+            ProbeEngine.Result result = probeEngine.probe(targets, getRequests(), this::aboutToSend, this::treatMessage);
+            log.info("{} probed {} hosts: {}", getName(), targets.size(), result);
+        } finally {
+            probeEngine.shutDown();
+        }
 
-        // start all threads and wait until they all finished. We do that so we can
-        // minimize the time between querying the hosts and therefore the chance of
-        // inconsistencies.
-        threadList.forEach(Thread::start);
+        report();
+    }
 
-        gate.await();
+    protected NetworkNode createNetworkNode() {
+        return new TorNetworkNode(Integer.parseInt(configuration.getProperty(TOR_PROXY_PORT, "9054")),
+                new CoreNetworkProtoResolver(Clock.systemDefaultZone()), false,
+                new AvailableTor(Monitor.TOR_WORKING_DIR, "unused"), null);
     }
 
-    protected void aboutToSend(NetworkEnvelope message) {
+    protected abstract List<NetworkEnvelope> getRequests();
+
+    protected void aboutToSend(NodeAddress target, NetworkEnvelope message) {
     }
 
     /**
@@ -224,18 +194,5 @@ public abstract class P2PSeedNodeSnapshotBase extends Metric implements MessageL
      */
     abstract void report();
 
-    @Override
-    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
-        if (treatMessage(networkEnvelope, connection)) {
-            gate.proceed();
-        } else if (networkEnvelope instanceof CloseConnectionMessage) {
-            gate.unlock();
-        } else {
-            log.warn("Got an unexpected message of type <{}>",
-                    networkEnvelope.getClass().getSimpleName());
-        }
-        connection.removeMessageListener(this);
-    }
-
     protected abstract boolean treatMessage(NetworkEnvelope networkEnvelope, Connection connection);
 }
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.monitor;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.LocalhostNetworkNode;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.SetupListener;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.time.Clock;
+
+import java.net.ServerSocket;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the {@link ProbeEngine} against {@link LocalhostNetworkNode}s, so no Tor is
+ * needed.
+ */
+class ProbeEngineTests {
+
+    private final List<NetworkNode> nodes = new ArrayList<>();
+    private NetworkNode prober;
+
+    @BeforeEach
+    void setup() throws Exception {
+        LocalhostNetworkNode.setSimulateTorDelayTorNode(0);
+        LocalhostNetworkNode.setSimulateTorDelayHiddenService(0);
+        prober = startNode();
+    }
+
+    @AfterEach
+    void cleanup() throws InterruptedException {
+        CountDownLatch shutDownLatch = new CountDownLatch(nodes.size());
+        nodes.forEach(node -> node.shutDown(shutDownLatch::countDown));
+        shutDownLatch.await(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void answeringHost() throws Exception {
+        NetworkNode host = startNode();
+        host.addMessageListener((networkEnvelope, connection) -> {
+            if (networkEnvelope instanceof Ping)
+                host.sendMessage(connection, new Pong(((Ping) networkEnvelope).getNonce()));
+        });
+
+        ProbeEngine.Result result = probe(2000, host.getNodeAddress());
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        assertEquals(0, result.getTimedOut());
+    }
+
+    @Test
+    void silentHost() throws Exception {
+        NetworkNode host = startNode();
+
+        long start = System.currentTimeMillis();
+        ProbeEngine.Result result = probe(500, host.getNodeAddress());
+
+        // the second request is not sent once the first one ran into its deadline
+        assertEquals(0, result.getSucceeded());
+        assertEquals(1, result.getTimedOut());
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    void offlineHost() throws Exception {
+        ProbeEngine.Result result = probe(2000, new NodeAddress("localhost", getFreePort()));
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+    }
+
+    @Test
+    void mixedHosts() throws Exception {
+        NetworkNode answering = startNode();
+        answering.addMessageListener((networkEnvelope, connection) -> {
+            if (networkEnvelope instanceof Ping)
+                answering.sendMessage(connection, new Pong(((Ping) networkEnvelope).getNonce()));
+        });
+        NetworkNode silent = startNode();
+
+        ProbeEngine.Result result = probe(500, answering.getNodeAddress(), silent.getNodeAddress(),
+                new NodeAddress("localhost", getFreePort()));
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getTimedOut());
+        assertEquals(1, result.getFailed());
+    }
+
+    private ProbeEngine.Result probe(long probeTimeoutMillis, NodeAddress... targets) {
+        List<NetworkEnvelope> requests = Arrays.asList(new Ping(1, 0), new Ping(2, 0));
+
+        ProbeEngine probeEngine = new ProbeEngine(prober, 2, probeTimeoutMillis);
+        try {
+            return probeEngine.probe(Arrays.asList(targets), requests,
+                    (target, request) -> {
+                    },
+                    (networkEnvelope, connection) -> networkEnvelope instanceof Pong);
+        } finally {
+            probeEngine.shutDown();
+        }
+    }
+
+    private NetworkNode startNode() throws Exception {
+        LocalhostNetworkNode node = new LocalhostNetworkNode(getFreePort(),
+                new CoreNetworkProtoResolver(Clock.systemDefaultZone()), null);
+        CountDownLatch startupLatch = new CountDownLatch(1);
+        node.start(new SetupListener() {
+            @Override
+            public void onTorNodeReady() {
+            }
+
+            @Override
+            public void onHiddenServicePublished() {
+                startupLatch.countDown();
+            }
+
+            @Override
+            public void onSetupFailed(Throwable throwable) {
+            }
+
+            @Override
+            public void onRequestCustomBridges() {
+            }
+        });
+        assertTrue(startupLatch.await(10, TimeUnit.SECONDS));
+        nodes.add(node);
+        return node;
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
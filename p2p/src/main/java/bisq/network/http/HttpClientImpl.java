@@ -19,33 +19,22 @@ package bisq.network.http;
 
 import bisq.network.Socks5ProxyProvider;
 
-import bisq.common.app.Version;
 import bisq.common.util.Utilities;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.ssl.SSLContexts;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
 import javax.inject.Inject;
 
-import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
-import java.net.URL;
-
-import java.nio.charset.StandardCharsets;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -53,8 +42,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -62,56 +52,50 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-// TODO close connection if failing
+/**
+ * Uses the keep-alive connections of the HttpConnectionPool, so repeated requests to the same host do not need to set
+ * up a new connection (and Tor circuit stream). Instances can be used from several threads concurrently.
+ */
 @Slf4j
 public class HttpClientImpl implements HttpClient {
     @Nullable
     private Socks5ProxyProvider socks5ProxyProvider;
-    @Nullable
-    private HttpURLConnection connection;
-    @Nullable
-    private CloseableHttpClient closeableHttpClient;
+    private final HttpConnectionPool connectionPool;
+    private final Set<HttpRequestBase> pendingRequests = new CopyOnWriteArraySet<>();
 
     @Getter
     @Setter
-    private String baseUrl;
+    private volatile String baseUrl;
     @Setter
-    private boolean ignoreSocks5Proxy;
+    private volatile boolean ignoreSocks5Proxy;
     @Getter
     private final String uid;
-    private boolean hasPendingRequest;
 
     @Inject
-    public HttpClientImpl(@Nullable Socks5ProxyProvider socks5ProxyProvider) {
+    public HttpClientImpl(@Nullable Socks5ProxyProvider socks5ProxyProvider, HttpConnectionPool connectionPool) {
         this.socks5ProxyProvider = socks5ProxyProvider;
+        this.connectionPool = connectionPool;
         uid = UUID.randomUUID().toString();
     }
 
-    public HttpClientImpl(String baseUrl) {
+    public HttpClientImpl(String baseUrl, HttpConnectionPool connectionPool) {
         this.baseUrl = baseUrl;
+        this.connectionPool = connectionPool;
         uid = UUID.randomUUID().toString();
     }
 
+    // Aborts our pending requests. The pooled connections are shared with other clients, so we do not close them.
     @Override
     public void shutDown() {
-        try {
-            if (connection != null) {
-                connection.getInputStream().close();
-                connection.disconnect();
-            }
-            if (closeableHttpClient != null) {
-                closeableHttpClient.close();
-            }
-        } catch (IOException ignore) {
-        }
+        pendingRequests.forEach(HttpRequestBase::abort);
+        pendingRequests.clear();
     }
 
     @Override
     public boolean hasPendingRequest() {
-        return hasPendingRequest;
+        return !pendingRequests.isEmpty();
     }
 
     @Override
@@ -132,162 +116,65 @@ public class HttpClientImpl implements HttpClient {
                              HttpMethod httpMethod,
                              @Nullable String headerKey,
                              @Nullable String headerValue) throws IOException {
+        // We copy the baseUrl as it might get changed by another thread while we are requesting
+        String baseUrl = this.baseUrl;
         checkNotNull(baseUrl, "baseUrl must be set before calling doRequest");
-        checkArgument(!hasPendingRequest, "We got called on the same HttpClient again while a request is still open.");
 
-        hasPendingRequest = true;
+        HttpClientContext context = HttpClientContext.create();
+        CloseableHttpClient closeableHttpClient;
         Socks5Proxy socks5Proxy = getSocks5Proxy(socks5ProxyProvider);
         if (ignoreSocks5Proxy || socks5Proxy == null || baseUrl.contains("localhost")) {
-            return requestWithoutProxy(baseUrl, param, httpMethod, headerKey, headerValue);
+            log.debug("requestWithoutProxy: URL={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
+            closeableHttpClient = connectionPool.getDirectClient();
         } else {
-            return doRequestWithProxy(baseUrl, param, httpMethod, socks5Proxy, headerKey, headerValue);
-        }
-    }
+            log.debug("doRequestWithProxy: baseUrl={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
+            InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
 
-    private String requestWithoutProxy(String baseUrl,
-                                       String param,
-                                       HttpMethod httpMethod,
-                                       @Nullable String headerKey,
-                                       @Nullable String headerValue) throws IOException {
-        long ts = System.currentTimeMillis();
-        log.debug("requestWithoutProxy: URL={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
-        try {
-            String spec = httpMethod == HttpMethod.GET ? baseUrl + param : baseUrl;
-            URL url = new URL(spec);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod(httpMethod.name());
-            connection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(120));
-            connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(120));
-            connection.setRequestProperty("User-Agent", "bisq/" + Version.VERSION);
-            if (headerKey != null && headerValue != null) {
-                connection.setRequestProperty(headerKey, headerValue);
-            }
+            // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
+            // InetSocketAddress socksAddress = new InetSocketAddress("127.0.0.1", 9050);
 
-            if (httpMethod == HttpMethod.POST) {
-                connection.setDoOutput(true);
-                connection.getOutputStream().write(param.getBytes(StandardCharsets.UTF_8));
-            }
+            closeableHttpClient = connectionPool.getSocks5Client(socksAddress, socks5Proxy.resolveAddrLocally());
+            context.setAttribute("socks.address", socksAddress);
+        }
 
-            int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
-                String response = convertInputStreamToString(connection.getInputStream());
-                log.debug("Response from {} with param {} took {} ms. Data size:{}, response: {}",
+        long ts = System.currentTimeMillis();
+        HttpRequestBase request = getHttpUriRequest(httpMethod, baseUrl, param);
+        if (headerKey != null && headerValue != null) {
+            request.setHeader(headerKey, headerValue);
+        }
+        pendingRequests.add(request);
+        try (CloseableHttpResponse httpResponse = closeableHttpClient.execute(request, context)) {
+            // We need to read the response completely so the connection can be reused
+            HttpEntity entity = httpResponse.getEntity();
+            String response = entity != null ? convertInputStreamToString(entity.getContent()) : "";
+            int statusCode = httpResponse.getStatusLine().getStatusCode();
+            if (statusCode == 200) {
+                log.debug("Response from {} took {} ms. Data size:{}, response: {}, param: {}",
                         baseUrl,
-                        param,
                         System.currentTimeMillis() - ts,
                         Utilities.readableFileSize(response.getBytes().length),
-                        Utilities.toTruncatedString(response));
+                        Utilities.toTruncatedString(response),
+                        param);
                 return response;
             } else {
-                InputStream errorStream = connection.getErrorStream();
-                if (errorStream != null) {
-                    String error = convertInputStreamToString(errorStream);
-                    errorStream.close();
-                    log.info("Received errorMsg '{}' with responseCode {} from {}. Response took: {} ms. param: {}",
-                            error,
-                            responseCode,
-                            baseUrl,
-                            System.currentTimeMillis() - ts,
-                            param);
-                    throw new HttpException(error, responseCode);
-                } else {
-                    log.info("Response with responseCode {} from {}. Response took: {} ms. param: {}",
-                            responseCode,
-                            baseUrl,
-                            System.currentTimeMillis() - ts,
-                            param);
-                    throw new HttpException("Request failed", responseCode);
-                }
-            }
-        } catch (Throwable t) {
-            String message = "Error at requestWithoutProxy with url " + baseUrl + " and param " + param +
-                    ". Throwable=" + t.getMessage();
-            throw new IOException(message, t);
-        } finally {
-            try {
-                if (connection != null) {
-                    connection.getInputStream().close();
-                    connection.disconnect();
-                    connection = null;
-                }
-            } catch (Throwable ignore) {
-            }
-            hasPendingRequest = false;
-        }
-    }
-
-    private String doRequestWithProxy(String baseUrl,
-                                      String param,
-                                      HttpMethod httpMethod,
-                                      Socks5Proxy socks5Proxy,
-                                      @Nullable String headerKey,
-                                      @Nullable String headerValue) throws IOException {
-        long ts = System.currentTimeMillis();
-        log.debug("doRequestWithProxy: baseUrl={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
-        // This code is adapted from:
-        //  http://stackoverflow.com/a/25203021/5616248
-
-        // Register our own SocketFactories to override createSocket() and connectSocket().
-        // connectSocket does NOT resolve hostname before passing it to proxy.
-        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new SocksConnectionSocketFactory())
-                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
-
-        // Use FakeDNSResolver if not resolving DNS locally.
-        // This prevents a local DNS lookup (which would be ignored anyway)
-        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
-                new PoolingHttpClientConnectionManager(reg) :
-                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
-        try {
-            closeableHttpClient = checkNotNull(HttpClients.custom().setConnectionManager(cm).build());
-            InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
-
-            // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
-            // InetSocketAddress socksAddress = new InetSocketAddress("127.0.0.1", 9050);
-
-            HttpClientContext context = HttpClientContext.create();
-            context.setAttribute("socks.address", socksAddress);
-
-            HttpUriRequest request = getHttpUriRequest(httpMethod, baseUrl, param);
-            if (headerKey != null && headerValue != null) {
-                request.setHeader(headerKey, headerValue);
-            }
-
-            try (CloseableHttpResponse httpResponse = closeableHttpClient.execute(request, context)) {
-                String response = convertInputStreamToString(httpResponse.getEntity().getContent());
-                int statusCode = httpResponse.getStatusLine().getStatusCode();
-                if (statusCode == 200) {
-                    log.debug("Response from {} took {} ms. Data size:{}, response: {}, param: {}",
-                            baseUrl,
-                            System.currentTimeMillis() - ts,
-                            Utilities.readableFileSize(response.getBytes().length),
-                            Utilities.toTruncatedString(response),
-                            param);
-                    return response;
-                } else {
-                    log.info("Received errorMsg '{}' with statusCode {} from {}. Response took: {} ms. param: {}",
-                            response,
-                            statusCode,
-                            baseUrl,
-                            System.currentTimeMillis() - ts,
-                            param);
-                    throw new HttpException(response, statusCode);
-                }
+                log.info("Received errorMsg '{}' with statusCode {} from {}. Response took: {} ms. param: {}",
+                        response,
+                        statusCode,
+                        baseUrl,
+                        System.currentTimeMillis() - ts,
+                        param);
+                throw new HttpException(response, statusCode);
             }
         } catch (Throwable t) {
-            String message = "Error at doRequestWithProxy with url " + baseUrl + " and param " + param +
+            String message = "Error at doRequest with url " + baseUrl + " and param " + param +
                     ". Throwable=" + t.getMessage();
             throw new IOException(message, t);
         } finally {
-            if (closeableHttpClient != null) {
-                closeableHttpClient.close();
-                closeableHttpClient = null;
-            }
-            hasPendingRequest = false;
+            pendingRequests.remove(request);
         }
     }
 
-    private HttpUriRequest getHttpUriRequest(HttpMethod httpMethod, String baseUrl, String param)
+    private HttpRequestBase getHttpUriRequest(HttpMethod httpMethod, String baseUrl, String param)
             throws UnsupportedEncodingException {
         switch (httpMethod) {
             case GET:
@@ -337,8 +224,7 @@ public class HttpClientImpl implements HttpClient {
                 ",\n     baseUrl='" + baseUrl + '\'' +
                 ",\n     ignoreSocks5Proxy=" + ignoreSocks5Proxy +
                 ",\n     uid='" + uid + '\'' +
-                ",\n     connection=" + connection +
-                ",\n     httpclient=" + closeableHttpClient +
+                ",\n     pendingRequests=" + pendingRequests.size() +
                 "\n}";
     }
 }
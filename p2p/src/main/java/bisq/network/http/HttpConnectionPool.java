@@ -0,0 +1,170 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.common.app.Version;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.net.InetSocketAddress;
+
+import java.io.IOException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keep-alive connections shared by all HttpClientImpl instances. Setting up a connection over Tor requires a new
+ * circuit stream and TLS handshake which takes often several seconds, so we reuse the connections to the same host
+ * across requests. The clients are thread safe and limit the number of concurrent connections per host.
+ * The pool of a client only knows the target host of a connection, so we use a separate client for each socks proxy.
+ * A connection to a host is never reused over another proxy than the one it got opened with.
+ */
+@Slf4j
+@Singleton
+public class HttpConnectionPool {
+    static final int MAX_CONNECTIONS_PER_HOST = 4;
+    private static final int MAX_CONNECTIONS = 32;
+    private static final long CONNECT_TIMEOUT = TimeUnit.SECONDS.toMillis(120);
+    private static final long SOCKET_TIMEOUT = TimeUnit.SECONDS.toMillis(120);
+    // Max. time we wait for a free connection if we have reached MAX_CONNECTIONS_PER_HOST
+    private static final long CONNECTION_REQUEST_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+    private static final long MAX_IDLE_TIME = TimeUnit.SECONDS.toMillis(90);
+
+    @Value
+    private static class Socks5ClientKey {
+        InetSocketAddress proxyAddress;
+        boolean resolveAddrLocally;
+    }
+
+    @Nullable
+    private CloseableHttpClient directClient;
+    private final Map<Socks5ClientKey, CloseableHttpClient> socks5Clients = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public HttpConnectionPool() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized CloseableHttpClient getDirectClient() {
+        if (directClient == null) {
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", SSLConnectionSocketFactory.getSocketFactory()).build();
+            directClient = createClient(new PoolingHttpClientConnectionManager(registry), "bisq/" + Version.VERSION);
+        }
+        return directClient;
+    }
+
+    /**
+     * The client expects the address of the socks proxy as "socks.address" attribute in the context of each request.
+     * It has to be the proxyAddress the client was requested with.
+     *
+     * @param proxyAddress       The address of the socks proxy
+     * @param resolveAddrLocally If false we do not resolve the host names locally but leave that to the proxy
+     */
+    synchronized CloseableHttpClient getSocks5Client(InetSocketAddress proxyAddress, boolean resolveAddrLocally) {
+        return socks5Clients.computeIfAbsent(new Socks5ClientKey(proxyAddress, resolveAddrLocally), key -> {
+            if (resolveAddrLocally) {
+                return createClient(new PoolingHttpClientConnectionManager(getSocks5Registry()), null);
+            } else {
+                // Use FakeDNSResolver if not resolving DNS locally.
+                // This prevents a local DNS lookup (which would be ignored anyway)
+                return createClient(new PoolingHttpClientConnectionManager(getSocks5Registry(),
+                        new FakeDnsResolver()), null);
+            }
+        });
+    }
+
+    // The evictor runs in a daemon thread, so we do not need to call that at shutdown of the app.
+    public synchronized void shutDown() {
+        if (directClient != null)
+            close(directClient);
+        directClient = null;
+        socks5Clients.values().forEach(this::close);
+        socks5Clients.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Registry<ConnectionSocketFactory> getSocks5Registry() {
+        // Register our own SocketFactories to override createSocket() and connectSocket().
+        // connectSocket does NOT resolve hostname before passing it to proxy.
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new SocksConnectionSocketFactory())
+                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
+    }
+
+    private CloseableHttpClient createClient(PoolingHttpClientConnectionManager connectionManager,
+                                             @Nullable String userAgent) {
+        connectionManager.setMaxTotal(MAX_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) CONNECT_TIMEOUT)
+                .setSocketTimeout((int) SOCKET_TIMEOUT)
+                .setConnectionRequestTimeout((int) CONNECTION_REQUEST_TIMEOUT)
+                .build();
+        // Idle connections get closed by the evictor, so clients of a proxy we do not use anymore do not keep any
+        // connections open.
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setUserAgent(userAgent)
+                .evictExpiredConnections()
+                .evictIdleConnections(MAX_IDLE_TIME, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private void close(CloseableHttpClient client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            log.warn("Closing http client failed. {}", e.toString());
+        }
+    }
+}
@@ -37,6 +37,9 @@ public enum CloseConnectionReason {
     SEND_MSG_FAILURE(false, false),
     SEND_MSG_TIMEOUT(false, false),
 
+    // keep alive
+    PEER_UNRESPONSIVE(false, false),
+
     // maintenance
     TOO_MANY_CONNECTIONS_OPEN(true, true),
     TOO_MANY_SEED_NODES_CONNECTED(true, true),
@@ -58,6 +58,7 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 
 import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidClassException;
@@ -65,16 +66,16 @@ import java.io.OptionalDataException;
 import java.io.StreamCorruptedException;
 
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -196,7 +197,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
             protoOutputStream = new SynchronizedProtoOutputStream(socket.getOutputStream(), statistic);
-            protoInputStream = socket.getInputStream();
+            protoInputStream = new ReadActivityInputStream(socket.getInputStream(), statistic);
             // We create a thread for handling inputStream data
             singleThreadExecutor.submit(this);
 
@@ -222,7 +223,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     }
 
     private final Object lock = new Object();
-    private final Queue<BundleOfEnvelopes> queueOfBundles = new ConcurrentLinkedQueue<>();
+    private final Deque<PendingBundle> queueOfBundles = new ConcurrentLinkedDeque<>();
     private final ScheduledExecutorService bundleSender = Executors.newSingleThreadScheduledExecutor();
 
     // Called from various threads
@@ -246,7 +247,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             log.debug("Capability for networkEnvelope is required but not supported");
             return;
         }
-        int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
+        EncodedEnvelope encodedEnvelope = EncodedEnvelope.of(networkEnvelope);
+        int networkEnvelopeSize = encodedEnvelope.getSerializedSize();
         try {
             // Throttle outbound network_messages
             long now = System.currentTimeMillis();
@@ -263,10 +265,10 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         // check if current envelope fits size
                         // - no? create new envelope
 
-                        int size = !queueOfBundles.isEmpty() ? queueOfBundles.element().toProtoNetworkEnvelope().getSerializedSize() + networkEnvelopeSize : 0;
+                        int size = !queueOfBundles.isEmpty() ? queueOfBundles.getLast().getSize() + networkEnvelopeSize : 0;
                         if (queueOfBundles.isEmpty() || size > MAX_PERMITTED_MESSAGE_SIZE * 0.9) {
                             // - no? create a bucket
-                            queueOfBundles.add(new BundleOfEnvelopes());
+                            queueOfBundles.add(new PendingBundle());
 
                             // - and schedule it for sending
                             lastSendTimeStamp += getSendMsgThrottleSleep();
@@ -274,21 +276,14 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                             bundleSender.schedule(() -> {
                                 if (!stopped) {
                                     synchronized (lock) {
-                                        BundleOfEnvelopes bundle = queueOfBundles.poll();
+                                        PendingBundle bundle = queueOfBundles.poll();
                                         if (bundle != null && !stopped) {
-                                            NetworkEnvelope envelope;
-                                            int msgSize;
-                                            if (bundle.getEnvelopes().size() == 1) {
-                                                envelope = bundle.getEnvelopes().get(0);
-                                                msgSize = envelope.toProtoNetworkEnvelope().getSerializedSize();
-                                            } else {
-                                                envelope = bundle;
-                                                msgSize = networkEnvelopeSize;
-                                            }
+                                            EncodedEnvelope encoded = bundle.encode();
+                                            NetworkEnvelope envelope = encoded.getEnvelope();
                                             try {
-                                                protoOutputStream.writeEnvelope(envelope);
+                                                protoOutputStream.writeEnvelope(encoded);
                                                 UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(envelope, this)));
-                                                UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, msgSize));
+                                                UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, encoded.getSerializedSize()));
                                             } catch (Throwable t) {
                                                 log.error("Sending envelope of class {} to address {} " +
                                                                 "failed due {}",
@@ -304,7 +299,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         }
 
                         // - yes? add to bucket
-                        queueOfBundles.element().add(networkEnvelope);
+                        queueOfBundles.getLast().add(encodedEnvelope);
                     }
                     return;
                 }
@@ -315,7 +310,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             lastSendTimeStamp = now;
 
             if (!stopped) {
-                protoOutputStream.writeEnvelope(networkEnvelope);
+                protoOutputStream.writeEnvelope(encodedEnvelope);
                 UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)));
                 UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize));
             }
@@ -948,4 +943,63 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         NodeAddress nodeAddress = getSenderNodeAddress(networkEnvelope);
         return nodeAddress == null ? "null" : nodeAddress.getFullAddress();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PendingBundle
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Collects already encoded envelopes and keeps track of the size of the resulting bundle, so checking
+    // whether another envelope fits does not require to serialize the bundle again.
+    private static class PendingBundle {
+        private final BundleOfEnvelopes bundle = new BundleOfEnvelopes();
+        private final List<EncodedEnvelope> entries = new ArrayList<>();
+        @Getter
+        private int size;
+
+        void add(EncodedEnvelope encodedEnvelope) {
+            bundle.add(encodedEnvelope.getEnvelope());
+            entries.add(encodedEnvelope);
+            size += encodedEnvelope.getSizeInBundle();
+        }
+
+        EncodedEnvelope encode() {
+            // A single envelope is sent as it is
+            return entries.size() == 1 ? entries.get(0) : EncodedEnvelope.ofBundle(bundle, entries);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ReadActivityInputStream
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Reports each successful read to the statistic, so a peer which is streaming a large message, which can
+    // take minutes over Tor, is not considered silent until the message is complete.
+    private static class ReadActivityInputStream extends FilterInputStream {
+        private final Statistic statistic;
+
+        ReadActivityInputStream(InputStream inputStream, Statistic statistic) {
+            super(inputStream);
+            this.statistic = statistic;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                statistic.updateLastReadTimestamp();
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int result = super.read(buffer, offset, length);
+            if (result > 0) {
+                statistic.updateLastReadTimestamp();
+            }
+            return result;
+        }
+    }
 }
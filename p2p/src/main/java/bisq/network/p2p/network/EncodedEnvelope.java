@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.BundleOfEnvelopes;
+import bisq.network.p2p.storage.messages.BroadcastMessage;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.protobuf.CodedOutputStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.IOException;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * A network envelope together with its length delimited protobuf encoding. The envelope is converted to proto
+ * only once, so its size can be checked, it can be added to a bundle and it can be written to the connection
+ * without serializing it again.
+ */
+final class EncodedEnvelope {
+    // Broadcast messages are sent as the same instance to many peers, so we share their encoding. Weak keys are
+    // compared by identity, so equal but distinct instances are encoded separately. The cached encoding must not
+    // reference the envelope, otherwise the weak key would stay reachable from the cache and never get collected.
+    private static final int MAX_CACHED_SERIALIZED_SIZE = 100_000;
+    private static final Cache<NetworkEnvelope, Encoding> ENCODINGS = CacheBuilder.newBuilder()
+            .weakKeys()
+            // The proto and the bytes are kept, so an entry holds about twice its size
+            .maximumWeight(10_000_000)
+            .weigher((NetworkEnvelope envelope, Encoding encoding) -> 2 * encoding.delimitedBytes.length)
+            .build();
+
+    static EncodedEnvelope of(NetworkEnvelope envelope) {
+        // A bundle is mutable until it gets sent, so it must not be served from the cache.
+        if (!(envelope instanceof BroadcastMessage) || envelope instanceof BundleOfEnvelopes)
+            return new EncodedEnvelope(envelope, new Encoding(envelope.toProtoNetworkEnvelope()));
+
+        Encoding encoding = ENCODINGS.getIfPresent(envelope);
+        if (encoding == null) {
+            // If 2 threads encode the same envelope concurrently one encoding wins, both are equal
+            encoding = new Encoding(envelope.toProtoNetworkEnvelope());
+            if (encoding.serializedSize <= MAX_CACHED_SERIALIZED_SIZE)
+                ENCODINGS.put(envelope, encoding);
+        }
+        return new EncodedEnvelope(envelope, encoding);
+    }
+
+    // Builds the proto of the bundle from the already encoded entries instead of converting each envelope again.
+    static EncodedEnvelope ofBundle(BundleOfEnvelopes bundle, List<EncodedEnvelope> entries) {
+        protobuf.BundleOfEnvelopes.Builder builder = protobuf.BundleOfEnvelopes.newBuilder();
+        entries.forEach(entry -> builder.addEnvelopes(entry.getProto()));
+        return new EncodedEnvelope(bundle,
+                new Encoding(bundle.getNetworkEnvelopeBuilder().setBundleOfEnvelopes(builder).build()));
+    }
+
+    @Getter
+    private final NetworkEnvelope envelope;
+    private final Encoding encoding;
+
+    private EncodedEnvelope(NetworkEnvelope envelope, Encoding encoding) {
+        this.envelope = envelope;
+        this.encoding = encoding;
+    }
+
+    protobuf.NetworkEnvelope getProto() {
+        return encoding.proto;
+    }
+
+    int getSerializedSize() {
+        return encoding.serializedSize;
+    }
+
+    // Same bytes as proto.writeDelimitedTo(outputStream) would produce
+    byte[] getDelimitedBytes() {
+        return encoding.delimitedBytes;
+    }
+
+    /**
+     * @return The number of bytes this envelope adds to the serialized size of a bundle it is added to.
+     */
+    int getSizeInBundle() {
+        return CodedOutputStream.computeTagSize(protobuf.BundleOfEnvelopes.ENVELOPES_FIELD_NUMBER) +
+                CodedOutputStream.computeUInt32SizeNoTag(encoding.serializedSize) +
+                encoding.serializedSize;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Encoding
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Encoding {
+        private final protobuf.NetworkEnvelope proto;
+        private final int serializedSize;
+        private final byte[] delimitedBytes;
+
+        Encoding(protobuf.NetworkEnvelope proto) {
+            this.proto = proto;
+            this.serializedSize = proto.getSerializedSize();
+            this.delimitedBytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize];
+            CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(delimitedBytes);
+            try {
+                codedOutputStream.writeUInt32NoTag(serializedSize);
+                proto.writeTo(codedOutputStream);
+                codedOutputStream.checkNoSpaceLeft();
+            } catch (IOException e) {
+                throw new BisqRuntimeException("Failed to encode envelope", e);
+            }
+        }
+    }
+}
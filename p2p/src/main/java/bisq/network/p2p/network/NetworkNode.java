@@ -197,6 +197,7 @@ public abstract class NetworkNode implements MessageListener {
                                 peersNodeAddress,
                                 networkProtoResolver,
                                 networkFilter);
+                        outboundConnection.getStatistic().setConnectDuration(duration);
 
                         if (log.isDebugEnabled()) {
                             log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
@@ -130,11 +130,15 @@ public class Statistic {
 
     private final Date creationDate;
     private long lastActivityTimestamp = System.currentTimeMillis();
+    // Set by the reading thread whenever bytes arrive, also while a large message is still incomplete
+    private volatile long lastReadTimestamp = System.currentTimeMillis();
     private final LongProperty sentBytes = new SimpleLongProperty(0);
     private final LongProperty receivedBytes = new SimpleLongProperty(0);
     private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
     private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
     private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    // Duration of the socket creation for outbound connections, 0 for inbound connections
+    private volatile long connectDuration;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -153,6 +157,10 @@ public class Statistic {
         UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
     }
 
+    void updateLastReadTimestamp() {
+        lastReadTimestamp = System.currentTimeMillis();
+    }
+
     void addSentBytes(int value) {
         UserThread.execute(() -> {
             sentBytes.set(sentBytes.get() + value);
@@ -202,6 +210,10 @@ public class Statistic {
         this.roundTripTime.set(roundTripTime);
     }
 
+    void setConnectDuration(long connectDuration) {
+        this.connectDuration = connectDuration;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -210,6 +222,10 @@ public class Statistic {
         return lastActivityTimestamp;
     }
 
+    public long getLastReadTimestamp() {
+        return lastReadTimestamp;
+    }
+
     public long getLastActivityAge() {
         return System.currentTimeMillis() - lastActivityTimestamp;
     }
@@ -234,10 +250,18 @@ public class Statistic {
         return creationDate;
     }
 
+    public int getRoundTripTime() {
+        return roundTripTime.get();
+    }
+
     public IntegerProperty roundTripTimeProperty() {
         return roundTripTime;
     }
 
+    public long getConnectDuration() {
+        return connectDuration;
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
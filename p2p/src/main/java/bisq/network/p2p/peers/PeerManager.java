@@ -23,10 +23,12 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
 import bisq.network.p2p.network.InboundConnection;
 import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.OutboundConnection;
 import bisq.network.p2p.network.PeerType;
 import bisq.network.p2p.network.RuleViolation;
 import bisq.network.p2p.peers.peerexchange.Peer;
 import bisq.network.p2p.peers.peerexchange.PeerList;
+import bisq.network.p2p.peers.reputation.PeerReputationService;
 import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.ClockWatcher;
@@ -107,6 +109,7 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
     private final ClockWatcher clockWatcher;
     private final Set<NodeAddress> seedNodeAddresses;
     private final PersistenceManager<PeerList> persistenceManager;
+    private final PeerReputationService peerReputationService;
     private final ClockWatcher.Listener clockWatcherListener;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
 
@@ -143,11 +146,13 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
                        SeedNodeRepository seedNodeRepository,
                        ClockWatcher clockWatcher,
                        PersistenceManager<PeerList> persistenceManager,
+                       PeerReputationService peerReputationService,
                        @Named(Config.MAX_CONNECTIONS) int maxConnections) {
         this.networkNode = networkNode;
         this.seedNodeAddresses = new HashSet<>(seedNodeRepository.getSeedNodeAddresses());
         this.clockWatcher = clockWatcher;
         this.persistenceManager = persistenceManager;
+        this.peerReputationService = peerReputationService;
 
         this.persistenceManager.initialize(peerList, PersistenceManager.Source.PRIVATE_LOW_PRIO);
         this.networkNode.addConnectionListener(this);
@@ -227,12 +232,26 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
         connection.getPeersNodeAddressOptional()
                 .flatMap(this::findPeer)
                 .ifPresent(Peer::onConnection);
+
+        // Only for outbound connections we know the peers address is reachable and how long it took to connect
+        if (connection instanceof OutboundConnection) {
+            connection.getPeersNodeAddressOptional().ifPresent(nodeAddress ->
+                    peerReputationService.onConnectSuccess(nodeAddress, connection.getStatistic().getConnectDuration()));
+        }
     }
 
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
         log.info("onDisconnect called: nodeAddress={}, closeConnectionReason={}",
                 connection.getPeersNodeAddressOptional(), closeConnectionReason);
+        connection.getPeersNodeAddressOptional().ifPresent(nodeAddress -> {
+            peerReputationService.onConnectionClosed(nodeAddress,
+                    connection.getStatistic().getRoundTripTime(),
+                    connection.getStatistic().getReceivedBytes());
+            if (!closeConnectionReason.isIntended) {
+                peerReputationService.onFailure(nodeAddress, closeConnectionReason.name());
+            }
+        });
         handleConnectionFault(connection);
 
         boolean previousLostAllConnections = lostAllConnections;
@@ -284,6 +303,11 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
     }
 
     public void handleConnectionFault(NodeAddress nodeAddress, @Nullable Connection connection) {
+        // If we have a connection the failure gets recorded at onDisconnect with the close reason
+        if (connection == null) {
+            peerReputationService.onFailure(nodeAddress, "NO_CONNECTION");
+        }
+
         boolean doRemovePersistedPeer = false;
         removeReportedPeer(nodeAddress);
         Optional<Peer> persistedPeerOptional = findPersistedPeer(nodeAddress);
@@ -390,6 +414,14 @@ public final class PeerManager implements ConnectionListener, PersistedDataHost
         }
     }
 
+    /**
+     * Sorts the given candidates so that peers which were reliable and fast in the past come first. Peers of similar
+     * quality keep their order in the list.
+     */
+    public void sortByReputation(List<NodeAddress> nodeAddresses) {
+        peerReputationService.sortByRank(nodeAddresses);
+    }
+
     // Delivers the live peers from the last 30 min (MAX_AGE_LIVE_PEERS)
     // We include older peers to avoid risks for network partitioning
     public Set<Peer> getLivePeers() {
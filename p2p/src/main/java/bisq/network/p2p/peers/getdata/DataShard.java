@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import java.util.Arrays;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * One part of the payload hash space. For the initial data request we split the hash space into shards and request
+ * each shard from a different seed node, so that no seed node needs to deliver the full data set to us.
+ * As the hashes are cryptographic hashes the payloads are evenly distributed over the shards.
+ */
+@Value
+public class DataShard {
+    // Protects the seed node from requests with a huge number of tiny shards
+    public static final int MAX_SHARDS = 16;
+
+    int numShards;
+    int index;
+
+    public DataShard(int numShards, int index) {
+        checkArgument(numShards > 1 && numShards <= MAX_SHARDS, "Invalid numShards " + numShards);
+        checkArgument(index >= 0 && index < numShards, "Invalid shard index " + index);
+        this.numShards = numShards;
+        this.index = index;
+    }
+
+    /**
+     * @return The shard or null if the values received from the peer do not describe a valid shard. In that case we
+     * treat the request as a request for all data, as we did before sharding was supported.
+     */
+    @Nullable
+    public static DataShard fromProto(int numShards, int index) {
+        if (numShards <= 1 || numShards > MAX_SHARDS || index < 0 || index >= numShards)
+            return null;
+
+        return new DataShard(numShards, index);
+    }
+
+    public boolean contains(byte[] hash) {
+        return Math.floorMod(toInt(hash), numShards) == index;
+    }
+
+    private static int toInt(byte[] hash) {
+        if (hash.length < 4)
+            return Arrays.hashCode(hash);
+
+        return ((hash[0] & 0xff) << 24) | ((hash[1] & 0xff) << 16) | ((hash[2] & 0xff) << 8) | (hash[3] & 0xff);
+    }
+
+    @Override
+    public String toString() {
+        return (index + 1) + "/" + numShards;
+    }
+}
@@ -27,24 +27,26 @@ import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
-import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capability;
 import bisq.common.proto.network.NetworkEnvelope;
-import bisq.common.proto.network.NetworkPayload;
 import bisq.common.util.Tuple2;
 import bisq.common.util.Utilities;
 
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
@@ -73,7 +75,7 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public interface Listener {
-        void onComplete();
+        void onComplete(int numReceivedEntries);
 
         @SuppressWarnings("UnusedParameters")
         void onFault(String errorMessage, @SuppressWarnings("SameParameterValue") @Nullable Connection connection);
@@ -90,6 +92,8 @@ class RequestDataHandler implements MessageListener {
     private final Listener listener;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
+    @Nullable
+    private DataShard dataShard;
     private boolean stopped;
 
 
@@ -117,13 +121,21 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest) {
+        requestData(nodeAddress, isPreliminaryDataRequest, null);
+    }
+
+    void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest, @Nullable DataShard dataShard) {
         peersNodeAddress = nodeAddress;
+        this.dataShard = isPreliminaryDataRequest ? dataShard : null;
         if (!stopped) {
             GetDataRequest getDataRequest;
 
-            if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
-            else
+            if (isPreliminaryDataRequest) {
+                // If we do not know yet whether the peer supports sharding we send all our known hashes. A peer
+                // ignoring the shard then delivers the same data as for an unsharded request.
+                boolean excludeKeysOfShardOnly = dataShard != null && supportsDataShard(peerManager, nodeAddress);
+                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce, dataShard, excludeKeysOfShardOnly);
+            } else
                 getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
 
             if (timeoutTimer == null) {
@@ -177,6 +189,20 @@ class RequestDataHandler implements MessageListener {
     }
 
 
+    // Capabilities of a peer are only known once we have been connected to it or another peer reported it. As long
+    // as they are unknown neither of the methods returns true.
+    static boolean supportsDataShard(PeerManager peerManager, NodeAddress nodeAddress) {
+        return peerManager.peerHasCapability(nodeAddress, Capability.SHARDED_DATA_REQUEST);
+    }
+
+    static boolean ignoresDataShard(PeerManager peerManager, NodeAddress nodeAddress) {
+        return peerManager.findPeersCapabilities(nodeAddress)
+                .filter(capabilities -> !capabilities.isEmpty())
+                .map(capabilities -> !capabilities.contains(Capability.SHARDED_DATA_REQUEST))
+                .orElse(false);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -197,11 +223,14 @@ class RequestDataHandler implements MessageListener {
                             return;
                         }
 
+                        NodeAddress sender = connection.getPeersNodeAddressOptional().get();
+                        // A peer which ignored the shard has delivered all data
                         dataStorage.processGetDataResponse(getDataResponse,
-                                connection.getPeersNodeAddressOptional().get());
+                                sender,
+                                ignoresDataShard(peerManager, sender) ? null : dataShard);
 
                         cleanup();
-                        listener.onComplete();
+                        listener.onComplete(getDataResponse.getNumEntries());
                         // firstRequest = false;
                     } else {
                         log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
@@ -228,16 +257,21 @@ class RequestDataHandler implements MessageListener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // We use the raw protobuf entries as we do not want to decode all entries only for logging
     private void logContents(GetDataResponse getDataResponse) {
-        Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet();
-        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
+        List<protobuf.StorageEntryWrapper> dataSet = getDataResponse.getRawDataSet();
+        List<protobuf.PersistableNetworkPayload> persistableNetworkPayloadSet =
+                getDataResponse.getRawPersistableNetworkPayloadItems();
         Map<String, Tuple2<AtomicInteger, AtomicInteger>> numPayloadsByClassName = new HashMap<>();
-        dataSet.forEach(protectedStorageEntry -> {
-            String className = protectedStorageEntry.getProtectedStoragePayload().getClass().getSimpleName();
-            addDetails(numPayloadsByClassName, protectedStorageEntry, className);
+        dataSet.forEach(entry -> {
+            protobuf.ProtectedStorageEntry protectedStorageEntry = entry.hasProtectedMailboxStorageEntry() ?
+                    entry.getProtectedMailboxStorageEntry().getEntry() :
+                    entry.getProtectedStorageEntry();
+            String className = getPayloadName(protectedStorageEntry.getStoragePayload());
+            addDetails(numPayloadsByClassName, entry, className);
         });
         persistableNetworkPayloadSet.forEach(persistableNetworkPayload -> {
-            String className = persistableNetworkPayload.getClass().getSimpleName();
+            String className = getPayloadName(persistableNetworkPayload);
             addDetails(numPayloadsByClassName, persistableNetworkPayload, className);
         });
         StringBuilder sb = new StringBuilder();
@@ -258,14 +292,20 @@ class RequestDataHandler implements MessageListener {
     }
 
     private void addDetails(Map<String, Tuple2<AtomicInteger, AtomicInteger>> numPayloadsByClassName,
-                            NetworkPayload networkPayload, String className) {
+                            Message proto, String className) {
         numPayloadsByClassName.putIfAbsent(className, new Tuple2<>(new AtomicInteger(0),
                 new AtomicInteger(0)));
         numPayloadsByClassName.get(className).first.getAndIncrement();
-        // toProtoMessage().getSerializedSize() is not very cheap. For about 1500 objects it takes about 20 ms
-        // I think its justified to get accurate metrics but if it turns out to be a performance issue we might need
-        // to remove it and use some more rough estimation by taking only the size of one data type and multiply it.
-        numPayloadsByClassName.get(className).second.getAndAdd(networkPayload.toProtoMessage().getSerializedSize());
+        numPayloadsByClassName.get(className).second.getAndAdd(proto.getSerializedSize());
+    }
+
+    // Name of the message set in the oneof of the given wrapper message, e.g. OfferPayload for a StoragePayload
+    private static String getPayloadName(Message wrapper) {
+        return wrapper.getAllFields().keySet().stream()
+                .filter(field -> field.getType() == Descriptors.FieldDescriptor.Type.MESSAGE)
+                .map(field -> field.getMessageType().getName())
+                .findAny()
+                .orElse("Unknown");
     }
 
     @SuppressWarnings("UnusedParameters")
@@ -61,6 +61,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     private static int NUM_SEEDS_FOR_PRELIMINARY_REQUEST = 2;
     // how many seeds additional to the first responding PreliminaryGetDataRequest seed we request the GetUpdatedDataRequest from
     private static int NUM_ADDITIONAL_SEEDS_FOR_UPDATE_REQUEST = 1;
+    private static final long STALLED_SHARDS_CHECK_INTERVAL_SEC = 5;
     private boolean isPreliminaryDataRequest = true;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -99,6 +100,11 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     private final Map<String, GetDataRequestHandler> getDataRequestHandlers = new HashMap<>();
     private Optional<NodeAddress> nodeAddressOfPreliminaryDataRequest = Optional.empty();
     private Timer retryTimer;
+    // If we request the preliminary data from several seed nodes we split it into shards, one per seed node
+    @Nullable
+    private ShardedDataRequest shardedDataRequest;
+    @Nullable
+    private Timer stalledShardsTimer;
     private boolean dataUpdateRequested;
     private boolean stopped;
 
@@ -138,6 +144,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     public void shutDown() {
         stopped = true;
         stopRetryTimer();
+        stopStalledShardsTimer();
         networkNode.removeMessageListener(this);
         networkNode.removeConnectionListener(this);
         peerManager.removeListener(this);
@@ -156,16 +163,30 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     }
 
     public void requestPreliminaryData() {
+        // The reputation is only available after the persisted data got read, so we cannot sort in the constructor.
+        // As the sort is stable the seed nodes of the same rank keep their shuffled order. We sort the field so that
+        // the update request uses the same seed nodes.
+        peerManager.sortByReputation(seedNodeAddresses);
         ArrayList<NodeAddress> nodeAddresses = new ArrayList<>(seedNodeAddresses);
         if (!nodeAddresses.isEmpty()) {
             ArrayList<NodeAddress> finalNodeAddresses = new ArrayList<>(nodeAddresses);
             final int size = Math.min(NUM_SEEDS_FOR_PRELIMINARY_REQUEST, finalNodeAddresses.size());
+            // Each seed node delivers only its shard of the data, so we are not bound to the slowest seed node
+            // delivering the full data set. At the first request we usually do not know the capabilities of the seed
+            // nodes yet, as seed nodes are not part of the peer exchange. We shard anyway and send those seed nodes
+            // all our known hashes, so a seed node which turns out to ignore the shard delivers all data, which
+            // completes the request. We only do not shard if a seed node is known to not support it.
+            if (size > 1 && finalNodeAddresses.subList(0, size).stream().noneMatch(this::ignoresShardedDataRequest)) {
+                shardedDataRequest = new ShardedDataRequest(size, System.currentTimeMillis());
+                startStalledShardsTimer();
+            }
             for (int i = 0; i < size; i++) {
                 NodeAddress nodeAddress = finalNodeAddresses.get(i);
                 nodeAddresses.remove(nodeAddress);
                 // We clone list to avoid mutable change during iterations
                 List<NodeAddress> remainingNodeAddresses = new ArrayList<>(nodeAddresses);
-                UserThread.runAfter(() -> requestData(nodeAddress, remainingNodeAddresses), (i * 200 + 1), TimeUnit.MILLISECONDS);
+                DataShard dataShard = shardedDataRequest != null ? shardedDataRequest.getShards().get(i) : null;
+                UserThread.runAfter(() -> requestData(nodeAddress, remainingNodeAddresses, dataShard), (i * 200 + 1), TimeUnit.MILLISECONDS);
             }
 
             isPreliminaryDataRequest = true;
@@ -318,12 +339,23 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void requestData(NodeAddress nodeAddress, List<NodeAddress> remainingNodeAddresses) {
+        requestData(nodeAddress, remainingNodeAddresses, null);
+    }
+
+    private void requestData(NodeAddress nodeAddress,
+                             List<NodeAddress> remainingNodeAddresses,
+                             @Nullable DataShard requestedDataShard) {
         if (!stopped) {
             if (!handlerMap.containsKey(nodeAddress)) {
+                // If the sharded request got reset in the meantime or the peer does not support sharding we
+                // request all data
+                DataShard dataShard = shardedDataRequest != null && !ignoresShardedDataRequest(nodeAddress) ?
+                        requestedDataShard :
+                        null;
                 RequestDataHandler requestDataHandler = new RequestDataHandler(networkNode, dataStorage, peerManager,
                         new RequestDataHandler.Listener() {
                             @Override
-                            public void onComplete() {
+                            public void onComplete(int numReceivedEntries) {
                                 log.trace("RequestDataHandshake of outbound connection complete. nodeAddress={}",
                                         nodeAddress);
                                 stopRetryTimer();
@@ -331,8 +363,20 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                                 // need to remove before listeners are notified as they cause the update call
                                 handlerMap.remove(nodeAddress);
 
+                                if (dataShard != null && shardedDataRequest != null) {
+                                    shardedDataRequest.onComplete(dataShard, nodeAddress, numReceivedEntries,
+                                            System.currentTimeMillis());
+                                }
+                                // A response to an unsharded request, or from a seed node which turned out to
+                                // ignore the shard, contains all shards
+                                boolean isPreliminaryDataComplete = dataShard == null ||
+                                        ignoresShardedDataRequest(nodeAddress) ||
+                                        shardedDataRequest == null ||
+                                        shardedDataRequest.isComplete();
+
                                 // 1. We get a response from requestPreliminaryData
-                                if (!nodeAddressOfPreliminaryDataRequest.isPresent()) {
+                                if (!nodeAddressOfPreliminaryDataRequest.isPresent() && isPreliminaryDataComplete) {
+                                    stopStalledShardsTimer();
                                     nodeAddressOfPreliminaryDataRequest = Optional.of(nodeAddress);
                                     // We delay because it can be that we get the HS published before we receive the
                                     // preliminary data and the onPreliminaryDataReceived call triggers the
@@ -356,13 +400,16 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
                                 peerManager.handleConnectionFault(nodeAddress);
                                 handlerMap.remove(nodeAddress);
+                                if (dataShard != null && shardedDataRequest != null) {
+                                    shardedDataRequest.onFault(nodeAddress);
+                                }
 
                                 if (!remainingNodeAddresses.isEmpty()) {
                                     log.debug("There are remaining nodes available for requesting data. " +
                                             "We will try requestDataFromPeers again.");
                                     NodeAddress nextCandidate = remainingNodeAddresses.get(0);
                                     remainingNodeAddresses.remove(nextCandidate);
-                                    requestData(nextCandidate, remainingNodeAddresses);
+                                    requestData(nextCandidate, remainingNodeAddresses, dataShard);
                                 } else if (handlerMap.isEmpty()) {
                                     // If not other connection attempts are in the handlerMap we assume that no seed
                                     // nodes are available.
@@ -387,7 +434,10 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                             }
                         });
                 handlerMap.put(nodeAddress, requestDataHandler);
-                requestDataHandler.requestData(nodeAddress, isPreliminaryDataRequest);
+                if (dataShard != null) {
+                    shardedDataRequest.onRequested(dataShard, nodeAddress, System.currentTimeMillis());
+                }
+                requestDataHandler.requestData(nodeAddress, isPreliminaryDataRequest, dataShard);
             } else {
                 log.warn("We have started already a requestDataHandshake to peer. nodeAddress=" + nodeAddress + "\n" +
                         "We start a cleanup timer if the handler has not closed by itself in between 2 minutes.");
@@ -433,8 +483,10 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                         // 1. shuffled seedNodes
                         // 2. reported peers sorted by last activity date
                         // 3. Add as last persisted peers sorted by last activity date
+                        // Inside each group the peers with a better reputation come first.
                         List<NodeAddress> list = getFilteredList(new ArrayList<>(seedNodeAddresses), new ArrayList<>());
                         Collections.shuffle(list);
+                        peerManager.sortByReputation(list);
 
                         List<NodeAddress> filteredReportedPeers = getFilteredNonSeedNodeList(getSortedNodeAddresses(peerManager.getReportedPeers()), list);
                         list.addAll(filteredReportedPeers);
@@ -453,11 +505,13 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     }
 
     private List<NodeAddress> getSortedNodeAddresses(Collection<Peer> collection) {
-        return new ArrayList<>(collection)
+        List<NodeAddress> list = new ArrayList<>(collection)
                 .stream()
                 .sorted((o1, o2) -> o2.getDate().compareTo(o1.getDate()))
                 .map(Peer::getNodeAddress)
                 .collect(Collectors.toList());
+        peerManager.sortByReputation(list);
+        return list;
     }
 
     private List<NodeAddress> getFilteredList(Collection<NodeAddress> collection, List<NodeAddress> list) {
@@ -485,6 +539,9 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         if (peersNodeAddressOptional.isPresent()) {
             NodeAddress nodeAddress = peersNodeAddressOptional.get();
             if (handlerMap.containsKey(nodeAddress)) {
+                if (shardedDataRequest != null) {
+                    shardedDataRequest.onFault(nodeAddress);
+                }
                 handlerMap.get(nodeAddress).cancel();
                 handlerMap.remove(nodeAddress);
             }
@@ -496,6 +553,52 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     private void closeAllHandlers() {
         handlerMap.values().forEach(RequestDataHandler::cancel);
         handlerMap.clear();
+
+        // Requests after a restart are not sharded
+        stopStalledShardsTimer();
+        shardedDataRequest = null;
+    }
+
+    private boolean ignoresShardedDataRequest(NodeAddress nodeAddress) {
+        return RequestDataHandler.ignoresDataShard(peerManager, nodeAddress);
+    }
+
+    private void startStalledShardsTimer() {
+        stopStalledShardsTimer();
+        stalledShardsTimer = UserThread.runPeriodically(this::requestStalledShards, STALLED_SHARDS_CHECK_INTERVAL_SEC);
+    }
+
+    private void stopStalledShardsTimer() {
+        if (stalledShardsTimer != null) {
+            stalledShardsTimer.stop();
+            stalledShardsTimer = null;
+        }
+    }
+
+    // We request shards which got stuck from the fastest seed node which has delivered its shard already. If there
+    // is none we use a seed node we have not requested from yet.
+    private void requestStalledShards() {
+        if (stopped || shardedDataRequest == null || shardedDataRequest.isComplete()) {
+            stopStalledShardsTimer();
+            return;
+        }
+
+        ShardedDataRequest request = shardedDataRequest;
+        request.getStalledShards(System.currentTimeMillis()).forEach(dataShard -> {
+            Optional<NodeAddress> candidate = request.findFastestIdleNode(handlerMap.keySet());
+            if (!candidate.isPresent()) {
+                candidate = seedNodeAddresses.stream()
+                        .filter(nodeAddress -> !handlerMap.containsKey(nodeAddress))
+                        .filter(nodeAddress -> !request.hasFailed(nodeAddress))
+                        .filter(nodeAddress -> !peerManager.isSelf(nodeAddress))
+                        .filter(nodeAddress -> !ignoresShardedDataRequest(nodeAddress))
+                        .findFirst();
+            }
+            candidate.ifPresent(nodeAddress -> {
+                log.info("Data shard {} is stalled. We request it from {}", dataShard, nodeAddress);
+                requestData(nodeAddress, new ArrayList<>(), dataShard);
+            });
+        });
     }
 
 }
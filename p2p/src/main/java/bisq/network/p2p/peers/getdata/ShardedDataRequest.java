@@ -0,0 +1,148 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps track of a preliminary data request which is split into {@link DataShard}s requested from different seed
+ * nodes in parallel. The data is complete once each shard got delivered by at least one seed node.
+ * A shard is stalled if it has no open request anymore or if it takes much longer than the shards which got already
+ * delivered. A stalled shard gets requested again from the seed node with the best throughput which is idle.
+ * Not thread safe, expected to be used from the user thread only.
+ */
+@Slf4j
+class ShardedDataRequest {
+    static final long MIN_STALL_DURATION = TimeUnit.SECONDS.toMillis(20);
+    private static final int STALL_FACTOR = 3;
+    private static final int MAX_REQUESTS_PER_SHARD = 3;
+
+    private final List<DataShard> shards = new ArrayList<>();
+    private final long startTime;
+    private final Set<DataShard> completedShards = new HashSet<>();
+    private final Map<DataShard, Set<NodeAddress>> openRequestsByShard = new HashMap<>();
+    private final Map<DataShard, Integer> numRequestsByShard = new HashMap<>();
+    // Received entries per second of the seed nodes which delivered a shard
+    private final Map<NodeAddress, Double> throughputByNodeAddress = new HashMap<>();
+    private final Map<NodeAddress, Long> requestTimeByNodeAddress = new HashMap<>();
+    private final Set<NodeAddress> failedNodeAddresses = new HashSet<>();
+    private long fastestShardDuration = Long.MAX_VALUE;
+
+    ShardedDataRequest(int numShards, long now) {
+        for (int i = 0; i < numShards; i++) {
+            DataShard shard = new DataShard(numShards, i);
+            shards.add(shard);
+            openRequestsByShard.put(shard, new HashSet<>());
+            numRequestsByShard.put(shard, 0);
+        }
+        startTime = now;
+    }
+
+    List<DataShard> getShards() {
+        return shards;
+    }
+
+    void onRequested(DataShard shard, NodeAddress nodeAddress, long now) {
+        openRequestsByShard.get(shard).add(nodeAddress);
+        numRequestsByShard.merge(shard, 1, Integer::sum);
+        requestTimeByNodeAddress.put(nodeAddress, now);
+    }
+
+    void onFault(NodeAddress nodeAddress) {
+        openRequestsByShard.values().forEach(openRequests -> openRequests.remove(nodeAddress));
+        requestTimeByNodeAddress.remove(nodeAddress);
+        throughputByNodeAddress.remove(nodeAddress);
+        failedNodeAddresses.add(nodeAddress);
+    }
+
+    boolean hasFailed(NodeAddress nodeAddress) {
+        return failedNodeAddresses.contains(nodeAddress);
+    }
+
+    void onComplete(DataShard shard, NodeAddress nodeAddress, int numReceivedEntries, long now) {
+        openRequestsByShard.get(shard).remove(nodeAddress);
+        Long requestTime = requestTimeByNodeAddress.remove(nodeAddress);
+        if (requestTime != null) {
+            long duration = Math.max(1, now - requestTime);
+            throughputByNodeAddress.put(nodeAddress, numReceivedEntries * 1000d / duration);
+            if (!completedShards.contains(shard)) {
+                fastestShardDuration = Math.min(fastestShardDuration, duration);
+            }
+        }
+
+        if (!isComplete()) {
+            completedShards.add(shard);
+            if (isComplete()) {
+                log.info("All {} data shards received after {} ms", shards.size(), now - startTime);
+            }
+        }
+    }
+
+    boolean isComplete() {
+        return completedShards.size() == shards.size();
+    }
+
+    /**
+     * @return The shards which are not delivered yet and either have no open request or where the latest request
+     * takes more than {@link #STALL_FACTOR} times as long as the fastest delivered shard.
+     */
+    List<DataShard> getStalledShards(long now) {
+        long stallDuration = fastestShardDuration == Long.MAX_VALUE ?
+                Long.MAX_VALUE :
+                Math.max(MIN_STALL_DURATION, STALL_FACTOR * fastestShardDuration);
+        return shards.stream()
+                .filter(shard -> !completedShards.contains(shard))
+                .filter(shard -> numRequestsByShard.get(shard) < MAX_REQUESTS_PER_SHARD)
+                .filter(shard -> {
+                    Set<NodeAddress> openRequests = openRequestsByShard.get(shard);
+                    if (openRequests.isEmpty()) {
+                        return true;
+                    }
+                    long latestRequestTime = openRequests.stream()
+                            .mapToLong(nodeAddress -> requestTimeByNodeAddress.getOrDefault(nodeAddress, now))
+                            .max()
+                            .orElse(now);
+                    return now - latestRequestTime > stallDuration;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The seed node with the best throughput which has no open request, if any.
+     */
+    Optional<NodeAddress> findFastestIdleNode(Set<NodeAddress> busyNodeAddresses) {
+        return throughputByNodeAddress.entrySet().stream()
+                .filter(e -> !busyNodeAddresses.contains(e.getKey()))
+                .filter(e -> !requestTimeByNodeAddress.containsKey(e.getKey()))
+                .max(Comparator.comparingDouble(Map.Entry::getValue))
+                .map(Map.Entry::getKey);
+    }
+}
@@ -31,26 +31,57 @@ import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
 import bisq.common.util.Utilities;
 
+import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
 @Slf4j
 @EqualsAndHashCode(callSuper = true)
 @Value
 public final class GetDataResponse extends NetworkEnvelope implements SupportedCapabilitiesMessage,
         ExtendedDataSizePermission, InitialDataResponse {
     // Set of ProtectedStorageEntry objects
-    private final Set<ProtectedStorageEntry> dataSet;
+    // If the response was received from the network it gets decoded from rawDataSet at first access.
+    @NonFinal
+    @Nullable
+    private Set<ProtectedStorageEntry> dataSet;
 
     // Set of PersistableNetworkPayload objects
     // We added that in v 0.6 and the fromProto code will create an empty HashSet if it doesn't exist
-    private final Set<PersistableNetworkPayload> persistableNetworkPayloadSet;
+    @NonFinal
+    @Nullable
+    private Set<PersistableNetworkPayload> persistableNetworkPayloadSet;
+
+    // Received entries in their protobuf representation. Decoding all entries of a large response is expensive and
+    // most of them might be known already, so we only decode the entries which are actually used.
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final List<protobuf.StorageEntryWrapper> rawDataSet;
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final List<protobuf.PersistableNetworkPayload> rawPersistableNetworkPayloadItems;
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final NetworkProtoResolver resolver;
 
     private final int requestNonce;
     private final boolean isGetUpdatedDataResponse;
@@ -82,6 +113,26 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
 
         this.dataSet = dataSet;
         this.persistableNetworkPayloadSet = persistableNetworkPayloadSet;
+        this.rawDataSet = null;
+        this.rawPersistableNetworkPayloadItems = null;
+        this.resolver = null;
+        this.requestNonce = requestNonce;
+        this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
+        this.supportedCapabilities = supportedCapabilities;
+    }
+
+    private GetDataResponse(@NotNull List<protobuf.StorageEntryWrapper> rawDataSet,
+                            @NotNull List<protobuf.PersistableNetworkPayload> rawPersistableNetworkPayloadItems,
+                            @NotNull NetworkProtoResolver resolver,
+                            int requestNonce,
+                            boolean isGetUpdatedDataResponse,
+                            @NotNull Capabilities supportedCapabilities,
+                            int messageVersion) {
+        super(messageVersion);
+
+        this.rawDataSet = rawDataSet;
+        this.rawPersistableNetworkPayloadItems = rawPersistableNetworkPayloadItems;
+        this.resolver = resolver;
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.supportedCapabilities = supportedCapabilities;
@@ -90,19 +141,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         final protobuf.GetDataResponse.Builder builder = protobuf.GetDataResponse.newBuilder()
-                .addAllDataSet(dataSet.stream()
-                        .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
-                                protobuf.StorageEntryWrapper.newBuilder()
-                                        .setProtectedMailboxStorageEntry((protobuf.ProtectedMailboxStorageEntry) protectedStorageEntry.toProtoMessage())
-                                        .build()
-                                :
-                                protobuf.StorageEntryWrapper.newBuilder()
-                                        .setProtectedStorageEntry((protobuf.ProtectedStorageEntry) protectedStorageEntry.toProtoMessage())
-                                        .build())
-                        .collect(Collectors.toList()))
-                .addAllPersistableNetworkPayloadItems(persistableNetworkPayloadSet.stream()
-                        .map(PersistableNetworkPayload::toProtoMessage)
-                        .collect(Collectors.toList()))
+                .addAllDataSet(getRawDataSet())
+                .addAllPersistableNetworkPayloadItems(getRawPersistableNetworkPayloadItems())
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
                 .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities));
@@ -118,20 +158,110 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                             NetworkProtoResolver resolver,
                                             int messageVersion) {
         log.info("Received a GetDataResponse with {}", Utilities.readableFileSize(proto.getSerializedSize()));
-        Set<ProtectedStorageEntry> dataSet = proto.getDataSetList().stream()
-                .map(entry -> (ProtectedStorageEntry) resolver.fromProto(entry)).collect(Collectors.toSet());
-        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = proto.getPersistableNetworkPayloadItemsList().stream()
-                .map(e -> (PersistableNetworkPayload) resolver.fromProto(e)).collect(Collectors.toSet());
-        return new GetDataResponse(dataSet,
-                persistableNetworkPayloadSet,
+        return new GetDataResponse(proto.getDataSetList(),
+                proto.getPersistableNetworkPayloadItemsList(),
+                resolver,
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Set<ProtectedStorageEntry> getDataSet() {
+        if (dataSet == null)
+            dataSet = decodeDataSet(entry -> true);
+
+        return dataSet;
+    }
+
+    public Set<PersistableNetworkPayload> getPersistableNetworkPayloadSet() {
+        if (persistableNetworkPayloadSet == null)
+            persistableNetworkPayloadSet = decodePersistableNetworkPayloadSet(payload -> true);
+
+        return persistableNetworkPayloadSet;
+    }
+
+    /**
+     * Decodes only the received entries which pass the filter. The filter is applied on the protobuf representation,
+     * so it can be used to skip entries we know already without converting them to domain objects. It is only an
+     * optimization: if the response was not received from the network or got decoded already, all entries are
+     * returned.
+     */
+    public Set<ProtectedStorageEntry> getDataSet(Predicate<protobuf.StorageEntryWrapper> filter) {
+        return dataSet != null ? dataSet : decodeDataSet(filter);
+    }
+
+    /**
+     * @see #getDataSet(Predicate)
+     */
+    public Set<PersistableNetworkPayload> getPersistableNetworkPayloadSet(Predicate<protobuf.PersistableNetworkPayload> filter) {
+        return persistableNetworkPayloadSet != null ?
+                persistableNetworkPayloadSet :
+                decodePersistableNetworkPayloadSet(filter);
+    }
+
+    public List<protobuf.StorageEntryWrapper> getRawDataSet() {
+        if (rawDataSet != null)
+            return rawDataSet;
+
+        return getDataSet().stream()
+                .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
+                        protobuf.StorageEntryWrapper.newBuilder()
+                                .setProtectedMailboxStorageEntry((protobuf.ProtectedMailboxStorageEntry) protectedStorageEntry.toProtoMessage())
+                                .build()
+                        :
+                        protobuf.StorageEntryWrapper.newBuilder()
+                                .setProtectedStorageEntry((protobuf.ProtectedStorageEntry) protectedStorageEntry.toProtoMessage())
+                                .build())
+                .collect(Collectors.toList());
+    }
+
+    public List<protobuf.PersistableNetworkPayload> getRawPersistableNetworkPayloadItems() {
+        if (rawPersistableNetworkPayloadItems != null)
+            return rawPersistableNetworkPayloadItems;
+
+        return getPersistableNetworkPayloadSet().stream()
+                .map(PersistableNetworkPayload::toProtoMessage)
+                .collect(Collectors.toList());
+    }
+
+    public int getNumEntries() {
+        return rawDataSet != null && rawPersistableNetworkPayloadItems != null ?
+                rawDataSet.size() + rawPersistableNetworkPayloadItems.size() :
+                getDataSet().size() + getPersistableNetworkPayloadSet().size();
+    }
+
     @Override
     public Class<? extends InitialDataRequest> associatedRequest() {
         return isGetUpdatedDataResponse ? GetUpdatedDataRequest.class : PreliminaryGetDataRequest.class;
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Only called if the sets have not been set at construction, so we have the raw entries and the resolver
+    private Set<ProtectedStorageEntry> decodeDataSet(Predicate<protobuf.StorageEntryWrapper> filter) {
+        checkNotNull(rawDataSet, "rawDataSet must not be null");
+        checkNotNull(resolver, "resolver must not be null");
+        return rawDataSet.stream()
+                .filter(filter)
+                .map(entry -> (ProtectedStorageEntry) resolver.fromProto(entry))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<PersistableNetworkPayload> decodePersistableNetworkPayloadSet(Predicate<protobuf.PersistableNetworkPayload> filter) {
+        checkNotNull(rawPersistableNetworkPayloadItems, "rawPersistableNetworkPayloadItems must not be null");
+        checkNotNull(resolver, "resolver must not be null");
+        return rawPersistableNetworkPayloadItems.stream()
+                .filter(filter)
+                .map(payload -> (PersistableNetworkPayload) resolver.fromProto(payload))
+                .collect(Collectors.toSet());
+    }
 }
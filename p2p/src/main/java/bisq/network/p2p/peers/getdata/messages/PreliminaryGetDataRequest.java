@@ -19,6 +19,7 @@ package bisq.network.p2p.peers.getdata.messages;
 
 import bisq.network.p2p.AnonymousMessage;
 import bisq.network.p2p.SupportedCapabilitiesMessage;
+import bisq.network.p2p.peers.getdata.DataShard;
 
 import bisq.common.app.Capabilities;
 import bisq.common.app.Version;
@@ -43,12 +44,20 @@ import javax.annotation.Nullable;
 @Value
 public final class PreliminaryGetDataRequest extends GetDataRequest implements AnonymousMessage, SupportedCapabilitiesMessage {
     private final Capabilities supportedCapabilities;
+    // Added at v1.7.2. If set, the peer delivers only the payloads of that part of the hash space.
+    @Nullable
+    private final DataShard dataShard;
 
     public PreliminaryGetDataRequest(int nonce, Set<byte[]> excludedKeys) {
+        this(nonce, excludedKeys, null);
+    }
+
+    public PreliminaryGetDataRequest(int nonce, Set<byte[]> excludedKeys, @Nullable DataShard dataShard) {
         this(nonce,
                 excludedKeys,
                 Version.VERSION,
                 Capabilities.app,
+                dataShard,
                 Version.getP2PMessageVersion());
     }
 
@@ -61,10 +70,12 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                                       Set<byte[]> excludedKeys,
                                       @Nullable String version,
                                       Capabilities supportedCapabilities,
+                                      @Nullable DataShard dataShard,
                                       int messageVersion) {
         super(messageVersion, nonce, excludedKeys, version);
 
         this.supportedCapabilities = supportedCapabilities;
+        this.dataShard = dataShard;
     }
 
     @Override
@@ -76,23 +87,29 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
         Optional.ofNullable(version).ifPresent(builder::setVersion);
+        Optional.ofNullable(dataShard).ifPresent(shard -> builder.setNumShards(shard.getNumShards())
+                .setShardIndex(shard.getIndex()));
         NetworkEnvelope proto = getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
                 .build();
-        log.info("Sending a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), version);
+        log.info("Sending a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}, " +
+                        "dataShard={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), version, dataShard);
         return proto;
     }
 
     public static PreliminaryGetDataRequest fromProto(protobuf.PreliminaryGetDataRequest proto, int messageVersion) {
         Set<byte[]> excludedKeys = ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList());
         String requestersVersion = ProtoUtil.stringOrNullFromProto(proto.getVersion());
-        log.info("Received a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}",
-                proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion);
+        DataShard dataShard = DataShard.fromProto(proto.getNumShards(), proto.getShardIndex());
+        log.info("Received a PreliminaryGetDataRequest with {} kB and {} excluded key entries. Requesters version={}, " +
+                        "dataShard={}",
+                proto.getSerializedSize() / 1000d, excludedKeys.size(), requestersVersion, dataShard);
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 excludedKeys,
                 requestersVersion,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
+                dataShard,
                 messageVersion);
     }
 }
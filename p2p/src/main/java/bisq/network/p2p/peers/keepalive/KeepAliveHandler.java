@@ -24,8 +24,6 @@ import bisq.network.p2p.peers.PeerManager;
 import bisq.network.p2p.peers.keepalive.messages.Ping;
 import bisq.network.p2p.peers.keepalive.messages.Pong;
 
-import bisq.common.Timer;
-import bisq.common.UserThread;
 import bisq.common.proto.network.NetworkEnvelope;
 
 import com.google.common.util.concurrent.FutureCallback;
@@ -34,7 +32,6 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.Random;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,9 +43,6 @@ import javax.annotation.Nullable;
 class KeepAliveHandler implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(KeepAliveHandler.class);
 
-    private static final int DELAY_MS = 10_000;
-
-
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -72,7 +66,6 @@ class KeepAliveHandler implements MessageListener {
     @Nullable
     private Connection connection;
     private boolean stopped;
-    private Timer delayTimer;
     private long sendTs;
 
 
@@ -95,11 +88,7 @@ class KeepAliveHandler implements MessageListener {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void sendPingAfterRandomDelay(Connection connection) {
-        delayTimer = UserThread.runAfterRandomDelay(() -> sendPing(connection), 1, DELAY_MS, TimeUnit.MILLISECONDS);
-    }
-
-    private void sendPing(Connection connection) {
+    public void sendPing(Connection connection) {
         if (!stopped) {
             Ping ping = new Ping(nonce, connection.getStatistic().roundTripTimeProperty().get());
             sendTs = System.currentTimeMillis();
@@ -166,10 +155,5 @@ class KeepAliveHandler implements MessageListener {
         stopped = true;
         if (connection != null)
             connection.removeMessageListener(this);
-
-        if (delayTimer != null) {
-            delayTimer.stop();
-            delayTimer = null;
-        }
     }
 }
@@ -41,22 +41,29 @@ import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Detects dead outbound connections. Any message we receive from a peer counts as a heartbeat, so busy peers are
+ * not pinged at all. Idle peers get pinged after 30-60 sec. of silence and peers whose silence is unusual compared
+ * to their past traffic get pinged earlier. If a ping is not answered within a timeout derived from the measured
+ * round trip times and the silence is very unlikely for that peer we close the connection.
+ *
+ * @see PeerLiveness
+ */
 public class KeepAliveManager implements MessageListener, ConnectionListener, PeerManager.Listener {
     private static final Logger log = LoggerFactory.getLogger(KeepAliveManager.class);
 
-    private static final int INTERVAL_SEC = new Random().nextInt(30) + 30;
-    private static final long LAST_ACTIVITY_AGE_MS = INTERVAL_SEC * 1000 / 2;
+    private static final int CHECK_INTERVAL_SEC = 5;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final Map<String, KeepAliveHandler> handlerMap = new HashMap<>();
+    private final Map<String, PeerLiveness> livenessMap = new HashMap<>();
 
     private boolean stopped;
     private Timer keepAliveTimer;
@@ -102,6 +109,8 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
 
     @Override
     public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        getLiveness(connection).onHeartbeat(System.currentTimeMillis());
+
         if (networkEnvelope instanceof Ping) {
             if (!stopped) {
                 Ping ping = (Ping) networkEnvelope;
@@ -140,6 +149,7 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
         closeHandler(connection);
+        livenessMap.remove(connection.getUid());
     }
 
     @Override
@@ -184,34 +194,51 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
             keepAliveTimer = UserThread.runPeriodically(() -> {
                 stopped = false;
                 keepAlive();
-            }, INTERVAL_SEC);
+            }, CHECK_INTERVAL_SEC);
     }
 
     private void keepAlive() {
         if (!stopped) {
+            long now = System.currentTimeMillis();
             networkNode.getConfirmedConnections().stream()
-                    .filter(connection -> connection instanceof OutboundConnection &&
-                            connection.getStatistic().getLastActivityAge() > LAST_ACTIVITY_AGE_MS)
+                    .filter(connection -> connection instanceof OutboundConnection)
                     .forEach(connection -> {
-                        final String uid = connection.getUid();
-                        if (!handlerMap.containsKey(uid)) {
-                            KeepAliveHandler keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
-                                @Override
-                                public void onComplete() {
-                                    handlerMap.remove(uid);
-                                }
-
-                                @Override
-                                public void onFault(String errorMessage) {
-                                    handlerMap.remove(uid);
-                                }
-                            });
-                            handlerMap.put(uid, keepAliveHandler);
-                            keepAliveHandler.sendPingAfterRandomDelay(connection);
-                        } else {
-                            // TODO check if this situation causes any issues
-                            log.debug("Connection with id {} has not completed and is still in our map. " +
-                                    "We will try to ping that peer at the next schedule.", uid);
+                        String uid = connection.getUid();
+                        PeerLiveness liveness = getLiveness(connection);
+                        long lastReadTimestamp = connection.getStatistic().getLastReadTimestamp();
+                        liveness.onRead(lastReadTimestamp);
+                        if (liveness.isDead(now)) {
+                            log.info("Ping to {} was not answered within the probe timeout of {} ms, nothing was " +
+                                            "received for {} ms and phi is {}. We close the connection.",
+                                    connection.getPeersNodeAddressOptional(),
+                                    liveness.getProbeTimeout(),
+                                    now - lastReadTimestamp,
+                                    liveness.getPhi(now));
+                            closeHandler(connection);
+                            livenessMap.remove(uid);
+                            peerManager.handleConnectionFault(connection);
+                            connection.shutDown(CloseConnectionReason.PEER_UNRESPONSIVE);
+                        } else if (liveness.needsProbe(now)) {
+                            if (!handlerMap.containsKey(uid)) {
+                                KeepAliveHandler keepAliveHandler = new KeepAliveHandler(networkNode, peerManager, new KeepAliveHandler.Listener() {
+                                    @Override
+                                    public void onComplete() {
+                                        handlerMap.remove(uid);
+                                        liveness.onProbeAnswered(connection.getStatistic().roundTripTimeProperty().get());
+                                    }
+
+                                    @Override
+                                    public void onFault(String errorMessage) {
+                                        handlerMap.remove(uid);
+                                    }
+                                });
+                                handlerMap.put(uid, keepAliveHandler);
+                                liveness.onProbeSent(now);
+                                keepAliveHandler.sendPing(connection);
+                            } else {
+                                log.debug("Connection with id {} has not completed and is still in our map. " +
+                                        "We will try to ping that peer at the next schedule.", uid);
+                            }
                         }
                     });
 
@@ -225,6 +252,10 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
         }
     }
 
+    private PeerLiveness getLiveness(Connection connection) {
+        return livenessMap.computeIfAbsent(connection.getUid(), uid -> new PeerLiveness(System.currentTimeMillis()));
+    }
+
     private void stopKeepAliveTimer() {
         stopped = true;
         if (keepAliveTimer != null) {
@@ -244,6 +275,7 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     private void closeAllHandlers() {
         handlerMap.values().stream().forEach(KeepAliveHandler::cancel);
         handlerMap.clear();
+        livenessMap.clear();
     }
 
 }
@@ -0,0 +1,175 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.keepalive;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * Tracks the liveness of a single connection. Every message we receive from the peer counts as a heartbeat.
+ *
+ * From the intervals between heartbeats we derive a phi accrual suspicion level as described in "The phi accrual
+ * failure detector" (Hayashibara et al.). Phi is -log10 of the probability that the next heartbeat arrives even
+ * later than the current silence, so phi 1 means a 10% chance and phi 3 a 0.1% chance that the peer is still fine.
+ * Busy peers send heartbeats all the time and are never pinged, while silence of a usually busy peer quickly
+ * leads to a high phi and an early ping.
+ *
+ * The round trip times of our pings are smoothed like TCP does (RFC 6298) and give the time we wait for a pong
+ * before we consider the peer dead.
+ *
+ * Bytes of a message which is not complete yet, like a large GetDataResponse over Tor with our pong queued behind
+ * it, are no heartbeat sample but still prove that the peer is alive. They end the silence and extend the time we
+ * wait for the pong.
+ */
+class PeerLiveness {
+    private static final int MAX_SAMPLES = 100;
+    // Below that number of intervals we do not trust the phi value
+    private static final int MIN_SAMPLES = 3;
+    private static final double MIN_STD_DEVIATION_MS = 500;
+    private static final long MIN_IDLE_MS = 30_000;
+    private static final long MAX_IDLE_MS = 60_000;
+    private static final long MIN_PROBE_INTERVAL_MS = 5_000;
+    private static final long MIN_PROBE_TIMEOUT_MS = 30_000;
+    private static final long MAX_PROBE_TIMEOUT_MS = 90_000;
+    static final double PHI_SUSPECT = 3;
+    static final double PHI_DEAD = 8;
+
+    private final Deque<Long> intervals = new ArrayDeque<>();
+    private double intervalSum;
+    private double intervalSquareSum;
+    private long lastHeartbeatTs;
+    private long lastReadTs;
+    // Random per connection so that pings to idle peers are spread out
+    private final long maxIdleMs;
+
+    private double smoothedRoundTripTime = -1;
+    private double roundTripTimeVariation;
+    // 0 if no ping is pending
+    private long probeSentTs;
+
+    PeerLiveness(long now) {
+        this(now, MIN_IDLE_MS + (long) (new Random().nextDouble() * (MAX_IDLE_MS - MIN_IDLE_MS)));
+    }
+
+    PeerLiveness(long now, long maxIdleMs) {
+        this.lastHeartbeatTs = now;
+        this.lastReadTs = now;
+        this.maxIdleMs = maxIdleMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onHeartbeat(long now) {
+        long interval = Math.max(0, now - lastHeartbeatTs);
+        lastHeartbeatTs = now;
+        intervals.add(interval);
+        intervalSum += interval;
+        intervalSquareSum += (double) interval * interval;
+        if (intervals.size() > MAX_SAMPLES) {
+            long removed = intervals.remove();
+            intervalSum -= removed;
+            intervalSquareSum -= (double) removed * removed;
+        }
+
+        // Any traffic proves the peer is alive, we do not need to wait for the pong anymore
+        probeSentTs = 0;
+    }
+
+    void onRead(long readTs) {
+        lastReadTs = Math.max(lastReadTs, readTs);
+    }
+
+    void onProbeSent(long now) {
+        probeSentTs = now;
+    }
+
+    void onProbeAnswered(int roundTripTime) {
+        probeSentTs = 0;
+        if (smoothedRoundTripTime < 0) {
+            smoothedRoundTripTime = roundTripTime;
+            roundTripTimeVariation = roundTripTime / 2d;
+        } else {
+            roundTripTimeVariation = 0.75 * roundTripTimeVariation + 0.25 * Math.abs(smoothedRoundTripTime - roundTripTime);
+            smoothedRoundTripTime = 0.875 * smoothedRoundTripTime + 0.125 * roundTripTime;
+        }
+    }
+
+    boolean needsProbe(long now) {
+        if (probeSentTs > 0) {
+            return false;
+        }
+
+        long silence = getSilence(now);
+        return silence >= maxIdleMs ||
+                (silence >= MIN_PROBE_INTERVAL_MS && hasEnoughSamples() && getPhi(now) >= PHI_SUSPECT);
+    }
+
+    boolean isDead(long now) {
+        if (probeSentTs == 0 || now - Math.max(probeSentTs, lastReadTs) < getProbeTimeout()) {
+            return false;
+        }
+
+        // Without enough samples the unanswered ping is all we have
+        return !hasEnoughSamples() || getPhi(now) >= PHI_DEAD;
+    }
+
+    long getProbeTimeout() {
+        if (smoothedRoundTripTime < 0) {
+            return MIN_PROBE_TIMEOUT_MS;
+        }
+
+        long timeout = (long) (smoothedRoundTripTime + 4 * roundTripTimeVariation);
+        return Math.min(MAX_PROBE_TIMEOUT_MS, Math.max(MIN_PROBE_TIMEOUT_MS, timeout));
+    }
+
+    double getPhi(long now) {
+        if (intervals.isEmpty()) {
+            return 0;
+        }
+
+        int size = intervals.size();
+        double mean = intervalSum / size;
+        double variance = Math.max(0, intervalSquareSum / size - mean * mean);
+        // Very regular traffic, like our own pings to an idle peer, would give a tiny deviation and make phi
+        // explode at the first delay, so we tolerate at least a quarter of the mean interval.
+        double stdDeviation = Math.max(MIN_STD_DEVIATION_MS, Math.max(mean / 4, Math.sqrt(variance)));
+        double silence = getSilence(now);
+
+        // Logistic approximation of the cumulative normal distribution
+        double y = (silence - mean) / stdDeviation;
+        double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        double probabilityLater = silence > mean ? e / (1 + e) : 1 - 1 / (1 + e);
+        return -Math.log10(Math.max(probabilityLater, Double.MIN_NORMAL));
+    }
+
+    long getSmoothedRoundTripTime() {
+        return (long) smoothedRoundTripTime;
+    }
+
+    private long getSilence(long now) {
+        return now - Math.max(lastHeartbeatTs, lastReadTs);
+    }
+
+    private boolean hasEnoughSamples() {
+        return intervals.size() >= MIN_SAMPLES;
+    }
+}
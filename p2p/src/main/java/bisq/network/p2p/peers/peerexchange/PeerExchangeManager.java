@@ -289,15 +289,19 @@ public class PeerExchangeManager implements MessageListener, ConnectionListener,
                 // 1. shuffled reported peers
                 // 2. shuffled persisted peers
                 // 3. Add as last shuffled seedNodes (least priority)
+                // Inside each group the peers with a better reputation come first.
                 List<NodeAddress> list = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getReportedPeers()), new ArrayList<>());
                 Collections.shuffle(list);
+                peerManager.sortByReputation(list);
 
                 List<NodeAddress> filteredPersistedPeers = getFilteredNonSeedNodeList(getNodeAddresses(peerManager.getPersistedPeers()), list);
                 Collections.shuffle(filteredPersistedPeers);
+                peerManager.sortByReputation(filteredPersistedPeers);
                 list.addAll(filteredPersistedPeers);
 
                 List<NodeAddress> filteredSeedNodeAddresses = getFilteredList(new ArrayList<>(seedNodeAddresses), list);
                 Collections.shuffle(filteredSeedNodeAddresses);
+                peerManager.sortByReputation(filteredSeedNodeAddresses);
                 list.addAll(filteredSeedNodeAddresses);
 
                 log.debug("Number of peers in list for connectToMorePeers: {}", list.size());
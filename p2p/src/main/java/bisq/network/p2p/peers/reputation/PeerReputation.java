@@ -0,0 +1,186 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.reputation;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.proto.persistable.PersistablePayload;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * What we have observed about a single peer: connect successes and failures, the latency of setting up a connection,
+ * the last known round trip time and the bytes we received from it. Counters are decayed with a half life so that
+ * a peer which failed a week ago but works fine now recovers its score.
+ */
+@Getter
+@Slf4j
+public final class PeerReputation implements PersistablePayload {
+    static final long HALF_LIFE = TimeUnit.DAYS.toMillis(3);
+    // Latency (connect latency + round trip time) at which the speed factor drops to 0.5
+    private static final long REFERENCE_LATENCY = TimeUnit.SECONDS.toMillis(10);
+    private static final double LATENCY_SMOOTHING = 0.25;
+    static final int NUM_RANKS = 10;
+
+    private final NodeAddress nodeAddress;
+    private double successes;
+    private double failures;
+    private long connectLatency;
+    private long roundTripTime;
+    private long receivedBytes;
+    private String lastFailureReason;
+    private long lastUpdate;
+
+    PeerReputation(NodeAddress nodeAddress, long now) {
+        this(nodeAddress, 0, 0, 0, 0, 0, "", now);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private PeerReputation(NodeAddress nodeAddress,
+                           double successes,
+                           double failures,
+                           long connectLatency,
+                           long roundTripTime,
+                           long receivedBytes,
+                           String lastFailureReason,
+                           long lastUpdate) {
+        this.nodeAddress = nodeAddress;
+        this.successes = successes;
+        this.failures = failures;
+        this.connectLatency = connectLatency;
+        this.roundTripTime = roundTripTime;
+        this.receivedBytes = receivedBytes;
+        this.lastFailureReason = lastFailureReason;
+        this.lastUpdate = lastUpdate;
+    }
+
+    @Override
+    public protobuf.PeerReputation toProtoMessage() {
+        return protobuf.PeerReputation.newBuilder()
+                .setNodeAddress(nodeAddress.toProtoMessage())
+                .setSuccesses(successes)
+                .setFailures(failures)
+                .setConnectLatency(connectLatency)
+                .setRoundTripTime(roundTripTime)
+                .setReceivedBytes(receivedBytes)
+                .setLastFailureReason(lastFailureReason)
+                .setLastUpdate(lastUpdate)
+                .build();
+    }
+
+    public static PeerReputation fromProto(protobuf.PeerReputation proto) {
+        return new PeerReputation(NodeAddress.fromProto(proto.getNodeAddress()),
+                proto.getSuccesses(),
+                proto.getFailures(),
+                proto.getConnectLatency(),
+                proto.getRoundTripTime(),
+                proto.getReceivedBytes(),
+                proto.getLastFailureReason(),
+                proto.getLastUpdate());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onConnectSuccess(long connectLatency, long now) {
+        decay(now);
+        successes++;
+        if (connectLatency > 0)
+            this.connectLatency = smooth(this.connectLatency, connectLatency);
+    }
+
+    void onFailure(String reason, long now) {
+        decay(now);
+        failures++;
+        lastFailureReason = reason;
+    }
+
+    void onConnectionClosed(long roundTripTime, long receivedBytes, long now) {
+        decay(now);
+        if (roundTripTime > 0)
+            this.roundTripTime = smooth(this.roundTripTime, roundTripTime);
+        this.receivedBytes += receivedBytes;
+    }
+
+    /**
+     * @return A score between 0 and 1. A peer we know nothing about scores 0.5, reliable and fast peers approach 1.
+     */
+    double getScore(long now) {
+        double factor = getDecayFactor(now);
+        double decayedSuccesses = successes * factor;
+        double decayedFailures = failures * factor;
+        // Laplace smoothing: without observations the reliability is 0.5 and old observations fade towards it.
+        double reliability = (decayedSuccesses + 1) / (decayedSuccesses + decayedFailures + 2);
+        long latency = connectLatency + roundTripTime;
+        double speed = latency > 0 ? 1d / (1d + (double) latency / REFERENCE_LATENCY) : 1;
+        return reliability * (0.5 + 0.5 * speed);
+    }
+
+    /**
+     * Scores grouped into {@link #NUM_RANKS} buckets, so that peers of similar quality keep the random order of the
+     * candidate list instead of always selecting the same peer.
+     */
+    int getRank(long now) {
+        return Math.min(NUM_RANKS - 1, (int) (getScore(now) * NUM_RANKS));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void decay(long now) {
+        double factor = getDecayFactor(now);
+        successes *= factor;
+        failures *= factor;
+        receivedBytes = (long) (receivedBytes * factor);
+        lastUpdate = Math.max(lastUpdate, now);
+    }
+
+    private double getDecayFactor(long now) {
+        long age = Math.max(0, now - lastUpdate);
+        return Math.pow(0.5, (double) age / HALF_LIFE);
+    }
+
+    private static long smooth(long previous, long sample) {
+        return previous == 0 ? sample : Math.round(previous + LATENCY_SMOOTHING * (sample - previous));
+    }
+
+    @Override
+    public String toString() {
+        return "PeerReputation{" +
+                "\n     nodeAddress=" + nodeAddress +
+                ",\n     successes=" + successes +
+                ",\n     failures=" + failures +
+                ",\n     connectLatency=" + connectLatency +
+                ",\n     roundTripTime=" + roundTripTime +
+                ",\n     receivedBytes=" + receivedBytes +
+                ",\n     lastFailureReason='" + lastFailureReason + '\'' +
+                ",\n     lastUpdate=" + lastUpdate +
+                "\n}";
+    }
+}
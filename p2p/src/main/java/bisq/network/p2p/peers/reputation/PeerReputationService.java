@@ -0,0 +1,183 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.reputation;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.persistence.PersistenceManager;
+import bisq.common.proto.persistable.PersistedDataHost;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a persisted record about the quality of the peers we have been connected to, so that peer exchange and
+ * data requests try the peers which have been reliable and fast before the ones which failed or were slow. That
+ * saves us from setting up Tor circuits to peers which are likely not reachable.
+ * All methods are expected to be called from the user thread.
+ */
+@Singleton
+@Slf4j
+public class PeerReputationService implements PersistedDataHost {
+    private static final int MAX_ENTRIES = 2000;
+    // Entries not updated for that long are worth nothing after decay anyway
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+    private final PersistenceManager<PeerReputationStore> persistenceManager;
+    private final PeerReputationStore peerReputationStore = new PeerReputationStore();
+
+    @Inject
+    public PeerReputationService(PersistenceManager<PeerReputationStore> persistenceManager) {
+        this.persistenceManager = persistenceManager;
+
+        this.persistenceManager.initialize(peerReputationStore, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PersistedDataHost
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void readPersisted(Runnable completeHandler) {
+        persistenceManager.readPersisted(persisted -> {
+                    long cutOffDate = System.currentTimeMillis() - MAX_AGE;
+                    persisted.getMap().values().stream()
+                            .filter(peerReputation -> peerReputation.getLastUpdate() > cutOffDate)
+                            .forEach(peerReputation -> getMap().put(peerReputation.getNodeAddress(), peerReputation));
+                    purgeIfExceeds();
+                    log.info("Read {} peer reputation entries", getMap().size());
+                    completeHandler.run();
+                },
+                completeHandler);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void onConnectSuccess(NodeAddress nodeAddress, long connectLatency) {
+        onConnectSuccess(nodeAddress, connectLatency, System.currentTimeMillis());
+    }
+
+    public void onFailure(NodeAddress nodeAddress, String reason) {
+        onFailure(nodeAddress, reason, System.currentTimeMillis());
+    }
+
+    public void onConnectionClosed(NodeAddress nodeAddress, long roundTripTime, long receivedBytes) {
+        onConnectionClosed(nodeAddress, roundTripTime, receivedBytes, System.currentTimeMillis());
+    }
+
+    public double getScore(NodeAddress nodeAddress) {
+        return getScore(nodeAddress, System.currentTimeMillis());
+    }
+
+    /**
+     * Sorts the list by the rank of the peers, best first. The sort is stable, so peers of the same rank keep their
+     * previous order, which is usually random or by last activity.
+     */
+    public void sortByRank(List<NodeAddress> nodeAddresses) {
+        sortByRank(nodeAddresses, System.currentTimeMillis());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope for tests
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @VisibleForTesting
+    void onConnectSuccess(NodeAddress nodeAddress, long connectLatency, long now) {
+        getOrCreate(nodeAddress, now).onConnectSuccess(connectLatency, now);
+        persistenceManager.requestPersistence();
+    }
+
+    @VisibleForTesting
+    void onFailure(NodeAddress nodeAddress, String reason, long now) {
+        getOrCreate(nodeAddress, now).onFailure(reason, now);
+        persistenceManager.requestPersistence();
+    }
+
+    @VisibleForTesting
+    void onConnectionClosed(NodeAddress nodeAddress, long roundTripTime, long receivedBytes, long now) {
+        getOrCreate(nodeAddress, now).onConnectionClosed(roundTripTime, receivedBytes, now);
+        persistenceManager.requestPersistence();
+    }
+
+    @VisibleForTesting
+    double getScore(NodeAddress nodeAddress, long now) {
+        PeerReputation peerReputation = getMap().get(nodeAddress);
+        return peerReputation != null ? peerReputation.getScore(now) : new PeerReputation(nodeAddress, now).getScore(now);
+    }
+
+    @VisibleForTesting
+    void sortByRank(List<NodeAddress> nodeAddresses, long now) {
+        int defaultRank = (int) (0.5 * PeerReputation.NUM_RANKS);
+        nodeAddresses.sort(Comparator.comparingInt((NodeAddress nodeAddress) -> {
+            PeerReputation peerReputation = getMap().get(nodeAddress);
+            return peerReputation != null ? peerReputation.getRank(now) : defaultRank;
+        }).reversed());
+    }
+
+    @VisibleForTesting
+    int size() {
+        return getMap().size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Map<NodeAddress, PeerReputation> getMap() {
+        return peerReputationStore.getMap();
+    }
+
+    private PeerReputation getOrCreate(NodeAddress nodeAddress, long now) {
+        PeerReputation peerReputation = getMap().get(nodeAddress);
+        if (peerReputation == null) {
+            peerReputation = new PeerReputation(nodeAddress, now);
+            getMap().put(nodeAddress, peerReputation);
+            purgeIfExceeds();
+        }
+        return peerReputation;
+    }
+
+    // We remove the least recently updated entries. That is O(n log n) but only happens once the map is full.
+    private void purgeIfExceeds() {
+        int numToRemove = getMap().size() - MAX_ENTRIES;
+        if (numToRemove > 0) {
+            getMap().values().stream()
+                    .sorted(Comparator.comparingLong(PeerReputation::getLastUpdate))
+                    .limit(numToRemove + MAX_ENTRIES / 10)
+                    .map(PeerReputation::getNodeAddress)
+                    .collect(Collectors.toList())
+                    .forEach(getMap()::remove);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.reputation;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+
+import com.google.protobuf.Message;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class PeerReputationStore implements PersistableEnvelope {
+    @Getter
+    private final Map<NodeAddress, PeerReputation> map = new HashMap<>();
+
+    public PeerReputationStore() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private PeerReputationStore(Collection<PeerReputation> collection) {
+        collection.forEach(peerReputation -> map.put(peerReputation.getNodeAddress(), peerReputation));
+    }
+
+    @Override
+    public Message toProtoMessage() {
+        return protobuf.PersistableEnvelope.newBuilder()
+                .setPeerReputationStore(protobuf.PeerReputationStore.newBuilder()
+                        .addAllPeerReputation(map.values().stream()
+                                .map(PeerReputation::toProtoMessage)
+                                .collect(Collectors.toList())))
+                .build();
+    }
+
+    public static PeerReputationStore fromProto(protobuf.PeerReputationStore proto) {
+        return new PeerReputationStore(proto.getPeerReputationList().stream()
+                .map(PeerReputation::fromProto)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public String toString() {
+        return "PeerReputationStore{" +
+                "\n     map=" + map +
+                "\n}";
+    }
+}
@@ -25,6 +25,7 @@ import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.BroadcastHandler;
 import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.peers.getdata.DataShard;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
@@ -127,6 +128,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public static final int CHECK_TTL_INTERVAL_SEC = 60;
 
     private boolean initialRequestApplied = false;
+    // If the initial request was split into shards we need to apply the response of each shard once
+    private final Set<DataShard> appliedInitialDataShards = new HashSet<>();
 
     private final Broadcaster broadcaster;
     private final AppendOnlyDataStoreService appendOnlyDataStoreService;
@@ -153,6 +156,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     // Don't convert to local variable as it might get GC'ed.
     private MonadicBinding<Boolean> readFromResourcesCompleteBinding;
+    private final List<Runnable> readFromResourcesCompleteHandlers = new ArrayList<>();
+    private boolean readFromResourcesComplete;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -207,8 +212,20 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
-    // Threading is done on the persistenceManager level
+    // Threading is done on the persistenceManager level. The resources get read only once. If the read was started
+    // already (e.g. early at startup in parallel to reading the persisted data) the completeHandler gets called once
+    // that read is complete.
     public void readFromResources(String postFix, Runnable completeHandler) {
+        if (readFromResourcesComplete) {
+            completeHandler.run();
+            return;
+        }
+
+        readFromResourcesCompleteHandlers.add(completeHandler);
+        if (readFromResourcesCompleteBinding != null) {
+            return;
+        }
+
         BooleanProperty appendOnlyDataStoreServiceReady = new SimpleBooleanProperty();
         BooleanProperty protectedDataStoreServiceReady = new SimpleBooleanProperty();
         BooleanProperty resourceDataStoreServiceReady = new SimpleBooleanProperty();
@@ -219,7 +236,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 (a, b, c) -> a && b && c);
         readFromResourcesCompleteBinding.subscribe((observable, oldValue, newValue) -> {
             if (newValue) {
-                completeHandler.run();
+                readFromResourcesComplete = true;
+                List<Runnable> handlers = new ArrayList<>(readFromResourcesCompleteHandlers);
+                readFromResourcesCompleteHandlers.clear();
+                handlers.forEach(Runnable::run);
             }
         });
 
@@ -259,7 +279,23 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce) {
-        return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
+        return buildPreliminaryGetDataRequest(nonce, null, false);
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest for the payloads of the given shard only. As a peer with
+     * Capability.SHARDED_DATA_REQUEST only delivers payloads of that shard, we only need to send the known hashes of
+     * that shard if excludeKeysOfShardOnly is set. Other peers ignore the shard, so for them or if we do not know the
+     * capabilities of the peer all known hashes need to be sent.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce,
+                                                                    @Nullable DataShard dataShard,
+                                                                    boolean excludeKeysOfShardOnly) {
+        Set<byte[]> knownPayloadHashes = getKnownPayloadHashes();
+        if (dataShard != null && excludeKeysOfShardOnly) {
+            knownPayloadHashes.removeIf(hash -> !dataShard.contains(hash));
+        }
+        return new PreliminaryGetDataRequest(nonce, knownPayloadHashes, dataShard);
     }
 
     /**
@@ -311,11 +347,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // mapForDataResponse contains the filtered by version data from HistoricalDataStoreService as well as all other
         // maps of the remaining appendOnlyDataStoreServices.
         Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+        DataShard dataShard = getDataRequest instanceof PreliminaryGetDataRequest ?
+                ((PreliminaryGetDataRequest) getDataRequest).getDataShard() :
+                null;
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads =
                 filterKnownHashes(
                         mapForDataResponse,
                         Function.identity(),
                         excludedKeysAsByteArray,
+                        dataShard,
                         peerCapabilities,
                         maxEntriesPerType,
                         wasPersistableNetworkPayloadsTruncated);
@@ -332,6 +372,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         map,
                         ProtectedStorageEntry::getProtectedStoragePayload,
                         excludedKeysAsByteArray,
+                        dataShard,
                         peerCapabilities,
                         maxEntriesPerType,
                         wasProtectedStorageEntriesTruncated);
@@ -395,12 +436,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     /**
      * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
-     * by a given set of keys and peer capabilities.
+     * by a given set of keys, an optional data shard and peer capabilities.
      */
     static private <T extends NetworkPayload> Set<T> filterKnownHashes(
             Map<ByteArray, T> toFilter,
             Function<T, ? extends NetworkPayload> objToPayload,
             Set<ByteArray> knownHashes,
+            @Nullable DataShard dataShard,
             Capabilities peerCapabilities,
             int maxEntries,
             AtomicBoolean outTruncated) {
@@ -410,6 +452,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<Map.Entry<ByteArray, T>> entries = toFilter.entrySet();
         List<T> dateSortedTruncatablePayloads = entries.stream()
                 .filter(entry -> entry.getValue() instanceof DateSortedTruncatablePayload)
+                .filter(entry -> dataShard == null || dataShard.contains(entry.getKey().bytes))
                 .filter(entry -> !knownHashes.contains(entry.getKey()))
                 .map(Map.Entry::getValue)
                 .filter(payload -> shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(payload)))
@@ -418,6 +461,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         log.info("Num filtered dateSortedTruncatablePayloads {}", dateSortedTruncatablePayloads.size());
         if (!dateSortedTruncatablePayloads.isEmpty()) {
             int maxItems = ((DateSortedTruncatablePayload) dateSortedTruncatablePayloads.get(0)).maxItems();
+            // As the hashes are evenly distributed, all shards together deliver about the same most recent items as
+            // an unsharded request.
+            if (dataShard != null) {
+                maxItems = (maxItems + dataShard.getNumShards() - 1) / dataShard.getNumShards();
+            }
             if (dateSortedTruncatablePayloads.size() > maxItems) {
                 int fromIndex = dateSortedTruncatablePayloads.size() - maxItems;
                 int toIndex = dateSortedTruncatablePayloads.size();
@@ -428,6 +476,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         List<T> filteredResults = entries.stream()
                 .filter(entry -> !(entry.getValue() instanceof DateSortedTruncatablePayload))
+                .filter(entry -> dataShard == null || dataShard.contains(entry.getKey().bytes))
                 .filter(entry -> !knownHashes.contains(entry.getKey()))
                 .map(Map.Entry::getValue)
                 .filter(payload -> shouldTransmitPayloadToPeer(peerCapabilities, objToPayload.apply(payload)))
@@ -485,10 +534,27 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * or domain listeners.
      */
     public void processGetDataResponse(GetDataResponse getDataResponse, NodeAddress sender) {
-        final Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet();
-        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
+        processGetDataResponse(getDataResponse, sender, null);
+    }
 
-        long ts2 = System.currentTimeMillis();
+    /**
+     * @param dataShard The shard we have requested or null if we have requested all data.
+     */
+    public void processGetDataResponse(GetDataResponse getDataResponse,
+                                       NodeAddress sender,
+                                       @Nullable DataShard dataShard) {
+        // We only decode entries which we do not know already. The checks are done on the raw protobuf entries and
+        // the entries which pass still get all the checks of the add methods.
+        long ts2 = this.clock.millis();
+        final Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet(this::isUnknownOrUpdatedEntry);
+        Set<PersistableNetworkPayload> persistableNetworkPayloadSet =
+                getDataResponse.getPersistableNetworkPayloadSet(this::isUnknownPersistableNetworkPayload);
+        log.info("Decoding {} of {} received entries took {} ms.",
+                dataSet.size() + persistableNetworkPayloadSet.size(),
+                getDataResponse.getNumEntries(),
+                this.clock.millis() - ts2);
+
+        ts2 = this.clock.millis();
         dataSet.forEach(e -> {
             // We don't broadcast here (last param) as we are only connected to the seed node and would be pointless
             addProtectedStorageEntry(e, sender, null, false);
@@ -505,8 +571,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 // Usually we only get about a few hundred or max. a few 1000 items. 82645 is all
                 // trade stats stats and all account age witness data.
 
-                // We only apply it once from first response
-                if (!initialRequestApplied) {
+                // We only apply it once from first response (of each shard)
+                if (!initialRequestApplied && (dataShard == null || !appliedInitialDataShards.contains(dataShard))) {
                     addPersistableNetworkPayloadFromInitialRequest(e);
 
                 }
@@ -521,9 +587,48 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // We only process PersistableNetworkPayloads implementing ProcessOncePersistableNetworkPayload once. It can cause performance
         // issues and since the data is rarely out of sync it is not worth it to apply them from multiple peers during
         // startup.
-        initialRequestApplied = true;
+        if (dataShard == null) {
+            initialRequestApplied = true;
+        } else {
+            appliedInitialDataShards.add(dataShard);
+            initialRequestApplied = appliedInitialDataShards.size() == dataShard.getNumShards();
+        }
     }
 
+    // Same result as the first check in addProtectedStorageEntry. The received payload is serialized the same way as
+    // our own one, so we get the same hash without decoding it.
+    private boolean isUnknownOrUpdatedEntry(protobuf.StorageEntryWrapper proto) {
+        protobuf.ProtectedStorageEntry entry = proto.hasProtectedMailboxStorageEntry() ?
+                proto.getProtectedMailboxStorageEntry().getEntry() :
+                proto.getProtectedStorageEntry();
+        ByteArray hashOfPayload = new ByteArray(Hash.getSha256Hash(entry.getStoragePayload().toByteArray()));
+        return !map.containsKey(hashOfPayload) || hasSequenceNrIncreased(entry.getSequenceNumber(), hashOfPayload);
+    }
+
+    // Known payloads are ignored by addPersistableNetworkPayload and addPersistableNetworkPayloadFromInitialRequest.
+    // Most payload types carry their hash as a field, the others we have to decode to get the hash.
+    private boolean isUnknownPersistableNetworkPayload(protobuf.PersistableNetworkPayload proto) {
+        ByteString hash;
+        switch (proto.getMessageCase()) {
+            case ACCOUNT_AGE_WITNESS:
+                hash = proto.getAccountAgeWitness().getHash();
+                break;
+            case TRADE_STATISTICS3:
+                hash = proto.getTradeStatistics3().getHash();
+                break;
+            case PROPOSAL_PAYLOAD:
+                hash = proto.getProposalPayload().getHash();
+                break;
+            case BLIND_VOTE_PAYLOAD:
+                hash = proto.getBlindVotePayload().getHash();
+                break;
+            default:
+                return true;
+        }
+        return hash.isEmpty() || !appendOnlyDataStoreService.containsKey(new ByteArray(hash.toByteArray()));
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
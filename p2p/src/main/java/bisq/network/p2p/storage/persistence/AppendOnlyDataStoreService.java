@@ -87,6 +87,11 @@ public class AppendOnlyDataStoreService {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    // Cheaper than getMap().containsKey(hash) as we do not need to copy all maps
+    public boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return services.stream().anyMatch(service -> service.containsKey(hash));
+    }
+
     public void put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
         services.stream()
                 .filter(service -> service.canHandle(payload))
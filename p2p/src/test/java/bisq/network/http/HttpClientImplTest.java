@@ -0,0 +1,276 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.network.Socks5ProxyProvider;
+
+import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HttpClientImplTest {
+    private HttpServer server;
+    private HttpConnectionPool connectionPool;
+    private ExecutorService executor;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger numConcurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handleRequest);
+        server.setExecutor(executor);
+        server.start();
+        connectionPool = new HttpConnectionPool();
+    }
+
+    @After
+    public void tearDown() {
+        connectionPool.shutDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void get_returnsResponse() throws IOException {
+        HttpClientImpl httpClient = new HttpClientImpl(getBaseUrl("localhost"), connectionPool);
+
+        assertEquals("response to /echo", httpClient.get("echo", null, null));
+        assertFalse(httpClient.hasPendingRequest());
+    }
+
+    @Test
+    public void get_throwsHttpExceptionOnErrorStatus() {
+        HttpClientImpl httpClient = new HttpClientImpl(getBaseUrl("localhost"), connectionPool);
+        try {
+            httpClient.get("error", null, null);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof HttpException);
+            assertEquals(404, ((HttpException) e.getCause()).getResponseCode());
+        }
+        assertFalse(httpClient.hasPendingRequest());
+    }
+
+    @Test
+    public void get_reusesConnection() throws IOException {
+        HttpClientImpl httpClient = new HttpClientImpl(getBaseUrl("localhost"), connectionPool);
+        for (int i = 0; i < 3; i++)
+            httpClient.get("echo", null, null);
+
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void get_concurrentRequestsAreLimitedPerHost() throws Exception {
+        HttpClientImpl httpClient = new HttpClientImpl(getBaseUrl("localhost"), connectionPool);
+        ExecutorService requestExecutor = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++)
+                futures.add(requestExecutor.submit(() -> httpClient.get("slow", null, null)));
+            for (Future<String> future : futures)
+                assertEquals("response to /slow", future.get());
+        } finally {
+            requestExecutor.shutdownNow();
+        }
+
+        assertTrue(maxConcurrentRequests.get() <= HttpConnectionPool.MAX_CONNECTIONS_PER_HOST);
+        assertFalse(httpClient.hasPendingRequest());
+    }
+
+    @Test
+    public void get_overSocks5ProxyReusesProxyConnection() throws IOException {
+        try (Socks5ProxyStandIn proxyStandIn = new Socks5ProxyStandIn()) {
+            Socks5ProxyProvider socks5ProxyProvider = mock(Socks5ProxyProvider.class);
+            when(socks5ProxyProvider.getSocks5ProxyHttp())
+                    .thenReturn(new Socks5Proxy("127.0.0.1", proxyStandIn.getPort()));
+            HttpClientImpl httpClient = new HttpClientImpl(socks5ProxyProvider, connectionPool);
+            httpClient.setBaseUrl(getBaseUrl("127.0.0.1"));
+
+            for (int i = 0; i < 3; i++)
+                assertEquals("response to /echo", httpClient.get("echo", null, null));
+
+            assertEquals(1, proxyStandIn.getNumConnections());
+        }
+    }
+
+    @Test
+    public void get_overNewSocks5ProxyDoesNotReuseConnectionOfOldProxy() throws IOException {
+        try (Socks5ProxyStandIn oldProxyStandIn = new Socks5ProxyStandIn();
+             Socks5ProxyStandIn newProxyStandIn = new Socks5ProxyStandIn()) {
+            Socks5ProxyProvider socks5ProxyProvider = mock(Socks5ProxyProvider.class);
+            when(socks5ProxyProvider.getSocks5ProxyHttp())
+                    .thenReturn(new Socks5Proxy("127.0.0.1", oldProxyStandIn.getPort()));
+            HttpClientImpl httpClient = new HttpClientImpl(socks5ProxyProvider, connectionPool);
+            httpClient.setBaseUrl(getBaseUrl("127.0.0.1"));
+            assertEquals("response to /echo", httpClient.get("echo", null, null));
+
+            when(socks5ProxyProvider.getSocks5ProxyHttp())
+                    .thenReturn(new Socks5Proxy("127.0.0.1", newProxyStandIn.getPort()));
+            for (int i = 0; i < 2; i++)
+                assertEquals("response to /echo", httpClient.get("echo", null, null));
+
+            assertEquals(1, oldProxyStandIn.getNumConnections());
+            assertEquals(1, newProxyStandIn.getNumConnections());
+        }
+    }
+
+    private String getBaseUrl(String host) {
+        return "http://" + host + ":" + server.getAddress().getPort() + "/";
+    }
+
+    private void handleRequest(HttpExchange exchange) throws IOException {
+        int numRequests = numConcurrentRequests.incrementAndGet();
+        maxConcurrentRequests.accumulateAndGet(numRequests, Math::max);
+        try {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/slow"))
+                Thread.sleep(100);
+
+            byte[] response = ("response to " + path).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(path.equals("/error") ? 404 : 200, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            numConcurrentRequests.decrementAndGet();
+        }
+    }
+
+    // Minimal SOCKS5 proxy which supports only the CONNECT command without authentication
+    private static class Socks5ProxyStandIn implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger numConnections = new AtomicInteger();
+        private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+        Socks5ProxyStandIn() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            executor.execute(this::acceptConnections);
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getNumConnections() {
+            return numConnections.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            for (Socket socket : sockets)
+                socket.close();
+            executor.shutdownNow();
+        }
+
+        private void acceptConnections() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    sockets.add(socket);
+                    numConnections.incrementAndGet();
+                    executor.execute(() -> handleConnection(socket));
+                } catch (IOException ignore) {
+                }
+            }
+        }
+
+        private void handleConnection(Socket socket) {
+            try (socket) {
+                DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+                OutputStream outputStream = socket.getOutputStream();
+
+                // Greeting: version, number of methods and methods. We accept only "no authentication".
+                inputStream.readUnsignedByte();
+                inputStream.readFully(new byte[inputStream.readUnsignedByte()]);
+                outputStream.write(new byte[]{5, 0});
+
+                // Request: version, command, reserved, address type, address and port
+                inputStream.readFully(new byte[3]);
+                String host;
+                if (inputStream.readUnsignedByte() == 1) {
+                    byte[] address = new byte[4];
+                    inputStream.readFully(address);
+                    host = InetAddress.getByAddress(address).getHostAddress();
+                } else {
+                    byte[] domainName = new byte[inputStream.readUnsignedByte()];
+                    inputStream.readFully(domainName);
+                    host = new String(domainName, StandardCharsets.US_ASCII);
+                }
+                int port = inputStream.readUnsignedShort();
+
+                try (Socket target = new Socket(host, port)) {
+                    sockets.add(target);
+                    outputStream.write(new byte[]{5, 0, 0, 1, 0, 0, 0, 0, 0, 0});
+                    outputStream.flush();
+                    Future<?> upstream = executor.submit(() -> pipe(inputStream, target));
+                    pipe(target.getInputStream(), socket);
+                    upstream.get();
+                }
+            } catch (Exception ignore) {
+            }
+        }
+
+        private static Void pipe(InputStream inputStream, Socket destination) throws IOException {
+            inputStream.transferTo(destination.getOutputStream());
+            destination.shutdownOutput();
+            return null;
+        }
+    }
+}
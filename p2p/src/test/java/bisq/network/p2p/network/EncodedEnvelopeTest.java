@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import bisq.network.p2p.BundleOfEnvelopes;
+import bisq.network.p2p.peers.keepalive.messages.Ping;
+import bisq.network.p2p.peers.keepalive.messages.Pong;
+import bisq.network.p2p.storage.messages.RefreshOfferMessage;
+
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.lang.ref.WeakReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class EncodedEnvelopeTest {
+
+    @Test
+    public void testBytesEqualDelimitedProto() throws IOException {
+        Ping ping = new Ping(123, 456);
+        EncodedEnvelope encodedEnvelope = EncodedEnvelope.of(ping);
+
+        assertArrayEquals(writeDelimited(ping), encodedEnvelope.getDelimitedBytes());
+        assertEquals(ping.toProtoNetworkEnvelope().getSerializedSize(), encodedEnvelope.getSerializedSize());
+    }
+
+    @Test
+    public void testProtoOutputStreamWritesSameBytes() throws IOException {
+        Ping ping = new Ping(1, 2);
+        Pong pong = new Pong(3);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ProtoOutputStream protoOutputStream = new ProtoOutputStream(outputStream, new Statistic());
+        protoOutputStream.writeEnvelope(EncodedEnvelope.of(ping));
+        protoOutputStream.writeEnvelope(EncodedEnvelope.of(pong));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ping.toProtoNetworkEnvelope().writeDelimitedTo(expected);
+        pong.toProtoNetworkEnvelope().writeDelimitedTo(expected);
+        assertArrayEquals(expected.toByteArray(), outputStream.toByteArray());
+    }
+
+    @Test
+    public void testBundleBytesAndIncrementalSize() throws IOException {
+        List<NetworkEnvelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            envelopes.add(i % 2 == 0 ? new Ping(i, i * 1000) : new Pong(i));
+        }
+        List<EncodedEnvelope> entries = envelopes.stream().map(EncodedEnvelope::of).collect(Collectors.toList());
+        BundleOfEnvelopes bundle = new BundleOfEnvelopes(new ArrayList<>(envelopes));
+
+        EncodedEnvelope encodedBundle = EncodedEnvelope.ofBundle(bundle, entries);
+        assertArrayEquals(writeDelimited(bundle), encodedBundle.getDelimitedBytes());
+
+        int incrementalSize = entries.stream().mapToInt(EncodedEnvelope::getSizeInBundle).sum();
+        assertEquals(bundle.toProtoNetworkEnvelope().getBundleOfEnvelopes().getSerializedSize(), incrementalSize);
+    }
+
+    @Test
+    public void testSameBroadcastInstanceIsEncodedOnce() {
+        RefreshOfferMessage message = newRefreshOfferMessage(1);
+        assertSame(EncodedEnvelope.of(message).getDelimitedBytes(), EncodedEnvelope.of(message).getDelimitedBytes());
+        // Equal but distinct instances are not mixed up
+        assertNotSame(EncodedEnvelope.of(message).getDelimitedBytes(),
+                EncodedEnvelope.of(newRefreshOfferMessage(1)).getDelimitedBytes());
+    }
+
+    @Test
+    public void testDirectMessageIsNotCached() {
+        Ping ping = new Ping(7, 8);
+        assertNotSame(EncodedEnvelope.of(ping).getDelimitedBytes(), EncodedEnvelope.of(ping).getDelimitedBytes());
+    }
+
+    @Test
+    public void testCachedEnvelopeIsCollected() throws InterruptedException {
+        RefreshOfferMessage message = newRefreshOfferMessage(2);
+        EncodedEnvelope.of(message);
+        WeakReference<RefreshOfferMessage> reference = new WeakReference<>(message);
+        message = null;
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testBundleIsNotCached() throws IOException {
+        BundleOfEnvelopes bundle = new BundleOfEnvelopes();
+        bundle.add(new Ping(1, 1));
+        EncodedEnvelope first = EncodedEnvelope.of(bundle);
+        bundle.add(new Pong(1));
+        EncodedEnvelope second = EncodedEnvelope.of(bundle);
+
+        assertNotSame(first, second);
+        assertArrayEquals(writeDelimited(bundle), second.getDelimitedBytes());
+    }
+
+    private static RefreshOfferMessage newRefreshOfferMessage(int sequenceNumber) {
+        return new RefreshOfferMessage(new byte[32], new byte[64], new byte[32], sequenceNumber);
+    }
+
+    private static byte[] writeDelimited(NetworkEnvelope envelope) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        envelope.toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        return outputStream.toByteArray();
+    }
+}
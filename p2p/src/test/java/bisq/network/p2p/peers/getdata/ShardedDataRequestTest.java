@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.NodeAddress;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShardedDataRequestTest {
+    private final NodeAddress seed1 = new NodeAddress("seed1.onion", 8000);
+    private final NodeAddress seed2 = new NodeAddress("seed2.onion", 8000);
+    private final NodeAddress seed3 = new NodeAddress("seed3.onion", 8000);
+
+    @Test
+    public void testCompleteWhenAllShardsDelivered() {
+        ShardedDataRequest request = new ShardedDataRequest(3, 0);
+        List<DataShard> shards = request.getShards();
+        request.onRequested(shards.get(0), seed1, 0);
+        request.onRequested(shards.get(1), seed2, 0);
+        request.onRequested(shards.get(2), seed3, 0);
+
+        request.onComplete(shards.get(0), seed1, 100, 1000);
+        request.onComplete(shards.get(1), seed2, 100, 2000);
+        assertFalse(request.isComplete());
+        // A second delivery of a shard does not count twice
+        request.onComplete(shards.get(1), seed1, 100, 2000);
+        assertFalse(request.isComplete());
+
+        request.onComplete(shards.get(2), seed3, 100, 3000);
+        assertTrue(request.isComplete());
+        assertTrue(request.getStalledShards(100_000).isEmpty());
+    }
+
+    @Test
+    public void testSlowShardIsStalledRelativeToFastestShard() {
+        ShardedDataRequest request = new ShardedDataRequest(2, 0);
+        List<DataShard> shards = request.getShards();
+        request.onRequested(shards.get(0), seed1, 0);
+        request.onRequested(shards.get(1), seed2, 0);
+
+        // Without any delivered shard we have no reference, so we leave it to the timeout of the request
+        assertTrue(request.getStalledShards(ShardedDataRequest.MIN_STALL_DURATION * 10).isEmpty());
+
+        long fastestDuration = ShardedDataRequest.MIN_STALL_DURATION;
+        request.onComplete(shards.get(0), seed1, 1000, fastestDuration);
+        assertTrue(request.getStalledShards(2 * fastestDuration).isEmpty());
+        assertEquals(Collections.singletonList(shards.get(1)), request.getStalledShards(4 * fastestDuration));
+
+        // The fast seed node is idle now, so it takes over the stalled shard
+        assertEquals(Optional.of(seed1), request.findFastestIdleNode(Set.of()));
+        request.onRequested(shards.get(1), seed1, 4 * fastestDuration);
+        assertEquals(Optional.empty(), request.findFastestIdleNode(Set.of()));
+        // The new request gets its own time
+        assertTrue(request.getStalledShards(5 * fastestDuration).isEmpty());
+
+        request.onComplete(shards.get(1), seed1, 1000, 5 * fastestDuration);
+        assertTrue(request.isComplete());
+    }
+
+    @Test
+    public void testShardWithoutOpenRequestIsStalled() {
+        ShardedDataRequest request = new ShardedDataRequest(2, 0);
+        List<DataShard> shards = request.getShards();
+        request.onRequested(shards.get(0), seed1, 0);
+        request.onRequested(shards.get(1), seed2, 0);
+
+        request.onFault(seed2);
+        assertTrue(request.hasFailed(seed2));
+        assertEquals(Collections.singletonList(shards.get(1)), request.getStalledShards(1));
+    }
+
+    @Test
+    public void testFastestIdleNodeIsPreferred() {
+        ShardedDataRequest request = new ShardedDataRequest(3, 0);
+        List<DataShard> shards = request.getShards();
+        request.onRequested(shards.get(0), seed1, 0);
+        request.onRequested(shards.get(1), seed2, 0);
+        request.onRequested(shards.get(2), seed3, 0);
+
+        // seed1 delivers 100 entries/sec, seed2 500 entries/sec
+        request.onComplete(shards.get(0), seed1, 1000, 10_000);
+        request.onComplete(shards.get(1), seed2, 1000, 2000);
+
+        assertEquals(Optional.of(seed2), request.findFastestIdleNode(Set.of()));
+        assertEquals(Optional.of(seed1), request.findFastestIdleNode(Set.of(seed2)));
+    }
+
+    @Test
+    public void testShardIsNotRequestedEndlessly() {
+        ShardedDataRequest request = new ShardedDataRequest(2, 0);
+        List<DataShard> shards = request.getShards();
+        request.onRequested(shards.get(0), seed1, 0);
+        request.onComplete(shards.get(0), seed1, 10, 1);
+
+        for (int i = 0; i < 3; i++) {
+            request.onRequested(shards.get(1), seed2, 0);
+            request.onFault(seed2);
+        }
+        assertTrue(request.getStalledShards(1000).isEmpty());
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.keepalive;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PeerLivenessTest {
+    private static final long MAX_IDLE_MS = 45_000;
+
+    @Test
+    public void testBusyPeerIsNotProbed() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        Random random = new Random(1);
+        long now = 0;
+        // A peer sending a message about every second, with some jitter from the link
+        for (int i = 0; i < 10_000; i++) {
+            now += 800 + random.nextInt(400);
+            liveness.onHeartbeat(now);
+            assertFalse(liveness.needsProbe(now));
+            assertFalse(liveness.isDead(now));
+        }
+        assertTrue(liveness.getPhi(now + 1000) < 1);
+    }
+
+    @Test
+    public void testSilenceOfBusyPeerLeadsToEarlyProbe() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += 1000;
+            liveness.onHeartbeat(now);
+        }
+
+        assertFalse(liveness.needsProbe(now + 2000));
+        // Much earlier than the idle interval
+        assertTrue(liveness.getPhi(now + 6000) >= PeerLiveness.PHI_SUSPECT);
+        assertTrue(liveness.needsProbe(now + 6000));
+    }
+
+    @Test
+    public void testIdlePeerIsProbedAfterMaxIdle() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        assertFalse(liveness.needsProbe(MAX_IDLE_MS - 1));
+        assertTrue(liveness.needsProbe(MAX_IDLE_MS));
+
+        liveness.onProbeSent(MAX_IDLE_MS);
+        assertFalse(liveness.needsProbe(MAX_IDLE_MS + 1000));
+    }
+
+    @Test
+    public void testUnansweredProbeOfBusyPeerIsDead() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += 1000;
+            liveness.onHeartbeat(now);
+        }
+
+        long probeTs = now + 6000;
+        liveness.onProbeSent(probeTs);
+        assertFalse(liveness.isDead(probeTs + liveness.getProbeTimeout() - 1));
+        assertTrue(liveness.isDead(probeTs + liveness.getProbeTimeout()));
+    }
+
+    @Test
+    public void testAnyTrafficAnswersProbe() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        liveness.onProbeSent(MAX_IDLE_MS);
+        liveness.onHeartbeat(MAX_IDLE_MS + 5000);
+
+        assertFalse(liveness.isDead(MAX_IDLE_MS + 5000 + liveness.getProbeTimeout()));
+    }
+
+    @Test
+    public void testPeerStreamingLargeMessageIsNotDead() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        long now = 0;
+        for (int i = 0; i < 100; i++) {
+            now += 1000;
+            liveness.onHeartbeat(now);
+        }
+
+        // The peer starts sending a large message and our ping is answered only after it is complete
+        long probeTs = now + 6000;
+        liveness.onProbeSent(probeTs);
+        long end = probeTs + 5 * liveness.getProbeTimeout();
+        for (now = probeTs; now < end; now += 5000) {
+            liveness.onRead(now - 2000);
+            assertFalse(liveness.isDead(now));
+            assertFalse(liveness.getPhi(now) >= PeerLiveness.PHI_SUSPECT);
+        }
+
+        // Once the bytes stop arriving we wait for the probe timeout again
+        long lastReadTs = now - 2000;
+        liveness.onRead(lastReadTs);
+        assertFalse(liveness.isDead(lastReadTs + liveness.getProbeTimeout() - 1));
+        assertTrue(liveness.isDead(lastReadTs + liveness.getProbeTimeout()));
+    }
+
+    @Test
+    public void testIdlePeerIsNotDeadWhileSilenceIsUsual() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        long now = 0;
+        // Only our pings and their pongs are exchanged
+        for (int i = 0; i < 20; i++) {
+            now += MAX_IDLE_MS;
+            liveness.onProbeSent(now);
+            now += 2000;
+            liveness.onHeartbeat(now);
+            liveness.onProbeAnswered(2000);
+        }
+
+        long probeTs = now + MAX_IDLE_MS;
+        liveness.onProbeSent(probeTs);
+        // Timeout passed, but a silence of 75 sec. is not unlikely enough for a peer with ~47 sec. intervals
+        assertFalse(liveness.isDead(probeTs + liveness.getProbeTimeout()));
+        assertTrue(liveness.isDead(probeTs + 3 * liveness.getProbeTimeout()));
+    }
+
+    @Test
+    public void testProbeTimeoutFollowsRoundTripTime() {
+        PeerLiveness liveness = new PeerLiveness(0, MAX_IDLE_MS);
+        assertEquals(30_000, liveness.getProbeTimeout());
+
+        // A fast link stays at the minimum timeout
+        for (int i = 0; i < 20; i++) {
+            liveness.onProbeAnswered(500);
+        }
+        assertEquals(30_000, liveness.getProbeTimeout());
+
+        // A slow link with lots of jitter, as with Tor, gets more time
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            liveness.onProbeAnswered(20_000 + random.nextInt(20_000));
+        }
+        assertTrue(liveness.getProbeTimeout() > 30_000);
+        assertTrue(liveness.getProbeTimeout() <= 90_000);
+    }
+}
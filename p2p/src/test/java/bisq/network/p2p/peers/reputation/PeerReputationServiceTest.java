@@ -0,0 +1,163 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.reputation;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.persistence.PersistenceManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class PeerReputationServiceTest {
+    private PeerReputationService service;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        service = new PeerReputationService(mock(PersistenceManager.class));
+    }
+
+    @Test
+    public void testUnknownPeerHasNeutralScore() {
+        assertEquals(0.5, service.getScore(new NodeAddress("unknown.onion", 9999), 0), 0.0001);
+    }
+
+    @Test
+    public void testReliablePeersAreSelectedFirst() {
+        // A simulated network where every peer fails with its own probability and has its own connect latency
+        Random random = new Random(42);
+        Map<NodeAddress, Double> failureRateByPeer = new HashMap<>();
+        Map<NodeAddress, Long> latencyByPeer = new HashMap<>();
+        List<NodeAddress> peers = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            NodeAddress nodeAddress = new NodeAddress("peer" + i + ".onion", 9999);
+            peers.add(nodeAddress);
+            failureRateByPeer.put(nodeAddress, i < 10 ? 0.05 : i < 20 ? 0.5 : 0.95);
+            latencyByPeer.put(nodeAddress, 2000L + random.nextInt(3000));
+        }
+
+        long now = 0;
+        for (int round = 0; round < 20; round++) {
+            for (NodeAddress nodeAddress : peers) {
+                now += 1000;
+                if (random.nextDouble() < failureRateByPeer.get(nodeAddress)) {
+                    service.onFailure(nodeAddress, "SOCKET_TIMEOUT", now);
+                } else {
+                    service.onConnectSuccess(nodeAddress, latencyByPeer.get(nodeAddress), now);
+                    service.onConnectionClosed(nodeAddress, 500, 10_000, now);
+                }
+            }
+        }
+
+        List<NodeAddress> candidates = new ArrayList<>(peers);
+        Collections.shuffle(candidates, random);
+        service.sortByRank(candidates, now);
+
+        // The best third are the peers which failed rarely, the worst third the peers which failed nearly always
+        for (int i = 0; i < 10; i++) {
+            assertTrue(failureRateByPeer.get(candidates.get(i)) < 0.1);
+            assertTrue(failureRateByPeer.get(candidates.get(i + 20)) > 0.9);
+        }
+
+        // The number of connection attempts until we hit a working peer is what matters for bootstrapping
+        assertTrue(countAttemptsToFirstSuccess(candidates, failureRateByPeer, random) <= 1);
+    }
+
+    @Test
+    public void testUnknownPeersAreTriedBeforeFailingPeers() {
+        NodeAddress failing = new NodeAddress("failing.onion", 9999);
+        NodeAddress unknown = new NodeAddress("unknown.onion", 9999);
+        NodeAddress good = new NodeAddress("good.onion", 9999);
+        for (int i = 0; i < 5; i++) {
+            service.onFailure(failing, "NO_CONNECTION", i);
+            service.onConnectSuccess(good, 3000, i);
+        }
+
+        List<NodeAddress> candidates = new ArrayList<>(List.of(failing, unknown, good));
+        service.sortByRank(candidates, 10);
+        assertEquals(List.of(good, unknown, failing), candidates);
+    }
+
+    @Test
+    public void testFailuresDecay() {
+        NodeAddress nodeAddress = new NodeAddress("peer.onion", 9999);
+        for (int i = 0; i < 10; i++) {
+            service.onFailure(nodeAddress, "NO_CONNECTION", 0);
+        }
+        double scoreAfterFailures = service.getScore(nodeAddress, 0);
+        assertTrue(scoreAfterFailures < 0.1);
+
+        // After a few half lifes the peer is close to an unknown peer again
+        long later = 5 * PeerReputation.HALF_LIFE;
+        assertTrue(service.getScore(nodeAddress, later) > 0.4);
+
+        // A new success counts more than the old failures
+        service.onConnectSuccess(nodeAddress, 0, later);
+        assertTrue(service.getScore(nodeAddress, later) > 0.5);
+    }
+
+    @Test
+    public void testSlowPeersRankBelowFastPeers() {
+        NodeAddress fast = new NodeAddress("fast.onion", 9999);
+        NodeAddress slow = new NodeAddress("slow.onion", 9999);
+        for (int i = 0; i < 10; i++) {
+            service.onConnectSuccess(fast, TimeUnit.SECONDS.toMillis(2), i);
+            service.onConnectSuccess(slow, TimeUnit.SECONDS.toMillis(60), i);
+        }
+
+        List<NodeAddress> candidates = new ArrayList<>(List.of(slow, fast));
+        service.sortByRank(candidates, 10);
+        assertEquals(List.of(fast, slow), candidates);
+    }
+
+    @Test
+    public void testSortIsStableWithinRank() {
+        List<NodeAddress> candidates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            candidates.add(new NodeAddress("peer" + i + ".onion", 9999));
+        }
+        List<NodeAddress> expected = new ArrayList<>(candidates);
+        service.sortByRank(candidates, 0);
+        assertEquals(expected, candidates);
+    }
+
+    private static int countAttemptsToFirstSuccess(List<NodeAddress> candidates,
+                                                   Map<NodeAddress, Double> failureRateByPeer,
+                                                   Random random) {
+        int attempts = 0;
+        for (NodeAddress nodeAddress : candidates) {
+            if (random.nextDouble() >= failureRateByPeer.get(nodeAddress))
+                return attempts;
+            attempts++;
+        }
+        return attempts;
+    }
+}
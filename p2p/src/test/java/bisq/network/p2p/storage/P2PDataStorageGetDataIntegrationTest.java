@@ -18,10 +18,14 @@
 package bisq.network.p2p.storage;
 
 import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.peers.getdata.DataShard;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
 import bisq.network.p2p.storage.mocks.PersistableExpirableProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
 import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 
@@ -31,6 +35,9 @@ import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Assert;
@@ -190,4 +197,100 @@ public class P2PDataStorageGetDataIntegrationTest {
         clientNodeTestState.verifyProtectedStorageRemove(
                 beforeState, onSeedNodeAndClientNode, false, false, false, false);
     }
+
+    // TESTCASE: The responses to the requests of all shards together contain the same data as the response to an
+    // unsharded request and no entry is delivered twice
+    @Test
+    public void shardedSynchronizationDeliversAllEntries() throws NoSuchAlgorithmException {
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        TestState clientNodeTestState = new TestState();
+        P2PDataStorage clientNode = clientNodeTestState.mockedStorage;
+
+        Random random = new Random(1);
+        for (int i = 0; i < 60; i++) {
+            byte[] hash = new byte[20];
+            random.nextBytes(hash);
+            PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(hash);
+            seedNode.addPersistableNetworkPayload(payload, null, false);
+            // The client knows some of the entries already
+            if (i % 4 == 0)
+                clientNode.addPersistableNetworkPayload(payload, null, false);
+        }
+        for (int i = 0; i < 10; i++) {
+            seedNode.addProtectedStorageEntry(getProtectedStorageEntry(), null, null);
+        }
+
+        GetDataResponse unshardedResponse = seedNode.buildGetDataResponse(
+                clientNode.buildPreliminaryGetDataRequest(1), 1000, new AtomicBoolean(), new AtomicBoolean(),
+                new Capabilities());
+        Assert.assertEquals(45, unshardedResponse.getPersistableNetworkPayloadSet().size());
+        Assert.assertEquals(10, unshardedResponse.getDataSet().size());
+
+        Set<PersistableNetworkPayload> persistableNetworkPayloads = new HashSet<>();
+        Set<ProtectedStorageEntry> protectedStorageEntries = new HashSet<>();
+        int numPersistableNetworkPayloads = 0;
+        int numProtectedStorageEntries = 0;
+        for (int i = 0; i < 3; i++) {
+            DataShard dataShard = new DataShard(3, i);
+            PreliminaryGetDataRequest getDataRequest = clientNode.buildPreliminaryGetDataRequest(1, dataShard, true);
+            getDataRequest.getExcludedKeys().forEach(hash -> Assert.assertTrue(dataShard.contains(hash)));
+
+            GetDataResponse getDataResponse = seedNode.buildGetDataResponse(
+                    getDataRequest, 1000, new AtomicBoolean(), new AtomicBoolean(), new Capabilities());
+            persistableNetworkPayloads.addAll(getDataResponse.getPersistableNetworkPayloadSet());
+            protectedStorageEntries.addAll(getDataResponse.getDataSet());
+            numPersistableNetworkPayloads += getDataResponse.getPersistableNetworkPayloadSet().size();
+            numProtectedStorageEntries += getDataResponse.getDataSet().size();
+        }
+
+        Assert.assertEquals(unshardedResponse.getPersistableNetworkPayloadSet(), persistableNetworkPayloads);
+        Assert.assertEquals(unshardedResponse.getDataSet(), protectedStorageEntries);
+        Assert.assertEquals(persistableNetworkPayloads.size(), numPersistableNetworkPayloads);
+        Assert.assertEquals(protectedStorageEntries.size(), numProtectedStorageEntries);
+    }
+
+    // TESTCASE: A sharded request to a seed node with unknown capabilities contains all known hashes, so a seed node
+    // ignoring the shard delivers the same data as for an unsharded request
+    @Test
+    public void shardedRequestWithAllKnownHashes() throws NoSuchAlgorithmException {
+        TestState seedNodeTestState = new TestState();
+        P2PDataStorage seedNode = seedNodeTestState.mockedStorage;
+
+        TestState clientNodeTestState = new TestState();
+        P2PDataStorage clientNode = clientNodeTestState.mockedStorage;
+
+        Random random = new Random(1);
+        for (int i = 0; i < 60; i++) {
+            byte[] hash = new byte[20];
+            random.nextBytes(hash);
+            PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(hash);
+            seedNode.addPersistableNetworkPayload(payload, null, false);
+            if (i % 4 == 0)
+                clientNode.addPersistableNetworkPayload(payload, null, false);
+        }
+
+        GetDataResponse unshardedResponse = seedNode.buildGetDataResponse(
+                clientNode.buildPreliminaryGetDataRequest(1), 1000, new AtomicBoolean(), new AtomicBoolean(),
+                new Capabilities());
+
+        DataShard dataShard = new DataShard(3, 0);
+        PreliminaryGetDataRequest getDataRequest = clientNode.buildPreliminaryGetDataRequest(1, dataShard, false);
+        Assert.assertEquals(15, getDataRequest.getExcludedKeys().size());
+
+        // A seed node not supporting sharding does not read the shard
+        PreliminaryGetDataRequest requestAsReadByOldSeedNode = new PreliminaryGetDataRequest(1,
+                getDataRequest.getExcludedKeys());
+        GetDataResponse fullResponse = seedNode.buildGetDataResponse(
+                requestAsReadByOldSeedNode, 1000, new AtomicBoolean(), new AtomicBoolean(), new Capabilities());
+        Assert.assertEquals(unshardedResponse.getPersistableNetworkPayloadSet(),
+                fullResponse.getPersistableNetworkPayloadSet());
+
+        // A seed node supporting sharding still delivers only the shard
+        GetDataResponse shardResponse = seedNode.buildGetDataResponse(
+                getDataRequest, 1000, new AtomicBoolean(), new AtomicBoolean(), new Capabilities());
+        shardResponse.getPersistableNetworkPayloadSet().forEach(payload ->
+                Assert.assertTrue(dataShard.contains(payload.getHash())));
+    }
 }
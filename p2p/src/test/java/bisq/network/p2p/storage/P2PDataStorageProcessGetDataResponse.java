@@ -19,6 +19,7 @@ package bisq.network.p2p.storage;
 
 import bisq.network.p2p.NodeAddress;
 import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.peers.getdata.DataShard;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
 import bisq.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
 import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
@@ -214,6 +215,41 @@ public class P2PDataStorageProcessGetDataResponse {
                 beforeState, addFromSecondProcess, false, false, false);
     }
 
+    // TESTCASE: If the initial request was sharded, the first response of each shard adds PNPs (LazyProcessed)
+    @Test
+    public void processGetDataResponse_eachShardProcessesPNP_LazyProcessed() {
+        PersistableNetworkPayload addFromFirstShard = new LazyPersistableNetworkPayloadStub(new byte[] { 1 });
+        GetDataResponse getDataResponse = buildGetDataResponse(addFromFirstShard);
+
+        TestState.SavedTestState beforeState = this.testState.saveTestState(addFromFirstShard);
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress, new DataShard(2, 0));
+        this.testState.verifyPersistableAdd(
+                beforeState, addFromFirstShard, true, false, false);
+
+        // A second response for the same shard is ignored
+        PersistableNetworkPayload addFromFirstShardAgain = new LazyPersistableNetworkPayloadStub(new byte[] { 2 });
+        getDataResponse = buildGetDataResponse(addFromFirstShardAgain);
+        beforeState = this.testState.saveTestState(addFromFirstShardAgain);
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress, new DataShard(2, 0));
+        this.testState.verifyPersistableAdd(
+                beforeState, addFromFirstShardAgain, false, false, false);
+
+        PersistableNetworkPayload addFromSecondShard = new LazyPersistableNetworkPayloadStub(new byte[] { 3 });
+        getDataResponse = buildGetDataResponse(addFromSecondShard);
+        beforeState = this.testState.saveTestState(addFromSecondShard);
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress, new DataShard(2, 1));
+        this.testState.verifyPersistableAdd(
+                beforeState, addFromSecondShard, true, false, false);
+
+        // After all shards got applied we ignore further responses
+        PersistableNetworkPayload addAfterAllShards = new LazyPersistableNetworkPayloadStub(new byte[] { 4 });
+        getDataResponse = buildGetDataResponse(addAfterAllShards);
+        beforeState = this.testState.saveTestState(addAfterAllShards);
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress);
+        this.testState.verifyPersistableAdd(
+                beforeState, addAfterAllShards, false, false, false);
+    }
+
     // TESTCASE: GetDataResponse w/ missing PSE is added with no broadcast or listener signal
     // XXXBUGXXX: We signal listeners for all ProtectedStorageEntrys
     @Test